@@ -0,0 +1,83 @@
+package com.bankingsystem.cache;
+
+import com.bankingsystem.model.Account;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of accounts keyed by account number. Entries are loaded without their pending
+ * ledger entries, so a busy account costs no more heap than a quiet one.
+ *
+ * <p>Writes invalidate rather than overwrite entries. A load is stored as its future before it starts, so an
+ * invalidation that races with it removes that future and the stale value only reaches the readers already
+ * waiting on it; putting the result of a write could instead let two concurrent updates store their balances out
+ * of order. Invalidation only reaches this instance, so the TTL bounds how stale a read can be when several
+ * account-service replicas run.
+ *
+ * <p>The loader runs on the calling thread outside the cache's own locks. Caffeine's synchronous
+ * {@code get(key, loader)} calls it inside a {@code synchronized} block, where a virtual thread waiting on Mongo
+ * pins its carrier; with few carriers that stalled the whole service.
+ *
+ * <p>Hit, miss, eviction and size metrics are published as {@code cache.*{cache=accounts}}.
+ */
+@Component
+public class AccountCache {
+
+    private final AsyncCache<String, Account> cache;
+
+    public AccountCache(@Value("${account.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${account.cache.expire-after-write-ms:5000}") long expireAfterWriteMs,
+                        MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accounts");
+    }
+
+    /**
+     * Returns the cached account or loads and caches it. Exceptions from the loader propagate and nothing
+     * is cached.
+     */
+    public Account get(String accountNumber, Function<String, Account> loader) {
+        CompletableFuture<Account> load = new CompletableFuture<>();
+        CompletableFuture<Account> entry = cache.get(accountNumber, (key, executor) -> load);
+        if (entry == load) {
+            try {
+                load.complete(loader.apply(accountNumber));
+            } catch (RuntimeException e) {
+                // Caffeine drops a future that completes exceptionally
+                load.completeExceptionally(e);
+            }
+        }
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public void invalidate(String accountNumber) {
+        cache.synchronous().invalidate(accountNumber);
+    }
+
+    public void invalidateAll(Collection<String> accountNumbers) {
+        cache.synchronous().invalidateAll(accountNumbers);
+    }
+
+    public long size() {
+        cache.synchronous().cleanUp();
+        return cache.synchronous().estimatedSize();
+    }
+}
@@ -2,8 +2,14 @@ package com.bankingsystem.controller;
 
 
 import com.bankingsystem.model.Account;
+import com.bankingsystem.model.AccountNumber;
+import com.bankingsystem.model.dto.AccountLookupRequest;
 import com.bankingsystem.model.dto.BalanceRequest;
+import com.bankingsystem.model.dto.BalanceUpdateResult;
+import com.bankingsystem.model.dto.BulkBalanceRequest;
 import com.bankingsystem.model.dto.CreateAccountRequest;
+import com.bankingsystem.model.dto.DebitRequest;
+import com.bankingsystem.model.dto.HistoricalBalance;
 import com.bankingsystem.model.dto.StatusRequest;
 import com.bankingsystem.service.AccountService;
 import jakarta.validation.Valid;
@@ -12,6 +18,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.util.List;
+
 
 @RestController
 @RequestMapping("/api/accounts")
@@ -27,20 +36,51 @@ public class AccountController {
     }
 
     @GetMapping("/{accountNumber}")
-    public ResponseEntity<Account> getAccount(@PathVariable String accountNumber) {
-        Account account = accountService.getAccount(accountNumber);
+    public ResponseEntity<Account> getAccount(@PathVariable @AccountNumber String accountNumber,
+                                              @RequestParam(defaultValue = "false") boolean consistent) {
+        Account account = accountService.getAccount(accountNumber, consistent);
         return ResponseEntity.ok(account);
     }
 
+    @PostMapping("/lookup")
+    public ResponseEntity<List<Account>> lookupAccounts(@Valid @RequestBody AccountLookupRequest request) {
+        List<Account> accounts = accountService.lookupAccounts(request.getAccountNumbers());
+        return ResponseEntity.ok(accounts);
+    }
+
     @PutMapping("/{accountNumber}/balance")
-    public ResponseEntity<Account> updateBalance(@PathVariable String accountNumber,
+    public ResponseEntity<Account> updateBalance(@PathVariable @AccountNumber String accountNumber,
                                                  @Valid @RequestBody BalanceRequest request) {
-        Account updatedAccount = accountService.updateBalance(accountNumber, request.getAmount());
+        Account updatedAccount = accountService.updateBalance(accountNumber, request.getAmount(), request.getOperationId());
+        return ResponseEntity.ok(updatedAccount);
+    }
+
+    /**
+     * The balance as it was at {@code asOf} (ISO-8601, e.g. 2024-05-01T12:00:00Z), replayed from the ledger.
+     * Without {@code asOf}, the current balance computed the same way.
+     */
+    @GetMapping("/{accountNumber}/balance")
+    public ResponseEntity<HistoricalBalance> getBalanceAsOf(@PathVariable @AccountNumber String accountNumber,
+                                                            @RequestParam(required = false) Instant asOf) {
+        HistoricalBalance balance = accountService.getBalanceAsOf(accountNumber, asOf != null ? asOf : Instant.now());
+        return ResponseEntity.ok(balance);
+    }
+
+    @PutMapping("/{accountNumber}/debit")
+    public ResponseEntity<Account> debit(@PathVariable @AccountNumber String accountNumber,
+                                         @Valid @RequestBody DebitRequest request) {
+        Account updatedAccount = accountService.debit(accountNumber, request.getAmount(), request.getOperationId());
         return ResponseEntity.ok(updatedAccount);
     }
 
+    @PutMapping("/balances")
+    public ResponseEntity<List<BalanceUpdateResult>> updateBalances(@Valid @RequestBody BulkBalanceRequest request) {
+        List<BalanceUpdateResult> results = accountService.updateBalances(request);
+        return ResponseEntity.ok(results);
+    }
+
     @PutMapping("/{accountNumber}/status")
-    public ResponseEntity<Account> updateStatus(@PathVariable String accountNumber,
+    public ResponseEntity<Account> updateStatus(@PathVariable @AccountNumber String accountNumber,
                                                 @Valid @RequestBody StatusRequest request) {
         Account updatedAccount = accountService.updateStatus(accountNumber, request.getStatus());
         return ResponseEntity.ok(updatedAccount);
@@ -0,0 +1,8 @@
+package com.bankingsystem.exception;
+
+
+public class AccountInactiveException extends RuntimeException {
+    public AccountInactiveException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.bankingsystem.exception;
+
+
+public class InsufficientFundsException extends RuntimeException {
+    public InsufficientFundsException(String message) {
+        super(message);
+    }
+}
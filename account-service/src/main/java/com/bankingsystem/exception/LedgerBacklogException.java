@@ -0,0 +1,8 @@
+package com.bankingsystem.exception;
+
+
+public class LedgerBacklogException extends RuntimeException {
+    public LedgerBacklogException(String message) {
+        super(message);
+    }
+}
@@ -1,9 +1,12 @@
 package com.bankingsystem.model;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 @Document(collection = "accounts")
 public class Account {
@@ -13,14 +16,25 @@ public class Account {
     @Indexed(unique = true)
     private String accountNumber;
     private String holderName;
-    private double balance;
+    private long balance;           // minor units, see Money
     private String status;
     private Date createdAt;
 
+    // Balance changes not yet copied to the ledger collection, appended by the same update that changes the balance
+    @JsonIgnore
+    private List<PendingLedgerEntry> pendingLedger = new ArrayList<>();
+
+    // Sequence number and running balance of the last entry copied to the ledger
+    @JsonIgnore
+    private long ledgerSeq;
+
+    @JsonIgnore
+    private long ledgerBalance;
+
     public Account(String accountNumber, String holderName) {
         this.accountNumber = accountNumber;
         this.holderName = holderName;
-        this.balance = 0.0;
+        this.balance = 0;
         this.status = "ACTIVE";
         this.createdAt = new Date();
     }
@@ -51,12 +65,12 @@ public class Account {
         this.holderName = holderName;
     }
 
-    public double getBalance() {
-        return balance;
+    public Money getBalance() {
+        return Money.ofMinor(balance);
     }
 
-    public void setBalance(double balance) {
-        this.balance = balance;
+    public void setBalance(Money balance) {
+        this.balance = balance.getMinorUnits();
     }
 
     public String getStatus() {
@@ -74,6 +88,42 @@ public class Account {
     public void setCreatedAt(Date createdAt) {
         this.createdAt = createdAt;
     }
+
+    public List<PendingLedgerEntry> getPendingLedger() {
+        return pendingLedger;
+    }
+
+    public void setPendingLedger(List<PendingLedgerEntry> pendingLedger) {
+        this.pendingLedger = pendingLedger;
+    }
+
+    public long getLedgerSeq() {
+        return ledgerSeq;
+    }
+
+    public void setLedgerSeq(long ledgerSeq) {
+        this.ledgerSeq = ledgerSeq;
+    }
+
+    public Money getLedgerBalance() {
+        return Money.ofMinor(ledgerBalance);
+    }
+
+    public void setLedgerBalance(Money ledgerBalance) {
+        this.ledgerBalance = ledgerBalance.getMinorUnits();
+    }
+
+    /**
+     * The balance before the first pending change; what the ledger opens with when it has no entries yet.
+     */
+    public Money balanceBeforePending() {
+        Money before = getBalance();
+        for (PendingLedgerEntry change : pendingLedger) {
+            before = before.minus(change.getAmount());
+        }
+        return before;
+    }
+
     @Override
     public String toString() {
         return "Account{" +
@@ -0,0 +1,35 @@
+package com.bankingsystem.model;
+
+import com.bankingsystem.service.AccountNumberAllocator;
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An account number as {@link AccountNumberAllocator#isWellFormed(String)} defines it, so a mistyped one is
+ * rejected with 400 before it reaches Mongo. Null and blank are valid; combine with {@code @NotBlank}.
+ */
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.TYPE_USE})
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = AccountNumber.Validator.class)
+public @interface AccountNumber {
+
+    String message() default "Account number is not valid";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    class Validator implements ConstraintValidator<AccountNumber, String> {
+        @Override
+        public boolean isValid(String value, ConstraintValidatorContext context) {
+            return value == null || value.isBlank() || AccountNumberAllocator.isWellFormed(value);
+        }
+    }
+}
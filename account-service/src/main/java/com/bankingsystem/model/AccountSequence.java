@@ -0,0 +1,33 @@
+package com.bankingsystem.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Named counter from which account-service instances reserve blocks of account number sequence values.
+ */
+@Document(collection = "account_sequences")
+public class AccountSequence {
+    @Id
+    private String id;
+    private long next;          // first value not yet reserved by any instance
+
+    public AccountSequence() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getNext() {
+        return next;
+    }
+
+    public void setNext(long next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,73 @@
+package com.bankingsystem.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * The balance of an account right after ledger entry {@code seq}, so a replay starts here instead of at
+ * the first entry.
+ */
+@Document(collection = "balance_snapshots")
+@CompoundIndex(name = "account_seq", def = "{'accountNumber': 1, 'seq': 1}", unique = true)
+public class BalanceSnapshot {
+    @Id
+    private String id;
+    private String accountNumber;
+    private long seq;
+    private long balance;     // minor units, see Money
+    private Instant asOf;       // occurredAt of entry seq
+
+    public BalanceSnapshot(String accountNumber, long seq, Money balance, Instant asOf) {
+        this.accountNumber = accountNumber;
+        this.seq = seq;
+        this.balance = balance.getMinorUnits();
+        this.asOf = asOf;
+    }
+
+    public BalanceSnapshot() {
+
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public Money getBalance() {
+        return Money.ofMinor(balance);
+    }
+
+    public void setBalance(Money balance) {
+        this.balance = balance.getMinorUnits();
+    }
+
+    public Instant getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(Instant asOf) {
+        this.asOf = asOf;
+    }
+}
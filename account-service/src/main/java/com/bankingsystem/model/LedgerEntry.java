@@ -0,0 +1,100 @@
+package com.bankingsystem.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * One balance change of one account. Entries are numbered 1, 2, 3... per account without gaps and never
+ * change once written; the unique (accountNumber, seq) index makes writing the same entry twice a no-op.
+ * The ledger is also the lasting record of which operation ids were applied to an account, at most once each.
+ */
+@Document(collection = "ledger")
+@CompoundIndex(name = "account_seq", def = "{'accountNumber': 1, 'seq': 1}", unique = true)
+@CompoundIndex(name = "account_operation", def = "{'accountNumber': 1, 'operationId': 1}", unique = true,
+        partialFilter = "{'operationId': {'$exists': true}}")
+public class LedgerEntry {
+    public static final String OPENING = "OPENING";    // balance the account already had when its ledger started
+    public static final String CREDIT = "CREDIT";
+    public static final String DEBIT = "DEBIT";
+
+    @Id
+    private String id;
+    private String accountNumber;
+    private long seq;
+    private String type;
+    private long amount;     // minor units, see Money
+    private String operationId;
+    private Instant occurredAt;
+
+    public LedgerEntry(String accountNumber, long seq, String type, Money amount, String operationId, Instant occurredAt) {
+        this.accountNumber = accountNumber;
+        this.seq = seq;
+        this.type = type;
+        this.amount = amount.getMinorUnits();
+        this.operationId = operationId;
+        this.occurredAt = occurredAt;
+    }
+
+    public LedgerEntry() {
+
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Money getAmount() {
+        return Money.ofMinor(amount);
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount.getMinorUnits();
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
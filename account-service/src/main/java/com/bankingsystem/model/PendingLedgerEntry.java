@@ -0,0 +1,59 @@
+package com.bankingsystem.model;
+
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+
+/**
+ * A balance change recorded on the account document itself, so it is written atomically with the change.
+ * {@code LedgerWriter} moves it to the ledger collection and removes it from the account.
+ */
+public class PendingLedgerEntry {
+    private String entryId;     // not "id", which Spring Data would store as an ObjectId _id
+    private long amount;     // minor units, see Money
+    private String operationId;
+    private Instant occurredAt;
+
+    public PendingLedgerEntry(Money amount, String operationId) {
+        this.entryId = new ObjectId().toHexString();
+        this.amount = amount.getMinorUnits();
+        this.operationId = operationId;
+        this.occurredAt = Instant.now();
+    }
+
+    public PendingLedgerEntry() {
+
+    }
+
+    public String getEntryId() {
+        return entryId;
+    }
+
+    public void setEntryId(String entryId) {
+        this.entryId = entryId;
+    }
+
+    public Money getAmount() {
+        return Money.ofMinor(amount);
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount.getMinorUnits();
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
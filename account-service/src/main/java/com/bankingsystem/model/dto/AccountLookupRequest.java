@@ -0,0 +1,22 @@
+package com.bankingsystem.model.dto;
+
+import com.bankingsystem.model.AccountNumber;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class AccountLookupRequest {
+    @NotEmpty(message = "At least one account number is required")
+    @Size(max = 1000, message = "At most 1000 account numbers can be looked up at once")
+    private List<@NotBlank(message = "Account number cannot be empty") @AccountNumber String> accountNumbers;
+
+    public List<String> getAccountNumbers() {
+        return accountNumbers;
+    }
+
+    public void setAccountNumbers(List<String> accountNumbers) {
+        this.accountNumbers = accountNumbers;
+    }
+}
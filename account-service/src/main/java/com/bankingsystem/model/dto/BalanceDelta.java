@@ -0,0 +1,39 @@
+package com.bankingsystem.model.dto;
+
+import com.bankingsystem.model.AccountNumber;
+import com.bankingsystem.model.Money;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class BalanceDelta {
+    @NotBlank(message = "Account number is required")
+    @AccountNumber
+    private String accountNumber;
+
+    @NotNull(message = "Amount is required")
+    private Money amount;
+
+    public BalanceDelta() {
+    }
+
+    public BalanceDelta(String accountNumber, Money amount) {
+        this.accountNumber = accountNumber;
+        this.amount = amount;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+}
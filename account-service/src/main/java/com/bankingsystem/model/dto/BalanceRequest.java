@@ -1,17 +1,28 @@
 package com.bankingsystem.model.dto;
 
+import com.bankingsystem.model.Money;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 
 public class BalanceRequest {
     @NotNull(message = "Amount is required")
-    private Double amount;
+    private Money amount;
 
-    public Double getAmount() {
+    // Optional; an operation id is applied at most once per account
+    private String operationId;
+
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
 }
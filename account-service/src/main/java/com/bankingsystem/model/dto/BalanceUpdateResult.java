@@ -0,0 +1,52 @@
+package com.bankingsystem.model.dto;
+
+import com.bankingsystem.model.Money;
+
+public class BalanceUpdateResult {
+    private String accountNumber;
+    private boolean applied;
+    private Money balance;
+    private String reason;      // NOT_FOUND, INACTIVE, INSUFFICIENT_FUNDS when not applied
+
+    public BalanceUpdateResult() {
+    }
+
+    public BalanceUpdateResult(String accountNumber, boolean applied, Money balance, String reason) {
+        this.accountNumber = accountNumber;
+        this.applied = applied;
+        this.balance = balance;
+        this.reason = reason;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public Money getBalance() {
+        return balance;
+    }
+
+    public void setBalance(Money balance) {
+        this.balance = balance;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bankingsystem.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class BulkBalanceRequest {
+    @NotBlank(message = "Operation id is required")
+    private String operationId;
+
+    @NotEmpty(message = "At least one balance delta is required")
+    private List<@Valid BalanceDelta> deltas;
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
+
+    public List<BalanceDelta> getDeltas() {
+        return deltas;
+    }
+
+    public void setDeltas(List<BalanceDelta> deltas) {
+        this.deltas = deltas;
+    }
+}
@@ -0,0 +1,30 @@
+package com.bankingsystem.model.dto;
+
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.PositiveAmount;
+import jakarta.validation.constraints.NotNull;
+
+public class DebitRequest {
+    @NotNull(message = "Amount is required")
+    @PositiveAmount
+    private Money amount;
+
+    // Optional; an operation id is applied at most once per account
+    private String operationId;
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
+}
@@ -0,0 +1,64 @@
+package com.bankingsystem.model.dto;
+
+import com.bankingsystem.model.Money;
+
+import java.time.Instant;
+
+public class HistoricalBalance {
+    private String accountNumber;
+    private Instant asOf;
+    private Money balance;
+    private long snapshotSeq;       // ledger seq of the snapshot the replay started from, 0 if none
+    private int replayedEntries;
+
+    public HistoricalBalance() {
+    }
+
+    public HistoricalBalance(String accountNumber, Instant asOf, Money balance, long snapshotSeq, int replayedEntries) {
+        this.accountNumber = accountNumber;
+        this.asOf = asOf;
+        this.balance = balance;
+        this.snapshotSeq = snapshotSeq;
+        this.replayedEntries = replayedEntries;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public Instant getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(Instant asOf) {
+        this.asOf = asOf;
+    }
+
+    public Money getBalance() {
+        return balance;
+    }
+
+    public void setBalance(Money balance) {
+        this.balance = balance;
+    }
+
+    public long getSnapshotSeq() {
+        return snapshotSeq;
+    }
+
+    public void setSnapshotSeq(long snapshotSeq) {
+        this.snapshotSeq = snapshotSeq;
+    }
+
+    public int getReplayedEntries() {
+        return replayedEntries;
+    }
+
+    public void setReplayedEntries(int replayedEntries) {
+        this.replayedEntries = replayedEntries;
+    }
+}
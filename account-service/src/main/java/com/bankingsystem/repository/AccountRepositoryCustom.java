@@ -0,0 +1,65 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.Account;
+import com.bankingsystem.model.Money;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface AccountRepositoryCustom {
+
+    /**
+     * The account without its pending ledger entries, which can number up to {@code ledger.max-pending}, for
+     * reads that only need balance and status. The result must not be saved back whole.
+     */
+    Optional<Account> findSummary(String accountNumber);
+
+    /** {@link #findSummary} for several accounts in one query; numbers that do not exist are left out. */
+    List<Account> findSummaries(Collection<String> accountNumbers);
+
+    /**
+     * Atomically adds {@code amount} to the balance of an ACTIVE account.
+     * Returns the updated account, or {@code null} when the account does not exist, is not ACTIVE,
+     * the change would leave a negative balance, or {@code operationId} (optional) was already applied.
+     * The change is queued on the account for the ledger in the same update; if {@code ledger.max-pending}
+     * changes are already queued, they are flushed first; if those flushes keep acknowledging nothing, it throws
+     * {@link com.bankingsystem.exception.LedgerBacklogException} instead of holding the thread.
+     *
+     * <p>An operation counts as applied while it is queued on the account and, once flushed, for as long as
+     * its ledger entry exists, so a retry is recognised however late it comes. Checking the ledger costs two
+     * reads before the update, which is why operations without an id skip it.
+     */
+    Account incrementBalance(String accountNumber, Money amount, String operationId);
+
+    /**
+     * Applies every delta with the same guards as {@link #incrementBalance} in unordered bulkWrites, queuing
+     * each change under {@code operationId}. Accounts that already have a change for {@code operationId} are
+     * skipped, so retrying an operation never applies it twice. Returns the touched accounts as they are after
+     * the write; {@link #findApplied} tells which deltas took effect.
+     */
+    List<Account> applyBalanceDeltas(String operationId, Map<String, Money> deltas);
+
+    /** The accounts among {@code accountNumbers} that {@code operationId} has been applied to. */
+    Set<String> findApplied(String operationId, Collection<String> accountNumbers);
+
+    /**
+     * Sets the status with a targeted update, leaving balance and pending ledger entries written concurrently
+     * untouched. Returns the updated account, or {@code null} when it does not exist.
+     */
+    Account updateStatus(String accountNumber, String status);
+
+    /** Up to {@code limit} accounts that have balance changes not yet copied to the ledger. */
+    List<Account> findWithPendingLedger(int limit);
+
+    /**
+     * Copies the account's pending balance changes to the {@code ledger} collection, numbered on from its
+     * {@code ledgerSeq}, snapshots the running balance every {@code ledger.snapshot-every} entries and removes the
+     * copied changes from the account. Safe to repeat and to race: entries and snapshots that already exist are
+     * skipped, and the account is only updated if its {@code ledgerSeq} is still the one in {@code account}.
+     * Returns the number of entries written, or 0 if another flush got there first.
+     */
+    int flushLedger(Account account);
+}
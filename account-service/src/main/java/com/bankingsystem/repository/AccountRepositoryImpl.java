@@ -0,0 +1,288 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.exception.LedgerBacklogException;
+import com.bankingsystem.model.Account;
+import com.bankingsystem.model.BalanceSnapshot;
+import com.bankingsystem.model.LedgerEntry;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.PendingLedgerEntry;
+import com.mongodb.ErrorCategory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class AccountRepositoryImpl implements AccountRepositoryCustom {
+
+    // Inline flushes of a full pending list that acknowledge nothing before a write gives up
+    static final int MAX_STALLED_FLUSHES = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final int snapshotEvery;
+    private final int maxPendingLedger;
+
+    public AccountRepositoryImpl(MongoTemplate mongoTemplate) {
+        this(mongoTemplate, 100, 500);
+    }
+
+    @Autowired
+    public AccountRepositoryImpl(MongoTemplate mongoTemplate,
+                                 @Value("${ledger.snapshot-every:100}") int snapshotEvery,
+                                 @Value("${ledger.max-pending:500}") int maxPendingLedger) {
+        if (snapshotEvery < 1 || maxPendingLedger < 1) {
+            throw new IllegalArgumentException("ledger.snapshot-every and ledger.max-pending must be at least 1");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.snapshotEvery = snapshotEvery;
+        this.maxPendingLedger = maxPendingLedger;
+    }
+
+    @Override
+    public Optional<Account> findSummary(String accountNumber) {
+        Query query = new Query(Criteria.where("accountNumber").is(accountNumber));
+        return Optional.ofNullable(mongoTemplate.findOne(withoutPendingLedger(query), Account.class));
+    }
+
+    @Override
+    public List<Account> findSummaries(Collection<String> accountNumbers) {
+        Query query = new Query(Criteria.where("accountNumber").in(accountNumbers));
+        return mongoTemplate.find(withoutPendingLedger(query), Account.class);
+    }
+
+    @Override
+    public Account incrementBalance(String accountNumber, Money amount, String operationId) {
+        int stalledFlushes = 0;
+        while (true) {
+            Criteria criteria = balanceGuard(accountNumber, amount)
+                    .and("pendingLedger." + (maxPendingLedger - 1)).exists(false);
+            Long ledgerSeq = null;
+            if (operationId != null) {
+                ledgerSeq = ledgerSeqs(List.of(accountNumber)).get(accountNumber);
+                if (ledgerSeq == null || !flushedOperation(operationId, List.of(accountNumber)).isEmpty()) {
+                    return null;
+                }
+                criteria = unappliedGuard(criteria, operationId, ledgerSeq);
+            }
+            Update update = new Update()
+                    .inc("balance", amount.getMinorUnits())
+                    .push("pendingLedger", new PendingLedgerEntry(amount, operationId));
+            Account updated = mongoTemplate.findAndModify(withoutPendingLedger(new Query(criteria)), update,
+                    FindAndModifyOptions.options().returnNew(true), Account.class);
+            if (updated != null) {
+                return updated;
+            }
+            // Rejected by one of the guards. If it was the pending-ledger cap, the background flush has fallen
+            // behind on this account: drain it here and try again. If a flush moved the ledger on since we
+            // looked, check the ledger again. Anything else is the caller's to report
+            Query full = new Query(Criteria.where("accountNumber").is(accountNumber)
+                    .and("pendingLedger." + (maxPendingLedger - 1)).exists(true));
+            Account backlogged = mongoTemplate.findOne(full, Account.class);
+            if (backlogged != null) {
+                if (flushLedger(backlogged) == 0 && ++stalledFlushes == MAX_STALLED_FLUSHES) {
+                    throw new LedgerBacklogException("The ledger of account " + accountNumber
+                            + " is not accepting new entries; try again later");
+                }
+            } else if (ledgerSeq == null || ledgerSeq.equals(ledgerSeqs(List.of(accountNumber)).get(accountNumber))) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public List<Account> applyBalanceDeltas(String operationId, Map<String, Money> deltas) {
+        Map<String, Money> remaining = new LinkedHashMap<>(deltas);
+        while (!remaining.isEmpty()) {
+            Map<String, Long> ledgerSeqs = ledgerSeqs(remaining.keySet());
+            remaining.keySet().removeIf(accountNumber -> !ledgerSeqs.containsKey(accountNumber));
+            remaining.keySet().removeAll(flushedOperation(operationId, remaining.keySet()));
+            if (remaining.isEmpty()) {
+                break;
+            }
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Account.class);
+            remaining.forEach((accountNumber, amount) -> {
+                Criteria criteria = unappliedGuard(balanceGuard(accountNumber, amount), operationId,
+                        ledgerSeqs.get(accountNumber));
+                Update update = new Update()
+                        .inc("balance", amount.getMinorUnits())
+                        .push("pendingLedger", new PendingLedgerEntry(amount, operationId));
+                bulk.updateOne(new Query(criteria), update);
+            });
+            bulk.execute();
+
+            // Accounts whose ledger a flush moved on meanwhile may have been skipped; go through them again.
+            // Repeating is safe for the others too, the guards see their change in the ledger or pending list
+            Map<String, Long> after = ledgerSeqs(remaining.keySet());
+            remaining.keySet().removeIf(accountNumber -> ledgerSeqs.get(accountNumber).equals(after.get(accountNumber)));
+        }
+
+        Query touched = new Query(Criteria.where("accountNumber").in(deltas.keySet()));
+        return mongoTemplate.find(withoutPendingLedger(touched), Account.class);
+    }
+
+    @Override
+    public Set<String> findApplied(String operationId, Collection<String> accountNumbers) {
+        // Pending list first: a flush writes the ledger entry before it removes the pending one, so an operation
+        // missed here because it was just flushed is already in the ledger below
+        Query pending = new Query(Criteria.where("accountNumber").in(accountNumbers)
+                .and("pendingLedger.operationId").is(operationId));
+        pending.fields().include("accountNumber");
+        Set<String> applied = new HashSet<>();
+        mongoTemplate.find(pending, Account.class).forEach(account -> applied.add(account.getAccountNumber()));
+        applied.addAll(flushedOperation(operationId, accountNumbers));
+        return applied;
+    }
+
+    @Override
+    public Account updateStatus(String accountNumber, String status) {
+        Query query = new Query(Criteria.where("accountNumber").is(accountNumber));
+        return mongoTemplate.findAndModify(withoutPendingLedger(query), new Update().set("status", status),
+                FindAndModifyOptions.options().returnNew(true), Account.class);
+    }
+
+    @Override
+    public List<Account> findWithPendingLedger(int limit) {
+        Query query = new Query(Criteria.where("pendingLedger.0").exists(true)).limit(limit);
+        return mongoTemplate.find(query, Account.class);
+    }
+
+    @Override
+    public int flushLedger(Account account) {
+        List<PendingLedgerEntry> pending = account.getPendingLedger();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        String accountNumber = account.getAccountNumber();
+        long seq = account.getLedgerSeq();
+        Money balance = account.getLedgerBalance();
+        List<LedgerEntry> entries = new ArrayList<>(pending.size() + 1);
+        List<BalanceSnapshot> snapshots = new ArrayList<>();
+
+        if (seq == 0) {
+            Money opening = account.balanceBeforePending();
+            if (!opening.isZero()) {
+                seq++;
+                balance = opening;
+                LedgerEntry entry = new LedgerEntry(accountNumber, seq, LedgerEntry.OPENING, opening, null,
+                        pending.get(0).getOccurredAt());
+                entries.add(entry);
+                addSnapshotIfDue(snapshots, entry, balance);
+            }
+        }
+
+        List<String> ids = new ArrayList<>(pending.size());
+        for (PendingLedgerEntry change : pending) {
+            seq++;
+            balance = balance.plus(change.getAmount());
+            LedgerEntry entry = new LedgerEntry(accountNumber, seq,
+                    change.getAmount().isNegative() ? LedgerEntry.DEBIT : LedgerEntry.CREDIT,
+                    change.getAmount(), change.getOperationId(), change.getOccurredAt());
+            entries.add(entry);
+            addSnapshotIfDue(snapshots, entry, balance);
+            ids.add(change.getEntryId());
+        }
+
+        insertIgnoringDuplicates(entries, LedgerEntry.class);
+        insertIgnoringDuplicates(snapshots, BalanceSnapshot.class);
+
+        // Only if nobody acknowledged past where we started; otherwise they wrote the same entries
+        Query query = new Query(atLedgerSeq(Criteria.where("accountNumber").is(accountNumber), account.getLedgerSeq()));
+        Update update = new Update()
+                .set("ledgerSeq", seq)
+                .set("ledgerBalance", balance.getMinorUnits())
+                .pull("pendingLedger", Query.query(Criteria.where("entryId").in(ids)));
+        return mongoTemplate.updateFirst(query, update, Account.class).getModifiedCount() > 0 ? entries.size() : 0;
+    }
+
+    private void addSnapshotIfDue(List<BalanceSnapshot> snapshots, LedgerEntry entry, Money balance) {
+        if (entry.getSeq() % snapshotEvery == 0) {
+            snapshots.add(new BalanceSnapshot(entry.getAccountNumber(), entry.getSeq(), balance, entry.getOccurredAt()));
+        }
+    }
+
+    /**
+     * Entries and snapshots are keyed by (accountNumber, seq), so one that already exists was written by an
+     * earlier flush that stopped before acknowledging, and is identical.
+     */
+    private void insertIgnoringDuplicates(List<?> documents, Class<?> type) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type).insert(documents).execute();
+        } catch (BulkOperationException e) {
+            boolean onlyDuplicates = e.getErrors().stream()
+                    .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Callers of the reads and write paths only look at balance and status; leave the pending ledger entries,
+     * which can number in the hundreds on a busy account between flushes, on the server.
+     */
+    private static Query withoutPendingLedger(Query query) {
+        query.fields().exclude("pendingLedger");
+        return query;
+    }
+
+    /**
+     * Matches only while {@code operationId} is not in the account's pending list and no flush has moved the
+     * ledger on from {@code ledgerSeq}, read before the ledger was checked for the operation. Together the two
+     * mean the operation is in neither place, whatever a concurrent flush does.
+     */
+    private static Criteria unappliedGuard(Criteria criteria, String operationId, long ledgerSeq) {
+        return atLedgerSeq(criteria, ledgerSeq).and("pendingLedger.operationId").ne(operationId);
+    }
+
+    /**
+     * {@code ledgerSeq} equals {@code seq}. At 0 an account without the field matches too: it was created before
+     * the ledger, and {@link LedgerMigration} has not reached it or an older instance created it afterwards.
+     */
+    private static Criteria atLedgerSeq(Criteria criteria, long seq) {
+        return seq == 0 ? criteria.and("ledgerSeq").in(0L, null) : criteria.and("ledgerSeq").is(seq);
+    }
+
+    private Map<String, Long> ledgerSeqs(Collection<String> accountNumbers) {
+        Query query = new Query(Criteria.where("accountNumber").in(accountNumbers));
+        query.fields().include("accountNumber", "ledgerSeq");
+        Map<String, Long> seqs = new HashMap<>();
+        mongoTemplate.find(query, Account.class).forEach(account -> seqs.put(account.getAccountNumber(), account.getLedgerSeq()));
+        return seqs;
+    }
+
+    /** Accounts among {@code accountNumbers} whose ledger already has an entry for {@code operationId}. */
+    private Set<String> flushedOperation(String operationId, Collection<String> accountNumbers) {
+        Query query = new Query(Criteria.where("accountNumber").in(accountNumbers).and("operationId").is(operationId));
+        query.fields().include("accountNumber");
+        Set<String> flushed = new HashSet<>();
+        mongoTemplate.find(query, LedgerEntry.class).forEach(entry -> flushed.add(entry.getAccountNumber()));
+        return flushed;
+    }
+
+    private Criteria balanceGuard(String accountNumber, Money amount) {
+        Criteria criteria = Criteria.where("accountNumber").is(accountNumber).and("status").is("ACTIVE");
+        if (amount.isNegative()) {
+            // Guard inside the update filter so concurrent debits can never overdraw the account
+            criteria = criteria.and("balance").gte(amount.negate().getMinorUnits());
+        }
+        return criteria;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.AccountSequence;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountSequenceRepository extends MongoRepository<AccountSequence, String>, AccountSequenceRepositoryCustom {
+}
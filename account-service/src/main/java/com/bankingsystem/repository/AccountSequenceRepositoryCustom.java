@@ -0,0 +1,10 @@
+package com.bankingsystem.repository;
+
+public interface AccountSequenceRepositoryCustom {
+
+    /**
+     * Atomically reserves {@code size} consecutive values of the named sequence, creating it on first use,
+     * and returns the first one. Values are never handed out twice, even across instances.
+     */
+    long reserveBlock(String sequence, int size);
+}
@@ -0,0 +1,27 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.AccountSequence;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+public class AccountSequenceRepositoryImpl implements AccountSequenceRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public AccountSequenceRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public long reserveBlock(String sequence, int size) {
+        AccountSequence updated = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(sequence)),
+                new Update().inc("next", size),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                AccountSequence.class);
+        return updated.getNext() - size;
+    }
+}
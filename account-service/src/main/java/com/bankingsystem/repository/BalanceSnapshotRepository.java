@@ -0,0 +1,15 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.BalanceSnapshot;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends MongoRepository<BalanceSnapshot, String> {
+
+    Optional<BalanceSnapshot> findFirstByAccountNumberAndSeqLessThanEqualAndAsOfLessThanEqualOrderBySeqDesc(
+            String accountNumber, long seq, Instant asOf);
+}
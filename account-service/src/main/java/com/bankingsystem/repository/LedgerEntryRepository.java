@@ -0,0 +1,15 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.LedgerEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends MongoRepository<LedgerEntry, String> {
+
+    List<LedgerEntry> findByAccountNumberAndSeqGreaterThanAndOccurredAtLessThanEqualOrderBySeqAsc(
+            String accountNumber, long seq, Instant occurredAt);
+}
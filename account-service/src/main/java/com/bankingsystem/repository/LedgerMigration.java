@@ -0,0 +1,55 @@
+package com.bankingsystem.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Gives accounts written before the ledger existed the fields a new account starts with: {@code ledgerSeq} and
+ * {@code ledgerBalance} of 0 and an empty {@code pendingLedger}. The operation-id guards and the flush
+ * acknowledgement match on {@code ledgerSeq}, and a missing field never equals a number. Runs while the
+ * application context starts, like {@link MoneyMigration}.
+ *
+ * <p>The first flush of such an account opens its ledger with the balance it had before the change, the same as
+ * for an account created with money already in it. Only missing fields are set, so running it again is a no-op.
+ * {@link AccountRepositoryImpl} also treats a missing {@code ledgerSeq} as 0, for accounts an instance of the
+ * previous version creates after this has run.
+ */
+@Component
+public class LedgerMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    public LedgerMigration(MongoTemplate mongoTemplate,
+                           @Value("${ledger.migration.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        long backfilled = backfill("ledgerSeq", 0L) + backfill("ledgerBalance", 0L) + backfill("pendingLedger", List.of());
+        if (backfilled > 0) {
+            log.info("Backfilled {} missing ledger fields on accounts", backfilled);
+        }
+    }
+
+    private long backfill(String field, Object value) {
+        Query missing = new Query(Criteria.where(field).exists(false));
+        return mongoTemplate.updateMulti(missing, new Update().set(field, value), "accounts").getModifiedCount();
+    }
+}
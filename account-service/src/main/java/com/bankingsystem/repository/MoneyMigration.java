@@ -0,0 +1,118 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.Money;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject.Type;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Converts amounts stored as doubles of whole currency units, as written before {@link Money}, to Int64 minor
+ * units. It runs while the application context starts, before the web server takes requests: an {@code $inc} of
+ * minor units on a balance that is still a double of dollars would corrupt it.
+ *
+ * <p>Only double and Decimal128 values match, so running it again is a no-op, and each conversion only applies
+ * if the value is still the one read, so several instances can start at once. Instances of the previous version
+ * must be stopped first, as they would go on writing doubles. Doubles are rounded half-even to the currency's
+ * minor unit, which drops the drift double arithmetic left behind (0.30000000000000004).
+ */
+@Component
+public class MoneyMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(MoneyMigration.class);
+
+    // A value changing under every pass means something is still writing doubles
+    private static final int MAX_PASSES = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    public MoneyMigration(MongoTemplate mongoTemplate,
+                          @Value("${money.migration.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        long converted = convert("accounts", "balance")
+                + convert("accounts", "ledgerBalance")
+                + convertPendingLedger()
+                + convert("ledger", "amount")
+                + convert("balance_snapshots", "balance");
+        if (converted > 0) {
+            log.info("Converted {} legacy amounts to minor units", converted);
+        }
+    }
+
+    long convert(String collection, String field) {
+        return convert(collection, field, field, MoneyMigration::toMinorUnits);
+    }
+
+    private long convertPendingLedger() {
+        return convert("accounts", "pendingLedger.amount", "pendingLedger", value -> {
+            List<Document> entries = new ArrayList<>();
+            for (Object entry : (List<?>) value) {
+                Document copy = new Document((Document) entry);
+                if (!(copy.get("amount") instanceof Long)) {
+                    copy.put("amount", toMinorUnits(copy.get("amount")));
+                }
+                entries.add(copy);
+            }
+            return entries;
+        });
+    }
+
+    /**
+     * Rewrites {@code field} of every document whose {@code legacyField} is a double or Decimal128, unless the
+     * document changed after it was read; repeats until none is left.
+     */
+    private long convert(String collection, String legacyField, String field, Function<Object, Object> converter) {
+        long converted = 0;
+        Query legacy = new Query(Criteria.where(legacyField).type(Type.DOUBLE, Type.DECIMAL_128));
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            if (!mongoTemplate.exists(legacy, collection)) {
+                return converted;
+            }
+            try (Stream<Document> documents = mongoTemplate.stream(legacy, Document.class, collection)) {
+                Iterator<Document> iterator = documents.iterator();
+                while (iterator.hasNext()) {
+                    Document document = iterator.next();
+                    Object old = document.get(field);
+                    Query unchanged = new Query(Criteria.where("_id").is(document.get("_id")).and(field).is(old));
+                    Update update = new Update().set(field, converter.apply(old));
+                    converted += mongoTemplate.updateFirst(unchanged, update, collection).getModifiedCount();
+                }
+            }
+        }
+        throw new IllegalStateException(collection + "." + legacyField + " still holds legacy amounts after "
+                + MAX_PASSES + " passes; is an instance of the previous version still running?");
+    }
+
+    static long toMinorUnits(Object legacy) {
+        BigDecimal amount = legacy instanceof Decimal128 decimal
+                ? decimal.bigDecimalValue()
+                : BigDecimal.valueOf(((Number) legacy).doubleValue());
+        int digits = Money.DEFAULT_CURRENCY.getDefaultFractionDigits();
+        return Money.of(amount.setScale(digits, RoundingMode.HALF_EVEN)).getMinorUnits();
+    }
+}
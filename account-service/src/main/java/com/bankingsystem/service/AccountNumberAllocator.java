@@ -0,0 +1,130 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.repository.AccountSequenceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Issues account numbers of the form {@code <initials><sequence><check digit>}, e.g. {@code JD00004275}.
+ *
+ * <p>The sequence is global, so numbers are unique whatever the initials and no existence check is needed.
+ * Each instance reserves a block of {@code account.number.block-size} values with one atomic $inc in Mongo and
+ * hands them out from memory; values left in a block when an instance stops are skipped, never reused.
+ * The sequence is zero-padded to {@value #MIN_SEQUENCE_DIGITS} digits and grows beyond that when needed.
+ * The check digit is a Luhn digit over the sequence, so a mistyped digit or swapped pair is rejected by
+ * {@link #isValid(String)} without a lookup; requests carrying one fail {@code @AccountNumber} validation.
+ */
+@Component
+public class AccountNumberAllocator {
+
+    static final String SEQUENCE_NAME = "accountNumber";
+    static final int MIN_SEQUENCE_DIGITS = 7;
+    private static final int LEGACY_DIGITS = 4;
+    private static final String FALLBACK_INITIALS = "X";
+
+    private final AccountSequenceRepository sequenceRepository;
+    private final int blockSize;
+    // Not synchronized: a virtual thread waiting on Mongo inside a monitor would pin its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long next;
+    private long limit;
+
+    public AccountNumberAllocator(AccountSequenceRepository sequenceRepository,
+                                  @Value("${account.number.block-size:100}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("account.number.block-size must be positive");
+        }
+        this.sequenceRepository = sequenceRepository;
+        this.blockSize = blockSize;
+    }
+
+    public String nextAccountNumber(String holderName) {
+        String digits = String.format("%0" + MIN_SEQUENCE_DIGITS + "d", nextSequence());
+        return initials(holderName) + digits + checkDigit(digits);
+    }
+
+    /**
+     * True when the number is letters followed by digits whose last digit is a valid Luhn check digit.
+     */
+    public static boolean isValid(String accountNumber) {
+        int split = 0;
+        while (split < accountNumber.length() && Character.isLetter(accountNumber.charAt(split))) {
+            split++;
+        }
+        String digits = accountNumber.substring(split);
+        if (split == 0 || digits.length() < MIN_SEQUENCE_DIGITS + 1 || !digits.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        String payload = digits.substring(0, digits.length() - 1);
+        return checkDigit(payload) == digits.charAt(digits.length() - 1);
+    }
+
+    /**
+     * True for a number {@link #isValid(String) this allocator issues} or one issued before it: the holder's
+     * initials and four digits from 1000 to 9999, with no check digit. An old number never ends in as many digits as
+     * a current one, so a mistyped current number is still rejected.
+     */
+    public static boolean isWellFormed(String accountNumber) {
+        int digits = 0;
+        while (digits < accountNumber.length()
+                && Character.isDigit(accountNumber.charAt(accountNumber.length() - 1 - digits))) {
+            digits++;
+        }
+        if (digits > MIN_SEQUENCE_DIGITS) {
+            return isValid(accountNumber);
+        }
+        // Old initials were the first character of each name part, so they may include a digit
+        return digits >= LEGACY_DIGITS && accountNumber.length() > LEGACY_DIGITS
+                && accountNumber.charAt(accountNumber.length() - LEGACY_DIGITS) != '0'
+                && accountNumber.chars().noneMatch(Character::isWhitespace);
+    }
+
+    private long nextSequence() {
+        lock.lock();
+        try {
+            if (next == limit) {
+                next = sequenceRepository.reserveBlock(SEQUENCE_NAME, blockSize);
+                limit = next + blockSize;
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Letters only, so the boundary between initials and sequence is unambiguous.
+     */
+    static String initials(String holderName) {
+        String initials = Arrays.stream(holderName.trim().split("\\s+"))
+                .filter(part -> !part.isEmpty() && Character.isLetter(part.charAt(0)))
+                .map(part -> part.substring(0, 1))
+                .collect(Collectors.joining())
+                .toUpperCase(Locale.ROOT);
+        return initials.isEmpty() ? FALLBACK_INITIALS : initials;
+    }
+
+    static char checkDigit(String digits) {
+        int sum = 0;
+        // Double every second digit counting leftwards from the rightmost payload digit
+        boolean doubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+}
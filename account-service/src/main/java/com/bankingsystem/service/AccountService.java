@@ -1,19 +1,39 @@
 package com.bankingsystem.service;
 
+import com.bankingsystem.cache.AccountCache;
+import com.bankingsystem.exception.AccountInactiveException;
 import com.bankingsystem.exception.AccountNotFoundException;
+import com.bankingsystem.exception.InsufficientFundsException;
 import com.bankingsystem.model.Account;
+import com.bankingsystem.model.BalanceSnapshot;
+import com.bankingsystem.model.LedgerEntry;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.PendingLedgerEntry;
+import com.bankingsystem.model.dto.BalanceDelta;
 import com.bankingsystem.model.dto.BalanceRequest;
+import com.bankingsystem.model.dto.BalanceUpdateResult;
+import com.bankingsystem.model.dto.BulkBalanceRequest;
 import com.bankingsystem.model.dto.CreateAccountRequest;
+import com.bankingsystem.model.dto.HistoricalBalance;
 import com.bankingsystem.model.dto.StatusRequest;
 import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.repository.BalanceSnapshotRepository;
+import com.bankingsystem.repository.LedgerEntryRepository;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
-import java.util.Random;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,14 +44,24 @@ public class AccountService {
     @Autowired
     AccountRepository accountRepository;
 
-    private final Random random = new Random();
+    @Autowired
+    AccountCache accountCache;
+
+    @Autowired
+    AccountNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    BalanceSnapshotRepository balanceSnapshotRepository;
 
 
     public Account createAccount(@Valid CreateAccountRequest request) {
         log.info("Creating account for holder: {}", request.getHolderName());
-        String accountNumber = generateAccountNumber(request.getHolderName());
+        String accountNumber = accountNumberAllocator.nextAccountNumber(request.getHolderName());
         Account account = new Account(accountNumber, request.getHolderName());
-        account.setBalance(0.0);
+        account.setBalance(Money.ZERO);
         account.setStatus("ACTIVE");
         Account savedAccount = accountRepository.save(account);
         log.info("Account created successfully with number: {}", savedAccount.getAccountNumber());
@@ -39,55 +69,163 @@ public class AccountService {
     }
 
     public Account getAccount(String accountNumber) {
+        return getAccount(accountNumber, false);
+    }
+
+    /**
+     * Reads through the account cache unless {@code consistent} is set, in which case Mongo is read directly.
+     * Cached entries may lag writes made through another account-service instance by up to the cache TTL.
+     */
+    public Account getAccount(String accountNumber, boolean consistent) {
         log.info("Fetching account: {}", accountNumber);
-        return accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> {
-                    log.warn("Account not found: {}", accountNumber);
-                    return new AccountNotFoundException("Account not found with number: " + accountNumber);
-                });
+        if (consistent) {
+            return loadAccount(accountNumber);
+        }
+        return accountCache.get(accountNumber, this::loadAccount);
     }
 
-    public Account updateBalance(String accountNumber, Double amount) {
-        log.info("Updating balance for account: {} by amount: {}", accountNumber, amount);
+    public List<Account> lookupAccounts(List<String> accountNumbers) {
+        log.info("Looking up {} accounts", accountNumbers.size());
+        return accountRepository.findSummaries(new LinkedHashSet<>(accountNumbers));
+    }
 
-        Account account = getAccount(accountNumber);
+    public Account updateBalance(String accountNumber, Money amount) {
+        return updateBalance(accountNumber, amount, null);
+    }
 
-        if ("INACTIVE".equalsIgnoreCase(account.getStatus())) {
-            log.error("Transaction failed. Account {} is inactive.", accountNumber);
-            throw new RuntimeException("Account is INACTIVE. Cannot process transaction.");
-        }
+    public Account updateBalance(String accountNumber, Money amount, String operationId) {
+        log.info("Updating balance for account: {} by amount: {}", accountNumber, amount);
 
-        account.setBalance(account.getBalance() + amount);
-        Account savedAccount = accountRepository.save(account);
+        Account savedAccount = accountRepository.incrementBalance(accountNumber, amount, operationId);
+        accountCache.invalidate(accountNumber);
+        if (savedAccount == null) {
+            // The guarded update matched nothing; load the account only to report why
+            Account account = loadAccount(accountNumber);
+            if (operationId != null && !accountRepository.findApplied(operationId, List.of(accountNumber)).isEmpty()) {
+                log.info("Operation {} was already applied to account {}", operationId, accountNumber);
+                return account;
+            }
+            if (!"ACTIVE".equalsIgnoreCase(account.getStatus())) {
+                log.error("Transaction failed. Account {} is inactive.", accountNumber);
+                throw new AccountInactiveException("Account is INACTIVE. Cannot process transaction.");
+            }
+            log.error("Transaction failed. Insufficient funds in account {}.", accountNumber);
+            throw new InsufficientFundsException("Insufficient funds. Available: " + account.getBalance());
+        }
 
         log.info("New Balance for {}: {}", accountNumber, savedAccount.getBalance());
         return savedAccount;
     }
 
+    public Account debit(String accountNumber, Money amount, String operationId) {
+        log.info("Debiting account: {} by amount: {} if funds are sufficient", accountNumber, amount);
+        return updateBalance(accountNumber, amount.negate(), operationId);
+    }
+
+    public List<BalanceUpdateResult> updateBalances(BulkBalanceRequest request) {
+        Map<String, Money> deltas = new LinkedHashMap<>();
+        for (BalanceDelta delta : request.getDeltas()) {
+            deltas.merge(delta.getAccountNumber(), delta.getAmount(), Money::plus);
+        }
+        log.info("Applying bulk operation {} to {} accounts", request.getOperationId(), deltas.size());
+
+        Map<String, Account> accounts = accountRepository.applyBalanceDeltas(request.getOperationId(), deltas).stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+        accountCache.invalidateAll(deltas.keySet());
+        Set<String> applied = accountRepository.findApplied(request.getOperationId(), deltas.keySet());
+
+        List<BalanceUpdateResult> results = new ArrayList<>(deltas.size());
+        deltas.forEach((accountNumber, amount) -> {
+            Account account = accounts.get(accountNumber);
+            if (account == null) {
+                results.add(new BalanceUpdateResult(accountNumber, false, null, "NOT_FOUND"));
+            } else if (applied.contains(accountNumber)) {
+                results.add(new BalanceUpdateResult(accountNumber, true, account.getBalance(), null));
+            } else if (!"ACTIVE".equalsIgnoreCase(account.getStatus())) {
+                results.add(new BalanceUpdateResult(accountNumber, false, account.getBalance(), "INACTIVE"));
+            } else {
+                results.add(new BalanceUpdateResult(accountNumber, false, account.getBalance(), "INSUFFICIENT_FUNDS"));
+            }
+        });
+
+        long rejected = results.stream().filter(r -> !r.isApplied()).count();
+        if (rejected > 0) {
+            log.warn("Bulk operation {} left {} of {} accounts unchanged", request.getOperationId(), rejected, results.size());
+        }
+        return results;
+    }
+
     public Account updateStatus(String accountNumber, String status) {
         log.info("Updating status for account: {} to {}", accountNumber, status);
 
-        Account account = getAccount(accountNumber);
+        // Never mutate the cached instance
+        Account account = loadAccount(accountNumber);
 
         if (!status.equalsIgnoreCase("ACTIVE") && !status.equalsIgnoreCase("INACTIVE")) {
             throw new RuntimeException("Invalid status. Use ACTIVE or INACTIVE.");
         }
 
-        account.setStatus(status.toUpperCase());
-        return accountRepository.save(account);
+        // A targeted update, so balance changes landing meanwhile are neither lost nor dropped from the ledger
+        Account savedAccount = accountRepository.updateStatus(account.getAccountNumber(), status.toUpperCase());
+        accountCache.invalidate(accountNumber);
+        return savedAccount;
+    }
+
+    /**
+     * Replays the account's balance as it was at {@code asOf}: the latest snapshot at or before that instant,
+     * then the ledger entries after it, then changes not yet flushed to the ledger. Snapshots are taken every
+     * {@code ledger.snapshot-every} entries, so no more than that many entries plus the unflushed ones are read.
+     */
+    public HistoricalBalance getBalanceAsOf(String accountNumber, Instant asOf) {
+        log.info("Replaying balance of account {} as of {}", accountNumber, asOf);
+        // The one read that needs the pending ledger entries
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> notFound(accountNumber));
+        // Everything past the ledgerSeq we read is still in the account's pending list; stop there so an
+        // entry flushed while we replay is not counted twice
+        long flushedSeq = account.getLedgerSeq();
+
+        Optional<BalanceSnapshot> snapshot = balanceSnapshotRepository
+                .findFirstByAccountNumberAndSeqLessThanEqualAndAsOfLessThanEqualOrderBySeqDesc(accountNumber, flushedSeq, asOf);
+        long snapshotSeq = snapshot.map(BalanceSnapshot::getSeq).orElse(0L);
+        Money balance = snapshot.map(BalanceSnapshot::getBalance).orElse(Money.ZERO);
+        int replayed = 0;
+
+        List<LedgerEntry> entries = ledgerEntryRepository
+                .findByAccountNumberAndSeqGreaterThanAndOccurredAtLessThanEqualOrderBySeqAsc(accountNumber, snapshotSeq, asOf);
+        for (LedgerEntry entry : entries) {
+            if (entry.getSeq() > flushedSeq) {
+                break;
+            }
+            balance = balance.plus(entry.getAmount());
+            replayed++;
+        }
+
+        List<PendingLedgerEntry> pending = account.getPendingLedger();
+        if (flushedSeq == 0) {
+            // No ledger yet: the opening entry the first flush will write
+            Money opening = account.balanceBeforePending();
+            Instant openedAt = pending.isEmpty() ? account.getCreatedAt().toInstant() : pending.get(0).getOccurredAt();
+            if (!openedAt.isAfter(asOf)) {
+                balance = balance.plus(opening);
+            }
+        }
+        for (PendingLedgerEntry change : pending) {
+            if (!change.getOccurredAt().isAfter(asOf)) {
+                balance = balance.plus(change.getAmount());
+                replayed++;
+            }
+        }
+        return new HistoricalBalance(accountNumber, asOf, balance, snapshotSeq, replayed);
+    }
+
+    /** The account without its pending ledger entries; this is also what the account cache holds. */
+    private Account loadAccount(String accountNumber) {
+        return accountRepository.findSummary(accountNumber).orElseThrow(() -> notFound(accountNumber));
     }
 
-    private String generateAccountNumber(String name) {
-        String initials = Arrays.stream(name.split("\\s+"))
-                .filter(s -> !s.isEmpty())
-                .map(s -> String.valueOf(s.charAt(0)))
-                .collect(Collectors.joining())
-                .toUpperCase();
-        String uniqueAccountNumber;
-        do {
-            int randomNumber = 1000 + random.nextInt(9000);
-            uniqueAccountNumber = initials + randomNumber;
-        } while (accountRepository.existsByAccountNumber(uniqueAccountNumber));
-        return uniqueAccountNumber;
+    private static AccountNotFoundException notFound(String accountNumber) {
+        log.warn("Account not found: {}", accountNumber);
+        return new AccountNotFoundException("Account not found with number: " + accountNumber);
     }
 }
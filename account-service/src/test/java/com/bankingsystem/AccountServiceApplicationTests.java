@@ -3,7 +3,13 @@ package com.bankingsystem;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// No Mongo in unit builds, so skip the index creation and the money and ledger migrations that would otherwise block startup
+@SpringBootTest(properties = {
+		"spring.data.mongodb.auto-index-creation=false",
+		"money.migration.enabled=false",
+		"ledger.migration.enabled=false",
+		// Fail fast instead of holding up shutdown while the scheduled ledger flush waits for a server
+		"spring.data.mongodb.uri=mongodb://localhost:27017/accounts_db?serverSelectionTimeoutMS=1000"})
 class AccountServiceApplicationTests {
 
 	@Test
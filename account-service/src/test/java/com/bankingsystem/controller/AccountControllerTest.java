@@ -0,0 +1,81 @@
+package com.bankingsystem.controller;
+
+import com.bankingsystem.exception.GlobalExceptionHandler;
+import com.bankingsystem.model.Account;
+import com.bankingsystem.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class AccountControllerTest {
+
+    @Mock
+    private AccountService accountService;
+
+    @InjectMocks
+    private AccountController accountController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(accountController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void testGetAccount_MistypedNumberIsRejectedWithoutALookup() throws Exception {
+        mockMvc.perform(get("/api/accounts/AL00000215"))     // adjacent digits swapped
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Account number is not valid"));
+
+        verifyNoInteractions(accountService);
+    }
+
+    @Test
+    void testGetAccount_CurrentAndLegacyNumbersAreLookedUp() throws Exception {
+        when(accountService.getAccount(anyString(), eq(false))).thenReturn(new Account());
+
+        mockMvc.perform(get("/api/accounts/AL00000125")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/accounts/JD1234")).andExpect(status().isOk());
+
+        verify(accountService).getAccount("AL00000125", false);
+        verify(accountService).getAccount("JD1234", false);
+    }
+
+    @Test
+    void testDebit_MistypedNumberIsRejected() throws Exception {
+        mockMvc.perform(put("/api/accounts/AL00000126/debit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 10.0}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(accountService);
+    }
+
+    @Test
+    void testLookup_MistypedNumberInTheBodyIsRejected() throws Exception {
+        mockMvc.perform(post("/api/accounts/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"accountNumbers\": [\"AL00000125\", \"AL00000215\"]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Account number is not valid"));
+
+        verifyNoInteractions(accountService);
+    }
+}
@@ -0,0 +1,42 @@
+package com.bankingsystem.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.bankingsystem.model.dto.DebitRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testArithmetic_IsExact() {
+        Money sum = Money.of("0.1").plus(Money.of("0.2"));
+
+        assertEquals(Money.of("0.30"), sum);
+        assertEquals(30, sum.getMinorUnits());
+        assertEquals("0.30 USD", sum.toString());
+        assertEquals(Money.of("-0.05"), Money.of("0.25").minus(Money.of("0.30")));
+    }
+
+    @Test
+    void testOf_RejectsSubCentAndMixedCurrencies() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of("0.001"));
+        Money euros = Money.ofMinor(100, Currency.getInstance("EUR"));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(100).plus(euros));
+    }
+
+    @Test
+    void testJson_RoundTripsAsDecimalNumber() throws Exception {
+        DebitRequest request = objectMapper.readValue("{\"amount\": 19.99}", DebitRequest.class);
+
+        assertEquals(1999, request.getAmount().getMinorUnits());
+        assertTrue(objectMapper.writeValueAsString(request).contains("\"amount\":19.99"));
+        assertEquals(Money.of("5"), objectMapper.readValue("\"5\"", Money.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("19.999", Money.class));
+    }
+}
@@ -0,0 +1,307 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.exception.LedgerBacklogException;
+import com.bankingsystem.model.Account;
+import com.bankingsystem.model.LedgerEntry;
+import com.bankingsystem.model.Money;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountRepositoryImplTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 250;
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private AccountRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "accounts_test");
+        repository = new AccountRepositoryImpl(mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testIncrementBalance_ConcurrentDepositsAreNotLost() throws Exception {
+        saveAccount("HOT1", Money.of("0.0"), "ACTIVE");
+
+        runConcurrently(() -> assertNotNull(repository.incrementBalance("HOT1", Money.of("1.0"), null)));
+
+        assertEquals(Money.of(String.valueOf(THREADS * OPERATIONS_PER_THREAD)), findBalance("HOT1"));
+    }
+
+    @Test
+    void testIncrementBalance_ConcurrentWithdrawalsNeverOverdraw() throws Exception {
+        saveAccount("HOT2", Money.of("1000.00"), "ACTIVE");
+        AtomicInteger successfulWithdrawals = new AtomicInteger();
+
+        runConcurrently(() -> {
+            if (repository.incrementBalance("HOT2", Money.of("-1.0"), null) != null) {
+                successfulWithdrawals.incrementAndGet();
+            }
+        });
+
+        assertEquals(1000, successfulWithdrawals.get());
+        assertEquals(Money.of("0.0"), findBalance("HOT2"));
+    }
+
+    @Test
+    void testIncrementBalance_RejectsInactiveAndMissingAccounts() {
+        saveAccount("OFF1", Money.of("100.0"), "INACTIVE");
+
+        assertNull(repository.incrementBalance("OFF1", Money.of("10.0"), null));
+        assertNull(repository.incrementBalance("NONE", Money.of("10.0"), null));
+        assertEquals(Money.of("100.0"), findBalance("OFF1"));
+    }
+
+    @Test
+    void testIncrementBalance_OperationIdIsAppliedOnce() {
+        saveAccount("IDEM", Money.of("50.0"), "ACTIVE");
+
+        assertNotNull(repository.incrementBalance("IDEM", Money.of("-20.0"), "SAGA-1:debit"));
+        assertNull(repository.incrementBalance("IDEM", Money.of("-20.0"), "SAGA-1:debit"));
+        assertNotNull(repository.incrementBalance("IDEM", Money.of("20.0"), "SAGA-1:compensate"));
+
+        assertEquals(Money.of("50.0"), findBalance("IDEM"));
+    }
+
+    @Test
+    void testOperationIdsApplyToAccountsWrittenBeforeTheLedger() {
+        saveLegacyAccount("OLD1", 10_000L);
+        saveLegacyAccount("OLD2", 10_000L);
+
+        assertNotNull(repository.incrementBalance("OLD1", Money.of("-20.0"), "op-1"));
+        assertNull(repository.incrementBalance("OLD1", Money.of("-20.0"), "op-1"));
+        repository.applyBalanceDeltas("BATCH-OLD", Map.of("OLD1", Money.of("5.0"), "OLD2", Money.of("-5.0")));
+        repository.applyBalanceDeltas("BATCH-OLD", Map.of("OLD1", Money.of("5.0"), "OLD2", Money.of("-5.0")));
+
+        assertEquals(Money.of("85.0"), findBalance("OLD1"));
+        assertEquals(Money.of("95.0"), findBalance("OLD2"));
+        assertEquals(Set.of("OLD1", "OLD2"), repository.findApplied("BATCH-OLD", List.of("OLD1", "OLD2")));
+    }
+
+    @Test
+    void testFullPendingListOfAnAccountWrittenBeforeTheLedgerIsFlushedAndAcknowledged() {
+        AccountRepositoryImpl smallBacklog = new AccountRepositoryImpl(mongoTemplate, 100, 2);
+        saveLegacyAccount("OLD3", 10_000L);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 1; i <= 5; i++) {
+                assertNotNull(smallBacklog.incrementBalance("OLD3", Money.of("1.0"), "op-" + i));
+            }
+        });
+
+        Account account = findAccount("OLD3");
+        assertEquals(Money.of("105.0"), account.getBalance());
+        assertTrue(account.getPendingLedger().size() < 2);
+        // Opening balance and the changes flushed so far, each written once
+        assertEquals(account.getLedgerSeq(), mongoTemplate.count(
+                new Query(Criteria.where("accountNumber").is("OLD3")), LedgerEntry.class));
+    }
+
+    @Test
+    void testIncrementBalance_GivesUpWhenTheInlineFlushMakesNoProgress() {
+        AtomicInteger flushes = new AtomicInteger();
+        AccountRepositoryImpl stuck = new AccountRepositoryImpl(mongoTemplate, 100, 2) {
+            @Override
+            public int flushLedger(Account account) {
+                flushes.incrementAndGet();
+                return 0;
+            }
+        };
+        saveAccount("STUCK", Money.of("100.0"), "ACTIVE");
+        assertNotNull(stuck.incrementBalance("STUCK", Money.of("1.0"), null));
+        assertNotNull(stuck.incrementBalance("STUCK", Money.of("1.0"), null));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(LedgerBacklogException.class,
+                () -> stuck.incrementBalance("STUCK", Money.of("1.0"), "op-1")));
+
+        assertEquals(AccountRepositoryImpl.MAX_STALLED_FLUSHES, flushes.get());
+        assertEquals(Money.of("102.0"), findBalance("STUCK"));
+    }
+
+    @Test
+    void testFindSummary_LeavesThePendingLedgerOnTheServer() {
+        saveAccount("SUM1", Money.of("0.0"), "ACTIVE");
+        saveAccount("SUM2", Money.of("5.0"), "ACTIVE");
+        for (int i = 0; i < 3; i++) {
+            repository.incrementBalance("SUM1", Money.of("10.0"), null);
+        }
+
+        Account summary = repository.findSummary("SUM1").orElseThrow();
+        assertEquals(Money.of("30.0"), summary.getBalance());
+        assertEquals("ACTIVE", summary.getStatus());
+        assertTrue(summary.getPendingLedger().isEmpty());
+        assertEquals(3, findAccount("SUM1").getPendingLedger().size());
+
+        List<Account> summaries = repository.findSummaries(List.of("SUM1", "SUM2", "NONE"));
+        assertEquals(2, summaries.size());
+        assertTrue(summaries.stream().allMatch(account -> account.getPendingLedger().isEmpty()));
+        assertTrue(repository.findSummary("NONE").isEmpty());
+    }
+
+    @Test
+    void testApplyBalanceDeltas_AppliesGuardedDeltasOnce() {
+        saveAccount("SRC1", Money.of("100.0"), "ACTIVE");
+        saveAccount("DST1", Money.of("0.0"), "ACTIVE");
+        saveAccount("LOW1", Money.of("5.0"), "ACTIVE");
+        Map<String, Money> deltas = new LinkedHashMap<>();
+        deltas.put("SRC1", Money.of("-60.0"));
+        deltas.put("DST1", Money.of("70.0"));
+        deltas.put("LOW1", Money.of("-10.0"));
+
+        List<Account> first = repository.applyBalanceDeltas("BATCH-1", deltas);
+        List<Account> retried = repository.applyBalanceDeltas("BATCH-1", deltas);
+
+        assertEquals(3, first.size());
+        assertEquals(3, retried.size());
+        assertEquals(Set.of("SRC1", "DST1"), repository.findApplied("BATCH-1", deltas.keySet()));
+        assertEquals(Money.of("40.0"), findBalance("SRC1"));
+        assertEquals(Money.of("70.0"), findBalance("DST1"));
+        assertEquals(Money.of("5.0"), findBalance("LOW1"));
+    }
+
+    @Test
+    void testOperationIdIsAppliedOnceHoweverManyOperationsFollow() {
+        saveAccount("BUSY", Money.of("0.0"), "ACTIVE");
+
+        assertNotNull(repository.incrementBalance("BUSY", Money.of("5.00"), "SAGA-1:credit"));
+        repository.applyBalanceDeltas("BATCH-1", Map.of("BUSY", Money.of("7.00")));
+        for (int i = 0; i < 200; i++) {
+            repository.incrementBalance("BUSY", Money.of("1.00"), "OP-" + i);
+        }
+        assertNull(repository.incrementBalance("BUSY", Money.of("5.00"), "SAGA-1:credit"));
+        repository.applyBalanceDeltas("BATCH-1", Map.of("BUSY", Money.of("7.00")));
+
+        assertEquals(Money.of("212.00"), findBalance("BUSY"));
+        assertEquals(Set.of("BUSY"), repository.findApplied("SAGA-1:credit", List.of("BUSY")));
+    }
+
+    @Test
+    void testOperationIdIsAppliedOnceAfterItsEntryWasFlushedToTheLedger() {
+        saveAccount("FLUSHED", Money.of("100.0"), "ACTIVE");
+        assertNotNull(repository.incrementBalance("FLUSHED", Money.of("-30.0"), "SAGA-2:debit"));
+        repository.applyBalanceDeltas("BATCH-2", Map.of("FLUSHED", Money.of("10.0")));
+
+        // Opening balance, debit and credit
+        assertEquals(3, repository.flushLedger(findAccount("FLUSHED")));
+        assertTrue(findAccount("FLUSHED").getPendingLedger().isEmpty());
+
+        assertNull(repository.incrementBalance("FLUSHED", Money.of("-30.0"), "SAGA-2:debit"));
+        repository.applyBalanceDeltas("BATCH-2", Map.of("FLUSHED", Money.of("10.0")));
+        assertEquals(Money.of("80.0"), findBalance("FLUSHED"));
+        assertEquals(Set.of("FLUSHED"), repository.findApplied("SAGA-2:debit", List.of("FLUSHED")));
+        assertEquals(Set.of("FLUSHED"), repository.findApplied("BATCH-2", List.of("FLUSHED")));
+    }
+
+    @Test
+    void testConcurrentRetriesOfOneOperationApplyItOnceWhileTheLedgerIsFlushed() throws Exception {
+        saveAccount("RACE", Money.of("0.0"), "ACTIVE");
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger operation = new AtomicInteger();
+        ExecutorService flusher = Executors.newSingleThreadExecutor();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Future<?> flushes = flusher.submit(() -> {
+            while (running.get()) {
+                repository.flushLedger(findAccount("RACE"));
+            }
+        });
+        try {
+            // Every thread replays the same ids, so each id must succeed exactly once across all threads
+            runConcurrently(() -> {
+                String operationId = "OP-" + (operation.getAndIncrement() / THREADS);
+                if (repository.incrementBalance("RACE", Money.of("1.00"), operationId) != null) {
+                    applied.incrementAndGet();
+                }
+            });
+        } finally {
+            running.set(false);
+            flushes.get(60, TimeUnit.SECONDS);
+            flusher.shutdown();
+        }
+
+        assertEquals(OPERATIONS_PER_THREAD, applied.get());
+        assertEquals(Money.ofMinor(OPERATIONS_PER_THREAD * 100L), findBalance("RACE"));
+    }
+
+    private void runConcurrently(Runnable operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    operation.run();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    private void saveAccount(String accountNumber, Money balance, String status) {
+        Account account = new Account(accountNumber, "Hot Account");
+        account.setBalance(balance);
+        account.setStatus(status);
+        mongoTemplate.save(account);
+    }
+
+    /** An account as written before the ledger: no ledgerSeq, ledgerBalance or pendingLedger. */
+    private void saveLegacyAccount(String accountNumber, long balanceMinorUnits) {
+        mongoTemplate.insert(new Document("accountNumber", accountNumber)
+                .append("holderName", "Old Account")
+                .append("balance", balanceMinorUnits)
+                .append("status", "ACTIVE"), "accounts");
+    }
+
+    private Account findAccount(String accountNumber) {
+        return mongoTemplate.findOne(new Query(Criteria.where("accountNumber").is(accountNumber)), Account.class);
+    }
+
+    private Money findBalance(String accountNumber) {
+        Query query = new Query(Criteria.where("accountNumber").is(accountNumber));
+        return mongoTemplate.findOne(query, Account.class).getBalance();
+    }
+}
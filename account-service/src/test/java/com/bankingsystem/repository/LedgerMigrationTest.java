@@ -0,0 +1,68 @@
+package com.bankingsystem.repository;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerMigrationTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private LedgerMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "accounts_test");
+        migration = new LedgerMigration(mongoTemplate, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testMigrate_BackfillsOnlyMissingLedgerFields() {
+        mongoTemplate.insert(new Document("accountNumber", "OLD").append("balance", 5000L).append("status", "ACTIVE"),
+                "accounts");
+        mongoTemplate.insert(new Document("accountNumber", "NEW").append("balance", 700L).append("status", "ACTIVE")
+                .append("ledgerSeq", 3L).append("ledgerBalance", 600L)
+                .append("pendingLedger", List.of(new Document("entryId", "a").append("amount", 100L))), "accounts");
+
+        migration.migrate();
+        migration.migrate();
+
+        Document old = find("OLD");
+        assertEquals(0L, old.get("ledgerSeq"));
+        assertEquals(0L, old.get("ledgerBalance"));
+        assertEquals(List.of(), old.getList("pendingLedger", Document.class));
+        assertEquals(5000L, old.get("balance"));
+        Document current = find("NEW");
+        assertEquals(3L, current.get("ledgerSeq"));
+        assertEquals(600L, current.get("ledgerBalance"));
+        assertEquals(1, current.getList("pendingLedger", Document.class).size());
+    }
+
+    private Document find(String accountNumber) {
+        return mongoTemplate.findOne(new Query(Criteria.where("accountNumber").is(accountNumber)), Document.class,
+                "accounts");
+    }
+}
@@ -0,0 +1,75 @@
+package com.bankingsystem.repository;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyMigrationTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private MoneyMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "accounts_test");
+        migration = new MoneyMigration(mongoTemplate, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testMigrate_ConvertsLegacyAmountsToMinorUnits() {
+        mongoTemplate.insert(new Document("accountNumber", "M1")
+                .append("balance", 0.1 + 0.2)
+                .append("ledgerBalance", new Decimal128(new BigDecimal("12.34")))
+                .append("pendingLedger", List.of(
+                        new Document("entryId", "a").append("amount", -2.5),
+                        new Document("entryId", "b").append("amount", 250L))), "accounts");
+        mongoTemplate.insert(new Document("accountNumber", "M1").append("seq", 1L).append("amount", 100.0), "ledger");
+        mongoTemplate.insert(new Document("accountNumber", "M1").append("seq", 1L).append("balance", 100.0),
+                "balance_snapshots");
+
+        migration.migrate();
+
+        Document account = mongoTemplate.getCollection("accounts").find().first();
+        assertEquals(30L, account.get("balance"));
+        assertEquals(1234L, account.get("ledgerBalance"));
+        List<Document> pending = account.getList("pendingLedger", Document.class);
+        assertEquals(-250L, pending.get(0).get("amount"));
+        assertEquals(250L, pending.get(1).get("amount"));
+        assertEquals(10000L, mongoTemplate.getCollection("ledger").find().first().get("amount"));
+        assertEquals(10000L, mongoTemplate.getCollection("balance_snapshots").find().first().get("balance"));
+    }
+
+    @Test
+    void testMigrate_LeavesConvertedAmountsAlone() {
+        mongoTemplate.insert(new Document("accountNumber", "M2").append("balance", 1999L), "accounts");
+
+        migration.migrate();
+        migration.migrate();
+
+        assertEquals(1999L, mongoTemplate.getCollection("accounts").find().first().get("balance"));
+    }
+}
@@ -0,0 +1,165 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.cache.AccountCache;
+import com.bankingsystem.model.Account;
+import com.bankingsystem.model.AccountSequence;
+import com.bankingsystem.model.dto.CreateAccountRequest;
+import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.repository.AccountRepositoryImpl;
+import com.bankingsystem.repository.AccountSequenceRepository;
+import com.bankingsystem.repository.AccountSequenceRepositoryImpl;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountNumberAllocatorTest {
+
+    private static final int ACCOUNTS = 100_000;
+    private static final int THREADS = 8;
+    private static final int BLOCK_SIZE = 100;
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private AccountSequenceRepository sequenceRepository;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "accounts_test");
+        sequenceRepository = new MongoRepositoryFactory(mongoTemplate)
+                .getRepository(AccountSequenceRepository.class, new AccountSequenceRepositoryImpl(mongoTemplate));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testCreateAccount_HundredThousandAccountsWithSameInitials() throws Exception {
+        mongoTemplate.indexOps(Account.class).ensureIndex(new Index("accountNumber", Sort.Direction.ASC).unique());
+        AccountRepository accountRepository = new MongoRepositoryFactory(mongoTemplate)
+                .getRepository(AccountRepository.class, new AccountRepositoryImpl(mongoTemplate));
+        // Two service instances sharing one database, as with two replicas
+        List<AccountService> services = List.of(
+                accountService(accountRepository, new AccountNumberAllocator(sequenceRepository, BLOCK_SIZE)),
+                accountService(accountRepository, new AccountNumberAllocator(sequenceRepository, BLOCK_SIZE)));
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger remaining = new AtomicInteger(ACCOUNTS);
+        List<Future<?>> futures = new ArrayList<>();
+        long began = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            AccountService service = services.get(t % services.size());
+            futures.add(pool.submit(() -> {
+                CreateAccountRequest request = new CreateAccountRequest();
+                request.setHolderName("John Doe");
+                while (remaining.getAndDecrement() > 0) {
+                    service.createAccount(request);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+        pool.shutdown();
+
+        List<Account> accounts = mongoTemplate.findAll(Account.class);
+        Set<String> numbers = new HashSet<>();
+        for (Account account : accounts) {
+            assertTrue(account.getAccountNumber().startsWith("JD"));
+            assertTrue(AccountNumberAllocator.isValid(account.getAccountNumber()), account.getAccountNumber());
+            numbers.add(account.getAccountNumber());
+        }
+        assertEquals(ACCOUNTS, accounts.size());
+        assertEquals(ACCOUNTS, numbers.size());
+        // One sequence round trip per block instead of existence probes per create
+        long reserved = mongoTemplate.findById(AccountNumberAllocator.SEQUENCE_NAME, AccountSequence.class).getNext();
+        assertTrue(reserved / BLOCK_SIZE <= ACCOUNTS / BLOCK_SIZE + services.size(), "blocks reserved: " + reserved / BLOCK_SIZE);
+        System.out.printf("Created %,d accounts with the same initials in %.1f s (%,.0f/s)%n",
+                ACCOUNTS, seconds, ACCOUNTS / seconds);
+    }
+
+    @Test
+    void testReserveBlock_InstancesNeverShareValues() {
+        AccountNumberAllocator first = new AccountNumberAllocator(sequenceRepository, 3);
+        AccountNumberAllocator second = new AccountNumberAllocator(sequenceRepository, 3);
+
+        assertEquals("JD0000000", stripCheckDigit(first.nextAccountNumber("John Doe")));
+        assertEquals("JD0000003", stripCheckDigit(second.nextAccountNumber("Jane Doe")));
+        assertEquals("JD0000001", stripCheckDigit(first.nextAccountNumber("Jim Dean")));
+    }
+
+    @Test
+    void testCheckDigit_DetectsTyposAndTranspositions() {
+        AccountNumberAllocator allocator = new AccountNumberAllocator(sequenceRepository, 10);
+        allocator.nextAccountNumber("Skip");
+        String number = allocator.nextAccountNumber("Ada Lovelace");
+
+        assertTrue(AccountNumberAllocator.isValid(number));
+        assertEquals('3', AccountNumberAllocator.checkDigit("7992739871"));
+        assertFalse(AccountNumberAllocator.isValid(number.substring(0, 3) + "9" + number.substring(4)));
+        assertTrue(AccountNumberAllocator.isValid("AL00000125"));
+        assertFalse(AccountNumberAllocator.isValid("AL00000215"));   // adjacent digits swapped
+        assertFalse(AccountNumberAllocator.isValid("AL1234"));       // legacy format
+    }
+
+    @Test
+    void testIsWellFormed_AcceptsLegacyNumbersButNotMistypedCurrentOnes() {
+        assertTrue(AccountNumberAllocator.isWellFormed("AL00000125"));
+        assertTrue(AccountNumberAllocator.isWellFormed("JD1234"));
+        assertTrue(AccountNumberAllocator.isWellFormed("J39999"));    // legacy initial taken from "3rd"
+        assertFalse(AccountNumberAllocator.isWellFormed("AL00000215"));
+        assertFalse(AccountNumberAllocator.isWellFormed("AL12345675"));
+        assertFalse(AccountNumberAllocator.isWellFormed("JD0123"));   // legacy digits started at 1000
+        assertFalse(AccountNumberAllocator.isWellFormed("1234"));
+        assertFalse(AccountNumberAllocator.isWellFormed("J D1234"));
+        assertFalse(AccountNumberAllocator.isWellFormed("JD12a4"));
+    }
+
+    @Test
+    void testInitials_LettersOnly() {
+        assertEquals("JD", AccountNumberAllocator.initials("  john   doe "));
+        assertEquals("MC", AccountNumberAllocator.initials("Mary 3rd Curie"));
+        assertEquals("X", AccountNumberAllocator.initials("42"));
+    }
+
+    private static String stripCheckDigit(String accountNumber) {
+        return accountNumber.substring(0, accountNumber.length() - 1);
+    }
+
+    private AccountService accountService(AccountRepository accountRepository, AccountNumberAllocator allocator) {
+        AccountService service = new AccountService();
+        service.accountRepository = accountRepository;
+        service.accountNumberAllocator = allocator;
+        service.accountCache = new AccountCache(100, 1000, new SimpleMeterRegistry());
+        return service;
+    }
+}
@@ -1,21 +1,35 @@
 package com.bankingsystem.service;
 
+import com.bankingsystem.cache.AccountCache;
+import com.bankingsystem.exception.AccountInactiveException;
 import com.bankingsystem.exception.AccountNotFoundException;
+import com.bankingsystem.exception.InsufficientFundsException;
 import com.bankingsystem.model.Account;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.dto.BalanceDelta;
+import com.bankingsystem.model.dto.BalanceUpdateResult;
+import com.bankingsystem.model.dto.BulkBalanceRequest;
 import com.bankingsystem.model.dto.CreateAccountRequest;
 import com.bankingsystem.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +38,12 @@ class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Spy
+    private AccountCache accountCache = new AccountCache(100, 60_000, new SimpleMeterRegistry());
+
     @InjectMocks
     private AccountService accountService;
 
@@ -33,7 +53,7 @@ class AccountServiceTest {
     void setUp() {
         mockAccount = new Account("S1234", "John Doe");
         mockAccount.setId("1");
-        mockAccount.setBalance(1000.0);
+        mockAccount.setBalance(Money.of("1000.0"));
         mockAccount.setStatus("ACTIVE");
     }
 
@@ -43,13 +63,15 @@ class AccountServiceTest {
         CreateAccountRequest request = new CreateAccountRequest();
         request.setHolderName("John Doe");
 
-          when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(accountNumberAllocator.nextAccountNumber("John Doe")).thenReturn("JD00000003");
+        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArguments()[0]);
 
         Account created = accountService.createAccount(request);
 
         assertNotNull(created);
+        assertEquals("JD00000003", created.getAccountNumber());
         assertEquals("John Doe", created.getHolderName());
-        assertEquals(0.0, created.getBalance());
+        assertEquals(Money.ZERO, created.getBalance());
         assertEquals("ACTIVE", created.getStatus());
         verify(accountRepository, times(1)).save(any(Account.class));
     }
@@ -57,7 +79,7 @@ class AccountServiceTest {
     // --- 2. Get Account Tests ---
     @Test
     void testGetAccount_Success() {
-        when(accountRepository.findByAccountNumber("S1234")).thenReturn(Optional.of(mockAccount));
+        when(accountRepository.findSummary("S1234")).thenReturn(Optional.of(mockAccount));
 
         Account found = accountService.getAccount("S1234");
         assertEquals("S1234", found.getAccountNumber());
@@ -65,42 +87,194 @@ class AccountServiceTest {
 
     @Test
     void testGetAccount_NotFound() {
-        when(accountRepository.findByAccountNumber("XXXX")).thenReturn(Optional.empty());
+        when(accountRepository.findSummary("XXXX")).thenReturn(Optional.empty());
+        assertThrows(AccountNotFoundException.class, () -> accountService.getAccount("XXXX"));
+    }
+
+    @Test
+    void testGetAccount_ServedFromCacheAfterFirstRead() {
+        when(accountRepository.findSummary("S1234")).thenReturn(Optional.of(mockAccount));
+
+        accountService.getAccount("S1234");
+        Account cached = accountService.getAccount("S1234");
+
+        assertSame(mockAccount, cached);
+        verify(accountRepository, times(1)).findSummary("S1234");
+    }
+
+    @Test
+    void testGetAccount_ConsistentReadBypassesCache() {
+        when(accountRepository.findSummary("S1234")).thenReturn(Optional.of(mockAccount));
+
+        accountService.getAccount("S1234");
+        accountService.getAccount("S1234", true);
+
+        verify(accountRepository, times(2)).findSummary("S1234");
+    }
+
+    @Test
+    void testGetAccount_NotFoundIsNotCached() {
+        when(accountRepository.findSummary("XXXX")).thenReturn(Optional.empty());
+
+        assertThrows(AccountNotFoundException.class, () -> accountService.getAccount("XXXX"));
         assertThrows(AccountNotFoundException.class, () -> accountService.getAccount("XXXX"));
+
+        verify(accountRepository, times(2)).findSummary("XXXX");
+        assertEquals(0, accountCache.size());
+    }
+
+    @Test
+    void testLookupAccounts_SingleQueryForDistinctNumbers() {
+        when(accountRepository.findSummaries(anyCollection())).thenReturn(List.of(mockAccount));
+
+        List<Account> found = accountService.lookupAccounts(List.of("S1234", "S1234", "XXXX"));
+
+        assertEquals(1, found.size());
+        verify(accountRepository).findSummaries(argThat(c -> c.size() == 2));
+        verify(accountRepository, never()).findSummary(anyString());
     }
 
     // --- 3. Update Balance Tests ---
     @Test
     void testUpdateBalance_Success() {
-        when(accountRepository.findByAccountNumber("S1234")).thenReturn(Optional.of(mockAccount));
-        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArguments()[0]);
+        mockAccount.setBalance(Money.of("1500.0"));
+        when(accountRepository.incrementBalance("S1234", Money.of("500.0"), null)).thenReturn(mockAccount);
 
-        Account updated = accountService.updateBalance("S1234", 500.0);
-        assertEquals(1500.0, updated.getBalance()); // 1000 + 500
+        Account updated = accountService.updateBalance("S1234", Money.of("500.0"));
+        assertEquals(Money.of("1500.0"), updated.getBalance()); // 1000 + 500
+        verify(accountRepository, never()).findSummary(anyString());
+        verify(accountRepository, never()).save(any(Account.class));
     }
 
     @Test
     void testUpdateBalance_InactiveAccount() {
         mockAccount.setStatus("INACTIVE");
-        when(accountRepository.findByAccountNumber("S1234")).thenReturn(Optional.of(mockAccount));
+        when(accountRepository.incrementBalance("S1234", Money.of("100.0"), null)).thenReturn(null);
+        when(accountRepository.findSummary("S1234")).thenReturn(Optional.of(mockAccount));
 
-        assertThrows(RuntimeException.class, () -> accountService.updateBalance("S1234", 100.0));
+        assertThrows(RuntimeException.class, () -> accountService.updateBalance("S1234", Money.of("100.0")));
         verify(accountRepository, never()).save(any(Account.class));
     }
 
+    @Test
+    void testUpdateBalance_InactiveAccountIsTyped() {
+        mockAccount.setStatus("INACTIVE");
+        when(accountRepository.incrementBalance("S1234", Money.of("100.0"), "OP-1")).thenReturn(null);
+        when(accountRepository.findSummary("S1234")).thenReturn(Optional.of(mockAccount));
+
+        assertThrows(AccountInactiveException.class, () -> accountService.updateBalance("S1234", Money.of("100.0"), "OP-1"));
+    }
+
+    @Test
+    void testUpdateBalance_ReplayedOperationIsNotAppliedTwice() {
+        when(accountRepository.incrementBalance("S1234", Money.of("100.0"), "OP-1")).thenReturn(null);
+        when(accountRepository.findSummary("S1234")).thenReturn(Optional.of(mockAccount));
+        when(accountRepository.findApplied("OP-1", List.of("S1234"))).thenReturn(Set.of("S1234"));
+
+        Account account = accountService.updateBalance("S1234", Money.of("100.0"), "OP-1");
+        assertEquals(Money.of("1000.0"), account.getBalance());
+    }
+
+    @Test
+    void testUpdateBalance_InsufficientFunds() {
+        when(accountRepository.incrementBalance("S1234", Money.of("-5000.0"), null)).thenReturn(null);
+        when(accountRepository.findSummary("S1234")).thenReturn(Optional.of(mockAccount));
+
+        assertThrows(InsufficientFundsException.class, () -> accountService.updateBalance("S1234", Money.of("-5000.0")));
+    }
+
+    @Test
+    void testUpdateBalance_AccountNotFound() {
+        when(accountRepository.incrementBalance("XXXX", Money.of("100.0"), null)).thenReturn(null);
+        when(accountRepository.findSummary("XXXX")).thenReturn(Optional.empty());
+
+        assertThrows(AccountNotFoundException.class, () -> accountService.updateBalance("XXXX", Money.of("100.0")));
+    }
+
+    @Test
+    void testDebit_Success() {
+        mockAccount.setBalance(Money.of("700.0"));
+        when(accountRepository.incrementBalance("S1234", Money.of("-300.0"), null)).thenReturn(mockAccount);
+
+        Account updated = accountService.debit("S1234", Money.of("300.0"), null);
+        assertEquals(Money.of("700.0"), updated.getBalance());
+    }
+
+    @Test
+    void testDebit_InsufficientFunds() {
+        when(accountRepository.incrementBalance("S1234", Money.of("-1500.0"), null)).thenReturn(null);
+        when(accountRepository.findSummary("S1234")).thenReturn(Optional.of(mockAccount));
+
+        assertThrows(InsufficientFundsException.class, () -> accountService.debit("S1234", Money.of("1500.0"), null));
+    }
+
+    @Test
+    void testUpdateBalances_ReportsPerAccountOutcome() {
+        Account applied = new Account("S1234", "John Doe");
+        applied.setBalance(Money.of("900.0"));
+        Account inactive = new Account("I5678", "Jane Roe");
+        inactive.setStatus("INACTIVE");
+        when(accountRepository.applyBalanceDeltas(eq("BATCH-1"), anyMap())).thenReturn(List.of(applied, inactive));
+        when(accountRepository.findApplied(eq("BATCH-1"), anyCollection())).thenReturn(Set.of("S1234"));
+
+        BulkBalanceRequest request = new BulkBalanceRequest();
+        request.setOperationId("BATCH-1");
+        request.setDeltas(List.of(new BalanceDelta("S1234", Money.of("-50.0")), new BalanceDelta("I5678", Money.of("25.0")),
+                new BalanceDelta("S1234", Money.of("-50.0")), new BalanceDelta("NONE", Money.of("10.0"))));
+
+        List<BalanceUpdateResult> results = accountService.updateBalances(request);
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isApplied());
+        assertEquals("INACTIVE", results.get(1).getReason());
+        assertEquals("NOT_FOUND", results.get(2).getReason());
+        verify(accountRepository).applyBalanceDeltas(eq("BATCH-1"), argThat(d -> d.get("S1234").equals(Money.of("-100.0"))));
+    }
+
+    @Test
+    void testUpdateBalance_InvalidatesCachedAccount() {
+        Account updated = new Account("S1234", "John Doe");
+        updated.setBalance(Money.of("1500.0"));
+        when(accountRepository.findSummary("S1234")).thenReturn(Optional.of(mockAccount), Optional.of(updated));
+        when(accountRepository.incrementBalance("S1234", Money.of("500.0"), null)).thenReturn(updated);
+
+        accountService.getAccount("S1234");
+        accountService.updateBalance("S1234", Money.of("500.0"));
+
+        assertEquals(Money.of("1500.0"), accountService.getAccount("S1234").getBalance());
+        verify(accountCache).invalidate("S1234");
+    }
+
+    @Test
+    void testUpdateBalances_InvalidatesEveryTouchedAccount() {
+        when(accountRepository.applyBalanceDeltas(eq("BATCH-2"), anyMap())).thenReturn(List.of());
+        BulkBalanceRequest request = new BulkBalanceRequest();
+        request.setOperationId("BATCH-2");
+        request.setDeltas(List.of(new BalanceDelta("S1234", Money.of("-50.0")), new BalanceDelta("I5678", Money.of("50.0"))));
+
+        accountService.updateBalances(request);
+
+        verify(accountCache).invalidateAll(argThat(keys -> keys.containsAll(List.of("S1234", "I5678"))));
+    }
+
     // --- 4. Update Status Tests ---
     @Test
     void testUpdateStatus_Success() {
-        when(accountRepository.findByAccountNumber("S1234")).thenReturn(Optional.of(mockAccount));
-        when(accountRepository.save(any(Account.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(accountRepository.findSummary("S1234")).thenReturn(Optional.of(mockAccount));
+        when(accountRepository.updateStatus("S1234", "INACTIVE")).thenAnswer(i -> {
+            mockAccount.setStatus("INACTIVE");
+            return mockAccount;
+        });
 
-        Account updated = accountService.updateStatus("S1234", "INACTIVE");
+        Account updated = accountService.updateStatus("S1234", "inactive");
         assertEquals("INACTIVE", updated.getStatus());
+        verify(accountRepository, never()).save(any(Account.class));
+        verify(accountCache).invalidate("S1234");
     }
 
     @Test
     void testUpdateStatus_InvalidStatus() {
-        when(accountRepository.findByAccountNumber("S1234")).thenReturn(Optional.of(mockAccount));
+        when(accountRepository.findSummary("S1234")).thenReturn(Optional.of(mockAccount));
         assertThrows(RuntimeException.class, () -> accountService.updateStatus("S1234", "DELETED"));
     }
 }
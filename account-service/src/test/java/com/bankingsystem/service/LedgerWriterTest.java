@@ -0,0 +1,187 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.model.Account;
+import com.bankingsystem.model.BalanceSnapshot;
+import com.bankingsystem.model.LedgerEntry;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.dto.HistoricalBalance;
+import com.bankingsystem.repository.AccountRepository;
+import com.bankingsystem.repository.AccountRepositoryImpl;
+import com.bankingsystem.repository.BalanceSnapshotRepository;
+import com.bankingsystem.repository.LedgerEntryRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerWriterTest {
+
+    private static final int SNAPSHOT_EVERY = 3;
+    private static final int MAX_PENDING = 5;
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private AccountRepository accountRepository;
+    private LedgerEntryRepository ledgerEntryRepository;
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+    private LedgerWriter ledgerWriter;
+    private AccountService accountService;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "accounts_test");
+        mongoTemplate.indexOps(LedgerEntry.class).ensureIndex(new Index()
+                .on("accountNumber", Sort.Direction.ASC).on("seq", Sort.Direction.ASC).unique());
+        mongoTemplate.indexOps(BalanceSnapshot.class).ensureIndex(new Index()
+                .on("accountNumber", Sort.Direction.ASC).on("seq", Sort.Direction.ASC).unique());
+
+        MongoRepositoryFactory factory = new MongoRepositoryFactory(mongoTemplate);
+        accountRepository = factory.getRepository(AccountRepository.class,
+                RepositoryFragments.just(new AccountRepositoryImpl(mongoTemplate, SNAPSHOT_EVERY, MAX_PENDING)));
+        ledgerEntryRepository = factory.getRepository(LedgerEntryRepository.class);
+        balanceSnapshotRepository = factory.getRepository(BalanceSnapshotRepository.class);
+
+        ledgerWriter = new LedgerWriter(accountRepository, new SimpleMeterRegistry(), 500);
+        accountService = new AccountService();
+        accountService.accountRepository = accountRepository;
+        accountService.ledgerEntryRepository = ledgerEntryRepository;
+        accountService.balanceSnapshotRepository = balanceSnapshotRepository;
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testFlush_WritesNumberedEntriesAndPeriodicSnapshots() {
+        saveAccount("L1", Money.of("100.0"));
+        accountRepository.incrementBalance("L1", Money.of("10.0"), "op-1");
+        accountRepository.incrementBalance("L1", Money.of("-30.0"), "op-2");
+        accountRepository.incrementBalance("L1", Money.of("5.0"), null);
+
+        ledgerWriter.flushPending();
+
+        List<LedgerEntry> entries = ledgerEntryRepository
+                .findByAccountNumberAndSeqGreaterThanAndOccurredAtLessThanEqualOrderBySeqAsc("L1", 0, Instant.now());
+        assertEquals(List.of(1L, 2L, 3L, 4L), entries.stream().map(LedgerEntry::getSeq).toList());
+        assertEquals(List.of(LedgerEntry.OPENING, LedgerEntry.CREDIT, LedgerEntry.DEBIT, LedgerEntry.CREDIT),
+                entries.stream().map(LedgerEntry::getType).toList());
+        assertEquals(Money.of("100.0"), entries.get(0).getAmount());
+        assertEquals("op-2", entries.get(2).getOperationId());
+
+        // Balance right after entry 3: 100 + 10 - 30
+        List<BalanceSnapshot> snapshots = balanceSnapshotRepository.findAll();
+        assertEquals(1, snapshots.size());
+        assertEquals(3, snapshots.get(0).getSeq());
+        assertEquals(Money.of("80.0"), snapshots.get(0).getBalance());
+
+        Account account = accountRepository.findByAccountNumber("L1").orElseThrow();
+        assertTrue(account.getPendingLedger().isEmpty());
+        assertEquals(4, account.getLedgerSeq());
+        assertEquals(Money.of("85.0"), account.getLedgerBalance());
+        assertEquals(Money.of("85.0"), account.getBalance());
+    }
+
+    @Test
+    void testFlush_RepeatedWithStaleCopyWritesNothingTwice() {
+        saveAccount("L2", Money.of("0.0"));
+        accountRepository.incrementBalance("L2", Money.of("1.0"), null);
+        accountRepository.incrementBalance("L2", Money.of("2.0"), null);
+        accountRepository.incrementBalance("L2", Money.of("3.0"), null);
+        Account stale = accountRepository.findByAccountNumber("L2").orElseThrow();
+
+        assertEquals(3, accountRepository.flushLedger(stale));
+        accountRepository.incrementBalance("L2", Money.of("4.0"), null);
+        // As if a second instance had read the account before the first one acknowledged
+        assertEquals(0, accountRepository.flushLedger(stale));
+        ledgerWriter.flushPending();
+
+        assertEquals(4, ledgerEntryRepository.count());
+        assertEquals(1, balanceSnapshotRepository.count());
+        Account account = accountRepository.findByAccountNumber("L2").orElseThrow();
+        assertTrue(account.getPendingLedger().isEmpty());
+        assertEquals(4, account.getLedgerSeq());
+        assertEquals(Money.of("10.0"), account.getLedgerBalance());
+    }
+
+    @Test
+    void testIncrementBalance_DrainsPendingLedgerAtTheCap() {
+        saveAccount("L5", Money.of("0.0"));
+        for (int i = 0; i < 3 * MAX_PENDING; i++) {
+            assertNotNull(accountRepository.incrementBalance("L5", Money.of("1.0"), null));
+        }
+
+        Account account = accountRepository.findByAccountNumber("L5").orElseThrow();
+        assertTrue(account.getPendingLedger().size() <= MAX_PENDING);
+        assertEquals(3 * MAX_PENDING, account.getLedgerSeq() + account.getPendingLedger().size());
+        assertEquals(account.getLedgerSeq(), ledgerEntryRepository.count());
+    }
+
+    @Test
+    void testGetBalanceAsOf_ReplaysFromSnapshotsLedgerAndPendingEntries() throws InterruptedException {
+        saveAccount("L3", Money.of("0.0"));
+        List<Instant> checkpoints = new ArrayList<>();
+        Money[] expected = new Money[10];
+        Money balance = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            Money amount = Money.ofMinor((i + 1) * 100L);
+            accountRepository.incrementBalance("L3", amount, null);
+            balance = balance.plus(amount);
+            expected[i] = balance;
+            // Mongo keeps milliseconds; leave a gap on both sides of each checkpoint
+            Thread.sleep(2);
+            checkpoints.add(Instant.now());
+            Thread.sleep(2);
+            if (i == 6) {
+                // Entries 1-7 go to the ledger, the last three stay pending
+                ledgerWriter.flushPending();
+            }
+        }
+
+        for (int i = 0; i < 10; i++) {
+            HistoricalBalance replayed = accountService.getBalanceAsOf("L3", checkpoints.get(i));
+            assertEquals(expected[i], replayed.getBalance(), "as of checkpoint " + i);
+            assertTrue(replayed.getReplayedEntries() <= SNAPSHOT_EVERY + 3, "replayed " + replayed.getReplayedEntries());
+        }
+        HistoricalBalance current = accountService.getBalanceAsOf("L3", Instant.now());
+        assertEquals(Money.of("55.0"), current.getBalance());
+        assertEquals(6, current.getSnapshotSeq());
+    }
+
+    @Test
+    void testGetBalanceAsOf_AccountWithoutLedgerYet() {
+        saveAccount("L4", Money.of("250.0"));
+
+        assertEquals(Money.of("250.0"), accountService.getBalanceAsOf("L4", Instant.now()).getBalance());
+        assertEquals(Money.of("0.0"), accountService.getBalanceAsOf("L4", Instant.EPOCH).getBalance());
+    }
+
+    private void saveAccount(String accountNumber, Money balance) {
+        Account account = new Account(accountNumber, "Ledger Test");
+        account.setBalance(balance);
+        account.setStatus("ACTIVE");
+        accountRepository.save(account);
+    }
+}
@@ -0,0 +1,288 @@
+package com.bankingsystem.filter;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Short-lived response cache for the GETs of one route that also coalesces concurrent identical GETs: however
+ * many clients ask for the same path at once, one request goes upstream and every one of them is answered from
+ * its response.
+ *
+ * <pre>
+ * filters:
+ *   - name: CoalescingResponseCache
+ *     args:
+ *       path: /api/accounts/{accountNumber}
+ *       ttl: 1s
+ *       maximumSize: 10000
+ * </pre>
+ *
+ * <p>Only GETs without a query string whose path matches {@code path} are cached, keyed by path and the
+ * {@code Accept} header, so a client that negotiated CBOR never gets a JSON body or the other way round. A
+ * response whose {@code Vary} names any other request header is not kept, since the key cannot tell those
+ * requests apart; requests that joined its call still share it. Responses carry
+ * an {@code ETag} computed from the body; a request whose {@code If-None-Match} matches is answered 304 by the
+ * gateway without reaching the service. Only 200 responses are kept, but requests that joined an in-flight call
+ * share whatever it returned. Other methods on a cached path or below it (a status change, say) drop the entry;
+ * balance changes made through the transaction route do not, so {@code ttl} bounds how stale a read can be.
+ *
+ * <p>Counters: {@code gateway.response.cache.requests{route, result=hit|miss|coalesced}} and
+ * {@code gateway.response.cache.not.modified{route}}.
+ */
+@Component
+public class CoalescingResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<CoalescingResponseCacheGatewayFilterFactory.Config> {
+
+    // Before NettyWriteResponseFilter, so the exchange it writes the upstream body to is the capturing one
+    static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private static final Set<HttpMethod> SAFE_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    private final MeterRegistry meterRegistry;
+
+    public CoalescingResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("path", "ttl", "maximumSize");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        PathPattern pattern = PathPatternParser.defaultInstance.parse(config.getPath());
+        AsyncCache<Key, CachedResponse> cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTtl())
+                .buildAsync();
+        String route = config.getRouteId() != null ? config.getRouteId() : config.getPath();
+        Counter hits = requests(route, "hit");
+        Counter misses = requests(route, "miss");
+        Counter coalesced = requests(route, "coalesced");
+        Counter notModified = meterRegistry.counter("gateway.response.cache.not.modified", "route", route);
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            PathContainer path = request.getPath().pathWithinApplication();
+            if (!SAFE_METHODS.contains(request.getMethod())) {
+                invalidate(cache, pattern, path.value());
+                return chain.filter(exchange);
+            }
+            if (!HttpMethod.GET.equals(request.getMethod()) || !request.getQueryParams().isEmpty() || !pattern.matches(path)) {
+                return chain.filter(exchange);
+            }
+
+            Key key = new Key(path.value(), String.join(",", request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT)));
+            boolean[] leader = new boolean[1];
+            CompletableFuture<CachedResponse> response = cache.get(key, (k, executor) -> {
+                leader[0] = true;
+                return fetch(exchange, chain);
+            });
+            if (leader[0]) {
+                misses.increment();
+                // Errors are dropped by the cache itself; other statuses are shared with waiters but not kept
+                response.thenAccept(fetched -> {
+                    if (!fetched.isOk() || !fetched.variesOnlyByAccept()) {
+                        cache.asMap().remove(key, response);
+                    }
+                });
+            } else if (response.isDone()) {
+                hits.increment();
+            } else {
+                coalesced.increment();
+            }
+            return Mono.fromFuture(response, true).flatMap(fetched -> {
+                boolean unchanged = fetched.isOk() && fetched.matches(request.getHeaders().getIfNoneMatch());
+                if (unchanged) {
+                    notModified.increment();
+                }
+                return write(exchange, fetched, unchanged);
+            });
+        }, ORDER);
+    }
+
+    private Counter requests(String route, String result) {
+        return meterRegistry.counter("gateway.response.cache.requests", "route", route, "result", result);
+    }
+
+    /**
+     * Sends the request upstream with a response that keeps the body instead of writing it. Subscribed
+     * independently of the leader's own request, so a leader that disconnects does not fail the waiters.
+     */
+    private static CompletableFuture<CachedResponse> fetch(ServerWebExchange exchange, GatewayFilterChain chain) {
+        BodyCapturingResponse capturing = new BodyCapturingResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .then(Mono.fromSupplier(capturing::toCachedResponse))
+                .toFuture();
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, boolean notModified) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.clear();
+        headers.putAll(cached.headers());
+        headers.setETag(cached.etag());
+        if (notModified) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Drops the cached entries, one per {@code Accept}, for {@code path} or the closest of its parents that is
+     * cacheable, so that {@code PUT /api/accounts/JD00000017/status} evicts {@code /api/accounts/JD00000017}.
+     */
+    private static void invalidate(AsyncCache<Key, CachedResponse> cache, PathPattern pattern, String path) {
+        for (String candidate = path; !candidate.isEmpty(); candidate = candidate.substring(0, candidate.lastIndexOf('/'))) {
+            if (pattern.matches(PathContainer.parsePath(candidate))) {
+                String evicted = candidate;
+                cache.asMap().keySet().removeIf(key -> key.path().equals(evicted));
+                return;
+            }
+        }
+    }
+
+    private record Key(String path, String accept) {
+    }
+
+    record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag) {
+
+        boolean isOk() {
+            return status.value() == HttpStatus.OK.value();
+        }
+
+        boolean variesOnlyByAccept() {
+            return headers.getVary().stream().allMatch(HttpHeaders.ACCEPT::equalsIgnoreCase);
+        }
+
+        boolean matches(List<String> ifNoneMatch) {
+            for (String tag : ifNoneMatch) {
+                if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class BodyCapturingResponse extends ServerHttpResponseDecorator {
+
+        private byte[] body = new byte[0];
+
+        BodyCapturingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(body).doOnNext(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+                this.body = bytes;
+            }).then();
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).flatMapSequential(p -> p));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return Mono.empty();
+        }
+
+        CachedResponse toCachedResponse() {
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (!name.equalsIgnoreCase(HttpHeaders.TRANSFER_ENCODING) && !name.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)
+                        && !name.equalsIgnoreCase(HttpHeaders.CONNECTION) && !name.equalsIgnoreCase(HttpHeaders.ETAG)) {
+                    headers.addAll(name, values);
+                }
+            });
+            HttpStatusCode status = getStatusCode() != null ? getStatusCode() : HttpStatus.OK;
+            return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body,
+                    "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        }
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String path;
+        private Duration ttl = Duration.ofSeconds(1);
+        private long maximumSize = 10_000;
+        private String routeId;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.bankingsystem.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limit for one route, kept in memory so the gateway needs nothing else to run. Each route that
+ * lists the filter gets its own {@link TokenBucketTable}; a client over its limit is answered 429 with
+ * {@code Retry-After} and never reaches the service.
+ *
+ * <pre>
+ * filters:
+ *   - name: TokenBucketRateLimiter
+ *     args:
+ *       capacity: 20          # burst size
+ *       tokensPerSecond: 10   # sustained rate
+ *       keyBy: IP             # or PRINCIPAL
+ * </pre>
+ *
+ * <p>By default the client is the caller's address. With {@code PRINCIPAL} it is the authenticated principal's
+ * name, falling back to the address for anonymous requests. Nothing the client sends unauthenticated, such as
+ * a header, picks its bucket, since a client could escape its limit by changing it.
+ */
+@Component
+public class TokenBucketRateLimiterGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<TokenBucketRateLimiterGatewayFilterFactory.Config> {
+
+    // Ahead of the route's other filters, including the response cache, so a refused request never joins or
+    // starts an upstream call that other clients would share
+    static final int ORDER = CoalescingResponseCacheGatewayFilterFactory.ORDER - 1;
+
+    public TokenBucketRateLimiterGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("capacity", "tokensPerSecond", "keyBy");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        TokenBucketTable buckets = new TokenBucketTable(config.getSlots(), config.getCapacity(), config.getTokensPerSecond());
+        return new OrderedGatewayFilter((exchange, chain) -> clientKey(exchange, config.getKeyBy()).flatMap(key -> {
+            long waitNanos = buckets.tryAcquire(key);
+            if (waitNanos == 0) {
+                return chain.filter(exchange);
+            }
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            // Whole seconds, rounded up so a client that waits as told is admitted
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return response.setComplete();
+        }), ORDER);
+    }
+
+    static Mono<String> clientKey(ServerWebExchange exchange, KeyBy keyBy) {
+        String address = addressKey(exchange.getRequest());
+        if (keyBy != KeyBy.PRINCIPAL) {
+            return Mono.just(address);
+        }
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .filter(StringUtils::hasText)
+                .map(name -> "principal:" + name)
+                .defaultIfEmpty(address);
+    }
+
+    private static String addressKey(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null) {
+            return "ip:unknown";
+        }
+        return "ip:" + (remoteAddress.getAddress() != null ? remoteAddress.getAddress().getHostAddress() : remoteAddress.getHostString());
+    }
+
+    public enum KeyBy {
+        IP, PRINCIPAL
+    }
+
+    public static class Config {
+
+        private long capacity = 20;
+        private double tokensPerSecond = 10;
+        private KeyBy keyBy = KeyBy.IP;
+        // 2^16 slots of 8 bytes each: 512 KB per route, however many clients there are
+        private int slots = 1 << 16;
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getTokensPerSecond() {
+            return tokensPerSecond;
+        }
+
+        public void setTokensPerSecond(double tokensPerSecond) {
+            this.tokensPerSecond = tokensPerSecond;
+        }
+
+        public KeyBy getKeyBy() {
+            return keyBy;
+        }
+
+        public void setKeyBy(KeyBy keyBy) {
+            this.keyBy = keyBy;
+        }
+
+        public int getSlots() {
+            return slots;
+        }
+
+        public void setSlots(int slots) {
+            this.slots = slots;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.bankingsystem.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets for an unbounded set of clients in a fixed amount of memory, without locks.
+ *
+ * <p>Each bucket is a single long updated by compare-and-set: the time at which it will be full again (the
+ * generic cell rate algorithm, which admits exactly what a token bucket of {@code capacity} tokens refilled at
+ * {@code tokensPerSecond} would). Admitting a request pushes that time one refill interval further; a request
+ * that would push it more than {@code capacity} intervals past now is refused, and the excess is how long the
+ * client has to wait.
+ *
+ * <p>Clients are hashed onto a fixed number of slots, so the table never grows, and each client uses two slots.
+ * Clients sharing a slot can only make it look busier, never emptier, so the less busy of the two is the best
+ * estimate of the client's own bucket; it decides, and both are moved forward. A client is only throttled early
+ * if both of its slots collide with busy clients.
+ */
+class TokenBucketTable {
+
+    private final AtomicLongArray fullAt;
+    private final int mask;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+
+    TokenBucketTable(int slots, long capacity, double tokensPerSecond) {
+        this(slots, capacity, tokensPerSecond, System::nanoTime);
+    }
+
+    TokenBucketTable(int slots, long capacity, double tokensPerSecond, LongSupplier clock) {
+        if (Integer.bitCount(slots) != 1 || capacity < 1 || !(tokensPerSecond > 0)) {
+            throw new IllegalArgumentException("slots must be a power of two, capacity and rate positive");
+        }
+        this.fullAt = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / tokensPerSecond));
+        this.burstNanos = Math.multiplyExact(intervalNanos, capacity);
+        // Slots start at 0, which must read as "full long ago" whatever nanoTime's origin is
+        long origin = clock.getAsLong() - burstNanos;
+        this.clock = () -> clock.getAsLong() - origin;
+    }
+
+    /**
+     * Takes one token from {@code key}'s bucket.
+     *
+     * @return 0 if the request is admitted, otherwise how many nanoseconds until a token is available
+     */
+    long tryAcquire(String key) {
+        int hash = spread(key.hashCode());
+        int first = hash & mask;
+        int second = (hash >>> 16 | hash << 16) & mask;
+        if (second == first) {
+            second = (first + 1) & mask;
+        }
+        while (true) {
+            long now = clock.getAsLong();
+            long firstFullAt = fullAt.get(first);
+            long secondFullAt = fullAt.get(second);
+            int slot = firstFullAt <= secondFullAt ? first : second;
+            long current = Math.min(firstFullAt, secondFullAt);
+
+            long next = Math.max(current, now) + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(slot, current, next)) {
+                raise(slot == first ? second : first, next);
+                return 0;
+            }
+        }
+    }
+
+    private void raise(int slot, long value) {
+        long current;
+        do {
+            current = fullAt.get(slot);
+        } while (current < value && !fullAt.compareAndSet(slot, current, value));
+    }
+
+    private static int spread(int hash) {
+        // Murmur3's finalizer, so keys differing in a few characters land far apart
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ hash >>> 16;
+    }
+}
@@ -1,13 +1,36 @@
 package com.bankingsystem;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 class ApiGatewayApplicationTests {
 
+	@Autowired
+	private RouteLocator routeLocator;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void routeFiltersBindFromConfiguration() {
+		// Filter arguments are only bound when routes are built, so a typo would otherwise surface on the first request
+		List<Route> routes = routeLocator.getRoutes().collectList().block();
+
+		assertEquals(2, route(routes, "account-service").getFilters().size());
+		assertEquals(1, route(routes, "transaction-service").getFilters().size());
+	}
+
+	private static Route route(List<Route> routes, String id) {
+		return routes.stream().filter(r -> r.getId().equals(id)).findFirst().orElseThrow();
+	}
+
 }
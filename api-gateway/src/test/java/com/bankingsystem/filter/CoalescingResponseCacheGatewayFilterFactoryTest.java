@@ -0,0 +1,173 @@
+package com.bankingsystem.filter;
+
+import com.bankingsystem.filter.CoalescingResponseCacheGatewayFilterFactory.Config;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingResponseCacheGatewayFilterFactoryTest {
+
+    private static final String ACCOUNT = "/api/accounts/JD00000017";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private HttpStatus upstreamStatus = HttpStatus.OK;
+    private Duration upstreamDelay = Duration.ZERO;
+    private List<String> upstreamVary = List.of();
+    private GatewayFilter filter;
+
+    // Stands in for the routing and NettyWriteResponseFilter: sets the status and writes the body
+    private final GatewayFilterChain upstream = exchange -> Mono.delay(upstreamDelay).then(Mono.defer(() -> {
+        int call = upstreamCalls.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(upstreamStatus);
+        boolean cbor = exchange.getRequest().getHeaders().getAccept().contains(MediaType.APPLICATION_CBOR);
+        response.getHeaders().setContentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON);
+        response.getHeaders().setVary(upstreamVary);
+        byte[] body = ((cbor ? "cbor:" : "") + "{\"call\":" + call + "}").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }));
+
+    @BeforeEach
+    void setUp() {
+        Config config = new Config();
+        config.setRouteId("account-service");
+        config.setPath("/api/accounts/{accountNumber}");
+        config.setTtl(Duration.ofMinutes(1));
+        filter = new CoalescingResponseCacheGatewayFilterFactory(meterRegistry).apply(config);
+    }
+
+    @Test
+    void testConcurrentGetsShareOneUpstreamCall() {
+        upstreamDelay = Duration.ofMillis(200);
+        List<MockServerWebExchange> exchanges = new ArrayList<>();
+        List<Mono<Void>> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(ACCOUNT));
+            exchanges.add(exchange);
+            requests.add(filter.filter(exchange, upstream));
+        }
+        Mono.when(requests).block(Duration.ofSeconds(5));
+
+        assertEquals(1, upstreamCalls.get());
+        for (MockServerWebExchange exchange : exchanges) {
+            MockServerHttpResponse response = exchange.getResponse();
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("{\"call\":1}", response.getBodyAsString().block());
+            assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+            assertNotNull(response.getHeaders().getETag());
+        }
+        assertEquals(1, count("miss"));
+        assertEquals(4, count("coalesced"));
+    }
+
+    @Test
+    void testMatchingIfNoneMatchIsAnswered304FromTheCache() {
+        String etag = get(ACCOUNT, null).getHeaders().getETag();
+
+        MockServerHttpResponse revalidated = get(ACCOUNT, etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+        assertEquals(etag, revalidated.getHeaders().getETag());
+        assertEquals("", revalidated.getBodyAsString().defaultIfEmpty("").block());
+
+        MockServerHttpResponse stale = get(ACCOUNT, "\"something-else\"");
+        assertEquals(HttpStatus.OK, stale.getStatusCode());
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(2, count("hit"));
+        assertEquals(1, meterRegistry.counter("gateway.response.cache.not.modified", "route", "account-service").count());
+    }
+
+    @Test
+    void testWriteOnTheAccountInvalidatesIt() {
+        get(ACCOUNT, null);
+        MockServerWebExchange statusChange = MockServerWebExchange.from(MockServerHttpRequest.put(ACCOUNT + "/status"));
+        filter.filter(statusChange, exchange -> Mono.empty()).block();
+
+        assertEquals("{\"call\":2}", get(ACCOUNT, null).getBodyAsString().block());
+    }
+
+    @Test
+    void testOnlyOkResponsesAndPlainGetsAreCached() {
+        upstreamStatus = HttpStatus.NOT_FOUND;
+        get(ACCOUNT, null);
+        assertEquals(HttpStatus.NOT_FOUND, get(ACCOUNT, null).getStatusCode());
+        assertEquals(2, upstreamCalls.get());
+
+        upstreamStatus = HttpStatus.OK;
+        get(ACCOUNT + "?consistent=true", null);
+        get(ACCOUNT + "?consistent=true", null);
+        get(ACCOUNT + "/balance", null);
+        assertEquals(5, upstreamCalls.get());
+    }
+
+    @Test
+    void testEachAcceptHasItsOwnEntry() {
+        MockServerHttpResponse cbor = getAccepting(ACCOUNT, MediaType.APPLICATION_CBOR);
+        MockServerHttpResponse json = getAccepting(ACCOUNT, MediaType.APPLICATION_JSON);
+
+        assertEquals(MediaType.APPLICATION_CBOR, cbor.getHeaders().getContentType());
+        assertEquals("cbor:{\"call\":1}", cbor.getBodyAsString().block());
+        assertEquals(MediaType.APPLICATION_JSON, json.getHeaders().getContentType());
+        assertEquals("{\"call\":2}", json.getBodyAsString().block());
+        assertEquals("cbor:{\"call\":1}", getAccepting(ACCOUNT, MediaType.APPLICATION_CBOR).getBodyAsString().block());
+        assertEquals(2, upstreamCalls.get());
+
+        // A write evicts every variant
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.put(ACCOUNT + "/status")), exchange -> Mono.empty()).block();
+        getAccepting(ACCOUNT, MediaType.APPLICATION_CBOR);
+        getAccepting(ACCOUNT, MediaType.APPLICATION_JSON);
+        assertEquals(4, upstreamCalls.get());
+    }
+
+    @Test
+    void testResponsesVaryingOnOtherHeadersAreNotKept() {
+        upstreamVary = List.of(HttpHeaders.ACCEPT, HttpHeaders.ORIGIN);
+        get(ACCOUNT, null);
+        get(ACCOUNT, null);
+        assertEquals(2, upstreamCalls.get());
+
+        upstreamVary = List.of(HttpHeaders.ACCEPT);
+        get(ACCOUNT, null);
+        get(ACCOUNT, null);
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    private MockServerHttpResponse getAccepting(String uri, MediaType accept) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri).accept(accept));
+        filter.filter(exchange, upstream).block(Duration.ofSeconds(5));
+        return exchange.getResponse();
+    }
+
+    private MockServerHttpResponse get(String uri, String ifNoneMatch) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(uri);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, upstream).block(Duration.ofSeconds(5));
+        return exchange.getResponse();
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("gateway.response.cache.requests", "route", "account-service", "result", result).count();
+    }
+}
@@ -0,0 +1,92 @@
+package com.bankingsystem.filter;
+
+import com.bankingsystem.filter.TokenBucketRateLimiterGatewayFilterFactory.Config;
+import com.bankingsystem.filter.TokenBucketRateLimiterGatewayFilterFactory.KeyBy;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterGatewayFilterFactoryTest {
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+
+    @Test
+    void testOverLimitIsAnswered429WithRetryAfter() {
+        GatewayFilter filter = filter(2, KeyBy.IP);
+
+        assertNull(run(filter, null, "10.0.0.1").getStatusCode());
+        assertNull(run(filter, null, "10.0.0.1").getStatusCode());
+        MockServerHttpResponse rejected = run(filter, null, "10.0.0.1");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatusCode());
+        assertEquals("1", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(2, forwarded.get());
+    }
+
+    @Test
+    void testPrincipalSeparatesClientsBehindOneAddress() {
+        GatewayFilter filter = filter(1, KeyBy.PRINCIPAL);
+
+        run(filter, "tenant-1", "10.0.0.1");
+        assertNull(run(filter, "tenant-2", "10.0.0.1").getStatusCode());
+        // Anonymous requests are limited by address
+        assertNull(run(filter, null, "10.0.0.1").getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, run(filter, null, "10.0.0.1").getStatusCode());
+    }
+
+    @Test
+    void testDefaultKeyIsTheAddressWhateverHeadersSay() {
+        GatewayFilter filter = new TokenBucketRateLimiterGatewayFilterFactory().apply(config(1, new Config().getKeyBy()));
+
+        assertNull(run(filter, null, "10.0.0.1", "tenant-1").getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, run(filter, null, "10.0.0.1", "tenant-2").getStatusCode());
+        assertNull(run(filter, null, "10.0.0.2", "tenant-2").getStatusCode());
+    }
+
+    private GatewayFilter filter(long capacity, KeyBy keyBy) {
+        return new TokenBucketRateLimiterGatewayFilterFactory().apply(config(capacity, keyBy));
+    }
+
+    private static Config config(long capacity, KeyBy keyBy) {
+        Config config = new Config();
+        config.setCapacity(capacity);
+        config.setTokensPerSecond(1);
+        config.setKeyBy(keyBy);
+        config.setSlots(1024);
+        return config;
+    }
+
+    private MockServerHttpResponse run(GatewayFilter filter, String principal, String ip) {
+        return run(filter, principal, ip, null);
+    }
+
+    private MockServerHttpResponse run(GatewayFilter filter, String principal, String ip, String clientIdHeader) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/transactions/account/JD00000017")
+                .remoteAddress(new InetSocketAddress(ip, 40000));
+        if (clientIdHeader != null) {
+            request.header("X-Client-Id", clientIdHeader);
+        }
+        MockServerWebExchange.Builder exchange = MockServerWebExchange.builder(request);
+        if (principal != null) {
+            exchange.principal(() -> principal);
+        }
+        MockServerWebExchange built = exchange.build();
+        filter.filter(built, chain).block();
+        return built.getResponse();
+    }
+}
@@ -0,0 +1,82 @@
+package com.bankingsystem.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTableTest {
+
+    private final AtomicLong now = new AtomicLong(-TimeUnit.DAYS.toNanos(1));
+
+    @Test
+    void testAdmitsBurstThenRefillsAtRate() {
+        TokenBucketTable buckets = new TokenBucketTable(1024, 5, 10, now::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, buckets.tryAcquire("client-a"));
+        }
+        long wait = buckets.tryAcquire("client-a");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+
+        now.addAndGet(wait);
+        assertEquals(0, buckets.tryAcquire("client-a"));
+        assertTrue(buckets.tryAcquire("client-a") > 0);
+
+        // Idle long enough and the bucket is full again, but never fuller
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, buckets.tryAcquire("client-a"));
+        }
+        assertTrue(buckets.tryAcquire("client-a") > 0);
+    }
+
+    @Test
+    void testClientsDoNotShareBuckets() {
+        TokenBucketTable buckets = new TokenBucketTable(1024, 1, 1, now::get);
+
+        assertEquals(0, buckets.tryAcquire("client-a"));
+        assertTrue(buckets.tryAcquire("client-a") > 0);
+        assertEquals(0, buckets.tryAcquire("client-b"));
+    }
+
+    @Test
+    void testFewSlotsNeverAdmitMoreThanTheLimit() {
+        // Far more clients than slots: collisions may throttle early but must not let anyone past its limit
+        TokenBucketTable buckets = new TokenBucketTable(16, 3, 1, now::get);
+
+        for (int client = 0; client < 200; client++) {
+            int admitted = 0;
+            for (int i = 0; i < 10; i++) {
+                if (buckets.tryAcquire("client-" + client) == 0) {
+                    admitted++;
+                }
+            }
+            assertTrue(admitted <= 3, "client-" + client + " admitted " + admitted);
+        }
+    }
+
+    @Test
+    void testConcurrentCallersShareOneBurst() throws Exception {
+        TokenBucketTable buckets = new TokenBucketTable(1024, 100, 0.001, now::get);
+        AtomicInteger admitted = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            pool.execute(() -> {
+                if (buckets.tryAcquire("hot-client") == 0) {
+                    admitted.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, admitted.get());
+    }
+}
@@ -0,0 +1,64 @@
+package com.bankingsystem.benchmark;
+
+import com.bankingsystem.model.Account;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.dto.BalanceRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of account-service's hottest payloads: the account it returns on every read and the balance
+ * request transaction-service sends on every deposit and withdrawal. The mapper is built the way Spring Boot
+ * builds it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountJsonBenchmark {
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Account account;
+    private byte[] accountJson;
+    private byte[] balanceRequestJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        account = new Account("JD00000017", "Jane Doe");
+        account.setId("6650f0c2a1b2c3d4e5f60718");
+        account.setBalance(Money.of("1520.75"));
+        accountJson = mapper.writeValueAsBytes(account);
+        balanceRequestJson = "{\"amount\":250.0,\"operationId\":\"6650f0c2a1b2c3d4e5f60718:debit\"}".getBytes();
+    }
+
+    @Benchmark
+    public byte[] writeAccount() throws IOException {
+        return mapper.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public Account readAccount() throws IOException {
+        return mapper.readValue(accountJson, Account.class);
+    }
+
+    @Benchmark
+    public BalanceRequest readBalanceRequest() throws IOException {
+        return mapper.readValue(balanceRequestJson, BalanceRequest.class);
+    }
+}
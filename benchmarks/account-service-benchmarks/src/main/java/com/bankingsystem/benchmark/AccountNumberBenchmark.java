@@ -0,0 +1,130 @@
+package com.bankingsystem.benchmark;
+
+import com.bankingsystem.repository.AccountSequenceRepository;
+import com.bankingsystem.service.AccountNumberAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Account number allocation. Mongo is replaced by an in-memory sequence that parks for
+ * {@code roundTripMicros} per call, so the numbers show how the block size amortises round trips.
+ *
+ * <p>{@code legacyRandomProbe} reproduces the generator {@link AccountNumberAllocator} replaced: initials plus a
+ * random four-digit suffix, retried until an existence check (one simulated round trip each) finds it free.
+ * {@code occupancy} is the share of suffixes already taken for the holder's initials.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountNumberBenchmark {
+
+    private static final String HOLDER = "Jane Doe";
+
+    @State(Scope.Benchmark)
+    public static class Allocator {
+
+        @Param({"1", "100"})
+        int blockSize;
+
+        @Param({"0", "100"})
+        long roundTripMicros;
+
+        AccountNumberAllocator allocator;
+
+        @Setup
+        public void setUp() {
+            AtomicLong sequence = new AtomicLong(1);
+            long roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+            AccountSequenceRepository repository = (AccountSequenceRepository) Proxy.newProxyInstance(
+                    AccountSequenceRepository.class.getClassLoader(), new Class<?>[]{AccountSequenceRepository.class},
+                    (self, method, args) -> {
+                        if (!method.getName().equals("reserveBlock")) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        roundTrip(roundTripNanos);
+                        return sequence.getAndAdd((Integer) args[1]);
+                    });
+            allocator = new AccountNumberAllocator(repository, blockSize);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Legacy {
+
+        @Param({"0.5", "0.9"})
+        double occupancy;
+
+        @Param({"0", "100"})
+        long roundTripMicros;
+
+        final Set<String> taken = new HashSet<>();
+        long roundTripNanos;
+
+        @Setup
+        public void setUp() {
+            roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+            for (int suffix = 1000; suffix < 10000; suffix++) {
+                if (ThreadLocalRandom.current().nextDouble() < occupancy) {
+                    taken.add("JD" + suffix);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public String allocator(Allocator state) {
+        return state.allocator.nextAccountNumber(HOLDER);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String allocatorContended(Allocator state) {
+        return state.allocator.nextAccountNumber(HOLDER);
+    }
+
+    @Benchmark
+    public String legacyRandomProbe(Legacy state) {
+        String initials = Arrays.stream(HOLDER.split("\\s+"))
+                .filter(s -> !s.isEmpty())
+                .map(s -> String.valueOf(s.charAt(0)))
+                .collect(Collectors.joining())
+                .toUpperCase();
+        String candidate;
+        boolean exists;
+        do {
+            candidate = initials + (1000 + ThreadLocalRandom.current().nextInt(9000));
+            roundTrip(state.roundTripNanos);
+            exists = state.taken.contains(candidate);
+        } while (exists);
+        // Not added to the set, so occupancy stays where the parameter put it
+        return candidate;
+    }
+
+    private static void roundTrip(long nanos) {
+        if (nanos > 0) {
+            LockSupport.parkNanos(nanos);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.bankingsystem.benchmark;
+
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.dto.BalanceRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Money} against the {@code Double} amounts it replaced, on the deposit path's own work: reading the
+ * amount from the request, applying it to a balance, and netting a bulk request's deltas per account. Run with
+ * {@code -prof gc}; {@code gc.alloc.rate.norm} is the number to compare. The {@code legacy*} methods reproduce
+ * the code before the change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int DELTAS = 64;
+    private static final int ACCOUNTS = 8;
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private byte[] balanceRequestJson;
+    private String[] deltaAccounts;
+    private Money[] deltas;
+    private Double[] legacyDeltas;
+    private Money balance;
+    private Double legacyBalance;
+
+    @Setup
+    public void setUp() {
+        balanceRequestJson = "{\"amount\":250.10,\"operationId\":\"6650f0c2a1b2c3d4e5f60718:debit\"}".getBytes();
+        deltaAccounts = new String[DELTAS];
+        deltas = new Money[DELTAS];
+        legacyDeltas = new Double[DELTAS];
+        for (int i = 0; i < DELTAS; i++) {
+            deltaAccounts[i] = String.format("BM%08d", i % ACCOUNTS);
+            long minorUnits = (i % 2 == 0 ? 1 : -1) * (1_000L + i * 37L);
+            deltas[i] = Money.ofMinor(minorUnits);
+            legacyDeltas[i] = minorUnits / 100.0;
+        }
+        balance = Money.of("1520.75");
+        legacyBalance = 1520.75;
+    }
+
+    @Benchmark
+    public BalanceRequest readBalanceRequest() throws IOException {
+        return mapper.readValue(balanceRequestJson, BalanceRequest.class);
+    }
+
+    @Benchmark
+    public LegacyBalanceRequest legacyReadBalanceRequest() throws IOException {
+        return mapper.readValue(balanceRequestJson, LegacyBalanceRequest.class);
+    }
+
+    @Benchmark
+    public Money applyDeposit() {
+        return balance.plus(deltas[0]);
+    }
+
+    @Benchmark
+    public Double legacyApplyDeposit() {
+        return legacyBalance + legacyDeltas[0];
+    }
+
+    @Benchmark
+    public Map<String, Money> netDeltas() {
+        Map<String, Money> net = new HashMap<>();
+        for (int i = 0; i < DELTAS; i++) {
+            net.merge(deltaAccounts[i], deltas[i], Money::plus);
+        }
+        return net;
+    }
+
+    @Benchmark
+    public Map<String, Double> legacyNetDeltas() {
+        Map<String, Double> net = new HashMap<>();
+        for (int i = 0; i < DELTAS; i++) {
+            net.merge(deltaAccounts[i], legacyDeltas[i], Double::sum);
+        }
+        return net;
+    }
+
+    public static class LegacyBalanceRequest {
+
+        private Double amount;
+        private String operationId;
+
+        public Double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(Double amount) {
+            this.amount = amount;
+        }
+
+        public String getOperationId() {
+            return operationId;
+        }
+
+        public void setOperationId(String operationId) {
+            this.operationId = operationId;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+#!/bin/sh
+# Builds the services and the benchmark jars, then runs every benchmark module with the GC profiler.
+# Results go to results/<module>-<commit>.json so two builds can be compared, e.g. with jmh.morethan.io.
+# Extra arguments are passed to JMH, e.g. ./run.sh TransactionServiceBenchmark -wi 1 -i 3
+set -e
+cd "$(dirname "$0")"
+
+revision=$(git rev-parse --short HEAD 2>/dev/null || echo local)
+
+(cd ../account-service && mvn -B -q install -DskipTests)
+(cd ../transaction-service && mvn -B -q install -DskipTests)
+mvn -B -q package
+
+mkdir -p results
+for module in account-service-benchmarks transaction-service-benchmarks; do
+	java -jar "$module/target/$module.jar" -prof gc -rf json -rff "results/$module-$revision.json" "$@"
+done
@@ -0,0 +1,158 @@
+package com.bankingsystem.benchmark;
+
+import com.bankingsystem.client.AccountClient;
+import com.bankingsystem.client.CborNegotiation;
+import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.dto.BalanceRequest;
+import com.bankingsystem.model.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.Retryer;
+import feign.hc5.ApacheHttp5Client;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link AccountClient} call over loopback, built the way Spring Cloud OpenFeign builds it (Spring MVC
+ * contract, message-converter encoder and decoder), for each transport and encoding. The stub account-service
+ * answers with pre-encoded bytes, so the difference between rows is the client's cost per call: connection
+ * handling, encoding the {@link BalanceRequest} and decoding the {@link AccountDTO}.
+ *
+ * <ul>
+ *   <li>{@code transport=urlconnection}: Feign's default client, the one used before feign-hc5.</li>
+ *   <li>{@code transport=hc5}: Apache HttpClient 5 with a connection pool, as configured in the service.</li>
+ *   <li>{@code encoding=cbor}: {@link CborNegotiation}, as with {@code client.account-service.cbor.enabled}.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// Without TCP_NODELAY the stub's header and body writes wait out delayed ACKs, 40 ms per call
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class AccountClientBenchmark {
+
+    private static final String ACCOUNT_NUMBER = "JD00000017";
+
+    @Param({"urlconnection", "hc5"})
+    public String transport;
+
+    @Param({"json", "cbor"})
+    public String encoding;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private CloseableHttpClient httpClient;
+    private AccountClient client;
+    private BalanceRequest debit;
+    private byte[] accountJson;
+    private byte[] accountCbor;
+
+    @Setup
+    public void setUp() throws IOException {
+        AccountDTO account = new AccountDTO();
+        account.setAccountNumber(ACCOUNT_NUMBER);
+        account.setBalance(Money.of("1520.75"));
+        account.setStatus("ACTIVE");
+        accountJson = Jackson2ObjectMapperBuilder.json().build().writeValueAsBytes(account);
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+        accountCbor = cbor.writeValueAsBytes(account);
+        debit = new BalanceRequest(Money.of("25.00"), "6650f0c2a1b2c3d4e5f60718:debit");
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+        serverThreads = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverThreads);
+        server.createContext("/api/accounts/", this::answer);
+        server.start();
+
+        Client http;
+        if ("hc5".equals(transport)) {
+            httpClient = HttpClients.custom()
+                    .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                            .setMaxConnTotal(200)
+                            .setMaxConnPerRoute(100)
+                            .build())
+                    .build();
+            http = new ApacheHttp5Client(httpClient);
+        } else {
+            http = new Client.Default(null, null);
+        }
+
+        HttpMessageConverters converters = new HttpMessageConverters();
+        Feign.Builder builder = Feign.builder()
+                .client(http)
+                .contract(new SpringMvcContract())
+                .encoder(new SpringEncoder(() -> converters))
+                .decoder(new ResponseEntityDecoder(new SpringDecoder(() -> converters)))
+                .retryer(Retryer.NEVER_RETRY);
+        if ("cbor".equals(encoding)) {
+            CborNegotiation negotiation = new CborNegotiation();
+            builder.addCapability(negotiation).requestInterceptor(negotiation);
+        }
+        client = builder.target(AccountClient.class, "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.stop(0);
+        serverThreads.shutdownNow();
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
+
+    @Benchmark
+    public AccountDTO getAccount() {
+        return client.getAccount(ACCOUNT_NUMBER);
+    }
+
+    @Benchmark
+    public AccountDTO debit() {
+        return client.debit(ACCOUNT_NUMBER, debit);
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+        }
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        boolean cbor = accept != null && accept.startsWith(CborNegotiation.APPLICATION_CBOR);
+        byte[] body = cbor ? accountCbor : accountJson;
+        exchange.getResponseHeaders().set("Content-Type", cbor ? CborNegotiation.APPLICATION_CBOR : "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
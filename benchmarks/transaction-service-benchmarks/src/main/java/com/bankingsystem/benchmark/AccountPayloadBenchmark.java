@@ -0,0 +1,64 @@
+package com.bankingsystem.benchmark;
+
+import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.dto.BalanceRequest;
+import com.bankingsystem.model.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding cost alone of the two payloads every balance change exchanges with account-service: writing the
+ * {@link BalanceRequest} and reading the {@link AccountDTO}, in JSON and in CBOR. The mappers are built the way
+ * Spring builds the message converters' mappers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountPayloadBenchmark {
+
+    @Param({"json", "cbor"})
+    public String encoding;
+
+    private ObjectMapper mapper;
+    private BalanceRequest request;
+    private byte[] account;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = "cbor".equals(encoding) ? Jackson2ObjectMapperBuilder.cbor().build() : Jackson2ObjectMapperBuilder.json().build();
+        request = new BalanceRequest(Money.of("25.00"), "6650f0c2a1b2c3d4e5f60718:debit");
+
+        AccountDTO dto = new AccountDTO();
+        dto.setAccountNumber("JD00000017");
+        dto.setBalance(Money.of("1520.75"));
+        dto.setStatus("ACTIVE");
+        account = mapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public byte[] writeBalanceRequest() throws IOException {
+        return mapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public AccountDTO readAccount() throws IOException {
+        return mapper.readValue(account, AccountDTO.class);
+    }
+}
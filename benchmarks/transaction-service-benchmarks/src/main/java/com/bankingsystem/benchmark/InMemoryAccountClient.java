@@ -0,0 +1,92 @@
+package com.bankingsystem.benchmark;
+
+import com.bankingsystem.client.AccountClient;
+import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.dto.AccountLookupRequest;
+import com.bankingsystem.dto.BalanceDelta;
+import com.bankingsystem.dto.BalanceRequest;
+import com.bankingsystem.dto.BalanceUpdateResult;
+import com.bankingsystem.dto.BulkBalanceRequest;
+import com.bankingsystem.exception.InsufficientBalanceException;
+import com.bankingsystem.exception.InvalidAccountException;
+import com.bankingsystem.model.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stand-in for account-service that keeps balances in a map, so the benchmarks measure transaction-service's
+ * own work rather than HTTP and Mongo. Reads return a fresh DTO each time, as a deserialised response would.
+ */
+class InMemoryAccountClient implements AccountClient {
+
+    private final Map<String, Money> balances = new ConcurrentHashMap<>();
+
+    void open(String accountNumber, Money balance) {
+        balances.put(accountNumber, balance);
+    }
+
+    @Override
+    public AccountDTO getAccount(String accountNumber) {
+        Money balance = balances.get(accountNumber);
+        if (balance == null) {
+            throw new InvalidAccountException("Account not found: " + accountNumber);
+        }
+        return toDto(accountNumber, balance);
+    }
+
+    @Override
+    public List<AccountDTO> lookupAccounts(AccountLookupRequest request) {
+        List<AccountDTO> accounts = new ArrayList<>();
+        for (String accountNumber : request.getAccountNumbers()) {
+            Money balance = balances.get(accountNumber);
+            if (balance != null) {
+                accounts.add(toDto(accountNumber, balance));
+            }
+        }
+        return accounts;
+    }
+
+    @Override
+    public void updateBalance(String accountNumber, BalanceRequest request) {
+        if (balances.computeIfPresent(accountNumber, (key, balance) -> balance.plus(request.getAmount())) == null) {
+            throw new InvalidAccountException("Account not found: " + accountNumber);
+        }
+    }
+
+    @Override
+    public AccountDTO debit(String accountNumber, BalanceRequest request) {
+        Money balance = balances.computeIfPresent(accountNumber, (key, current) -> {
+            if (current.compareTo(request.getAmount()) < 0) {
+                throw new InsufficientBalanceException("Insufficient funds");
+            }
+            return current.minus(request.getAmount());
+        });
+        if (balance == null) {
+            throw new InvalidAccountException("Account not found: " + accountNumber);
+        }
+        return toDto(accountNumber, balance);
+    }
+
+    @Override
+    public List<BalanceUpdateResult> updateBalances(BulkBalanceRequest request) {
+        List<BalanceUpdateResult> results = new ArrayList<>();
+        for (BalanceDelta delta : request.getDeltas()) {
+            Money balance = balances.computeIfPresent(delta.getAccountNumber(), (key, current) -> current.plus(delta.getAmount()));
+            results.add(balance == null
+                    ? new BalanceUpdateResult(delta.getAccountNumber(), false, null, "Account not found")
+                    : new BalanceUpdateResult(delta.getAccountNumber(), true, balance, null));
+        }
+        return results;
+    }
+
+    private static AccountDTO toDto(String accountNumber, Money balance) {
+        AccountDTO dto = new AccountDTO();
+        dto.setAccountNumber(accountNumber);
+        dto.setBalance(balance);
+        dto.setStatus("ACTIVE");
+        return dto;
+    }
+}
@@ -0,0 +1,19 @@
+package com.bankingsystem.benchmark;
+
+import com.bankingsystem.client.NotificationClient;
+
+import java.util.List;
+
+/**
+ * Accepts every notification and drops it, standing in for notification-service.
+ */
+class NoOpNotificationClient implements NotificationClient {
+
+    @Override
+    public void sendNotification(String message) {
+    }
+
+    @Override
+    public void sendNotifications(List<String> messages) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.bankingsystem.benchmark;
+
+import com.bankingsystem.service.SnowflakeTransactionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction id generation: the Snowflake generator against the SimpleDateFormat scheme it replaced and
+ * random UUIDs. The threaded variants share one generator, so they measure CAS contention on its state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionIdGeneratorBenchmark {
+
+    private final SnowflakeTransactionIdGenerator snowflake = new SnowflakeTransactionIdGenerator(1);
+
+    @Benchmark
+    public String snowflakeNextId() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    public long snowflakeNextLong() {
+        return snowflake.nextLong();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String snowflakeNextIdContended() {
+        return snowflake.nextId();
+    }
+
+    @Benchmark
+    public String legacySimpleDateFormat() {
+        String timestamp = new SimpleDateFormat("yyyyMMddHHmmss").format(new Date());
+        int randomSuffix = ThreadLocalRandom.current().nextInt(100, 999);
+        return "TXN-" + timestamp + "-" + randomSuffix;
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+}
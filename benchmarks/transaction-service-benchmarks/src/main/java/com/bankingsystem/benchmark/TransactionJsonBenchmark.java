@@ -0,0 +1,82 @@
+package com.bankingsystem.benchmark;
+
+import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.dto.TransactionPage;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the payloads transaction-service writes and reads on every request: a transaction, a
+ * default-sized history page, and the account DTO it gets back from account-service. The mapper is built the
+ * way Spring Boot builds it, so modules and features match the running service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionJsonBenchmark {
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Transaction transaction;
+    private TransactionPage page;
+    private byte[] transactionJson;
+    private byte[] accountJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        transaction = new Transaction("TXN-0KJ3M5QZ8R1VW", Money.of("250.00"), "SUCCESS", "JD00000017", "AL00000125");
+        transaction.setId("6650f0c2a1b2c3d4e5f60718");
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rows.add(transaction);
+        }
+        page = new TransactionPage(rows, "MjAyNC0wNi0wMVQxMjowMHw2NjUwZjBjMmExYjJjM2Q0ZTVmNjA3MTg");
+        transactionJson = mapper.writeValueAsBytes(transaction);
+
+        AccountDTO account = new AccountDTO();
+        account.setAccountNumber("JD00000017");
+        account.setBalance(Money.of("1520.75"));
+        account.setStatus("ACTIVE");
+        accountJson = mapper.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public byte[] writeTransaction() throws IOException {
+        return mapper.writeValueAsBytes(transaction);
+    }
+
+    @Benchmark
+    public Transaction readTransaction() throws IOException {
+        return mapper.readValue(transactionJson, Transaction.class);
+    }
+
+    @Benchmark
+    public byte[] writeHistoryPage() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public AccountDTO readAccount() throws IOException {
+        return mapper.readValue(accountJson, AccountDTO.class);
+    }
+}
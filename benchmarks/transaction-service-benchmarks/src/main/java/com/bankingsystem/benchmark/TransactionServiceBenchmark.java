@@ -0,0 +1,127 @@
+package com.bankingsystem.benchmark;
+
+import com.bankingsystem.dto.TransactionRequest;
+import com.bankingsystem.dto.TransferRequest;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.Transaction;
+import com.bankingsystem.repository.SpilledNotificationRepository;
+import com.bankingsystem.repository.TransactionRepository;
+import com.bankingsystem.repository.TransferSagaRepository;
+import com.bankingsystem.service.AccountSequencer;
+import com.bankingsystem.service.NotificationPublisher;
+import com.bankingsystem.service.ParallelAccountLookup;
+import com.bankingsystem.service.SnowflakeTransactionIdGenerator;
+import com.bankingsystem.service.TransactionIdGenerator;
+import com.bankingsystem.service.TransactionService;
+import com.bankingsystem.service.TransferSagaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit, withdrawal and transfer through a real {@link TransactionService}, with account-service,
+ * notification-service and Mongo replaced by in-memory fakes. What is left is the service's own cost: DTOs,
+ * id generation, the transfer saga's state machine, log formatting and the notification queue. Run with
+ * {@code -prof gc} to see allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+    private static final Money OPENING_BALANCE = Money.of("1000000000000");
+    private static final Money AMOUNT = Money.of("25.00");
+
+    private NotificationPublisher notificationPublisher;
+    private TransferSagaService transferSagaService;
+    private ParallelAccountLookup accountLookup;
+    private TransactionService transactionService;
+    private String[] accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryAccountClient accountClient = new InMemoryAccountClient();
+        accountNumbers = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumbers[i] = String.format("BM%08d", i);
+            accountClient.open(accountNumbers[i], OPENING_BALANCE);
+        }
+
+        TransactionRepository transactionRepository = WriteOnlyRepositories.create(TransactionRepository.class);
+        TransactionIdGenerator idGenerator = new SnowflakeTransactionIdGenerator(1);
+        // Same sizing as the defaults in transaction-service, but dropping instead of spilling to Mongo
+        notificationPublisher = new NotificationPublisher(new NoOpNotificationClient(),
+                WriteOnlyRepositories.create(SpilledNotificationRepository.class), new SimpleMeterRegistry(),
+                10_000, 100, 50, 5, 3, NotificationPublisher.OverflowPolicy.DROP_OLDEST);
+        notificationPublisher.start();
+        transferSagaService = new TransferSagaService(WriteOnlyRepositories.create(TransferSagaRepository.class),
+                transactionRepository, accountClient, notificationPublisher, idGenerator, 8, 1000, 30_000, 60_000, false);
+        accountLookup = new ParallelAccountLookup(accountClient, 8, 100, 30_000, false);
+        transactionService = new TransactionService(transactionRepository, accountClient, notificationPublisher,
+                transferSagaService, idGenerator, accountLookup, new AccountSequencer(new SimpleMeterRegistry(), 1024, 30_000));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        transferSagaService.shutdown();
+        accountLookup.shutdown();
+        notificationPublisher.stop();
+    }
+
+    @Benchmark
+    public Transaction deposit() {
+        return transactionService.deposit(request(randomAccount(), AMOUNT));
+    }
+
+    @Benchmark
+    public Transaction withdraw() {
+        return transactionService.withdraw(request(randomAccount(), AMOUNT));
+    }
+
+    @Benchmark
+    public String transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int source = random.nextInt(ACCOUNTS);
+        int destination = (source + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccount(accountNumbers[source]);
+        request.setDestinationAccount(accountNumbers[destination]);
+        request.setAmount(AMOUNT);
+        return transactionService.transfer(request);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String transferContended() {
+        return transfer();
+    }
+
+    private String randomAccount() {
+        return accountNumbers[ThreadLocalRandom.current().nextInt(ACCOUNTS)];
+    }
+
+    private static TransactionRequest request(String accountNumber, Money amount) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber(accountNumber);
+        request.setAmount(amount);
+        return request;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bankingsystem.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository fakes for the write paths the benchmarks drive. {@code save} and {@code saveAll} hand the entity
+ * straight back and keep nothing, so a long run does not grow the heap and skew the GC profile; lookups find
+ * nothing. Anything else fails loudly, which flags a benchmark that has wandered onto a read path.
+ */
+final class WriteOnlyRepositories {
+
+    private WriteOnlyRepositories() {
+    }
+
+    static <R> R create(Class<R> repositoryType) {
+        Object proxy = Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (self, method, args) -> switch (method.getName()) {
+                    case "save", "saveAll" -> args[0];
+                    case "findById" -> Optional.empty();
+                    case "findTop100ByOrderByCreatedAtAsc" -> List.of();
+                    case "claimNextDue" -> null;
+                    case "deleteAll" -> null;
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "equals" -> self == args[0];
+                    case "toString" -> "WriteOnly" + repositoryType.getSimpleName();
+                    default -> throw new UnsupportedOperationException(
+                            repositoryType.getSimpleName() + "." + method.getName() + " is not faked");
+                });
+        return repositoryType.cast(proxy);
+    }
+}
@@ -0,0 +1,226 @@
+package com.bankingsystem.loadtest;
+
+import com.bankingsystem.loadtest.LoadTestConfig.Operation;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests start on a fixed schedule of {@code rate} per second whether or not earlier ones
+ * have finished, as independent clients would send them. Latency is measured from the time a request was
+ * scheduled to start, not from when it was actually sent, so a stalled service shows up as queueing delay in
+ * every request behind the stall instead of silently lowering the offered load (coordinated omission).
+ *
+ * <p>Successful requests are recorded per operation in HDR histograms. Every second the interval histogram is
+ * appended to {@code <output>/<operation>.hlog}, which HdrHistogram's log tools can plot over time.
+ */
+class LoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final String transactionServiceUrl;
+    private final List<String> accounts;
+    private final LoadTestConfig config;
+    private final Operation[] schedule;
+    private final Semaphore outstanding;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> totals = new EnumMap<>(Operation.class);
+    private final Map<Operation, HistogramLogWriter> logWriters = new EnumMap<>(Operation.class);
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private final LongAdder saturated = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAccumulator peakInFlight = new LongAccumulator(Math::max, 0);
+
+    LoadGenerator(HttpClient client, String transactionServiceUrl, List<String> accounts, LoadTestConfig config) {
+        this.client = client;
+        this.transactionServiceUrl = transactionServiceUrl;
+        this.accounts = accounts;
+        this.config = config;
+        this.outstanding = new Semaphore(config.maxOutstanding());
+
+        // One slot per unit of weight, so picking an operation is a single random index
+        int totalWeight = config.mix().values().stream().mapToInt(Integer::intValue).sum();
+        this.schedule = new Operation[totalWeight];
+        int slot = 0;
+        for (Map.Entry<Operation, Integer> entry : config.mix().entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                schedule[slot++] = entry.getKey();
+            }
+        }
+        for (Operation operation : config.mix().keySet()) {
+            recorders.put(operation, new Recorder(3));
+            totals.put(operation, new Histogram(3));
+        }
+    }
+
+    /**
+     * Runs the warm-up and measurement phases back to back and returns the latencies of the measurement phase.
+     */
+    LoadResult run() throws InterruptedException, FileNotFoundException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.ratePerSecond());
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+        long end = measureStart + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+
+        openLogs(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(config.warmupSeconds()));
+        log.info("Offering {} requests/s for {} s warm-up and {} s measurement",
+                config.ratePerSecond(), config.warmupSeconds(), config.durationSeconds());
+
+        long nextSnapshot = measureStart + TimeUnit.SECONDS.toNanos(1);
+        boolean measuring = false;
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!measuring && intended >= measureStart) {
+                measuring = true;
+                // Anything recorded so far belongs to the warm-up
+                recorders.values().forEach(Recorder::reset);
+            }
+            if (measuring && intended >= nextSnapshot) {
+                snapshot();
+                nextSnapshot += TimeUnit.SECONDS.toNanos(1);
+            }
+            fire(schedule[ThreadLocalRandom.current().nextInt(schedule.length)], intended, measuring);
+        }
+
+        // Let the tail finish so slow requests are counted rather than cut off
+        if (!outstanding.tryAcquire(config.maxOutstanding(), REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            log.warn("Requests were still outstanding {} s after the run ended", REQUEST_TIMEOUT.toSeconds());
+        }
+        snapshot();
+        logWriters.values().forEach(HistogramLogWriter::close);
+
+        Map<String, Long> failureCounts = new TreeMap<>();
+        failures.forEach((key, count) -> failureCounts.put(key, count.sum()));
+        return new LoadResult(totals, failureCounts, saturated.sum(), peakInFlight.get(), config.durationSeconds());
+    }
+
+    private void fire(Operation operation, long intended, boolean measured) {
+        if (!outstanding.tryAcquire()) {
+            // The client cannot keep up with the schedule; count it instead of letting memory grow without bound
+            if (measured) {
+                saturated.increment();
+            }
+            return;
+        }
+        if (measured) {
+            peakInFlight.accumulate(inFlight.incrementAndGet());
+        } else {
+            inFlight.incrementAndGet();
+        }
+        client.sendAsync(request(operation), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - intended;
+                    inFlight.decrementAndGet();
+                    outstanding.release();
+                    if (!measured) {
+                        return;
+                    }
+                    if (error == null && response.statusCode() / 100 == 2) {
+                        recorders.get(operation).recordValue(latency);
+                    } else {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        String reason = cause != null ? cause.getClass().getSimpleName() : "HTTP " + response.statusCode();
+                        failures.computeIfAbsent(operation + " " + reason, key -> new LongAdder()).increment();
+                    }
+                });
+    }
+
+    private HttpRequest request(Operation operation) {
+        String path;
+        String body;
+        switch (operation) {
+            case DEPOSIT -> {
+                path = "/api/transactions/deposit";
+                body = "{\"accountNumber\":\"" + pickAccount() + "\",\"amount\":" + config.amount() + "}";
+            }
+            case WITHDRAW -> {
+                path = "/api/transactions/withdraw";
+                body = "{\"accountNumber\":\"" + pickAccount() + "\",\"amount\":" + config.amount() + "}";
+            }
+            default -> {
+                String source = pickAccount();
+                String destination = pickAccount();
+                while (destination.equals(source)) {
+                    destination = accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+                }
+                path = "/api/transactions/transfer";
+                body = "{\"sourceAccount\":\"" + source + "\",\"destinationAccount\":\"" + destination
+                        + "\",\"amount\":" + config.amount() + "}";
+            }
+        }
+        return HttpRequest.newBuilder(URI.create(transactionServiceUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * The first {@code hot-accounts} accounts take {@code hot-share} of the traffic; the rest share the remainder.
+     */
+    private String pickAccount() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int hot = config.hotAccounts();
+        if (hot == accounts.size() || random.nextDouble() < config.hotShare()) {
+            return accounts.get(random.nextInt(hot));
+        }
+        return accounts.get(hot + random.nextInt(accounts.size() - hot));
+    }
+
+    private void openLogs(long startMillis) throws FileNotFoundException {
+        for (Operation operation : recorders.keySet()) {
+            Path file = config.outputDir().resolve(operation.name().toLowerCase(Locale.ROOT) + ".hlog");
+            HistogramLogWriter writer = new HistogramLogWriter(new PrintStream(file.toFile()));
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startMillis);
+            writer.setBaseTime(startMillis);
+            writer.outputLegend();
+            logWriters.put(operation, writer);
+        }
+    }
+
+    private void snapshot() {
+        recorders.forEach((operation, recorder) -> {
+            Histogram interval = recorder.getIntervalHistogram();
+            totals.get(operation).add(interval);
+            logWriters.get(operation).outputIntervalHistogram(interval);
+        });
+    }
+}
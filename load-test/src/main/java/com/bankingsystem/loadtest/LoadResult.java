@@ -0,0 +1,67 @@
+package com.bankingsystem.loadtest;
+
+import com.bankingsystem.loadtest.LoadTestConfig.Operation;
+import org.HdrHistogram.Histogram;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Latencies of the measurement phase per operation, in nanoseconds, plus whatever did not succeed.
+ */
+record LoadResult(Map<Operation, Histogram> latencies,
+                  Map<String, Long> failures,
+                  long saturated,
+                  long peakInFlight,
+                  int durationSeconds) {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    void print(PrintStream out) {
+        out.println();
+        out.printf(Locale.ROOT, "%-10s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram(3);
+        latencies.forEach((operation, histogram) -> {
+            printRow(out, operation.name().toLowerCase(Locale.ROOT), histogram);
+            all.add(histogram);
+        });
+        printRow(out, "all", all);
+        out.printf(Locale.ROOT, "%npeak requests in flight: %d%n", peakInFlight);
+
+        if (!failures.isEmpty() || saturated > 0) {
+            out.println();
+            failures.forEach((reason, count) -> out.printf(Locale.ROOT, "failed   %-40s %d%n", reason, count));
+            if (saturated > 0) {
+                out.printf(Locale.ROOT, "not sent %-40s %d%n", "(max-outstanding reached)", saturated);
+            }
+        }
+    }
+
+    /**
+     * Writes the full percentile distribution of each operation to {@code <operation>.hgrm}, in milliseconds,
+     * in the format HdrHistogram's plotter reads.
+     */
+    void writeDistributions(Path outputDir) throws FileNotFoundException {
+        for (Map.Entry<Operation, Histogram> entry : latencies.entrySet()) {
+            Path file = outputDir.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(file.toFile())) {
+                entry.getValue().outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    private void printRow(PrintStream out, String name, Histogram histogram) {
+        out.printf(Locale.ROOT, "%-10s %10d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                name,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / (double) durationSeconds,
+                histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                histogram.getMaxValue() / NANOS_PER_MILLI);
+    }
+}
@@ -0,0 +1,145 @@
+package com.bankingsystem.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Boots account-service and transaction-service against an in-memory Mongo and a notification stub, seeds
+ * accounts, runs an open-model load and prints the latency percentiles. Nothing leaves the machine: Eureka is
+ * switched off and the services find each other through Spring Cloud's static
+ * {@code spring.cloud.discovery.client.simple.instances} list.
+ *
+ * <p>The in-memory Mongo is single-threaded and has none of a real server's durability cost, so absolute numbers
+ * are optimistic; use the harness to compare builds and configurations, not to size production.
+ */
+public class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final double OPENING_BALANCE = 1_000_000_000;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        Files.createDirectories(config.outputDir());
+
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpExecutor)
+                .build();
+
+        MongoServer mongo = new MongoServer(new MemoryBackend());
+        InetSocketAddress mongoAddress = mongo.bind();
+        String mongoUri = "mongodb://127.0.0.1:" + mongoAddress.getPort();
+        log.info("In-memory Mongo listening on {}", mongoUri);
+
+        List<ServiceProcess> services = new ArrayList<>();
+        try (NotificationStub notifications = new NotificationStub()) {
+            int accountPort = freePort();
+            Map<String, String> accountProperties = new LinkedHashMap<>();
+            accountProperties.put("spring.data.mongodb.uri", mongoUri + "/accounts_db");
+            accountProperties.putAll(commonProperties());
+            accountProperties.putAll(config.serviceProperties());
+            ServiceProcess accountService = ServiceProcess.start("account-service", config.serviceJava(),
+                    config.accountServiceJar(), config.serviceJvmOptions(), accountPort, accountProperties,
+                    config.outputDir());
+            services.add(accountService);
+
+            Map<String, String> transactionProperties = new LinkedHashMap<>();
+            transactionProperties.put("spring.data.mongodb.uri", mongoUri + "/transactions_db");
+            transactionProperties.putAll(commonProperties());
+            transactionProperties.put("spring.cloud.discovery.client.simple.instances.account-service[0].uri",
+                    accountService.baseUrl());
+            transactionProperties.put("spring.cloud.discovery.client.simple.instances.notification-service[0].uri",
+                    "http://127.0.0.1:" + notifications.port());
+            transactionProperties.putAll(config.serviceProperties());
+            ServiceProcess transactionService = ServiceProcess.start("transaction-service", config.serviceJava(),
+                    config.transactionServiceJar(), config.serviceJvmOptions(), freePort(), transactionProperties,
+                    config.outputDir());
+            services.add(transactionService);
+
+            accountService.awaitHealthy(client, STARTUP_TIMEOUT);
+            transactionService.awaitHealthy(client, STARTUP_TIMEOUT);
+
+            List<String> accounts = seedAccounts(client, accountService.baseUrl(), config.accounts());
+            LoadResult result = new LoadGenerator(client, transactionService.baseUrl(), accounts, config).run();
+
+            result.print(System.out);
+            result.writeDistributions(config.outputDir());
+            log.info("Notification stub received {} request(s); histograms written to {}",
+                    notifications.requests(), config.outputDir().toAbsolutePath());
+        } finally {
+            for (ServiceProcess service : services) {
+                service.close();
+            }
+            mongo.shutdownNow();
+            httpExecutor.shutdownNow();
+        }
+    }
+
+    private static Map<String, String> commonProperties() {
+        return Map.of(
+                "eureka.client.enabled", "false",
+                // The in-memory Mongo does not implement the hello command the health check sends
+                "management.health.mongo.enabled", "false");
+    }
+
+    /**
+     * Creates the accounts directly in account-service and funds them well beyond what a run can withdraw.
+     */
+    private static List<String> seedAccounts(HttpClient client, String accountServiceUrl, int count)
+            throws IOException, InterruptedException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> accountNumbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            HttpResponse<String> created = client.send(json(accountServiceUrl + "/api/accounts", "POST",
+                    "{\"holderName\":\"Load Test\"}"), HttpResponse.BodyHandlers.ofString());
+            if (created.statusCode() != 201) {
+                throw new IllegalStateException("Creating an account failed: " + created.statusCode() + " " + created.body());
+            }
+            String accountNumber = mapper.readTree(created.body()).get("accountNumber").asText();
+            HttpResponse<String> funded = client.send(json(accountServiceUrl + "/api/accounts/" + accountNumber + "/balance",
+                    "PUT", "{\"amount\":" + OPENING_BALANCE + "}"), HttpResponse.BodyHandlers.ofString());
+            if (funded.statusCode() != 200) {
+                throw new IllegalStateException("Funding " + accountNumber + " failed: " + funded.statusCode() + " " + funded.body());
+            }
+            accountNumbers.add(accountNumber);
+        }
+        log.info("Seeded {} account(s)", count);
+        return accountNumbers;
+    }
+
+    private static HttpRequest json(String url, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.bankingsystem.loadtest;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings for one load-test run, read from {@code --name=value} arguments. Every setting has a default, so
+ * {@code java -jar load-test.jar} on its own runs a one-minute mixed load against a single hot account.
+ */
+record LoadTestConfig(double ratePerSecond,
+                      int warmupSeconds,
+                      int durationSeconds,
+                      Map<Operation, Integer> mix,
+                      int accounts,
+                      int hotAccounts,
+                      double hotShare,
+                      double amount,
+                      int maxOutstanding,
+                      Path accountServiceJar,
+                      Path transactionServiceJar,
+                      Path serviceJava,
+                      String serviceJvmOptions,
+                      Map<String, String> serviceProperties,
+                      Path outputDir) {
+
+    enum Operation {
+        DEPOSIT, WITHDRAW, TRANSFER
+    }
+
+    private static final Set<String> KNOWN_OPTIONS = Set.of(
+            "rate", "warmup", "duration", "mix", "accounts", "hot-accounts", "hot-share", "amount",
+            "max-outstanding", "account-service-jar", "transaction-service-jar", "service-java", "service-jvm-options",
+            "service-properties", "output");
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        LoadTestConfig config = new LoadTestConfig(
+                Double.parseDouble(options.getOrDefault("rate", "200")),
+                Integer.parseInt(options.getOrDefault("warmup", "15")),
+                Integer.parseInt(options.getOrDefault("duration", "60")),
+                parseMix(options.getOrDefault("mix", "deposit:40,withdraw:40,transfer:20")),
+                Integer.parseInt(options.getOrDefault("accounts", "100")),
+                Integer.parseInt(options.getOrDefault("hot-accounts", "1")),
+                Double.parseDouble(options.getOrDefault("hot-share", "0.8")),
+                Double.parseDouble(options.getOrDefault("amount", "10")),
+                Integer.parseInt(options.getOrDefault("max-outstanding", "10000")),
+                Path.of(options.getOrDefault("account-service-jar",
+                        "../account-service/target/account-service-0.0.1-SNAPSHOT-exec.jar")),
+                Path.of(options.getOrDefault("transaction-service-jar",
+                        "../transaction-service/target/transaction-service-0.0.1-SNAPSHOT-exec.jar")),
+                Path.of(options.getOrDefault("service-java",
+                        Path.of(System.getProperty("java.home"), "bin", "java").toString())),
+                options.getOrDefault("service-jvm-options", "-Xmx512m"),
+                parseProperties(options.getOrDefault("service-properties", "")),
+                Path.of(options.getOrDefault("output", "target/load-test")));
+        options.keySet().removeAll(KNOWN_OPTIONS);
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown option(s): " + options.keySet());
+        }
+        config.validate();
+        return config;
+    }
+
+    /**
+     * Parses {@code deposit:40,withdraw:40,transfer:20}; the weights are relative and need not add up to 100.
+     */
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in --mix but got " + part);
+            }
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    /**
+     * Parses {@code key=value,key=value} into Spring properties passed to both services, e.g.
+     * {@code spring.threads.virtual.enabled=true,server.tomcat.threads.max=50}.
+     */
+    private static Map<String, String> parseProperties(String properties) {
+        Map<String, String> parsed = new LinkedHashMap<>();
+        for (String part : properties.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            int split = part.indexOf('=');
+            if (split <= 0) {
+                throw new IllegalArgumentException("Expected key=value in --service-properties but got " + part);
+            }
+            parsed.put(part.substring(0, split).trim(), part.substring(split + 1).trim());
+        }
+        return parsed;
+    }
+
+    private void validate() {
+        if (ratePerSecond <= 0 || durationSeconds <= 0 || warmupSeconds < 0) {
+            throw new IllegalArgumentException("--rate and --duration must be positive and --warmup not negative");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        if (accounts < 2 || hotAccounts < 1 || hotAccounts > accounts) {
+            throw new IllegalArgumentException("Need at least 2 accounts and between 1 and --accounts hot accounts");
+        }
+        if (hotShare < 0 || hotShare > 1) {
+            throw new IllegalArgumentException("--hot-share must be between 0 and 1");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.bankingsystem.config;
+
+import com.bankingsystem.spill.SpillLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class SpillLogConfig {
+
+    @Bean(destroyMethod = "close")
+    public SpillLog spillLog(@Value("${notification.spill.dir:data/notification-spill}") String directory,
+                             @Value("${notification.spill.segment-bytes:67108864}") int segmentBytes,
+                             @Value("${notification.spill.force-on-append:false}") boolean forceOnAppend) {
+        return new SpillLog(Path.of(directory), segmentBytes, forceOnAppend);
+    }
+}
@@ -0,0 +1,44 @@
+package com.bankingsystem.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the service's own worker pools that follow {@code spring.threads.virtual.enabled}, the
+ * switch Spring Boot uses for Tomcat and its task executors. Virtual threads need Java 21; on an older runtime
+ * the switch is ignored with a warning, just as Spring Boot ignores it.
+ *
+ * <p>account-service, transaction-service and notification-service each carry an identical copy of this class and
+ * of {@link VirtualThreadPinningMonitor}, since they build separately; change all three together.
+ */
+public final class VirtualThreads {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    public static ThreadFactory threadFactory(String prefix, boolean virtual) {
+        if (virtual) {
+            if (isSupported()) {
+                return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+            }
+            log.warn("spring.threads.virtual.enabled is set but this is Java {}; {}* threads stay platform threads",
+                    Runtime.version().feature(), prefix);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,12 +1,18 @@
 package com.bankingsystem.controller;
 
+import com.bankingsystem.model.NotificationChannel;
 import com.bankingsystem.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/notifications")
 public class NotificationController {
@@ -16,8 +22,18 @@ public class NotificationController {
 
 
     @PostMapping("/send")
-    public String sendNotification(@RequestBody String message) {
-        notificationService.sendNotification(message);
-        return "Notification Logged Successfully";
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public String sendNotification(@RequestBody String message,
+                                   @RequestParam(defaultValue = "EMAIL") NotificationChannel channel) {
+        notificationService.sendNotification(channel, message);
+        return "Notification Accepted";
+    }
+
+    @PostMapping("/send/batch")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public String sendNotifications(@RequestBody List<String> messages,
+                                    @RequestParam(defaultValue = "EMAIL") NotificationChannel channel) {
+        notificationService.sendNotifications(channel, messages);
+        return messages.size() + " Notifications Accepted";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.bankingsystem.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A notification accepted for delivery. {@link #toBytes()} and {@link #fromBytes(byte[])} define the record
+ * format stored in the spill log: {@code [byte channel][long acceptedAt][utf-8 message]}.
+ */
+public class Notification {
+
+    private final NotificationChannel channel;
+    private final String message;
+    private final long acceptedAt;
+
+    public Notification(NotificationChannel channel, String message, long acceptedAt) {
+        this.channel = channel;
+        this.message = message;
+        this.acceptedAt = acceptedAt;
+    }
+
+    public NotificationChannel getChannel() {
+        return channel;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Epoch millis at which notification-service acknowledged the message.
+     */
+    public long getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public byte[] toBytes() {
+        byte[] text = message.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(1 + Long.BYTES + text.length)
+                .put((byte) channel.ordinal())
+                .putLong(acceptedAt)
+                .put(text)
+                .array();
+    }
+
+    public static Notification fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        NotificationChannel channel = NotificationChannel.values()[buffer.get()];
+        long acceptedAt = buffer.getLong();
+        String message = new String(bytes, buffer.position(), buffer.remaining(), StandardCharsets.UTF_8);
+        return new Notification(channel, message, acceptedAt);
+    }
+}
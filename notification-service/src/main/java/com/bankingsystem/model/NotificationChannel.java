@@ -0,0 +1,6 @@
+package com.bankingsystem.model;
+
+public enum NotificationChannel {
+    EMAIL,
+    SMS
+}
@@ -0,0 +1,26 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.model.Notification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stand-in sender until real email/SMS providers are wired in.
+ */
+@Component
+public class LoggingNotificationSender implements NotificationSender {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingNotificationSender.class);
+
+    @Override
+    public void send(Notification notification) {
+        switch (notification.getChannel()) {
+            case SMS:
+                log.info("📱 [NOTIFICATION SERVICE] Sending SMS: {}", notification.getMessage());
+                break;
+            default:
+                log.info("📧 [NOTIFICATION SERVICE] Sending Email: {}", notification.getMessage());
+        }
+    }
+}
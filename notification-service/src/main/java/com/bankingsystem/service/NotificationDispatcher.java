@@ -0,0 +1,279 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.config.VirtualThreads;
+import com.bankingsystem.model.Notification;
+import com.bankingsystem.model.NotificationChannel;
+import com.bankingsystem.spill.SpillLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the spill log into {@link NotificationSender}. A reader thread walks the log from the committed offset
+ * and hands each record to a fixed worker pool; at most {@code max-in-flight} records are outstanding at once.
+ * Failed deliveries are retried with exponential backoff, and each channel has its own token bucket so a slow
+ * or throttled SMS provider does not hold back email. The log is committed up to the lowest record that is not
+ * yet finished, so everything still in flight is redelivered after a restart.
+ *
+ * <p>Delivery is I/O bound, so on platform threads the pool is sized well above the core count. With
+ * {@code spring.threads.virtual.enabled} on Java 21 every in-flight record gets its own virtual thread instead,
+ * so {@code max-in-flight} rather than the pool size bounds concurrent deliveries.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private static final long IDLE_WAIT_MS = 200;
+
+    private final SpillLog spillLog;
+    private final NotificationSender sender;
+    private final int workerThreads;
+    private final boolean virtualThreads;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final Semaphore inFlight;
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final Map<NotificationChannel, TokenBucket> rateLimits = new EnumMap<>(NotificationChannel.class);
+
+    // Offsets handed out but not yet committed, mapped to the offset that follows them
+    private final TreeMap<Long, Long> pending = new TreeMap<>();
+    private final Set<Long> finished = new HashSet<>();
+
+    private final Map<NotificationChannel, Counter> delivered = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Counter> retried = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Counter> failed = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Counter> throttled = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Timer> deliveryLag = new EnumMap<>(NotificationChannel.class);
+    private final Counter unreadable;
+
+    private volatile boolean running;
+    private Thread reader;
+    private ExecutorService workers;
+    private ScheduledExecutorService scheduler;
+
+    public NotificationDispatcher(SpillLog spillLog,
+                                  NotificationSender sender,
+                                  MeterRegistry meterRegistry,
+                                  Environment environment,
+                                  @Value("${notification.dispatcher.worker-threads:8}") int workerThreads,
+                                  @Value("${notification.dispatcher.max-in-flight:1000}") int maxInFlight,
+                                  @Value("${notification.dispatcher.max-attempts:5}") int maxAttempts,
+                                  @Value("${notification.dispatcher.initial-backoff-ms:200}") long initialBackoffMs,
+                                  @Value("${notification.dispatcher.max-backoff-ms:30000}") long maxBackoffMs,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.spillLog = spillLog;
+        this.sender = sender;
+        this.virtualThreads = virtualThreads && VirtualThreads.isSupported();
+        this.workerThreads = this.virtualThreads ? maxInFlight : workerThreads;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.inFlight = new Semaphore(maxInFlight);
+
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            String name = channel.name().toLowerCase(Locale.ROOT);
+            double perSecond = environment.getProperty("notification.rate-limit." + name, Double.class, 0d);
+            if (perSecond > 0) {
+                rateLimits.put(channel, new TokenBucket(perSecond, perSecond));
+            }
+            delivered.put(channel, meterRegistry.counter("notifications.delivered", "channel", name));
+            retried.put(channel, meterRegistry.counter("notifications.retried", "channel", name));
+            failed.put(channel, meterRegistry.counter("notifications.failed", "channel", name));
+            throttled.put(channel, meterRegistry.counter("notifications.throttled", "channel", name));
+            deliveryLag.put(channel, Timer.builder("notifications.delivery.lag")
+                    .description("Time from acceptance until the channel confirmed delivery")
+                    .tag("channel", name)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+        }
+        unreadable = Counter.builder("notifications.unreadable")
+                .description("Records in the spill log that could not be decoded and were skipped")
+                .register(meterRegistry);
+        Gauge.builder("notifications.backlog.bytes", spillLog, SpillLog::backlogBytes)
+                .description("Bytes in the spill log that have not been delivered yet")
+                .register(meterRegistry);
+        Gauge.builder("notifications.inflight", inFlightCount, AtomicInteger::get)
+                .description("Notifications handed to workers and not yet finished")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        workers = Executors.newFixedThreadPool(workerThreads,
+                VirtualThreads.threadFactory("notification-worker-", virtualThreads));
+        scheduler = Executors.newSingleThreadScheduledExecutor(VirtualThreads.threadFactory("notification-retry-", false));
+        reader = new Thread(this::readLoop, "notification-log-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (reader == null) {
+            return;
+        }
+        reader.interrupt();
+        reader.join(5000);
+        scheduler.shutdownNow();
+        workers.shutdown();
+        // Whatever is still pending stays uncommitted and is picked up again on the next start
+        if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    //  READER
+
+    private void readLoop() {
+        long offset = spillLog.committedOffset();
+        long backoffMs = initialBackoffMs;
+        // Only shutdown ends the loop; a record that cannot be read must not stop delivery of the ones after it
+        while (running) {
+            try {
+                inFlight.acquire();
+                SpillLog.Record record;
+                try {
+                    record = spillLog.read(offset);
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    log.error("Could not read the notification log at offset {}, retrying in {} ms: {}",
+                            offset, backoffMs, e.getMessage(), e);
+                    Thread.sleep(backoffMs);
+                    backoffMs = Math.min(maxBackoffMs, backoffMs * 2);
+                    continue;
+                }
+                backoffMs = initialBackoffMs;
+                if (record == null) {
+                    inFlight.release();
+                    spillLog.awaitAppend(offset, IDLE_WAIT_MS);
+                    continue;
+                }
+                synchronized (pending) {
+                    pending.put(record.offset(), record.nextOffset());
+                }
+                inFlightCount.incrementAndGet();
+                offset = record.nextOffset();
+
+                Notification notification;
+                try {
+                    notification = Notification.fromBytes(record.payload());
+                } catch (RuntimeException e) {
+                    unreadable.increment();
+                    log.error("Skipping unreadable notification at offset {}: {}", record.offset(), e.toString());
+                    finish(record.offset());
+                    continue;
+                }
+                dispatch(new Delivery(record.offset(), notification), 0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    //  WORKERS
+
+    private void dispatch(Delivery delivery, long delayNanos) {
+        try {
+            if (delayNanos <= 0) {
+                workers.execute(() -> deliver(delivery));
+            } else {
+                scheduler.schedule(() -> dispatch(delivery, 0), delayNanos, TimeUnit.NANOSECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            // Shutting down: leave the record uncommitted so it is delivered after the restart
+            log.debug("Dropping in-flight notification at offset {} during shutdown", delivery.offset);
+        }
+    }
+
+    private void deliver(Delivery delivery) {
+        NotificationChannel channel = delivery.notification.getChannel();
+        TokenBucket bucket = rateLimits.get(channel);
+        if (bucket != null) {
+            long waitNanos = bucket.tryAcquire();
+            if (waitNanos > 0) {
+                throttled.get(channel).increment();
+                dispatch(delivery, waitNanos);
+                return;
+            }
+        }
+
+        try {
+            sender.send(delivery.notification);
+            delivered.get(channel).increment();
+            deliveryLag.get(channel).record(
+                    Math.max(0, System.currentTimeMillis() - delivery.notification.getAcceptedAt()),
+                    TimeUnit.MILLISECONDS);
+            finish(delivery.offset);
+        } catch (Exception e) {
+            delivery.attempts++;
+            if (delivery.attempts >= maxAttempts) {
+                failed.get(channel).increment();
+                log.error("Giving up on {} notification after {} attempts: {} ({})",
+                        channel, delivery.attempts, delivery.notification.getMessage(), e.getMessage());
+                finish(delivery.offset);
+                return;
+            }
+            retried.get(channel).increment();
+            long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(delivery.attempts - 1, 20));
+            log.warn("Delivery of {} notification failed (attempt {}), retrying in {} ms: {}",
+                    channel, delivery.attempts, backoffMs, e.getMessage());
+            dispatch(delivery, TimeUnit.MILLISECONDS.toNanos(backoffMs));
+        }
+    }
+
+    /**
+     * Records the record at the offset as finished and commits the log up to the first one still outstanding.
+     */
+    private void finish(long offset) {
+        long commitTo = -1;
+        synchronized (pending) {
+            finished.add(offset);
+            while (!pending.isEmpty() && finished.remove(pending.firstKey())) {
+                commitTo = pending.pollFirstEntry().getValue();
+            }
+        }
+        if (commitTo >= 0) {
+            spillLog.commit(commitTo);
+        }
+        inFlightCount.decrementAndGet();
+        inFlight.release();
+    }
+
+    private static final class Delivery {
+        private final long offset;
+        private final Notification notification;
+        private int attempts;
+
+        private Delivery(long offset, Notification notification) {
+            this.offset = offset;
+            this.notification = notification;
+        }
+    }
+}
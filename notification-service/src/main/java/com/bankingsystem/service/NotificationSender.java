@@ -0,0 +1,12 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.model.Notification;
+
+/**
+ * Delivers a single notification to its channel. Implementations throw on failure; the dispatcher owns
+ * retries, backoff and rate limiting.
+ */
+public interface NotificationSender {
+
+    void send(Notification notification) throws Exception;
+}
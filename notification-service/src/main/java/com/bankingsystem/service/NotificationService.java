@@ -1,15 +1,39 @@
 package com.bankingsystem.service;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.bankingsystem.model.Notification;
+import com.bankingsystem.model.NotificationChannel;
+import com.bankingsystem.spill.SpillLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
+/**
+ * Accepts notifications by appending them to the spill log and returns as soon as they are recorded.
+ * Delivery happens asynchronously in {@link NotificationDispatcher}.
+ */
 @Service
 public class NotificationService {
 
-    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+    private final SpillLog spillLog;
+    private final Counter accepted;
+
+    public NotificationService(SpillLog spillLog, MeterRegistry meterRegistry) {
+        this.spillLog = spillLog;
+        this.accepted = meterRegistry.counter("notifications.accepted");
+    }
+
+    public void sendNotification(NotificationChannel channel, String message) {
+        spillLog.append(new Notification(channel, message, System.currentTimeMillis()).toBytes());
+        accepted.increment();
+    }
 
-    public void sendNotification(String message) {
-        log.info("📧 [NOTIFICATION SERVICE] Sending Email: {}", message);
+    public void sendNotifications(NotificationChannel channel, List<String> messages) {
+        long acceptedAt = System.currentTimeMillis();
+        for (String message : messages) {
+            spillLog.append(new Notification(channel, message, acceptedAt).toBytes());
+        }
+        accepted.increment(messages.size());
     }
 }
@@ -0,0 +1,278 @@
+package com.bankingsystem.spill;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of opaque records backed by memory-mapped segment files, so that accepted notifications
+ * survive a restart of notification-service.
+ *
+ * <p>Every record is addressed by a logical offset that keeps increasing across segments. On disk a record is
+ * {@code [int length][int crc32][payload]}; the length is written last so a torn write reads as the end of the
+ * log when the segment is recovered. Consumers read from {@link #committedOffset()} onwards and call
+ * {@link #commit(long)} once everything below an offset has been handled. Committed segments are deleted, and
+ * anything that was read but not committed is replayed after a restart, so delivery is at-least-once.
+ *
+ * <p>Appends are serialised on the log. Reads may come from any thread, but only offsets below the published
+ * write offset are visible.
+ */
+public class SpillLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SpillLog.class);
+
+    static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String COMMIT_FILE = "commit.offset";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean forceOnAppend;
+    private final ConcurrentSkipListMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+    private final MappedByteBuffer commitBuffer;
+
+    private long activeBase;
+    private MappedByteBuffer active;
+    private volatile long writeOffset;
+    private volatile long committedOffset;
+
+    public SpillLog(Path directory, int segmentBytes, boolean forceOnAppend) {
+        if (segmentBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size must be larger than " + HEADER_BYTES + " bytes");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.forceOnAppend = forceOnAppend;
+        try {
+            Files.createDirectories(directory);
+            this.commitBuffer = map(directory.resolve(COMMIT_FILE), Long.BYTES);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open spill log in " + directory, e);
+        }
+    }
+
+    /**
+     * Appends a record and returns its offset. The record is in the page cache when this returns; it is only
+     * guaranteed to survive a machine crash when the log was opened with {@code forceOnAppend}.
+     */
+    public synchronized long append(byte[] payload) {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit in a segment");
+        }
+        int position = (int) (writeOffset - activeBase);
+        if (position + recordBytes > segmentBytes) {
+            roll();
+            position = 0;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        active.putInt(position + Integer.BYTES, (int) crc.getValue());
+        active.put(position + HEADER_BYTES, payload);
+        // Length goes last: until it is non-zero the record does not exist for recovery
+        active.putInt(position, payload.length);
+        if (forceOnAppend) {
+            active.force();
+        }
+
+        long offset = writeOffset;
+        writeOffset = offset + recordBytes;
+        notifyAll();
+        return offset;
+    }
+
+    /**
+     * Returns the record at {@code offset}, or {@code null} when nothing has been appended there yet.
+     */
+    public Record read(long offset) {
+        if (offset >= writeOffset) {
+            return null;
+        }
+        Map.Entry<Long, MappedByteBuffer> segment = segments.floorEntry(offset);
+        if (segment == null) {
+            throw new IllegalArgumentException("Offset " + offset + " has already been committed and deleted");
+        }
+        MappedByteBuffer buffer = segment.getValue();
+        int position = (int) (offset - segment.getKey());
+        int length = buffer.getInt(position);
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_BYTES, payload);
+        return new Record(offset, offset + HEADER_BYTES + length, payload);
+    }
+
+    /**
+     * Blocks until a record exists at {@code offset} or the timeout elapses.
+     */
+    public synchronized boolean awaitAppend(long offset, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (writeOffset <= offset) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Marks everything below {@code offset} as handled and deletes segments that are now fully committed.
+     */
+    public synchronized void commit(long offset) {
+        if (offset <= committedOffset) {
+            return;
+        }
+        if (offset > writeOffset) {
+            throw new IllegalArgumentException("Cannot commit " + offset + " past the end of the log " + writeOffset);
+        }
+        commitBuffer.putLong(0, offset);
+        if (forceOnAppend) {
+            commitBuffer.force();
+        }
+        committedOffset = offset;
+
+        // A segment can go once the next one starts at or below the commit point
+        Long base = segments.firstKey();
+        while (base != activeBase) {
+            Long next = segments.higherKey(base);
+            if (next == null || next > offset) {
+                break;
+            }
+            segments.remove(base);
+            deleteSegment(base);
+            base = next;
+        }
+    }
+
+    public long committedOffset() {
+        return committedOffset;
+    }
+
+    public long writeOffset() {
+        return writeOffset;
+    }
+
+    /**
+     * Bytes appended but not yet committed.
+     */
+    public long backlogBytes() {
+        return writeOffset - committedOffset;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        active.force();
+        commitBuffer.force();
+    }
+
+    //  RECOVERY
+
+    private void recover() throws IOException {
+        List<Long> bases;
+        try (Stream<Path> files = Files.list(directory)) {
+            bases = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        long storedCommit = commitBuffer.getLong(0);
+        if (bases.isEmpty()) {
+            activeBase = storedCommit;
+            active = map(segmentPath(activeBase), segmentBytes);
+            segments.put(activeBase, active);
+            writeOffset = activeBase;
+            committedOffset = activeBase;
+            return;
+        }
+
+        for (Long base : bases) {
+            segments.put(base, map(segmentPath(base), segmentBytes));
+        }
+        activeBase = bases.get(bases.size() - 1);
+        active = segments.get(activeBase);
+        writeOffset = activeBase + scanEnd(active);
+        committedOffset = Math.min(Math.max(storedCommit, bases.get(0)), writeOffset);
+        log.info("Recovered spill log at {}: {} segment(s), {} uncommitted byte(s)",
+                directory, bases.size(), writeOffset - committedOffset);
+    }
+
+    /**
+     * Walks the active segment until the first empty or corrupt record and returns that position.
+     */
+    private int scanEnd(MappedByteBuffer segment) {
+        int position = 0;
+        CRC32 crc = new CRC32();
+        while (position + HEADER_BYTES <= segmentBytes) {
+            int length = segment.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > segmentBytes) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            segment.get(position + HEADER_BYTES, payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != segment.getInt(position + Integer.BYTES)) {
+                log.warn("Discarding torn record at offset {} of spill segment {}", position, segmentPath(activeBase));
+                break;
+            }
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private void roll() {
+        long base = writeOffset;
+        try {
+            active = map(segmentPath(base), segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create spill segment " + base, e);
+        }
+        activeBase = base;
+        segments.put(base, active);
+    }
+
+    private void deleteSegment(long base) {
+        // The mapping itself is released when the buffer is garbage collected
+        try {
+            Files.deleteIfExists(segmentPath(base));
+        } catch (IOException e) {
+            log.warn("Could not delete committed spill segment {}: {}", base, e.getMessage());
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+
+    private static MappedByteBuffer map(Path path, int bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+
+    public record Record(long offset, long nextOffset, byte[] payload) {
+    }
+}
@@ -3,7 +3,7 @@ package com.bankingsystem;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "notification.spill.dir=target/notification-spill-test")
 class NotificationServiceApplicationTests {
 
 	@Test
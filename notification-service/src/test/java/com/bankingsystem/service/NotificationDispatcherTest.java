@@ -0,0 +1,157 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.model.Notification;
+import com.bankingsystem.model.NotificationChannel;
+import com.bankingsystem.spill.SpillLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationDispatcherTest {
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockEnvironment environment = new MockEnvironment();
+    private final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+    private SpillLog spillLog;
+    private NotificationDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void testDispatch_DeliversEverythingAndCommitsLog() throws Exception {
+        spillLog = new SpillLog(directory, 4096, false);
+        dispatcher = dispatcher(notification -> delivered.add(notification.getMessage()));
+        dispatcher.start();
+
+        for (int i = 0; i < 200; i++) {
+            append(NotificationChannel.EMAIL, "message-" + i);
+        }
+
+        waitUntil(() -> spillLog.backlogBytes() == 0);
+        assertEquals(200, delivered.size());
+        assertEquals(200.0, meterRegistry.counter("notifications.delivered", "channel", "email").count());
+        assertEquals(200, meterRegistry.get("notifications.delivery.lag").tag("channel", "email").timer().count());
+    }
+
+    @Test
+    void testDispatch_RetriesWithBackoffUntilDelivered() throws Exception {
+        spillLog = new SpillLog(directory, 4096, false);
+        AtomicInteger calls = new AtomicInteger();
+        dispatcher = dispatcher(notification -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new IllegalStateException("provider unavailable");
+            }
+            delivered.add(notification.getMessage());
+        });
+        dispatcher.start();
+
+        append(NotificationChannel.SMS, "flaky");
+
+        waitUntil(() -> spillLog.backlogBytes() == 0);
+        assertEquals(List.of("flaky"), delivered);
+        assertEquals(2.0, meterRegistry.counter("notifications.retried", "channel", "sms").count());
+    }
+
+    @Test
+    void testDispatch_GivesUpAfterMaxAttempts() throws Exception {
+        spillLog = new SpillLog(directory, 4096, false);
+        dispatcher = dispatcher(notification -> {
+            throw new IllegalStateException("rejected");
+        });
+        dispatcher.start();
+
+        append(NotificationChannel.EMAIL, "undeliverable");
+
+        waitUntil(() -> spillLog.backlogBytes() == 0);
+        assertEquals(1.0, meterRegistry.counter("notifications.failed", "channel", "email").count());
+    }
+
+    @Test
+    void testDispatch_RateLimitsPerChannel() throws Exception {
+        environment.setProperty("notification.rate-limit.sms", "10");
+        spillLog = new SpillLog(directory, 4096, false);
+        dispatcher = dispatcher(notification -> delivered.add(notification.getMessage()));
+        dispatcher.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 15; i++) {
+            append(NotificationChannel.SMS, "sms-" + i);
+        }
+        append(NotificationChannel.EMAIL, "email");
+
+        waitUntil(() -> delivered.contains("email"));
+        waitUntil(() -> spillLog.backlogBytes() == 0);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        // A bucket of 10 tokens refilling at 10/s needs roughly half a second for the other 5
+        assertTrue(elapsedMs >= 400, "elapsed " + elapsedMs);
+        assertEquals(16, delivered.size());
+        assertTrue(meterRegistry.counter("notifications.throttled", "channel", "sms").count() > 0);
+    }
+
+    @Test
+    void testDispatch_SkipsUnreadableRecordsAndKeepsReading() throws Exception {
+        spillLog = new SpillLog(directory, 4096, false);
+        // One permit, so a skipped record that kept its permit would stall everything after it
+        dispatcher = new NotificationDispatcher(spillLog, notification -> delivered.add(notification.getMessage()),
+                meterRegistry, environment, 4, 1, 3, 10, 50, false);
+        dispatcher.start();
+
+        spillLog.append(new byte[] {99});
+        append(NotificationChannel.EMAIL, "after the corrupt one");
+
+        waitUntil(() -> spillLog.backlogBytes() == 0);
+        assertEquals(List.of("after the corrupt one"), delivered);
+        assertEquals(1.0, meterRegistry.counter("notifications.unreadable").count());
+    }
+
+    @Test
+    void testDispatch_RedeliversUncommittedRecordsAfterRestart() throws Exception {
+        spillLog = new SpillLog(directory, 4096, false);
+        append(NotificationChannel.EMAIL, "accepted before crash");
+        spillLog.close();
+
+        spillLog = new SpillLog(directory, 4096, false);
+        dispatcher = dispatcher(notification -> delivered.add(notification.getMessage()));
+        dispatcher.start();
+
+        waitUntil(() -> spillLog.backlogBytes() == 0);
+        assertEquals(List.of("accepted before crash"), delivered);
+    }
+
+    private NotificationDispatcher dispatcher(NotificationSender sender) {
+        return new NotificationDispatcher(spillLog, sender, meterRegistry, environment, 4, 100, 3, 10, 50, false);
+    }
+
+    private void append(NotificationChannel channel, String message) {
+        spillLog.append(new Notification(channel, message, System.currentTimeMillis()).toBytes());
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 5 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
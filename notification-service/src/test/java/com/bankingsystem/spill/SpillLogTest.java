@@ -0,0 +1,106 @@
+package com.bankingsystem.spill;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpillLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppendAndRead_WalksRecordsInOrder() {
+        SpillLog log = new SpillLog(directory, 1024, false);
+
+        long first = log.append(bytes("alpha"));
+        long second = log.append(bytes("beta"));
+
+        assertEquals(0, first);
+        SpillLog.Record record = log.read(first);
+        assertEquals("alpha", text(record.payload()));
+        assertEquals(second, record.nextOffset());
+        assertEquals("beta", text(log.read(second).payload()));
+        assertNull(log.read(log.writeOffset()));
+    }
+
+    @Test
+    void testAppend_RollsSegmentsAndCommitDeletesThem() throws IOException {
+        SpillLog log = new SpillLog(directory, 64, false);
+
+        List<Long> offsets = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            offsets.add(log.append(bytes("message-" + i)));
+        }
+        assertTrue(log.segmentCount() > 1);
+        for (int i = 0; i < 10; i++) {
+            assertEquals("message-" + i, text(log.read(offsets.get(i)).payload()));
+        }
+
+        log.commit(log.writeOffset());
+
+        assertEquals(1, log.segmentCount());
+        assertEquals(0, log.backlogBytes());
+        assertEquals(1, segmentFiles());
+    }
+
+    @Test
+    void testRecovery_ResumesFromCommittedOffset() {
+        SpillLog log = new SpillLog(directory, 1024, false);
+        log.append(bytes("delivered"));
+        long pending = log.append(bytes("pending"));
+        log.commit(pending);
+        log.close();
+
+        SpillLog reopened = new SpillLog(directory, 1024, false);
+
+        assertEquals(pending, reopened.committedOffset());
+        assertEquals("pending", text(reopened.read(reopened.committedOffset()).payload()));
+        long next = reopened.append(bytes("after restart"));
+        assertEquals("after restart", text(reopened.read(next).payload()));
+    }
+
+    @Test
+    void testRecovery_DiscardsTornRecord() throws IOException {
+        SpillLog log = new SpillLog(directory, 1024, false);
+        log.append(bytes("complete"));
+        long torn = log.append(bytes("torn"));
+        log.close();
+        // Corrupt the payload of the last record as if the process died mid-write
+        try (FileChannel channel = FileChannel.open(directory.resolve(String.format("%020d.log", 0)),
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("XX")), torn + SpillLog.HEADER_BYTES);
+        }
+
+        SpillLog reopened = new SpillLog(directory, 1024, false);
+
+        assertEquals(torn, reopened.writeOffset());
+        assertEquals("complete", text(reopened.read(0).payload()));
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".log")).count();
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,19 +1,34 @@
 package com.bankingsystem.client;
 
 import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.dto.AccountLookupRequest;
 import com.bankingsystem.dto.BalanceRequest;
+import com.bankingsystem.dto.BalanceUpdateResult;
+import com.bankingsystem.dto.BulkBalanceRequest;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
-@FeignClient(name = "account-service")
+import java.util.List;
+
+@FeignClient(name = "account-service", configuration = AccountClientConfig.class)
 public interface AccountClient {
 
     @GetMapping("/api/accounts/{accountNumber}")
     AccountDTO getAccount(@PathVariable String accountNumber);
 
+    @PostMapping("/api/accounts/lookup")
+    List<AccountDTO> lookupAccounts(@RequestBody AccountLookupRequest request);
+
     @PutMapping("/api/accounts/{accountNumber}/balance")
     void updateBalance(@PathVariable String accountNumber, @RequestBody BalanceRequest request);
+
+    @PutMapping("/api/accounts/{accountNumber}/debit")
+    AccountDTO debit(@PathVariable String accountNumber, @RequestBody BalanceRequest request);
+
+    @PutMapping("/api/accounts/balances")
+    List<BalanceUpdateResult> updateBalances(@RequestBody BulkBalanceRequest request);
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.bankingsystem.client;
+
+import feign.Capability;
+import feign.codec.ErrorDecoder;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+// Not a @Configuration on purpose: it only applies to AccountClient, not to every Feign client
+public class AccountClientConfig {
+
+    @Bean
+    public ErrorDecoder accountErrorDecoder() {
+        return new AccountErrorDecoder();
+    }
+
+    // Account calls hold an account lock and a request thread, so they stay on the caller's thread
+    @Bean
+    public Capability accountResilience(BulkheadRegistry bulkheads, RetryRegistry retries,
+                                        @Value("${client.retry-budget.ratio:0.1}") double ratio,
+                                        @Value("${client.retry-budget.burst:10}") int burst) {
+        return ResilienceCapability.semaphore("accountService", bulkheads, retries, new RetryBudget(ratio, burst));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "client.account-service.cbor.enabled", havingValue = "true")
+    public CborNegotiation accountCborNegotiation() {
+        return new CborNegotiation();
+    }
+}
@@ -0,0 +1,51 @@
+package com.bankingsystem.client;
+
+import com.bankingsystem.exception.InsufficientBalanceException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import feign.Response;
+import feign.codec.ErrorDecoder;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+
+public class AccountErrorDecoder implements ErrorDecoder {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // Errors come back as CBOR when the request asked for it (see CborNegotiation)
+    private static final ObjectMapper CBOR_MAPPER = new CBORMapper();
+
+    private final ErrorDecoder defaultDecoder = new ErrorDecoder.Default();
+
+    @Override
+    public Exception decode(String methodKey, Response response) {
+        // account-service answers 422 when a guarded debit finds too little money
+        if (response.status() == 422) {
+            return new InsufficientBalanceException(readMessage(response, "Insufficient funds."));
+        }
+        return defaultDecoder.decode(methodKey, response);
+    }
+
+    private String readMessage(Response response, String defaultMessage) {
+        if (response.body() == null) {
+            return defaultMessage;
+        }
+        try (InputStream body = response.body().asInputStream()) {
+            JsonNode message = mapperFor(response).readTree(body).get("message");
+            return message != null ? message.asText() : defaultMessage;
+        } catch (IOException e) {
+            return defaultMessage;
+        }
+    }
+
+    private static ObjectMapper mapperFor(Response response) {
+        Collection<String> contentType = response.headers().get(HttpHeaders.CONTENT_TYPE);
+        if (contentType != null && contentType.stream().anyMatch(value -> value.startsWith(CborNegotiation.APPLICATION_CBOR))) {
+            return CBOR_MAPPER;
+        }
+        return MAPPER;
+    }
+}
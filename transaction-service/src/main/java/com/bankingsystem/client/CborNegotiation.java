@@ -0,0 +1,42 @@
+package com.bankingsystem.client;
+
+import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.dto.BalanceRequest;
+import feign.Capability;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.codec.Encoder;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Switches the two payloads {@link AccountClient} exchanges on every deposit, withdrawal and transfer from JSON
+ * to CBOR (RFC 8949), the binary encoding of the same Jackson model: {@link BalanceRequest} bodies are sent as
+ * {@code application/cbor} and {@link AccountDTO} responses are asked for as {@code application/cbor}, with JSON
+ * still accepted. Everything else stays JSON. Enable it only once every account-service instance has the CBOR
+ * converter on its classpath.
+ */
+public class CborNegotiation implements Capability, RequestInterceptor {
+
+    public static final String APPLICATION_CBOR = "application/cbor";
+
+    private static final String ACCEPT_CBOR_OR_JSON = APPLICATION_CBOR + ", application/json;q=0.5";
+
+    @Override
+    public Encoder enrich(Encoder encoder) {
+        return (body, bodyType, template) -> {
+            if (body instanceof BalanceRequest) {
+                template.removeHeader(HttpHeaders.CONTENT_TYPE);
+                template.header(HttpHeaders.CONTENT_TYPE, APPLICATION_CBOR);
+            }
+            encoder.encode(body, bodyType, template);
+        };
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        if (template.methodMetadata() != null && template.methodMetadata().returnType() == AccountDTO.class) {
+            template.removeHeader(HttpHeaders.ACCEPT);
+            template.header(HttpHeaders.ACCEPT, ACCEPT_CBOR_OR_JSON);
+        }
+    }
+}
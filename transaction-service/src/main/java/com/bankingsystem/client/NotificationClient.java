@@ -1,12 +1,16 @@
 package com.bankingsystem.client;
 
-
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
-@FeignClient(name = "notification-service")
+import java.util.List;
+
+@FeignClient(name = "notification-service", configuration = NotificationClientConfig.class)
 public interface NotificationClient {
     @PostMapping("/api/notifications/send")
     void sendNotification(@RequestBody String message);
+
+    @PostMapping("/api/notifications/send/batch")
+    void sendNotifications(@RequestBody List<String> messages);
 }
@@ -0,0 +1,22 @@
+package com.bankingsystem.client;
+
+import feign.Capability;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+// Not a @Configuration on purpose: it only applies to NotificationClient
+public class NotificationClientConfig {
+
+    // On its own threads under a time limit, so a stalled notification-service cannot hold the caller
+    @Bean
+    public Capability notificationResilience(ThreadPoolBulkheadRegistry bulkheads, TimeLimiterRegistry timeLimiters,
+                                             RetryRegistry retries,
+                                             @Value("${client.retry-budget.ratio:0.1}") double ratio,
+                                             @Value("${client.retry-budget.burst:10}") int burst) {
+        return ResilienceCapability.threadPool("notificationService", bulkheads, timeLimiters, retries,
+                new RetryBudget(ratio, burst));
+    }
+}
@@ -0,0 +1,63 @@
+package com.bankingsystem.client;
+
+import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.dto.BalanceRequest;
+import com.bankingsystem.exception.InsufficientBalanceException;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link AccountClient} for the reactive profile. Errors match the Feign client:
+ * 422 from a guarded debit becomes {@link InsufficientBalanceException}, any other error status a
+ * {@link org.springframework.web.reactive.function.client.WebClientResponseException}.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveAccountClient {
+
+    private static final String INSUFFICIENT_FUNDS = "Insufficient funds.";
+
+    private final WebClient webClient;
+
+    public ReactiveAccountClient(@LoadBalanced WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder.baseUrl("http://account-service/api/accounts").build();
+    }
+
+    public Mono<AccountDTO> getAccount(String accountNumber) {
+        return webClient.get()
+                .uri("/{accountNumber}", accountNumber)
+                .retrieve()
+                .bodyToMono(AccountDTO.class);
+    }
+
+    public Mono<Void> updateBalance(String accountNumber, BalanceRequest request) {
+        return webClient.put()
+                .uri("/{accountNumber}/balance", accountNumber)
+                .bodyValue(request)
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+    }
+
+    public Mono<AccountDTO> debit(String accountNumber, BalanceRequest request) {
+        return webClient.put()
+                .uri("/{accountNumber}/debit", accountNumber)
+                .bodyValue(request)
+                .retrieve()
+                .onStatus(status -> status.value() == 422, ReactiveAccountClient::insufficientFunds)
+                .bodyToMono(AccountDTO.class);
+    }
+
+    private static Mono<Throwable> insufficientFunds(ClientResponse response) {
+        return response.bodyToMono(JsonNode.class)
+                .map(body -> body.hasNonNull("message") ? body.get("message").asText() : INSUFFICIENT_FUNDS)
+                .onErrorReturn(INSUFFICIENT_FUNDS)
+                .defaultIfEmpty(INSUFFICIENT_FUNDS)
+                .map(InsufficientBalanceException::new);
+    }
+}
@@ -0,0 +1,124 @@
+package com.bankingsystem.client;
+
+import com.bankingsystem.exception.DownstreamTimeoutException;
+import feign.Capability;
+import feign.InvocationHandlerFactory;
+import feign.Request;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.core.functions.CheckedSupplier;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Gives one Feign client its own bulkhead and retry policy, so a slow or failing service only uses up the
+ * capacity set aside for it. Registered through a client's configuration class, like {@link AccountClientConfig}.
+ *
+ * <ul>
+ *   <li>{@link #semaphore}: calls run on the caller's thread, at most {@code maxConcurrentCalls} at once. Their
+ *       time limit is the client's Feign read timeout.</li>
+ *   <li>{@link #threadPool}: calls run on the bulkhead's own threads and the caller waits at most the
+ *       {@link TimeLimiter}'s timeout for them, whatever the downstream service does.</li>
+ * </ul>
+ *
+ * Bulkheads, time limiters and retries are the Resilience4j instances of the given name, configured under
+ * {@code resilience4j.*.instances.<name>} in application.properties. Only calls that are safe to repeat are
+ * retried: GETs, and any call whose connection could not be opened, so it never reached the service. Retries
+ * also have to fit in the client's {@link RetryBudget}. A full bulkhead is not retried.
+ */
+public class ResilienceCapability implements Capability {
+
+    private final Retry retry;
+    private final RetryBudget budget;
+    private final Bulkhead bulkhead;
+    private final ThreadPoolBulkhead threadPoolBulkhead;
+    private final TimeLimiter timeLimiter;
+
+    private ResilienceCapability(Retry retry, RetryBudget budget, Bulkhead bulkhead,
+                                 ThreadPoolBulkhead threadPoolBulkhead, TimeLimiter timeLimiter) {
+        this.retry = retry;
+        this.budget = budget;
+        this.bulkhead = bulkhead;
+        this.threadPoolBulkhead = threadPoolBulkhead;
+        this.timeLimiter = timeLimiter;
+    }
+
+    static ResilienceCapability semaphore(String name, BulkheadRegistry bulkheads, RetryRegistry retries,
+                                          RetryBudget budget) {
+        return new ResilienceCapability(budgeted(retries, name, budget), budget, bulkheads.bulkhead(name), null, null);
+    }
+
+    static ResilienceCapability threadPool(String name, ThreadPoolBulkheadRegistry bulkheads,
+                                           TimeLimiterRegistry timeLimiters, RetryRegistry retries, RetryBudget budget) {
+        return new ResilienceCapability(budgeted(retries, name, budget), budget, null, bulkheads.bulkhead(name),
+                timeLimiters.timeLimiter(name));
+    }
+
+    /** Replaces the configured retry with one that also asks the budget before every retry. */
+    private static Retry budgeted(RetryRegistry retries, String name, RetryBudget budget) {
+        RetryConfig configured = retries.retry(name).getRetryConfig();
+        Retry retry = Retry.of(name, RetryConfig.from(configured)
+                .retryOnException(e -> isSafeToRetry(e) && budget.tryRetry())
+                .build());
+        retries.replace(name, retry);
+        return retry;
+    }
+
+    static boolean isSafeToRetry(Throwable e) {
+        // Feign reports I/O errors, including timeouts and refused connections, as RetryableException
+        if (!(e instanceof RetryableException retryable)) {
+            return false;
+        }
+        Throwable cause = retryable.getCause();
+        return retryable.method() == Request.HttpMethod.GET
+                || cause instanceof ConnectException
+                || cause instanceof NoRouteToHostException
+                || cause instanceof UnknownHostException;
+    }
+
+    @Override
+    public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+        return (target, dispatch) -> {
+            InvocationHandler handler = invocationHandlerFactory.create(target, dispatch);
+            return (proxy, method, args) -> {
+                if (method.getDeclaringClass() == Object.class) {
+                    return handler.invoke(proxy, method, args);
+                }
+                budget.onCall();
+                return retry.executeCheckedSupplier(() -> isolated(() -> handler.invoke(proxy, method, args)));
+            };
+        };
+    }
+
+    private Object isolated(CheckedSupplier<Object> call) throws Throwable {
+        if (bulkhead != null) {
+            return bulkhead.executeCheckedSupplier(call);
+        }
+        try {
+            return timeLimiter.executeFutureSupplier(() -> threadPoolBulkhead.executeCallable(() -> {
+                try {
+                    return call.get();
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new UndeclaredThrowableException(t);
+                }
+            }).toCompletableFuture());
+        } catch (TimeoutException e) {
+            throw new DownstreamTimeoutException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.bankingsystem.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the retries of one client at a fraction of its calls, so retries cannot multiply the load on a service
+ * that is already failing. Every call earns {@code ratio} of a token and every retry spends a whole one, up to
+ * {@code burst} tokens saved. The budget starts full, so a client that has been quiet can still retry a short
+ * run of failures.
+ */
+class RetryBudget {
+
+    private static final long ONE_TOKEN = 1000;
+
+    private final long earnedPerCall;
+    private final long maxTokens;
+    private final AtomicLong tokens;
+
+    RetryBudget(double ratio, int burst) {
+        if (!(ratio >= 0) || burst < 0) {
+            throw new IllegalArgumentException("ratio and burst must not be negative");
+        }
+        this.earnedPerCall = Math.round(ratio * ONE_TOKEN);
+        this.maxTokens = burst * ONE_TOKEN;
+        this.tokens = new AtomicLong(maxTokens);
+    }
+
+    /** Credits one call, made or about to be made. */
+    void onCall() {
+        tokens.accumulateAndGet(earnedPerCall, (current, earned) -> Math.min(maxTokens, current + earned));
+    }
+
+    /** Spends a token on a retry, or refuses it if the budget is used up. */
+    boolean tryRetry() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < ONE_TOKEN) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - ONE_TOKEN));
+        return true;
+    }
+}
@@ -0,0 +1,32 @@
+package com.bankingsystem.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+
+@Configuration
+@Profile("reactive")
+public class WebClientConfig {
+
+    /**
+     * Resolves {@code http://<service-name>} through the discovery client, like the Feign clients do.
+     */
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder(
+            @Value("${reactive.client.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${reactive.client.response-timeout-ms:5000}") long responseTimeoutMs) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+        return WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+}
@@ -0,0 +1,50 @@
+package com.bankingsystem.controller;
+
+import com.bankingsystem.dto.TransactionRequest;
+import com.bankingsystem.dto.TransferRequest;
+import com.bankingsystem.model.Transaction;
+import com.bankingsystem.service.ReactiveTransactionService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * The money-moving endpoints of {@link TransactionController} on WebFlux, for the reactive profile. Same paths,
+ * bodies and error responses, so clients and the load test can target either build unchanged.
+ */
+@RestController
+@RequestMapping("/api/transactions")
+@Profile("reactive")
+public class ReactiveTransactionController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveTransactionController.class);
+    private final ReactiveTransactionService transactionService;
+
+    public ReactiveTransactionController(ReactiveTransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    @PostMapping("/deposit")
+    public Mono<Transaction> deposit(@Valid @RequestBody TransactionRequest request) {
+        log.info("Received deposit request for account: {}", request.getAccountNumber());
+        return transactionService.deposit(request);
+    }
+
+    @PostMapping("/withdraw")
+    public Mono<Transaction> withdraw(@Valid @RequestBody TransactionRequest request) {
+        log.info("Received withdraw request for account: {}", request.getAccountNumber());
+        return transactionService.withdraw(request);
+    }
+
+    @PostMapping("/transfer")
+    public Mono<String> transfer(@Valid @RequestBody TransferRequest request) {
+        log.info("Received transfer request from {} to {}", request.getSourceAccount(), request.getDestinationAccount());
+        return transactionService.transfer(request);
+    }
+}
@@ -1,25 +1,46 @@
 package com.bankingsystem.controller;
+import com.bankingsystem.dto.BatchTransferRequest;
+import com.bankingsystem.dto.BatchTransferResponse;
+import com.bankingsystem.dto.TransactionPage;
 import com.bankingsystem.dto.TransactionRequest;
 import com.bankingsystem.dto.TransferRequest;
+import com.bankingsystem.model.AccountNumber;
 import com.bankingsystem.model.Transaction;
+import com.bankingsystem.model.TransferSaga;
+import com.bankingsystem.service.BatchTransferService;
 import com.bankingsystem.service.TransactionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
 @RestController
 @RequestMapping("/api/transactions")
+@Profile("!reactive")
 public class TransactionController {
 
     private static final Logger log = LoggerFactory.getLogger(TransactionController.class);
+    private static final String NDJSON = "application/x-ndjson";
     private final TransactionService transactionService;
+    private final BatchTransferService batchTransferService;
+    private final ObjectMapper objectMapper;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, BatchTransferService batchTransferService,
+                                 ObjectMapper objectMapper) {
         this.transactionService = transactionService;
+        this.batchTransferService = batchTransferService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/deposit")
@@ -43,10 +64,81 @@ public class TransactionController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @PostMapping("/transfer/async")
+    public ResponseEntity<TransferSaga> submitTransfer(@Valid @RequestBody TransferRequest request) {
+        log.info("Received async transfer request from {} to {}", request.getSourceAccount(), request.getDestinationAccount());
+        TransferSaga saga = transactionService.submitTransfer(request);
+        return new ResponseEntity<>(saga, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/transfer/{sagaId}")
+    public ResponseEntity<TransferSaga> getTransferStatus(@PathVariable String sagaId) {
+        TransferSaga saga = transactionService.getTransferStatus(sagaId);
+        return new ResponseEntity<>(saga, HttpStatus.OK);
+    }
+
+    @PostMapping("/transfer/batch")
+    public ResponseEntity<BatchTransferResponse> transferBatch(@Valid @RequestBody BatchTransferRequest request) {
+        log.info("Received batch transfer request with {} transfers", request.getTransfers().size());
+        BatchTransferResponse response = batchTransferService.transferBatch(request);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * The whole history as a plain JSON array, newest first, which is what this endpoint returned before it was
+     * paged. Kept for existing clients; it is chosen only when neither {@code cursor} nor {@code limit} is given.
+     * Written from the Mongo cursor, so a long history is not held in memory.
+     */
+    @GetMapping(value = "/account/{accountNumber}", params = {"!cursor", "!limit"})
+    public ResponseEntity<StreamingResponseBody> getAllTransactions(
+            @PathVariable @AccountNumber String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Fetching full transaction history for account: {}", accountNumber);
+        Stream<Transaction> transactions = transactionService.streamTransactions(accountNumber, from, to);
+        StreamingResponseBody body = out -> {
+            try (transactions; JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                Iterator<Transaction> rows = transactions.iterator();
+                while (rows.hasNext()) {
+                    generator.writeObject(rows.next());
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @GetMapping("/account/{accountNumber}")
-    public ResponseEntity<List<Transaction>> getTransactions(@PathVariable String accountNumber) {
+    public ResponseEntity<TransactionPage> getTransactions(
+            @PathVariable @AccountNumber String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         log.info("Fetching transaction history for account: {}", accountNumber);
-        List<Transaction> transactions = transactionService.getTransactions(accountNumber);
-        return new ResponseEntity<>(transactions, HttpStatus.OK);
+        TransactionPage page = transactionService.getTransactions(accountNumber, from, to, cursor, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/account/{accountNumber}/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamTransactions(
+            @PathVariable @AccountNumber String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Streaming transaction history for account: {}", accountNumber);
+        // Open the cursor up front so bad parameters still get a regular error response
+        Stream<Transaction> transactions = transactionService.streamTransactions(accountNumber, from, to);
+        StreamingResponseBody body = out -> {
+            try (transactions; JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                Iterator<Transaction> rows = transactions.iterator();
+                while (rows.hasNext()) {
+                    generator.writeObject(rows.next());
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.bankingsystem.dto;
 
+import com.bankingsystem.model.Money;
+
 public class AccountDTO {
 
     private String accountNumber;
-    private Double balance;
+    private Money balance;
     private String status;
 
     public AccountDTO() {}
@@ -16,11 +18,11 @@ public class AccountDTO {
         this.accountNumber = accountNumber;
     }
 
-    public Double getBalance() {
+    public Money getBalance() {
         return balance;
     }
 
-    public void setBalance(Double balance) {
+    public void setBalance(Money balance) {
         this.balance = balance;
     }
 
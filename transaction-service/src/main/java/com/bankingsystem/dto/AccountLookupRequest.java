@@ -0,0 +1,22 @@
+package com.bankingsystem.dto;
+
+import java.util.List;
+
+public class AccountLookupRequest {
+
+    private List<String> accountNumbers;
+
+    public AccountLookupRequest() {}
+
+    public AccountLookupRequest(List<String> accountNumbers) {
+        this.accountNumbers = accountNumbers;
+    }
+
+    public List<String> getAccountNumbers() {
+        return accountNumbers;
+    }
+
+    public void setAccountNumbers(List<String> accountNumbers) {
+        this.accountNumbers = accountNumbers;
+    }
+}
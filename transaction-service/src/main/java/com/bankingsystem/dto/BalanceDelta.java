@@ -0,0 +1,32 @@
+package com.bankingsystem.dto;
+
+import com.bankingsystem.model.Money;
+
+public class BalanceDelta {
+
+    private String accountNumber;
+    private Money amount;
+
+    public BalanceDelta() {}
+
+    public BalanceDelta(String accountNumber, Money amount) {
+        this.accountNumber = accountNumber;
+        this.amount = amount;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+}
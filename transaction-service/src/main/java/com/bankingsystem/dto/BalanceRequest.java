@@ -1,22 +1,40 @@
 package com.bankingsystem.dto;
 
+import com.bankingsystem.model.Money;
 import jakarta.validation.constraints.NotNull;
 
 public class BalanceRequest {
 
     @NotNull(message = "Amount cannot be null")
-    private Double amount;
+    private Money amount;
+
+    // Lets account-service apply a retried request at most once
+    private String operationId;
+
     public BalanceRequest() {}
 
-    public BalanceRequest(Double amount) {
+    public BalanceRequest(Money amount) {
+        this.amount = amount;
+    }
+
+    public BalanceRequest(Money amount, String operationId) {
         this.amount = amount;
+        this.operationId = operationId;
     }
 
-    public Double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
 }
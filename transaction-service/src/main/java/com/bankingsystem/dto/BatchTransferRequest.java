@@ -0,0 +1,35 @@
+package com.bankingsystem.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchTransferRequest {
+
+    // Optional; resubmitting with the same batch id never moves money twice, reusing it for other transfers is refused
+    private String batchId;
+
+    @NotEmpty(message = "At least one transfer is required")
+    @Size(max = 10000, message = "A batch can contain at most 10000 transfers")
+    private List<@Valid TransferRequest> transfers;
+
+    public BatchTransferRequest() {}
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public List<TransferRequest> getTransfers() {
+        return transfers;
+    }
+
+    public void setTransfers(List<TransferRequest> transfers) {
+        this.transfers = transfers;
+    }
+}
@@ -0,0 +1,52 @@
+package com.bankingsystem.dto;
+
+import java.util.List;
+
+public class BatchTransferResponse {
+
+    private String batchId;
+    private int succeeded;
+    private int failed;
+    private List<TransferLegResult> legs;
+
+    public BatchTransferResponse() {}
+
+    public BatchTransferResponse(String batchId, List<TransferLegResult> legs) {
+        this.batchId = batchId;
+        this.legs = legs;
+        this.succeeded = (int) legs.stream().filter(l -> "SUCCESS".equals(l.getStatus())).count();
+        this.failed = legs.size() - succeeded;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<TransferLegResult> getLegs() {
+        return legs;
+    }
+
+    public void setLegs(List<TransferLegResult> legs) {
+        this.legs = legs;
+    }
+}
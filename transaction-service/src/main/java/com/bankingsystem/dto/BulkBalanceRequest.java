@@ -0,0 +1,32 @@
+package com.bankingsystem.dto;
+
+import java.util.List;
+
+public class BulkBalanceRequest {
+
+    private String operationId;
+    private List<BalanceDelta> deltas;
+
+    public BulkBalanceRequest() {}
+
+    public BulkBalanceRequest(String operationId, List<BalanceDelta> deltas) {
+        this.operationId = operationId;
+        this.deltas = deltas;
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public void setOperationId(String operationId) {
+        this.operationId = operationId;
+    }
+
+    public List<BalanceDelta> getDeltas() {
+        return deltas;
+    }
+
+    public void setDeltas(List<BalanceDelta> deltas) {
+        this.deltas = deltas;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bankingsystem.dto;
+
+import com.bankingsystem.model.Transaction;
+
+import java.util.List;
+
+public class TransactionPage {
+
+    private List<Transaction> transactions;
+    private String nextCursor;      // null on the last page
+
+    public TransactionPage() {}
+
+    public TransactionPage(List<Transaction> transactions, String nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<Transaction> transactions) {
+        this.transactions = transactions;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -1,7 +1,10 @@
 package com.bankingsystem.dto;
 
+import com.bankingsystem.model.AccountNumber;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.PositiveAmount;
+
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Positive;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,11 +12,12 @@ import jakarta.validation.constraints.NotNull;
 public class TransactionRequest {
 
     @NotBlank(message = "Account number is required")
+    @AccountNumber
     private String accountNumber;
 
     @NotNull(message = "Amount is required")
-    @Positive(message = "Amount must be positive")
-    private Double amount;
+    @PositiveAmount
+    private Money amount;
 
     public TransactionRequest() {}
 
@@ -25,11 +29,11 @@ public class TransactionRequest {
         this.accountNumber = accountNumber;
     }
 
-    public Double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 }
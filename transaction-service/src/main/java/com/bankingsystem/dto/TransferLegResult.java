@@ -0,0 +1,80 @@
+package com.bankingsystem.dto;
+
+import com.bankingsystem.model.Money;
+
+public class TransferLegResult {
+
+    private int index;
+    private String transactionId;
+    private String sourceAccount;
+    private String destinationAccount;
+    private Money amount;
+    private String status;        // SUCCESS, REJECTED, FAILED
+    private String message;
+
+    public TransferLegResult() {}
+
+    public TransferLegResult(int index, String transactionId, TransferRequest leg) {
+        this.index = index;
+        this.transactionId = transactionId;
+        this.sourceAccount = leg.getSourceAccount();
+        this.destinationAccount = leg.getDestinationAccount();
+        this.amount = leg.getAmount();
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getSourceAccount() {
+        return sourceAccount;
+    }
+
+    public void setSourceAccount(String sourceAccount) {
+        this.sourceAccount = sourceAccount;
+    }
+
+    public String getDestinationAccount() {
+        return destinationAccount;
+    }
+
+    public void setDestinationAccount(String destinationAccount) {
+        this.destinationAccount = destinationAccount;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
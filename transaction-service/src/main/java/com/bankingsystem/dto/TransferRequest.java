@@ -1,20 +1,25 @@
 package com.bankingsystem.dto;
 
+import com.bankingsystem.model.AccountNumber;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.PositiveAmount;
+
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 
 public class TransferRequest {
 
     @NotBlank(message = "Source account number is required")
+    @AccountNumber(message = "Source account number is not valid")
     private String sourceAccount;
 
     @NotBlank(message = "Destination account number is required")
+    @AccountNumber(message = "Destination account number is not valid")
     private String destinationAccount;
 
     @NotNull(message = "Amount is required")
-    @Positive(message = "Amount must be positive")
-    private Double amount;
+    @PositiveAmount
+    private Money amount;
 
     public TransferRequest() {}
 
@@ -34,11 +39,11 @@ public class TransferRequest {
         this.destinationAccount = destinationAccount;
     }
 
-    public Double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.bankingsystem.exception;
+
+public class AccountBusyException extends RuntimeException {
+    public AccountBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bankingsystem.exception;
+
+public class AccountLookupTimeoutException extends RuntimeException {
+    public AccountLookupTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bankingsystem.exception;
+
+public class BatchConflictException extends RuntimeException {
+    public BatchConflictException(String message) {
+        super(message);
+    }
+}
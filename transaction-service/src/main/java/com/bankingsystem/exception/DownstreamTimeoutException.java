@@ -0,0 +1,7 @@
+package com.bankingsystem.exception;
+
+public class DownstreamTimeoutException extends RuntimeException {
+    public DownstreamTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
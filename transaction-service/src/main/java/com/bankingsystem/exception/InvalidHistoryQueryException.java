@@ -0,0 +1,7 @@
+package com.bankingsystem.exception;
+
+public class InvalidHistoryQueryException extends RuntimeException {
+    public InvalidHistoryQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bankingsystem.exception;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.Date;
+
+/**
+ * {@link GlobalExceptionHandler}'s mappings for the reactive profile, where validation failures and
+ * account-service errors arrive as WebFlux and WebClient exceptions instead.
+ */
+@RestControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler({InsufficientBalanceException.class, InvalidAccountException.class, TransferFailedException.class,
+            InvalidHistoryQueryException.class})
+    public ResponseEntity<ErrorResponse> handleBadRequestExceptions(RuntimeException ex, ServerWebExchange exchange) {
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationExceptions(WebExchangeBindException ex, ServerWebExchange exchange) {
+        // Get the first validation error message
+        return error(HttpStatus.BAD_REQUEST, ex.getBindingResult().getAllErrors().get(0).getDefaultMessage(), exchange);
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleUnreadableBody(ServerWebInputException ex, ServerWebExchange exchange) {
+        String message = ex.getMostSpecificCause() instanceof JsonMappingException mapping
+                ? mapping.getOriginalMessage()
+                : "Malformed request body";
+        return error(HttpStatus.BAD_REQUEST, message, exchange);
+    }
+
+    @ExceptionHandler(WebClientResponseException.NotFound.class)
+    public ResponseEntity<ErrorResponse> handleAccountNotFound(WebClientResponseException ex, ServerWebExchange exchange) {
+        return error(HttpStatus.NOT_FOUND, ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(CallNotPermittedException.class)
+    public ResponseEntity<ErrorResponse> handleCircuitBreaker(Exception ex, ServerWebExchange exchange) {
+        return error(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex, ServerWebExchange exchange) {
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred: " + ex.getMessage(), exchange);
+    }
+
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String message, ServerWebExchange exchange) {
+        // Same description format as WebRequest.getDescription(false) in the servlet build
+        ErrorResponse errorResponse = new ErrorResponse(status.value(), new Date(), message,
+                "uri=" + exchange.getRequest().getPath().value());
+        return new ResponseEntity<>(errorResponse, status);
+    }
+}
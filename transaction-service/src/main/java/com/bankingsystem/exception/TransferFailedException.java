@@ -0,0 +1,7 @@
+package com.bankingsystem.exception;
+
+public class TransferFailedException extends RuntimeException {
+    public TransferFailedException(String message) {
+        super(message);
+    }
+}
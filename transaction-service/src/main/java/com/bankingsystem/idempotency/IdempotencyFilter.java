@@ -0,0 +1,249 @@
+package com.bankingsystem.idempotency;
+
+import com.bankingsystem.exception.ErrorResponse;
+import com.bankingsystem.model.IdempotencyRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Makes deposit, withdraw and transfer safe to retry. A POST carrying an {@code Idempotency-Key} header runs once;
+ * any later request with the same key gets the first response back, marked with
+ * {@code Idempotent-Replayed: true}, without reaching the controller or account-service.
+ *
+ * <ul>
+ *   <li>Same key with a different method, path or body: 422, the key was reused by mistake.</li>
+ *   <li>Same key while the first request is still running: 409, retry later.</li>
+ *   <li>5xx responses and responses from the circuit-breaker fallbacks are not remembered, so a retry with
+ *       the same key runs again once account-service is back.</li>
+ * </ul>
+ *
+ * A request that fails this way may already have changed a balance, for example when the account call timed
+ * out after account-service applied it. Every attempt with the key therefore runs under the same
+ * {@link #operationId()}, which the services send to account-service, so running again never applies a
+ * change twice. Requests without the header behave exactly as before.
+ */
+@Component
+@Profile("!reactive")
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+    private static final String DO_NOT_REMEMBER = IdempotencyFilter.class.getName() + ".DO_NOT_REMEMBER";
+    private static final String OPERATION_ID = IdempotencyFilter.class.getName() + ".OPERATION_ID";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Set<String> paths;
+    private final Counter fresh;
+    private final Counter replayed;
+    private final Counter inProgress;
+    private final Counter mismatched;
+
+    public IdempotencyFilter(IdempotencyStore store,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${idempotency.paths:/api/transactions/deposit,/api/transactions/withdraw,/api/transactions/transfer}")
+                             List<String> paths) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.paths = Set.copyOf(paths);
+        this.fresh = meterRegistry.counter("idempotency.requests", "outcome", "new");
+        this.replayed = meterRegistry.counter("idempotency.requests", "outcome", "replayed");
+        this.inProgress = meterRegistry.counter("idempotency.requests", "outcome", "in_progress");
+        this.mismatched = meterRegistry.counter("idempotency.requests", "outcome", "mismatch");
+    }
+
+    /**
+     * Called while handling a request whose outcome should not be replayed, such as a fallback answer given
+     * because account-service was down. Does nothing outside a request.
+     */
+    public static void doNotRemember() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(DO_NOT_REMEMBER, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * The account-service operation id of the request being handled: the same for every attempt with its
+     * {@code Idempotency-Key}. Null for requests without the header, and outside a request.
+     */
+    public static String operationId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null : (String) attributes.getAttribute(OPERATION_ID, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters.", request);
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String fingerprint = fingerprint(request.getMethod(), request.getRequestURI(), cachedRequest.body);
+        IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+        if (!claim.owned()) {
+            answerFrom(claim.record(), fingerprint, request, response);
+            return;
+        }
+
+        fresh.increment();
+        request.setAttribute(OPERATION_ID, claim.record().getOperationId());
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        boolean remembered = false;
+        try {
+            chain.doFilter(cachedRequest, cachedResponse);
+            if (cachedResponse.getStatus() < 500 && request.getAttribute(DO_NOT_REMEMBER) == null) {
+                store.complete(key, fingerprint, cachedResponse.getStatus(), cachedResponse.getContentType(),
+                        new String(cachedResponse.getContentAsByteArray(), StandardCharsets.UTF_8));
+                remembered = true;
+            }
+        } finally {
+            if (!remembered) {
+                release(key);
+            }
+            cachedResponse.copyBodyToResponse();
+        }
+    }
+
+    private void answerFrom(IdempotencyRecord record, String fingerprint, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            mismatched.increment();
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request.", request);
+        } else if (!record.isCompleted()) {
+            inProgress.increment();
+            writeError(response, HttpStatus.CONFLICT,
+                    "A request with this " + HEADER + " is still being processed, try again later.", request);
+        } else {
+            replayed.increment();
+            response.setStatus(record.getResponseStatus());
+            if (record.getContentType() != null) {
+                response.setContentType(record.getContentType());
+            }
+            response.setHeader(REPLAYED_HEADER, "true");
+            if (record.getResponseBody() != null) {
+                response.getOutputStream().write(record.getResponseBody().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private void release(String key) {
+        try {
+            store.release(key);
+        } catch (RuntimeException e) {
+            // The lease then runs out on its own and the key becomes usable again
+            log.warn("Could not release idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message, HttpServletRequest request)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(status.value(), new Date(), message, "uri=" + request.getRequestURI()));
+    }
+
+    private static String fingerprint(String method, String path, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + ' ' + path + '\n').getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /** Reads the body up front so it can be hashed and still be read again by the controller. */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.bankingsystem.idempotency;
+
+import com.bankingsystem.model.IdempotencyRecord;
+import com.bankingsystem.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Remembers the outcome of requests sent with an {@code Idempotency-Key}. The Mongo collection is the source
+ * of truth and is shared by all instances. Its TTL index drops records after {@code idempotency.ttl-hours}.
+ * A small LRU in front of it answers the common case, a client retrying the request it just sent, without a
+ * round trip. Only completed records are cached, since a completed record never changes.
+ *
+ * <p>A key is held by one attempt at a time, for at most {@code idempotency.in-progress-ttl-ms}. An attempt
+ * that ends without a response worth replaying gives the lease back but leaves the record, with its operation
+ * id, in place, so the next attempt sends account-service the same operation id.
+ */
+@Component
+@Profile("!reactive")
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final Duration ttl;
+    private final Duration inProgressTtl;
+    private final Map<String, IdempotencyRecord> recent;
+    private final Counter memoryHits;
+    private final Counter mongoHits;
+    private final Counter misses;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            MongoTemplate mongoTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${idempotency.cache-size:10000}") int cacheSize,
+                            @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${idempotency.in-progress-ttl-ms:60000}") long inProgressTtlMs) {
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.inProgressTtl = Duration.ofMillis(inProgressTtlMs);
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        Gauge.builder("idempotency.cache.size", this, store -> store.cachedCount())
+                .description("Completed idempotency records held in memory")
+                .register(meterRegistry);
+        this.memoryHits = meterRegistry.counter("idempotency.lookups", "tier", "memory");
+        this.mongoHits = meterRegistry.counter("idempotency.lookups", "tier", "mongo");
+        this.misses = meterRegistry.counter("idempotency.lookups", "tier", "miss");
+    }
+
+    /**
+     * Records that a request with this key has started. The claim is owned when this caller may now run the
+     * request, under the record's operation id; otherwise the record tells how the earlier request went.
+     */
+    public Claim claim(String key, String fingerprint) {
+        IdempotencyRecord cached = cached(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return new Claim(cached, false);
+        }
+        Instant now = Instant.now();
+        IdempotencyRecord record = new IdempotencyRecord(key, fingerprint, now.plus(ttl));
+        record.setOperationId(UUID.randomUUID().toString());
+        record.setLockedUntil(now.plus(inProgressTtl));
+        try {
+            // The unique _id makes the insert the arbiter when two retries arrive at different instances at once
+            repository.insert(record);
+            misses.increment();
+            return new Claim(record, true);
+        } catch (DuplicateKeyException e) {
+            Optional<IdempotencyRecord> existing = repository.findById(key);
+            if (existing.isEmpty()) {
+                // Expired between the insert and the read; treat the key as new
+                return claim(key, fingerprint);
+            }
+            mongoHits.increment();
+            IdempotencyRecord found = existing.get();
+            if (found.isCompleted()) {
+                cache(key, found);
+                return new Claim(found, false);
+            }
+            if (found.isLocked(now) || !found.getFingerprint().equals(fingerprint)) {
+                return new Claim(found, false);
+            }
+            // No attempt is running: the last one gave the key back or died before it could
+            IdempotencyRecord taken = takeOver(key, now);
+            return taken != null ? new Claim(taken, true) : claim(key, fingerprint);
+        }
+    }
+
+    /** Stores the response so later requests with the key get it back instead of running again. */
+    public void complete(String key, String fingerprint, int status, String contentType, String body) {
+        IdempotencyRecord record = new IdempotencyRecord(key, fingerprint, Instant.now().plus(ttl));
+        record.setCompleted(true);
+        record.setResponseStatus(status);
+        record.setContentType(contentType);
+        record.setResponseBody(body);
+        repository.save(record);
+        cache(key, record);
+    }
+
+    /**
+     * Ends an attempt whose response is not worth replaying, so the client may retry with the key. The record
+     * and its operation id stay: account-service may have applied the change before the attempt failed.
+     */
+    public void release(String key) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(key).and("completed").is(false)),
+                new Update().unset("lockedUntil"), IdempotencyRecord.class);
+    }
+
+    private IdempotencyRecord takeOver(String key, Instant now) {
+        Query free = new Query(Criteria.where("_id").is(key).and("completed").is(false)
+                .orOperator(Criteria.where("lockedUntil").is(null), Criteria.where("lockedUntil").lte(now)));
+        IdempotencyRecord taken = mongoTemplate.findAndModify(free,
+                new Update().set("lockedUntil", now.plus(inProgressTtl)).set("expiresAt", now.plus(ttl)),
+                FindAndModifyOptions.options().returnNew(true), IdempotencyRecord.class);
+        if (taken != null && taken.getOperationId() == null) {
+            // Left by a version that did not send operation ids; nothing to stay consistent with
+            taken.setOperationId(UUID.randomUUID().toString());
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(key)),
+                    new Update().set("operationId", taken.getOperationId()), IdempotencyRecord.class);
+        }
+        return taken;
+    }
+
+    /** Whether this caller now owns the key, and the record that was found or created for it. */
+    public record Claim(IdempotencyRecord record, boolean owned) {
+    }
+
+    private synchronized IdempotencyRecord cached(String key) {
+        IdempotencyRecord record = recent.get(key);
+        if (record != null && record.getExpiresAt().isBefore(Instant.now())) {
+            recent.remove(key);
+            return null;
+        }
+        return record;
+    }
+
+    private synchronized void cache(String key, IdempotencyRecord record) {
+        recent.put(key, record);
+    }
+
+    private synchronized int cachedCount() {
+        return recent.size();
+    }
+}
@@ -0,0 +1,126 @@
+package com.bankingsystem.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limit that finds its own value from the latency of the requests it admits, the way TCP Vegas
+ * sizes a congestion window.
+ *
+ * <p>Completed requests are looked at in windows of {@code windowSize}. The lowest latency ever seen in a window
+ * is taken as the latency without queueing; {@code limit * (1 - noLoad / windowMin)} then estimates how many of
+ * the admitted requests were waiting rather than working. Few waiting: the limit grows by about
+ * {@code log10(limit)}; many waiting: it shrinks by as much. A window in which any request failed (a 5xx, an
+ * exception, a fallback answer) cuts the limit by {@code backoffRatio} instead, the AIMD half of the scheme, so
+ * timeouts downstream pull the limit down faster than latency alone would.
+ *
+ * <p>The limit only grows while it is actually being used, so an idle instance does not wake up with a limit it
+ * never proved it could sustain. Every {@value #PROBE_EVERY_WINDOWS} windows the no-load latency is re-measured
+ * from the current window, so a lasting change in account-service's speed moves the baseline with it.
+ */
+class AdaptiveConcurrencyLimit {
+
+    static final int PROBE_EVERY_WINDOWS = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int windowSize;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimate;
+    private long noLoadRttNanos;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+    private int windowsSinceProbe;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, int windowSize, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit
+                || windowSize < 1 || !(backoffRatio > 0 && backoffRatio < 1)) {
+            throw new IllegalArgumentException(
+                    "limits must satisfy 1 <= min <= initial <= max, window positive, backoff ratio in (0, 1)");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowSize = windowSize;
+        this.backoffRatio = backoffRatio;
+        this.estimate = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Admits a request if fewer than {@link #getLimit()} are in flight. Every admitted request must be followed
+     * by exactly one {@link #release}.
+     */
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Ends an admitted request and feeds its latency into the limit.
+     *
+     * @param dropped whether the request failed in a way that suggests overload downstream
+     */
+    void release(long rttNanos, boolean dropped) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        sample(rttNanos, inFlightBefore, dropped);
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightBefore, boolean dropped) {
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+        if (dropped) {
+            windowDropped = true;
+        } else {
+            windowMinRttNanos = Math.min(windowMinRttNanos, Math.max(1, rttNanos));
+        }
+        if (++windowSamples < windowSize) {
+            return;
+        }
+        if (windowDropped) {
+            estimate *= backoffRatio;
+        } else {
+            adjust();
+        }
+        estimate = Math.max(minLimit, Math.min(maxLimit, estimate));
+        limit = (int) estimate;
+
+        windowMinRttNanos = Long.MAX_VALUE;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        windowDropped = false;
+    }
+
+    private void adjust() {
+        if (noLoadRttNanos == 0 || windowMinRttNanos < noLoadRttNanos || ++windowsSinceProbe >= PROBE_EVERY_WINDOWS) {
+            noLoadRttNanos = windowMinRttNanos;
+            windowsSinceProbe = 0;
+        }
+        double queued = estimate * (1 - (double) noLoadRttNanos / windowMinRttNanos);
+        double step = Math.max(1, Math.log10(estimate));
+        if (queued <= 3 * step) {
+            if (windowMaxInFlight * 2 >= estimate) {
+                estimate += step;
+            }
+        } else if (queued >= 6 * step) {
+            estimate -= step;
+        }
+    }
+}
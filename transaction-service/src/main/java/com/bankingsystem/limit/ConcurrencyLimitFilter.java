@@ -0,0 +1,121 @@
+package com.bankingsystem.limit;
+
+import com.bankingsystem.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sheds load on the money-moving endpoints before it piles up. At most {@link AdaptiveConcurrencyLimit#getLimit()}
+ * of them run at once; the rest are answered 503 with {@code Retry-After} straight away, instead of waiting on a
+ * Tomcat thread, an account lock or account-service until they time out. The limit follows measured latency, so
+ * it settles wherever account-service stops keeping up.
+ *
+ * <p>Responses of 500 and above, exceptions and circuit-breaker fallbacks (see {@link #markDropped()}) count as
+ * signs of overload and shrink the limit quickly.
+ *
+ * <p>Meters: gauges {@code concurrency.limit} and {@code concurrency.in.flight}, counter
+ * {@code concurrency.rejected}.
+ */
+@Component
+@Profile("!reactive")
+// Ahead of the idempotency filter, so a shed request costs no Mongo round trip and leaves no claimed key behind
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String DROPPED = ConcurrencyLimitFilter.class.getName() + ".DROPPED";
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final ObjectMapper objectMapper;
+    private final Set<String> paths;
+    private final String retryAfterSeconds;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${concurrency.limit.paths:/api/transactions/deposit,/api/transactions/withdraw,/api/transactions/transfer,/api/transactions/transfer/async,/api/transactions/transfer/batch}")
+                                  List<String> paths,
+                                  @Value("${concurrency.limit.initial:20}") int initialLimit,
+                                  @Value("${concurrency.limit.min:4}") int minLimit,
+                                  @Value("${concurrency.limit.max:200}") int maxLimit,
+                                  @Value("${concurrency.limit.window-size:20}") int windowSize,
+                                  @Value("${concurrency.limit.backoff-ratio:0.9}") double backoffRatio,
+                                  @Value("${concurrency.limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, windowSize, backoffRatio);
+        this.objectMapper = objectMapper;
+        this.paths = Set.copyOf(paths);
+        this.retryAfterSeconds = Integer.toString(retryAfterSeconds);
+        this.rejected = meterRegistry.counter("concurrency.rejected");
+        Gauge.builder("concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit).register(meterRegistry);
+        Gauge.builder("concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight).register(meterRegistry);
+    }
+
+    /**
+     * Called while handling a request that was answered without doing its work because a dependency is failing,
+     * such as a circuit-breaker fallback. Does nothing outside a request.
+     */
+    public static void markDropped() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(DROPPED, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!limit.tryAcquire()) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            writeError(response, "Too many transactions in progress, try again later.", request);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            chain.doFilter(request, response);
+            dropped = response.getStatus() >= 500 || request.getAttribute(DROPPED) != null;
+        } finally {
+            limit.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    AdaptiveConcurrencyLimit getLimit() {
+        return limit;
+    }
+
+    private void writeError(HttpServletResponse response, String message, HttpServletRequest request)
+            throws IOException {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(status.value(), new Date(), message, "uri=" + request.getRequestURI()));
+    }
+}
@@ -0,0 +1,73 @@
+package com.bankingsystem.model;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An account number in a format account-service issues, so a mistyped one is rejected with 400 instead of costing
+ * a call to account-service. Current numbers are letters, a sequence of at least seven digits and a Luhn check
+ * digit (see account-service's {@code AccountNumberAllocator}); numbers issued before that are initials and four
+ * digits from 1000 to 9999. Null and blank are valid; combine with {@code @NotBlank}.
+ */
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.TYPE_USE})
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = AccountNumber.Validator.class)
+public @interface AccountNumber {
+
+    String message() default "Account number is not valid";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    class Validator implements ConstraintValidator<AccountNumber, String> {
+
+        private static final int MIN_DIGITS = 8;
+        private static final int LEGACY_DIGITS = 4;
+
+        @Override
+        public boolean isValid(String value, ConstraintValidatorContext context) {
+            return value == null || value.isBlank() || isWellFormed(value);
+        }
+
+        static boolean isWellFormed(String accountNumber) {
+            int digits = 0;
+            while (digits < accountNumber.length()
+                    && Character.isDigit(accountNumber.charAt(accountNumber.length() - 1 - digits))) {
+                digits++;
+            }
+            int split = accountNumber.length() - digits;
+            if (digits >= MIN_DIGITS) {
+                return split > 0 && accountNumber.substring(0, split).chars().allMatch(Character::isLetter)
+                        && hasCheckDigit(accountNumber.substring(split));
+            }
+            // Old initials were the first character of each name part, so they may include a digit
+            return digits >= LEGACY_DIGITS && accountNumber.length() > LEGACY_DIGITS
+                    && accountNumber.charAt(accountNumber.length() - LEGACY_DIGITS) != '0'
+                    && accountNumber.chars().noneMatch(Character::isWhitespace);
+        }
+
+        private static boolean hasCheckDigit(String digits) {
+            int sum = 0;
+            // Luhn over every digit including the check digit: every second one from the right is doubled
+            for (int i = digits.length() - 1, position = 0; i >= 0; i--, position++) {
+                int digit = digits.charAt(i) - '0';
+                if (position % 2 == 1) {
+                    digit *= 2;
+                    if (digit > 9) {
+                        digit -= 9;
+                    }
+                }
+                sum += digit;
+            }
+            return sum % 10 == 0;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.bankingsystem.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The legs a batchId was first submitted with and, once it has run, how each of them went. account-service
+ * answers "applied" for every account a batchId already touched, so without this a resubmission, or another
+ * batch reusing the id, would be reported SUCCESS without moving any money.
+ */
+@Document(collection = "batches")
+public class BatchRecord {
+    @Id
+    private String batchId;
+    private String fingerprint;     // hash of the legs in order, to reject a batchId reused for other transfers
+    private boolean completed;      // false until the outcome below is final
+    private List<Leg> legs;         // one per transfer; transaction ids are fixed when the batch is first claimed
+    private Instant createdAt;
+    private Instant completedAt;
+
+    public BatchRecord(String batchId, String fingerprint, List<Leg> legs) {
+        this.batchId = batchId;
+        this.fingerprint = fingerprint;
+        this.legs = legs;
+        this.createdAt = Instant.now();
+    }
+
+    public BatchRecord() {
+
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public List<Leg> getLegs() {
+        return legs;
+    }
+
+    public void setLegs(List<Leg> legs) {
+        this.legs = legs;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public static class Leg {
+        private String transactionId;
+        private String status;      // null until the batch completes, then SUCCESS, REJECTED or FAILED
+        private String message;
+
+        public Leg(String transactionId) {
+            this.transactionId = transactionId;
+        }
+
+        public Leg() {
+
+        }
+
+        public String getTransactionId() {
+            return transactionId;
+        }
+
+        public void setTransactionId(String transactionId) {
+            this.transactionId = transactionId;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
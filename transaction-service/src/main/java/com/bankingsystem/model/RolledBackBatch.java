@@ -0,0 +1,54 @@
+package com.bankingsystem.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A batch transfer that account-service partly applied and that was then reversed. account-service still
+ * counts the batchId as applied on the accounts that took it, so the batchId must never be applied again:
+ * a retry would move money on the other accounts only.
+ */
+@Document(collection = "rolled_back_batches")
+public class RolledBackBatch {
+    @Id
+    private String batchId;
+    private Map<String, Long> reversal;     // account number -> delta posted back, minor units, see Money
+    private Instant rolledBackAt;
+
+    public RolledBackBatch(String batchId, Map<String, Long> reversal) {
+        this.batchId = batchId;
+        this.reversal = reversal;
+        this.rolledBackAt = Instant.now();
+    }
+
+    public RolledBackBatch() {
+
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public Map<String, Long> getReversal() {
+        return reversal;
+    }
+
+    public void setReversal(Map<String, Long> reversal) {
+        this.reversal = reversal;
+    }
+
+    public Instant getRolledBackAt() {
+        return rolledBackAt;
+    }
+
+    public void setRolledBackAt(Instant rolledBackAt) {
+        this.rolledBackAt = rolledBackAt;
+    }
+}
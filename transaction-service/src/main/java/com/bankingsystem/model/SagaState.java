@@ -0,0 +1,14 @@
+package com.bankingsystem.model;
+
+public enum SagaState {
+    PENDING,        // nothing moved yet; next step debits the source
+    DEBITED,        // source debited; next step credits the destination
+    COMPENSATING,   // destination rejected the credit; next step refunds the source
+    CREDITED,       // terminal: transfer completed
+    COMPENSATED,    // terminal: source refunded, transfer failed
+    FAILED;         // terminal: debit rejected, nothing moved
+
+    public boolean isTerminal() {
+        return this == CREDITED || this == COMPENSATED || this == FAILED;
+    }
+}
@@ -0,0 +1,47 @@
+package com.bankingsystem.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document(collection = "notification_spill")
+public class SpilledNotification {
+    @Id
+    private String id;
+    private String message;
+    private Instant createdAt;
+
+    public SpilledNotification(String message) {
+        this.message = message;
+        this.createdAt = Instant.now();
+    }
+
+    public SpilledNotification() {
+
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
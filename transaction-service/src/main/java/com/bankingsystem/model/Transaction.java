@@ -1,26 +1,33 @@
 package com.bankingsystem.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
 @Document(collection = "transactions")
+@CompoundIndexes({
+        // _id breaks timestamp ties so history pages can be walked by keyset
+        @CompoundIndex(name = "source_timestamp", def = "{'sourceAccount': 1, 'timestamp': -1, '_id': -1}"),
+        @CompoundIndex(name = "destination_timestamp", def = "{'destinationAccount': 1, 'timestamp': -1, '_id': -1}")
+})
 public class Transaction {
     @Id
     private String id;
-    private String transactionId;
+    private String transactionId; // unique; TransactionIdMigration builds the index once legacy repeats are gone
     private String type;          // DEPOSIT, WITHDRAW, TRANSFER
-    private Double amount;
+    private long amount;          // minor units, see Money
     private String sourceAccount;
     private String destinationAccount;
     private String status;        // SUCCESS, FAILED
     private LocalDateTime timestamp;
 
     // Constructor for Deposit/Withdraw
-    public Transaction(String transactionId, String type, double amount, String status, String accountNumber) {
+    public Transaction(String transactionId, String type, Money amount, String status, String accountNumber) {
         this.transactionId = transactionId;
         this.type = type;
-        this.amount = amount;
+        this.amount = amount.getMinorUnits();
         this.timestamp = LocalDateTime.now(); // Updated to Java 8 Time API
         this.status = status;
 
@@ -32,10 +39,10 @@ public class Transaction {
     }
 
     // Constructor for Transfer
-    public Transaction(String transactionId, double amount, String status, String sourceAccount, String destinationAccount) {
+    public Transaction(String transactionId, Money amount, String status, String sourceAccount, String destinationAccount) {
         this.transactionId = transactionId;
         this.type = "TRANSFER";
-        this.amount = amount;
+        this.amount = amount.getMinorUnits();
         this.timestamp = LocalDateTime.now(); // Updated to Java 8 Time API
         this.status = status;
         this.sourceAccount = sourceAccount;
@@ -70,12 +77,12 @@ public class Transaction {
         this.type = type;
     }
 
-    public Double getAmount() {
-        return amount;
+    public Money getAmount() {
+        return Money.ofMinor(amount);
     }
 
-    public void setAmount(Double amount) {
-        this.amount = amount;
+    public void setAmount(Money amount) {
+        this.amount = amount.getMinorUnits();
     }
 
     public String getSourceAccount() {
@@ -0,0 +1,84 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.Money;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject.Type;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Converts transaction and saga amounts stored as doubles of whole currency units, as written before
+ * {@link Money}, to Int64 minor units while the application context starts. Works like account-service's
+ * migration of the same name: only double and Decimal128 values match, so it is a no-op once done, and a
+ * value is only replaced if it is still the one read.
+ */
+@Component
+public class MoneyMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(MoneyMigration.class);
+
+    private static final int MAX_PASSES = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    public MoneyMigration(MongoTemplate mongoTemplate,
+                          @Value("${money.migration.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        long converted = convert("transactions", "amount") + convert("transfer_sagas", "amount");
+        if (converted > 0) {
+            log.info("Converted {} legacy amounts to minor units", converted);
+        }
+    }
+
+    private long convert(String collection, String field) {
+        long converted = 0;
+        Query legacy = new Query(Criteria.where(field).type(Type.DOUBLE, Type.DECIMAL_128));
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            if (!mongoTemplate.exists(legacy, collection)) {
+                return converted;
+            }
+            try (Stream<Document> documents = mongoTemplate.stream(legacy, Document.class, collection)) {
+                Iterator<Document> iterator = documents.iterator();
+                while (iterator.hasNext()) {
+                    Document document = iterator.next();
+                    Object old = document.get(field);
+                    Query unchanged = new Query(Criteria.where("_id").is(document.get("_id")).and(field).is(old));
+                    Update update = new Update().set(field, toMinorUnits(old));
+                    converted += mongoTemplate.updateFirst(unchanged, update, collection).getModifiedCount();
+                }
+            }
+        }
+        throw new IllegalStateException(collection + "." + field + " still holds legacy amounts after "
+                + MAX_PASSES + " passes; is an instance of the previous version still running?");
+    }
+
+    static long toMinorUnits(Object legacy) {
+        BigDecimal amount = legacy instanceof Decimal128 decimal
+                ? decimal.bigDecimalValue()
+                : BigDecimal.valueOf(((Number) legacy).doubleValue());
+        int digits = Money.DEFAULT_CURRENCY.getDefaultFractionDigits();
+        return Money.of(amount.setScale(digits, RoundingMode.HALF_EVEN)).getMinorUnits();
+    }
+}
@@ -0,0 +1,12 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.Transaction;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Non-blocking access to the transactions collection for the reactive profile.
+ */
+@Repository
+public interface ReactiveTransactionRepository extends ReactiveMongoRepository<Transaction, String> {
+}
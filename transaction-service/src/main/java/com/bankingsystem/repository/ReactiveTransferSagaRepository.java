@@ -0,0 +1,13 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.TransferSaga;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Non-blocking access to the transfer_sagas collection for the reactive profile. Recovery of unfinished sagas
+ * stays with {@link TransferSagaRepository#claimNextDue}, which serves both profiles.
+ */
+@Repository
+public interface ReactiveTransferSagaRepository extends ReactiveMongoRepository<TransferSaga, String> {
+}
@@ -0,0 +1,13 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.SpilledNotification;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SpilledNotificationRepository extends MongoRepository<SpilledNotification, String> {
+
+    List<SpilledNotification> findTop100ByOrderByCreatedAtAsc();
+}
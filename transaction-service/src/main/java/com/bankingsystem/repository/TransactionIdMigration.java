@@ -0,0 +1,98 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.Transaction;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Builds the unique index on {@code transactionId} while the application context starts, after rewriting the
+ * repeats that the old {@code TXN-yyyyMMddHHmmss-NNN} format produced (it drew from 900 values per second on
+ * every instance). The oldest document keeps its id; every other one gets its id plus {@code -} plus its
+ * {@code _id}, so the original stays readable. Works like {@link MoneyMigration}: a no-op once the index
+ * exists, and a document is only rewritten if its id is still the one read.
+ */
+@Component
+public class TransactionIdMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionIdMigration.class);
+
+    static final String COLLECTION = "transactions";
+    static final String FIELD = "transactionId";
+    private static final int MAX_PASSES = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    public TransactionIdMigration(MongoTemplate mongoTemplate,
+                                  @Value("${transaction.id.migration.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        IndexOperations indexes = mongoTemplate.indexOps(Transaction.class);
+        boolean indexed = indexes.getIndexInfo().stream()
+                .anyMatch(index -> index.isUnique() && index.isIndexForFields(List.of(FIELD)));
+        if (indexed) {
+            return;
+        }
+        long rewritten = 0;
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            rewritten += rewriteRepeats();
+            try {
+                indexes.ensureIndex(new Index(FIELD, Sort.Direction.ASC).unique().named(FIELD));
+                if (rewritten > 0) {
+                    log.info("Rewrote {} repeated legacy transaction ids before indexing them", rewritten);
+                }
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // An instance of the previous version wrote another repeat since this pass looked
+                log.warn("Repeated transaction ids appeared while building the index, pass {}", pass + 1);
+            }
+        }
+        throw new IllegalStateException(COLLECTION + "." + FIELD + " still holds repeated ids after " + MAX_PASSES
+                + " passes; is an instance of the previous version still running?");
+    }
+
+    private long rewriteRepeats() {
+        Aggregation repeats = Aggregation.newAggregation(
+                Aggregation.sort(Sort.Direction.ASC, "_id"),
+                Aggregation.group(FIELD).count().as("count").push("_id").as("ids"),
+                Aggregation.match(Criteria.where("count").gt(1)))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        long rewritten = 0;
+        for (Document group : mongoTemplate.aggregate(repeats, COLLECTION, Document.class)) {
+            Object transactionId = group.get("_id");
+            if (transactionId == null) {
+                continue;
+            }
+            List<?> ids = group.getList("ids", Object.class);
+            for (Object id : ids.subList(1, ids.size())) {
+                Query unchanged = new Query(Criteria.where("_id").is(id).and(FIELD).is(transactionId));
+                Update update = new Update().set(FIELD, transactionId + "-" + id);
+                rewritten += mongoTemplate.updateFirst(unchanged, update, COLLECTION).getModifiedCount();
+            }
+        }
+        return rewritten;
+    }
+}
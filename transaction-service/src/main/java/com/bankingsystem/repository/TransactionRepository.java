@@ -4,10 +4,11 @@ import com.bankingsystem.model.Transaction;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface TransactionRepository extends MongoRepository<Transaction, String> {
+public interface TransactionRepository extends MongoRepository<Transaction, String>, TransactionRepositoryCustom {
 
-    List<Transaction> findBySourceAccountOrDestinationAccount(String sourceAccount, String destinationAccount);
+    List<Transaction> findByTransactionIdIn(Collection<String> transactionIds);
 }
@@ -0,0 +1,24 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.dto.TransactionCursor;
+import com.bankingsystem.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Newest-first page of transactions touching the account, strictly older than {@code after} when given.
+     * {@code from} is inclusive and {@code to} exclusive; either may be null.
+     */
+    List<Transaction> findHistory(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                  TransactionCursor after, int limit);
+
+    /**
+     * Same ordering and filters as {@link #findHistory}, backed by a server-side cursor. The caller must close
+     * the stream.
+     */
+    Stream<Transaction> streamHistory(String accountNumber, LocalDateTime from, LocalDateTime to);
+}
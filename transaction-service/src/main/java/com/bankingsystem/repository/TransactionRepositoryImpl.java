@@ -0,0 +1,74 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.dto.TransactionCursor;
+import com.bankingsystem.model.Transaction;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("_id"));
+
+    private final MongoTemplate mongoTemplate;
+
+    public TransactionRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Transaction> findHistory(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                         TransactionCursor after, int limit) {
+        return mongoTemplate.find(historyQuery(accountNumber, from, to, after).limit(limit), Transaction.class);
+    }
+
+    @Override
+    public Stream<Transaction> streamHistory(String accountNumber, LocalDateTime from, LocalDateTime to) {
+        return mongoTemplate.stream(historyQuery(accountNumber, from, to, null), Transaction.class);
+    }
+
+    /**
+     * One $or branch per side of the transaction, each fully constrained on its own compound index, so
+     * Mongo can merge two index scans that are already in (timestamp, _id) order instead of sorting.
+     */
+    private Query historyQuery(String accountNumber, LocalDateTime from, LocalDateTime to, TransactionCursor after) {
+        Criteria criteria = new Criteria().orOperator(
+                branch("sourceAccount", accountNumber, from, to, after),
+                branch("destinationAccount", accountNumber, from, to, after));
+        return new Query(criteria).with(NEWEST_FIRST);
+    }
+
+    private static Criteria branch(String field, String accountNumber, LocalDateTime from, LocalDateTime to,
+                                   TransactionCursor after) {
+        Criteria branch = Criteria.where(field).is(accountNumber);
+        if (from != null || to != null || after != null) {
+            Criteria timestamp = branch.and("timestamp");
+            if (from != null) {
+                timestamp.gte(from);
+            }
+            if (to != null) {
+                timestamp.lt(to);
+            }
+            if (after != null) {
+                // Bound the index scan at the cursor's timestamp, then break ties on _id
+                timestamp.lte(after.getTimestamp());
+            }
+        }
+        if (after != null) {
+            branch.orOperator(
+                    Criteria.where("timestamp").lt(after.getTimestamp()),
+                    Criteria.where("_id").lt(idValue(after.getId())));
+        }
+        return branch;
+    }
+
+    private static Object idValue(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
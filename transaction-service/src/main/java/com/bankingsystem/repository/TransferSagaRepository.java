@@ -0,0 +1,9 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.TransferSaga;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TransferSagaRepository extends MongoRepository<TransferSaga, String>, TransferSagaRepositoryCustom {
+}
@@ -0,0 +1,14 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.TransferSaga;
+
+import java.time.Instant;
+
+public interface TransferSagaRepositoryCustom {
+
+    /**
+     * Atomically takes the lease on the unfinished saga that has been waiting longest for its next
+     * attempt. Returns {@code null} when no saga is due or every due saga is leased by another worker.
+     */
+    TransferSaga claimNextDue(Instant now, Instant leaseUntil);
+}
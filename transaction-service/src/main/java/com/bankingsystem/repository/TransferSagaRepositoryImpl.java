@@ -0,0 +1,38 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.SagaState;
+import com.bankingsystem.model.TransferSaga;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+public class TransferSagaRepositoryImpl implements TransferSagaRepositoryCustom {
+
+    private static final List<SagaState> UNFINISHED = Arrays.stream(SagaState.values())
+            .filter(state -> !state.isTerminal())
+            .toList();
+
+    private final MongoTemplate mongoTemplate;
+
+    public TransferSagaRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public TransferSaga claimNextDue(Instant now, Instant leaseUntil) {
+        Criteria criteria = Criteria.where("state").in(UNFINISHED)
+                .and("nextAttemptAt").lte(now)
+                .orOperator(Criteria.where("lockedUntil").is(null), Criteria.where("lockedUntil").lt(now));
+        Query query = new Query(criteria).with(Sort.by("nextAttemptAt"));
+        // Bump the version as well so a worker whose lease expired fails its next save
+        Update update = new Update().set("lockedUntil", leaseUntil).inc("version", 1);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), TransferSaga.class);
+    }
+}
@@ -0,0 +1,111 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.exception.AccountBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs work on an account only after all earlier work on the same account in this instance has finished,
+ * while operations on unrelated accounts run in parallel. Accounts map onto a fixed table of locks (stripes)
+ * by hash, so memory stays bounded however many accounts there are. Two accounts occasionally share a
+ * stripe and then wait on each other, which costs throughput but never correctness.
+ *
+ * <p>Work that spans several accounts (a transfer's two legs) takes its stripes in ascending stripe order,
+ * so two transfers between the same accounts in opposite directions cannot deadlock. A stripe shared by
+ * several of the accounts is taken once.
+ *
+ * <p>The locks are local to this JVM, so work is only ordered within one transaction-service instance. Two
+ * instances can work on the same account at the same time; across instances, account-service's guarded debit
+ * and operation ids remain what keeps balances correct.
+ */
+@Component
+public class AccountSequencer {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final Duration lockTimeout;
+    private final Timer waitTime;
+    private final Counter timeouts;
+
+    public AccountSequencer(MeterRegistry meterRegistry,
+                            @Value("${account.sequencer.stripes:1024}") int stripes,
+                            @Value("${account.sequencer.lock-timeout-ms:5000}") long lockTimeoutMs) {
+        // Power of two, so picking a stripe is a mask instead of a modulo
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.lockTimeout = Duration.ofMillis(lockTimeoutMs);
+        this.waitTime = Timer.builder("account.sequencer.wait")
+                .description("Time spent waiting for earlier work on the same accounts")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.timeouts = meterRegistry.counter("account.sequencer.timeouts");
+    }
+
+    public <T> T withAccount(String accountNumber, Supplier<T> work) {
+        return withAccounts(List.of(accountNumber), work);
+    }
+
+    /**
+     * Runs {@code work} while holding the stripes of all {@code accountNumbers}. Throws
+     * {@link AccountBusyException} if they cannot all be taken within the lock timeout.
+     */
+    public <T> T withAccounts(List<String> accountNumbers, Supplier<T> work) {
+        int[] order = accountNumbers.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+        int held = acquire(order, accountNumbers);
+        try {
+            return work.get();
+        } finally {
+            release(order, held);
+        }
+    }
+
+    int stripeOf(String accountNumber) {
+        int h = accountNumber.hashCode();
+        // Spread the high bits down; account numbers share long prefixes
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private int acquire(int[] order, List<String> accountNumbers) {
+        long start = System.nanoTime();
+        long deadline = start + lockTimeout.toNanos();
+        int held = 0;
+        try {
+            for (int stripe : order) {
+                if (!stripes[stripe].tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    timeouts.increment();
+                    throw new AccountBusyException("Account " + String.join(", ", accountNumbers)
+                            + " is busy with other operations, try again later.");
+                }
+                held++;
+            }
+            waitTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return held;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release(order, held);
+            throw new IllegalStateException("Interrupted while waiting for account " + accountNumbers, e);
+        } catch (RuntimeException e) {
+            release(order, held);
+            throw e;
+        }
+    }
+
+    private void release(int[] order, int held) {
+        for (int i = held - 1; i >= 0; i--) {
+            stripes[order[i]].unlock();
+        }
+    }
+}
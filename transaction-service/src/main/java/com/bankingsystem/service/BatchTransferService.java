@@ -0,0 +1,348 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.client.AccountClient;
+import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.dto.AccountLookupRequest;
+import com.bankingsystem.dto.BalanceDelta;
+import com.bankingsystem.dto.BalanceUpdateResult;
+import com.bankingsystem.dto.BatchTransferRequest;
+import com.bankingsystem.dto.BatchTransferResponse;
+import com.bankingsystem.dto.BulkBalanceRequest;
+import com.bankingsystem.dto.TransferLegResult;
+import com.bankingsystem.dto.TransferRequest;
+import com.bankingsystem.exception.BatchConflictException;
+import com.bankingsystem.model.BatchRecord;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.RolledBackBatch;
+import com.bankingsystem.model.Transaction;
+import com.bankingsystem.repository.BatchRecordRepository;
+import com.bankingsystem.repository.RolledBackBatchRepository;
+import com.bankingsystem.repository.TransactionRepository;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+public class BatchTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchTransferService.class);
+
+    // Matches the per-request limit of POST /api/accounts/lookup
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountClient accountClient;
+    private final NotificationPublisher notificationPublisher;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final RolledBackBatchRepository rolledBackBatchRepository;
+    private final AccountSequencer accountSequencer;
+    private final BatchRecordRepository batchRecordRepository;
+
+    public BatchTransferService(TransactionRepository transactionRepository,
+                                AccountClient accountClient,
+                                NotificationPublisher notificationPublisher,
+                                TransactionIdGenerator transactionIdGenerator,
+                                RolledBackBatchRepository rolledBackBatchRepository,
+                                AccountSequencer accountSequencer,
+                                BatchRecordRepository batchRecordRepository) {
+        this.transactionRepository = transactionRepository;
+        this.accountClient = accountClient;
+        this.notificationPublisher = notificationPublisher;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.rolledBackBatchRepository = rolledBackBatchRepository;
+        this.accountSequencer = accountSequencer;
+        this.batchRecordRepository = batchRecordRepository;
+    }
+
+    private record Claimed(BatchRecord record, boolean fresh) {}
+
+    private record Outcome(BatchTransferResponse response, boolean replayed) {}
+
+    /**
+     * Validates every leg against one bulk lookup of the involved accounts, nets the accepted legs into a
+     * single delta per account and applies them with one bulk call to account-service. If account-service
+     * rejects any delta (the balances moved since validation), the deltas that did apply are reversed and
+     * every accepted leg is reported FAILED, so a batch never leaves money half-moved. A rolled-back batchId
+     * is remembered and refused from then on; resubmit the batch under a new one.
+     *
+     * <p>The legs of a batchId are recorded before anything is applied. Resubmitting the same legs returns the
+     * outcome of the first run without writing transactions or notifying again; other legs under a batchId
+     * that was already used are refused with {@link BatchConflictException}.
+     *
+     * <p>The batch holds the {@link AccountSequencer} stripes of all its accounts from lookup to reversal, so
+     * deposits, withdrawals and transfers on those accounts in this instance wait for it.
+     */
+    @CircuitBreaker(name = "accountServiceCB")
+    public BatchTransferResponse transferBatch(BatchTransferRequest request) {
+        String batchId = request.getBatchId() != null ? request.getBatchId() : "BATCH-" + UUID.randomUUID();
+        List<TransferRequest> transfers = request.getTransfers();
+        log.info("Processing batch {} with {} transfers", batchId, transfers.size());
+
+        Outcome outcome = accountSequencer.withAccounts(new ArrayList<>(accountNumbers(transfers)),
+                () -> runBatch(batchId, transfers));
+        BatchTransferResponse response = outcome.response();
+        if (outcome.replayed()) {
+            log.info("Batch {} was already processed; returning its recorded outcome", batchId);
+            return response;
+        }
+        log.info("Batch {} finished: {} succeeded, {} failed", batchId, response.getSucceeded(), response.getFailed());
+        notifyBatch(response);
+        return response;
+    }
+
+    private Outcome runBatch(String batchId, List<TransferRequest> transfers) {
+        Claimed claimed = claim(batchId, transfers);
+        BatchRecord record = claimed.record();
+        if (record.isCompleted()) {
+            return new Outcome(replay(batchId, transfers, record), true);
+        }
+        if (!claimed.fresh()) {
+            // An earlier run died before recording its outcome; its operation id and transaction ids are reused
+            log.warn("Batch {} was started before but never finished; running it again", batchId);
+        }
+        BatchTransferResponse response = applyBatch(batchId, transfers, record, claimed.fresh());
+        complete(record, response.getLegs());
+        return new Outcome(response, false);
+    }
+
+    private BatchTransferResponse applyBatch(String batchId, List<TransferRequest> transfers, BatchRecord record,
+                                             boolean fresh) {
+        Optional<RolledBackBatch> rolledBack = rolledBackBatchRepository.findById(batchId);
+        if (rolledBack.isPresent()) {
+            // The first attempt may have died before its reversal went through; account-service skips the
+            // accounts it already reversed
+            log.warn("Batch {} was rolled back before; refusing to apply it again", batchId);
+            postReversal(batchId, rolledBack.get().getReversal().entrySet().stream()
+                    .map(e -> new BalanceDelta(e.getKey(), Money.ofMinor(e.getValue())))
+                    .toList());
+        }
+
+        Map<String, AccountDTO> accounts = rolledBack.isPresent() ? Map.of() : loadAccounts(transfers);
+        Map<String, Money> runningBalances = new HashMap<>();
+        accounts.forEach((number, account) -> runningBalances.put(number, account.getBalance()));
+
+        List<TransferLegResult> legs = new ArrayList<>(transfers.size());
+        List<TransferLegResult> accepted = new ArrayList<>();
+        Map<String, Money> netDeltas = new LinkedHashMap<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequest transfer = transfers.get(i);
+            TransferLegResult leg = new TransferLegResult(i, record.getLegs().get(i).getTransactionId(), transfer);
+            legs.add(leg);
+
+            String rejection = rolledBack.isPresent()
+                    ? "Batch " + batchId + " was rolled back. Resubmit it under a new batchId."
+                    : validateLeg(transfer, accounts, runningBalances);
+            if (rejection != null) {
+                leg.setStatus("REJECTED");
+                leg.setMessage(rejection);
+                continue;
+            }
+            runningBalances.merge(transfer.getSourceAccount(), transfer.getAmount().negate(), Money::plus);
+            runningBalances.merge(transfer.getDestinationAccount(), transfer.getAmount(), Money::plus);
+            netDeltas.merge(transfer.getSourceAccount(), transfer.getAmount().negate(), Money::plus);
+            netDeltas.merge(transfer.getDestinationAccount(), transfer.getAmount(), Money::plus);
+            accepted.add(leg);
+        }
+
+        if (!accepted.isEmpty()) {
+            applyNetDeltas(batchId, netDeltas, accepted);
+        }
+
+        saveTransactions(legs, fresh);
+        return new BatchTransferResponse(batchId, legs);
+    }
+
+    //  HELPER METHODS
+
+    private Claimed claim(String batchId, List<TransferRequest> transfers) {
+        String fingerprint = fingerprint(transfers);
+        List<BatchRecord.Leg> legs = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            legs.add(new BatchRecord.Leg(transactionIdGenerator.nextId()));
+        }
+        BatchRecord record = new BatchRecord(batchId, fingerprint, legs);
+        try {
+            // The unique _id makes the insert the arbiter when the same batchId reaches two instances at once
+            batchRecordRepository.insert(record);
+            return new Claimed(record, true);
+        } catch (DuplicateKeyException e) {
+            BatchRecord earlier = batchRecordRepository.findById(batchId).orElseThrow(() -> e);
+            if (!earlier.getFingerprint().equals(fingerprint)) {
+                throw new BatchConflictException("Batch " + batchId
+                        + " was already submitted with different transfers. Submit this batch under a new batchId.");
+            }
+            return new Claimed(earlier, false);
+        }
+    }
+
+    private static String fingerprint(List<TransferRequest> transfers) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (TransferRequest transfer : transfers) {
+                Money amount = transfer.getAmount();
+                digest.update((transfer.getSourceAccount() + ' ' + transfer.getDestinationAccount() + ' '
+                        + amount.getMinorUnits() + ' ' + amount.getCurrency() + '\n').getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static BatchTransferResponse replay(String batchId, List<TransferRequest> transfers, BatchRecord record) {
+        List<TransferLegResult> legs = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            BatchRecord.Leg recorded = record.getLegs().get(i);
+            TransferLegResult leg = new TransferLegResult(i, recorded.getTransactionId(), transfers.get(i));
+            leg.setStatus(recorded.getStatus());
+            leg.setMessage(recorded.getMessage());
+            legs.add(leg);
+        }
+        return new BatchTransferResponse(batchId, legs);
+    }
+
+    private void complete(BatchRecord record, List<TransferLegResult> legs) {
+        for (int i = 0; i < legs.size(); i++) {
+            record.getLegs().get(i).setStatus(legs.get(i).getStatus());
+            record.getLegs().get(i).setMessage(legs.get(i).getMessage());
+        }
+        record.setCompleted(true);
+        record.setCompletedAt(Instant.now());
+        batchRecordRepository.save(record);
+    }
+
+    private static Set<String> accountNumbers(List<TransferRequest> transfers) {
+        Set<String> accountNumbers = new LinkedHashSet<>();
+        for (TransferRequest transfer : transfers) {
+            accountNumbers.add(transfer.getSourceAccount());
+            accountNumbers.add(transfer.getDestinationAccount());
+        }
+        return accountNumbers;
+    }
+
+    private Map<String, AccountDTO> loadAccounts(List<TransferRequest> transfers) {
+        // One $in query per chunk instead of one HTTP call per account; unknown accounts are simply absent
+        List<String> pending = new ArrayList<>(accountNumbers(transfers));
+        Map<String, AccountDTO> accounts = new HashMap<>();
+        for (int from = 0; from < pending.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = pending.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, pending.size()));
+            for (AccountDTO account : accountClient.lookupAccounts(new AccountLookupRequest(chunk))) {
+                accounts.put(account.getAccountNumber(), account);
+            }
+        }
+        return accounts;
+    }
+
+    private String validateLeg(TransferRequest transfer, Map<String, AccountDTO> accounts, Map<String, Money> runningBalances) {
+        if (transfer.getSourceAccount().equals(transfer.getDestinationAccount())) {
+            return "Source and Destination accounts cannot be the same.";
+        }
+        for (String accountNumber : List.of(transfer.getSourceAccount(), transfer.getDestinationAccount())) {
+            AccountDTO account = accounts.get(accountNumber);
+            if (account == null) {
+                return "Account not found: " + accountNumber;
+            }
+            if (!"ACTIVE".equalsIgnoreCase(account.getStatus())) {
+                return "Account is INACTIVE: " + accountNumber;
+            }
+        }
+        if (runningBalances.get(transfer.getSourceAccount()).compareTo(transfer.getAmount()) < 0) {
+            return "Insufficient funds in source account.";
+        }
+        return null;
+    }
+
+    private void applyNetDeltas(String batchId, Map<String, Money> netDeltas, List<TransferLegResult> accepted) {
+        List<BalanceDelta> deltas = new ArrayList<>();
+        netDeltas.forEach((accountNumber, amount) -> {
+            if (!amount.isZero()) {
+                deltas.add(new BalanceDelta(accountNumber, amount));
+            }
+        });
+
+        List<BalanceUpdateResult> results = deltas.isEmpty()
+                ? List.of()
+                : accountClient.updateBalances(new BulkBalanceRequest(batchId, deltas));
+        List<BalanceUpdateResult> rejected = results.stream().filter(r -> !r.isApplied()).toList();
+
+        if (rejected.isEmpty()) {
+            accepted.forEach(leg -> leg.setStatus("SUCCESS"));
+            return;
+        }
+
+        BalanceUpdateResult first = rejected.get(0);
+        log.error("Batch {} rejected by account-service for {} accounts (first: {} {}); reversing applied deltas",
+                batchId, rejected.size(), first.getAccountNumber(), first.getReason());
+        reverseAppliedDeltas(batchId, deltas, results);
+        for (TransferLegResult leg : accepted) {
+            leg.setStatus("FAILED");
+            leg.setMessage("Batch rolled back: account " + first.getAccountNumber() + " " + first.getReason());
+        }
+    }
+
+    private void reverseAppliedDeltas(String batchId, List<BalanceDelta> deltas, List<BalanceUpdateResult> results) {
+        Set<String> applied = new LinkedHashSet<>();
+        results.stream().filter(BalanceUpdateResult::isApplied).forEach(r -> applied.add(r.getAccountNumber()));
+        List<BalanceDelta> reversal = deltas.stream()
+                .filter(d -> applied.contains(d.getAccountNumber()))
+                .map(d -> new BalanceDelta(d.getAccountNumber(), d.getAmount().negate()))
+                .toList();
+        if (reversal.isEmpty()) {
+            return;
+        }
+        // Recorded before the reversal is posted, so a retry can neither re-apply the batch nor miss the reversal
+        Map<String, Long> recorded = new LinkedHashMap<>();
+        reversal.forEach(d -> recorded.put(d.getAccountNumber(), d.getAmount().getMinorUnits()));
+        rolledBackBatchRepository.save(new RolledBackBatch(batchId, recorded));
+        postReversal(batchId, reversal);
+    }
+
+    private void postReversal(String batchId, List<BalanceDelta> reversal) {
+        List<BalanceUpdateResult> reversed = accountClient.updateBalances(new BulkBalanceRequest(batchId + "-REVERSAL", reversal));
+        reversed.stream().filter(r -> !r.isApplied()).forEach(r ->
+                log.error("Batch {}: could not reverse delta for account {} ({}); manual reconciliation required",
+                        batchId, r.getAccountNumber(), r.getReason()));
+    }
+
+    private void saveTransactions(List<TransferLegResult> legs, boolean fresh) {
+        // A run that died after saving its transactions has left them under the same transaction ids
+        Set<String> recorded = new HashSet<>();
+        if (!fresh) {
+            transactionRepository.findByTransactionIdIn(legs.stream().map(TransferLegResult::getTransactionId).toList())
+                    .forEach(t -> recorded.add(t.getTransactionId()));
+        }
+        List<Transaction> transactions = new ArrayList<>(legs.size());
+        for (TransferLegResult leg : legs) {
+            if (recorded.contains(leg.getTransactionId())) {
+                continue;
+            }
+            String status = "SUCCESS".equals(leg.getStatus()) ? "SUCCESS" : "FAILED";
+            transactions.add(new Transaction(leg.getTransactionId(), leg.getAmount(), status,
+                    leg.getSourceAccount(), leg.getDestinationAccount()));
+        }
+        transactionRepository.saveAll(transactions);
+    }
+
+    private void notifyBatch(BatchTransferResponse response) {
+        notificationPublisher.publish("Batch transfer " + response.getBatchId() + ": "
+                + response.getSucceeded() + " successful, " + response.getFailed() + " failed.");
+    }
+}
@@ -0,0 +1,125 @@
+package com.bankingsystem.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Leases a Snowflake node id from Mongo for instances that are not given {@code transaction.id.node-id}, so two
+ * running instances never share one. Each of the 1024 ids is a document in {@code transaction_id_nodes} holding
+ * its owner and an expiry. The lease is renewed well before it runs out and given back on shutdown; the id of an
+ * instance that died becomes free again once its lease expires.
+ *
+ * <p>If a renewal finds the lease gone, because Mongo could not be reached for longer than the lease, another id
+ * is leased and handed to the generator. The unique index on {@code transactionId} rejects an id issued twice in
+ * that window.
+ */
+@Component
+public class NodeIdLease {
+
+    private static final Logger log = LoggerFactory.getLogger(NodeIdLease.class);
+
+    static final String COLLECTION = "transaction_id_nodes";
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration leaseDuration;
+    private final String owner;
+    private int nodeId = -1;
+    private IntConsumer listener;
+
+    public NodeIdLease(MongoTemplate mongoTemplate,
+                       @Value("${transaction.id.lease-ms:600000}") long leaseMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseDuration = Duration.ofMillis(leaseMs);
+        this.owner = hostName() + ":" + ProcessHandle.current().pid() + ":" + UUID.randomUUID();
+    }
+
+    /** Leases a free node id and returns it. The listener is told about the replacement if the lease is lost. */
+    public synchronized int acquire(IntConsumer listener) {
+        this.listener = listener;
+        nodeId = leaseAny();
+        return nodeId;
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.id.renew-interval-ms:60000}")
+    public synchronized void renew() {
+        if (nodeId < 0) {
+            return;
+        }
+        Query mine = new Query(Criteria.where("_id").is(nodeId).and("owner").is(owner));
+        Update extend = new Update().set("expiresAt", Instant.now().plus(leaseDuration));
+        if (mongoTemplate.updateFirst(mine, extend, COLLECTION).getMatchedCount() == 0) {
+            log.warn("Lease on transaction id node {} was lost; leasing another", nodeId);
+            nodeId = leaseAny();
+            listener.accept(nodeId);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void release() {
+        if (nodeId < 0) {
+            return;
+        }
+        try {
+            mongoTemplate.remove(new Query(Criteria.where("_id").is(nodeId).and("owner").is(owner)), COLLECTION);
+        } catch (DataAccessException e) {
+            log.warn("Could not give back transaction id node {}; it frees up when its lease expires: {}",
+                    nodeId, e.getMessage());
+        }
+        nodeId = -1;
+    }
+
+    private int leaseAny() {
+        int slots = SnowflakeTransactionIdGenerator.MAX_NODE_ID + 1;
+        // A random starting point keeps instances that start together from contending for the same ids
+        int start = ThreadLocalRandom.current().nextInt(slots);
+        Instant now = Instant.now();
+        for (int i = 0; i < slots; i++) {
+            int candidate = (start + i) % slots;
+            if (tryLease(candidate, now)) {
+                log.info("Leased transaction id node {}", candidate);
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("All " + slots + " transaction id nodes are leased; set transaction.id.node-id"
+                + " or wait for the leases of stopped instances to expire");
+    }
+
+    private boolean tryLease(int candidate, Instant now) {
+        Query free = new Query(Criteria.where("_id").is(candidate)
+                .orOperator(Criteria.where("expiresAt").lte(now), Criteria.where("owner").is(owner)));
+        Update take = new Update().set("owner", owner).set("expiresAt", now.plus(leaseDuration));
+        try {
+            // Inserts the id if nobody has held it yet; a live holder makes the insert fail on _id
+            mongoTemplate.upsert(free, take, COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.client.NotificationClient;
+import com.bankingsystem.model.SpilledNotification;
+import com.bankingsystem.repository.SpilledNotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decouples money movement from notification-service. Callers enqueue into a bounded in-memory queue and
+ * return immediately; a single dispatcher thread drains it in batches to POST /api/notifications/send/batch.
+ * When the queue stays full for longer than the offer timeout, or a batch cannot be delivered after its
+ * retries, the overflow policy decides whether messages are dropped or spilled to Mongo for later replay.
+ */
+@Service
+public class NotificationPublisher {
+
+    public enum OverflowPolicy {
+        DROP_NEWEST,
+        DROP_OLDEST,
+        SPILL
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPublisher.class);
+
+    private static final long SPILL_REPLAY_BACKOFF_MS = 5000;
+
+    private final NotificationClient notificationClient;
+    private final SpilledNotificationRepository spillRepository;
+    private final BlockingQueue<PendingNotification> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final long lingerMs;
+    private final long offerTimeoutMs;
+    private final int maxAttempts;
+
+    // Start as true so messages spilled before a restart are replayed
+    private final AtomicBoolean spillPending = new AtomicBoolean(true);
+    private volatile long nextReplayAt;
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter published;
+    private final Counter dispatched;
+    private final Counter spilled;
+    private final Counter replayed;
+    private final Timer dispatchLag;
+
+    public NotificationPublisher(NotificationClient notificationClient,
+                                 SpilledNotificationRepository spillRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${notification.publisher.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${notification.publisher.batch-size:100}") int batchSize,
+                                 @Value("${notification.publisher.linger-ms:50}") long lingerMs,
+                                 @Value("${notification.publisher.offer-timeout-ms:5}") long offerTimeoutMs,
+                                 @Value("${notification.publisher.max-attempts:3}") int maxAttempts,
+                                 @Value("${notification.publisher.overflow-policy:SPILL}") OverflowPolicy overflowPolicy) {
+        this.notificationClient = notificationClient;
+        this.spillRepository = spillRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.overflowPolicy = overflowPolicy;
+
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("notifications.queue.depth", queue, BlockingQueue::size)
+                .description("Notifications waiting for the dispatcher")
+                .register(meterRegistry);
+        this.published = meterRegistry.counter("notifications.published");
+        this.dispatched = meterRegistry.counter("notifications.dispatched");
+        this.spilled = meterRegistry.counter("notifications.spilled");
+        this.replayed = meterRegistry.counter("notifications.replayed");
+        this.dispatchLag = Timer.builder("notifications.dispatch.lag")
+                .description("Time from publish until notification-service accepted the message")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "notification-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (dispatcher == null) {
+            return;
+        }
+        // The dispatcher keeps draining until the queue is empty; give it a moment before cutting it off
+        dispatcher.join(5000);
+        if (dispatcher.isAlive()) {
+            dispatcher.interrupt();
+        }
+    }
+
+    public void publish(String message) {
+        published.increment();
+        PendingNotification notification = new PendingNotification(message, System.nanoTime());
+        try {
+            if (queue.offer(notification, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                if (queue.poll() != null) {
+                    dropped("overflow", 1);
+                }
+                if (!queue.offer(notification)) {
+                    dropped("overflow", 1);
+                }
+                break;
+            case SPILL:
+                spill(List.of(message));
+                break;
+            default:
+                dropped("overflow", 1);
+        }
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    //  DISPATCHER
+
+    private void dispatchLoop() {
+        List<PendingNotification> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingNotification first = queue.poll(lingerMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpilled();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                send(batch);
+            } catch (InterruptedException e) {
+                log.warn("Notification dispatcher interrupted with {} messages queued", queue.size());
+                return;
+            } catch (Exception e) {
+                log.error("Notification dispatcher error: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<PendingNotification> batch) throws InterruptedException {
+        List<String> messages = batch.stream().map(PendingNotification::message).toList();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                notificationClient.sendNotifications(messages);
+                long now = System.nanoTime();
+                for (PendingNotification notification : batch) {
+                    dispatchLag.record(now - notification.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+                }
+                dispatched.increment(messages.size());
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Could not deliver {} notifications after {} attempts: {}", messages.size(), attempt, e.getMessage());
+                    undeliverable(messages);
+                    return;
+                }
+                Thread.sleep(100L << (attempt - 1));
+            }
+        }
+    }
+
+    private void undeliverable(List<String> messages) {
+        if (overflowPolicy == OverflowPolicy.SPILL) {
+            spill(messages);
+        } else {
+            dropped("delivery-failed", messages.size());
+        }
+    }
+
+    private void spill(List<String> messages) {
+        try {
+            spillRepository.saveAll(messages.stream().map(SpilledNotification::new).toList());
+            spilled.increment(messages.size());
+            spillPending.set(true);
+        } catch (Exception e) {
+            log.error("Could not spill {} notifications: {}", messages.size(), e.getMessage());
+            dropped("spill-failed", messages.size());
+        }
+    }
+
+    private void replaySpilled() {
+        if (!spillPending.get() || System.currentTimeMillis() < nextReplayAt) {
+            return;
+        }
+        try {
+            List<SpilledNotification> pending = spillRepository.findTop100ByOrderByCreatedAtAsc();
+            if (pending.isEmpty()) {
+                spillPending.set(false);
+                return;
+            }
+            notificationClient.sendNotifications(pending.stream().map(SpilledNotification::getMessage).toList());
+            spillRepository.deleteAll(pending);
+            replayed.increment(pending.size());
+        } catch (Exception e) {
+            log.warn("Replaying spilled notifications failed, retrying in {} ms: {}", SPILL_REPLAY_BACKOFF_MS, e.getMessage());
+            nextReplayAt = System.currentTimeMillis() + SPILL_REPLAY_BACKOFF_MS;
+        }
+    }
+
+    private void dropped(String reason, int count) {
+        meterRegistry.counter("notifications.dropped", "reason", reason).increment(count);
+    }
+
+    private record PendingNotification(String message, long enqueuedAtNanos) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.client.AccountClient;
+import com.bankingsystem.config.VirtualThreads;
+import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.exception.AccountLookupTimeoutException;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches several accounts from account-service concurrently, one call per account, so a transfer's
+ * validation takes about as long as the slowest lookup instead of the sum of them. All lookups share one
+ * deadline. The first failure, or the deadline, cancels the lookups still running. A cancelled Feign call
+ * only frees its worker once the HTTP read returns or times out, but the caller does not wait for it.
+ *
+ * <p>The pool is bounded. When it and its queue are full, the lookup runs on the calling thread, so the
+ * transfer degrades to the old sequential behaviour instead of being rejected.
+ */
+@Component
+public class ParallelAccountLookup {
+
+    private final AccountClient accountClient;
+    private final ThreadPoolExecutor workers;
+    private final Duration timeout;
+    // Carries the trace (and MDC) of the request into the pool threads, so the Feign calls stay in its span
+    private final ContextSnapshotFactory snapshots = ContextSnapshotFactory.builder().build();
+
+    public ParallelAccountLookup(AccountClient accountClient,
+                                 @Value("${transfer.lookup.threads:16}") int threads,
+                                 @Value("${transfer.lookup.queue-capacity:100}") int queueCapacity,
+                                 @Value("${transfer.lookup.timeout-ms:3000}") long timeoutMs,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.accountClient = accountClient;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                VirtualThreads.threadFactory("account-lookup-", virtualThreads),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Returns the accounts in the order of {@code accountNumbers}. Rethrows the first lookup failure as is
+     * (for example {@code FeignException.NotFound}), or throws {@link AccountLookupTimeoutException} when
+     * not all accounts arrived in time.
+     */
+    public List<AccountDTO> getAccounts(String... accountNumbers) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        CompletionService<AccountDTO> completed = new ExecutorCompletionService<>(workers);
+        Map<Future<AccountDTO>, Integer> positions = new HashMap<>();
+        ContextSnapshot context = snapshots.captureAll();
+        for (int i = 0; i < accountNumbers.length; i++) {
+            String accountNumber = accountNumbers[i];
+            positions.put(completed.submit(context.wrap(() -> accountClient.getAccount(accountNumber))), i);
+        }
+
+        AccountDTO[] accounts = new AccountDTO[accountNumbers.length];
+        try {
+            for (int received = 0; received < accountNumbers.length; received++) {
+                Future<AccountDTO> done = completed.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new AccountLookupTimeoutException(
+                            "account-service did not answer within " + timeout.toMillis() + " ms");
+                }
+                accounts[positions.get(done)] = done.get();
+            }
+            return Arrays.asList(accounts);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Account lookup failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while looking up accounts", e);
+        } finally {
+            // No-op for the lookups that finished; stops waiting on the others after a failure or the deadline
+            positions.keySet().forEach(future -> future.cancel(true));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
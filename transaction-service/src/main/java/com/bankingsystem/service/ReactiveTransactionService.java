@@ -0,0 +1,280 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.client.ReactiveAccountClient;
+import com.bankingsystem.dto.BalanceRequest;
+import com.bankingsystem.dto.TransactionRequest;
+import com.bankingsystem.dto.TransferRequest;
+import com.bankingsystem.exception.InsufficientBalanceException;
+import com.bankingsystem.exception.InvalidAccountException;
+import com.bankingsystem.exception.TransferFailedException;
+import com.bankingsystem.model.SagaState;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.Transaction;
+import com.bankingsystem.model.TransferSaga;
+import com.bankingsystem.repository.ReactiveTransactionRepository;
+import com.bankingsystem.repository.ReactiveTransferSagaRepository;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Deposit, withdrawal and transfer for the reactive profile: the same flows and outcomes as
+ * {@link TransactionService}, but no call holds a thread while it waits. The transfer runs the saga of
+ * {@link TransferSagaService} step by step on the same documents, so a saga left behind by a transient failure
+ * or a crash is resumed by the regular saga recovery job.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveTransactionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveTransactionService.class);
+
+    private final ReactiveTransactionRepository transactionRepository;
+    private final ReactiveTransferSagaRepository sagaRepository;
+    private final ReactiveAccountClient accountClient;
+    private final NotificationPublisher notificationPublisher;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final Duration lease;
+    private final Duration maxBackoff;
+
+    public ReactiveTransactionService(ReactiveTransactionRepository transactionRepository,
+                                      ReactiveTransferSagaRepository sagaRepository,
+                                      ReactiveAccountClient accountClient,
+                                      NotificationPublisher notificationPublisher,
+                                      TransactionIdGenerator transactionIdGenerator,
+                                      @Value("${transfer.saga.lease-ms:30000}") long leaseMs,
+                                      @Value("${transfer.saga.max-backoff-ms:60000}") long maxBackoffMs) {
+        this.transactionRepository = transactionRepository;
+        this.sagaRepository = sagaRepository;
+        this.accountClient = accountClient;
+        this.notificationPublisher = notificationPublisher;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.lease = Duration.ofMillis(leaseMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+    }
+
+    @CircuitBreaker(name = "accountServiceCB", fallbackMethod = "fallbackTransaction")
+    public Mono<Transaction> deposit(TransactionRequest request) {
+        log.info("Processing deposit of {} for account: {}", request.getAmount(), request.getAccountNumber());
+        return accountClient.updateBalance(request.getAccountNumber(), new BalanceRequest(request.getAmount()))
+                .then(Mono.defer(() -> logTransaction("DEPOSIT", request.getAmount(), "SUCCESS", request.getAccountNumber())))
+                .flatMap(txn -> publish("Deposit of " + request.getAmount() + " successful.").thenReturn(txn))
+                .onErrorResume(e -> {
+                    log.error("Deposit failed: {}", e.getMessage());
+                    return logTransaction("DEPOSIT", request.getAmount(), "FAILED", request.getAccountNumber())
+                            .then(Mono.error(e));
+                });
+    }
+
+    @CircuitBreaker(name = "accountServiceCB", fallbackMethod = "fallbackTransaction")
+    public Mono<Transaction> withdraw(TransactionRequest request) {
+        log.info("Processing withdrawal of {} for account: {}", request.getAmount(), request.getAccountNumber());
+        // Funds check and debit happen atomically in account-service; a shortfall surfaces as InsufficientBalanceException
+        return accountClient.debit(request.getAccountNumber(), new BalanceRequest(request.getAmount()))
+                .then(Mono.defer(() -> logTransaction("WITHDRAW", request.getAmount(), "SUCCESS", request.getAccountNumber())))
+                .flatMap(txn -> publish("Withdrawal of " + request.getAmount() + " successful.").thenReturn(txn))
+                .onErrorResume(e -> {
+                    log.error("Withdrawal failed: {}", e.getMessage());
+                    return logTransaction("WITHDRAW", request.getAmount(), "FAILED", request.getAccountNumber())
+                            .then(Mono.error(e));
+                });
+    }
+
+    @CircuitBreaker(name = "accountServiceCB", fallbackMethod = "fallbackTransfer")
+    public Mono<String> transfer(TransferRequest request) {
+        log.info("Processing transfer from {} to {}", request.getSourceAccount(), request.getDestinationAccount());
+        return validateTransfer(request)
+                .onErrorResume(e -> {
+                    log.error("Transfer failed: {}", e.getMessage());
+                    return logTransfer(request.getAmount(), "FAILED", request.getSourceAccount(), request.getDestinationAccount())
+                            .then(Mono.error(e));
+                })
+                // The saga records the transaction and sends the notification itself once it reaches a final state
+                .then(Mono.defer(() -> begin(request)))
+                .flatMap(this::advance)
+                .handle((saga, sink) -> {
+                    switch (saga.getState()) {
+                        case CREDITED -> sink.next("Transfer successful");
+                        case FAILED -> sink.error(new TransferFailedException("Transfer failed: " + saga.getLastError()));
+                        case COMPENSATED -> sink.error(new TransferFailedException(
+                                "Transfer reversed, funds returned to source account: " + saga.getLastError()));
+                        default -> sink.next("Transfer accepted and will complete in the background. Reference: " + saga.getId());
+                    }
+                });
+    }
+
+    /**
+     * Looks both accounts up at the same time; if either lookup fails the other is cancelled.
+     */
+    private Mono<Void> validateTransfer(TransferRequest request) {
+        if (request.getSourceAccount().equals(request.getDestinationAccount())) {
+            return Mono.error(new InvalidAccountException("Source and Destination accounts cannot be the same."));
+        }
+        return Mono.zip(accountClient.getAccount(request.getSourceAccount()),
+                        accountClient.getAccount(request.getDestinationAccount()))
+                .flatMap(accounts -> accounts.getT1().getBalance().compareTo(request.getAmount()) < 0
+                        ? Mono.error(new InsufficientBalanceException("Insufficient funds in source account."))
+                        : Mono.empty());
+    }
+
+    //  SAGA
+
+    private Mono<TransferSaga> begin(TransferRequest request) {
+        TransferSaga saga = new TransferSaga(request.getSourceAccount(), request.getDestinationAccount(), request.getAmount());
+        saga.setId(new ObjectId().toHexString());
+        saga.setTransactionId(transactionIdGenerator.nextId());
+        saga.setLockedUntil(Instant.now().plus(lease));
+        return sagaRepository.save(saga);
+    }
+
+    private Mono<TransferSaga> advance(TransferSaga saga) {
+        if (saga.getState().isTerminal()) {
+            return Mono.just(saga);
+        }
+        return step(saga)
+                .flatMap(this::advance)
+                .onErrorResume(OptimisticLockingFailureException.class, e -> {
+                    log.warn("Saga {} was taken over by another worker", saga.getId());
+                    return Mono.just(saga);
+                })
+                .onErrorResume(e -> !(e instanceof OptimisticLockingFailureException), e -> scheduleRetry(saga, e));
+    }
+
+    private Mono<TransferSaga> step(TransferSaga saga) {
+        switch (saga.getState()) {
+            case PENDING:
+                return rejection(accountClient.debit(saga.getSourceAccount(),
+                        new BalanceRequest(saga.getAmount(), saga.getId() + ":debit")))
+                        .flatMap(rejected -> rejected.isPresent()
+                                ? finish(saga, SagaState.FAILED, rejected.get().getMessage())
+                                : transition(saga, SagaState.DEBITED, null));
+            case DEBITED:
+                return rejection(accountClient.updateBalance(saga.getDestinationAccount(),
+                        new BalanceRequest(saga.getAmount(), saga.getId() + ":credit")))
+                        .flatMap(rejected -> {
+                            if (rejected.isEmpty()) {
+                                return finish(saga, SagaState.CREDITED, null);
+                            }
+                            log.warn("Saga {}: destination rejected the credit, refunding source. Reason: {}",
+                                    saga.getId(), rejected.get().getMessage());
+                            return transition(saga, SagaState.COMPENSATING, rejected.get().getMessage());
+                        });
+            case COMPENSATING:
+                return accountClient.updateBalance(saga.getSourceAccount(),
+                                new BalanceRequest(saga.getAmount(), saga.getId() + ":compensate"))
+                        .then(Mono.defer(() -> finish(saga, SagaState.COMPENSATED, saga.getLastError())));
+            default:
+                return Mono.error(new IllegalStateException("Saga " + saga.getId() + " is already " + saga.getState()));
+        }
+    }
+
+    /**
+     * Completes with the error when account-service rejected the call for good, empty when it went through;
+     * transient errors are passed on so the saga schedules a retry.
+     */
+    private Mono<Optional<Throwable>> rejection(Mono<?> call) {
+        return call.then(Mono.just(Optional.<Throwable>empty()))
+                .onErrorResume(this::isPermanent, e -> Mono.just(Optional.of(e)));
+    }
+
+    private Mono<TransferSaga> transition(TransferSaga saga, SagaState state, String error) {
+        saga.setState(state);
+        saga.setLastError(error);
+        saga.setUpdatedAt(Instant.now());
+        return sagaRepository.save(saga);
+    }
+
+    private Mono<TransferSaga> finish(TransferSaga saga, SagaState state, String error) {
+        // Keyed by the saga id, so recording the outcome again after a crash overwrites instead of duplicating
+        Transaction txn = new Transaction(saga.getTransactionId(), saga.getAmount(),
+                state == SagaState.CREDITED ? "SUCCESS" : "FAILED", saga.getSourceAccount(), saga.getDestinationAccount());
+        txn.setId(saga.getId());
+        return transactionRepository.save(txn)
+                .then(Mono.defer(() -> {
+                    saga.setLockedUntil(null);
+                    return transition(saga, state, error);
+                }))
+                .flatMap(finished -> {
+                    log.info("Saga {} finished as {}", saga.getId(), state);
+                    return state == SagaState.CREDITED
+                            ? publish("Transfer of " + saga.getAmount() + " successful.").thenReturn(finished)
+                            : Mono.just(finished);
+                });
+    }
+
+    private Mono<TransferSaga> scheduleRetry(TransferSaga saga, Throwable cause) {
+        int attempts = saga.getAttempts() + 1;
+        long backoffMs = Math.min(maxBackoff.toMillis(), 1000L << Math.min(attempts - 1, 20));
+        log.warn("Saga {} step {} failed (attempt {}), retrying in {} ms. Reason: {}",
+                saga.getId(), saga.getState(), attempts, backoffMs, cause.getMessage());
+
+        saga.setAttempts(attempts);
+        saga.setLastError(cause.getMessage());
+        saga.setNextAttemptAt(Instant.now().plusMillis(backoffMs));
+        saga.setLockedUntil(null);
+        saga.setUpdatedAt(Instant.now());
+        return sagaRepository.save(saga)
+                .onErrorResume(e -> {
+                    // The lease will expire and recovery will retry the step anyway
+                    log.error("Saga {} could not record its retry: {}", saga.getId(), e.getMessage());
+                    return Mono.just(saga);
+                });
+    }
+
+    private boolean isPermanent(Throwable e) {
+        if (e instanceof InsufficientBalanceException) {
+            return true;
+        }
+        // 4xx answers are final, except timeouts and throttling which are worth another attempt
+        return e instanceof WebClientResponseException response
+                && response.getStatusCode().is4xxClientError()
+                && response.getStatusCode().value() != 408 && response.getStatusCode().value() != 429;
+    }
+
+    //  HELPER METHODS
+
+    private Mono<Transaction> logTransaction(String type, Money amount, String status, String accountNumber) {
+        return transactionRepository.save(new Transaction(transactionIdGenerator.nextId(), type, amount, status, accountNumber));
+    }
+
+    private Mono<Transaction> logTransfer(Money amount, String status, String source, String dest) {
+        return transactionRepository.save(new Transaction(transactionIdGenerator.nextId(), amount, status, source, dest));
+    }
+
+    /**
+     * The publisher can block briefly when its queue is full (or spill to Mongo), so it runs off the event loop.
+     */
+    private Mono<Void> publish(String message) {
+        return Mono.fromRunnable(() -> notificationPublisher.publish(message))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    //  FALLBACK METHODS
+    public Mono<Transaction> fallbackTransaction(TransactionRequest request, Throwable t) {
+        log.error("Fallback: Account Service is down. Reason: {}", t.getMessage());
+        Transaction txn = new Transaction();
+        txn.setAmount(request.getAmount());
+        txn.setStatus("FAILED - SERVICE UNAVAILABLE");
+        txn.setTimestamp(LocalDateTime.now());
+        return Mono.just(txn);
+    }
+
+    public Mono<String> fallbackTransfer(TransferRequest request, Throwable t) {
+        log.error("Fallback Transfer: Account Service is down. Reason: {}", t.getMessage());
+        return Mono.just("Transfer Failed: Account Service is unavailable.");
+    }
+}
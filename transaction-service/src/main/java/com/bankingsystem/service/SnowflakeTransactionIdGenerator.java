@@ -0,0 +1,91 @@
+package com.bankingsystem.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style IDs: 41 bits of milliseconds since 2024-01-01, 10 bits of node id and a 12-bit sequence,
+ * rendered as {@code TXN-} plus 13 Crockford base32 characters so that string order matches creation order.
+ *
+ * <p>The timestamp and sequence share one {@link AtomicLong}, so generation is a single CAS with no locks. IDs
+ * from one generator are strictly increasing: if the clock steps backwards the sequence keeps counting from the
+ * last issued millisecond. Once the 4096 IDs of a millisecond are used up, callers spin until the clock moves
+ * on rather than borrowing future milliseconds, so a restarted node can never reissue an ID.
+ *
+ * <p>The node id is {@code transaction.id.node-id} when set. Otherwise one is leased from Mongo through
+ * {@link NodeIdLease}, so instances never share one, even in containers where every process is pid 1.
+ */
+@Component
+public class SnowflakeTransactionIdGenerator implements TransactionIdGenerator {
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final String PREFIX = "TXN-";
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    // Only changes if the node id lease is lost and replaced
+    private volatile long nodeBits;
+    // (millis since epoch << SEQUENCE_BITS) | sequence of the last issued ID
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeTransactionIdGenerator(int nodeId) {
+        useNodeId(nodeId);
+    }
+
+    @Autowired
+    public SnowflakeTransactionIdGenerator(@Value("${transaction.id.node-id:-1}") int nodeId, NodeIdLease lease) {
+        useNodeId(nodeId >= 0 ? nodeId : lease.acquire(this::useNodeId));
+    }
+
+    @Override
+    public String nextId() {
+        return format(nextLong());
+    }
+
+    public long nextLong() {
+        long now = System.currentTimeMillis() - EPOCH_MILLIS;
+        while (true) {
+            long current = state.get();
+            long next;
+            if ((current >>> SEQUENCE_BITS) < now) {
+                next = now << SEQUENCE_BITS;
+            } else if ((current & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = current + 1;
+            } else {
+                // Sequence exhausted for this millisecond
+                Thread.onSpinWait();
+                now = System.currentTimeMillis() - EPOCH_MILLIS;
+                continue;
+            }
+            if (state.compareAndSet(current, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    static String format(long id) {
+        char[] chars = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private void useNodeId(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("transaction.id.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+}
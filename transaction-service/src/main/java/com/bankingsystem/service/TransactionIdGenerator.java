@@ -0,0 +1,11 @@
+package com.bankingsystem.service;
+
+/**
+ * Source of {@code Transaction.transactionId} values. IDs must be unique across every transaction-service
+ * instance; the default is {@link SnowflakeTransactionIdGenerator}. To plug in another strategy, register a
+ * {@code @Primary} bean of this type.
+ */
+public interface TransactionIdGenerator {
+
+    String nextId();
+}
@@ -1,53 +1,78 @@
 package com.bankingsystem.service;
 
 import com.bankingsystem.client.AccountClient;
-import com.bankingsystem.client.NotificationClient;
 import com.bankingsystem.dto.AccountDTO;
 import com.bankingsystem.dto.BalanceRequest;
+import com.bankingsystem.dto.TransactionCursor;
+import com.bankingsystem.dto.TransactionPage;
 import com.bankingsystem.dto.TransactionRequest;
 import com.bankingsystem.dto.TransferRequest;
 import com.bankingsystem.exception.InsufficientBalanceException;
 import com.bankingsystem.exception.InvalidAccountException;
+import com.bankingsystem.exception.InvalidHistoryQueryException;
+import com.bankingsystem.exception.TransferFailedException;
+import com.bankingsystem.idempotency.IdempotencyFilter;
+import com.bankingsystem.limit.ConcurrencyLimitFilter;
+import com.bankingsystem.model.Money;
 import com.bankingsystem.model.Transaction;
+import com.bankingsystem.model.TransferSaga;
 import com.bankingsystem.repository.TransactionRepository;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
-import java.util.Date;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
 
 @Service
 public class TransactionService {
 
     private static final Logger log = LoggerFactory.getLogger(TransactionService.class);
 
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final TransactionRepository transactionRepository;
     private final AccountClient accountClient;
-    private final NotificationClient notificationClient;
+    private final NotificationPublisher notificationPublisher;
+    private final TransferSagaService transferSagaService;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final ParallelAccountLookup accountLookup;
+    private final AccountSequencer accountSequencer;
 
     public TransactionService(TransactionRepository transactionRepository,
                               AccountClient accountClient,
-                              NotificationClient notificationClient) {
+                              NotificationPublisher notificationPublisher,
+                              TransferSagaService transferSagaService,
+                              TransactionIdGenerator transactionIdGenerator,
+                              ParallelAccountLookup accountLookup,
+                              AccountSequencer accountSequencer) {
         this.transactionRepository = transactionRepository;
         this.accountClient = accountClient;
-        this.notificationClient = notificationClient;
+        this.notificationPublisher = notificationPublisher;
+        this.transferSagaService = transferSagaService;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.accountLookup = accountLookup;
+        this.accountSequencer = accountSequencer;
     }
 
     @CircuitBreaker(name = "accountServiceCB", fallbackMethod = "fallbackTransaction")
     public Transaction deposit(TransactionRequest request) {
+        return accountSequencer.withAccount(request.getAccountNumber(), () -> applyDeposit(request));
+    }
+
+    private Transaction applyDeposit(TransactionRequest request) {
         log.info("Processing deposit of {} for account: {}", request.getAmount(), request.getAccountNumber());
 
         try {
-            accountClient.updateBalance(request.getAccountNumber(), new BalanceRequest(request.getAmount()));
+            // With an Idempotency-Key, a retry after a timeout sends the same operation id and is not applied twice
+            accountClient.updateBalance(request.getAccountNumber(),
+                    new BalanceRequest(request.getAmount(), IdempotencyFilter.operationId()));
 
             Transaction txn = logTransaction("DEPOSIT", request.getAmount(), "SUCCESS", request.getAccountNumber());
 
-            notificationClient.sendNotification("Deposit of " + request.getAmount() + " successful.");
+            notificationPublisher.publish("Deposit of " + request.getAmount() + " successful.");
             return txn;
 
         } catch (Exception e) {
@@ -59,18 +84,19 @@ public class TransactionService {
 
     @CircuitBreaker(name = "accountServiceCB", fallbackMethod = "fallbackTransaction")
     public Transaction withdraw(TransactionRequest request) {
+        return accountSequencer.withAccount(request.getAccountNumber(), () -> applyWithdrawal(request));
+    }
+
+    private Transaction applyWithdrawal(TransactionRequest request) {
         log.info("Processing withdrawal of {} for account: {}", request.getAmount(), request.getAccountNumber());
 
         try {
-            AccountDTO account = accountClient.getAccount(request.getAccountNumber());
-            if (account.getBalance() < request.getAmount()) {
-                throw new InsufficientBalanceException("Insufficient funds. Available: " + account.getBalance());
-            }
-
-            accountClient.updateBalance(request.getAccountNumber(), new BalanceRequest(-request.getAmount()));
+            // Funds check and debit happen atomically in account-service; a shortfall surfaces as InsufficientBalanceException
+            accountClient.debit(request.getAccountNumber(),
+                    new BalanceRequest(request.getAmount(), IdempotencyFilter.operationId()));
             Transaction txn = logTransaction("WITHDRAW", request.getAmount(), "SUCCESS", request.getAccountNumber());
 
-            notificationClient.sendNotification("Withdrawal of " + request.getAmount() + " successful.");
+            notificationPublisher.publish("Withdrawal of " + request.getAmount() + " successful.");
             return txn;
 
         } catch (Exception e) {
@@ -82,28 +108,47 @@ public class TransactionService {
 
     @CircuitBreaker(name = "accountServiceCB", fallbackMethod = "fallbackTransfer")
     public String transfer(TransferRequest request) {
+        // Both legs are held for the whole transfer, so nothing else on either account interleaves with it
+        return accountSequencer.withAccounts(List.of(request.getSourceAccount(), request.getDestinationAccount()),
+                () -> applyTransfer(request));
+    }
+
+    private String applyTransfer(TransferRequest request) {
         log.info("Processing transfer from {} to {}", request.getSourceAccount(), request.getDestinationAccount());
 
+        // A retry under the same Idempotency-Key continues the saga its earlier attempt started. The checks
+        // passed then, and the source may already have been debited
+        String operationId = IdempotencyFilter.operationId();
+        if (operationId == null || transferSagaService.findSaga(operationId).isEmpty()) {
+            checkTransfer(request);
+        }
+
+        // The saga records the transaction and sends the notification itself once it reaches a final state
+        TransferSaga saga = transferSagaService.execute(request, operationId);
+        switch (saga.getState()) {
+            case CREDITED:
+                return "Transfer successful";
+            case FAILED:
+                throw new TransferFailedException("Transfer failed: " + saga.getLastError());
+            case COMPENSATED:
+                throw new TransferFailedException("Transfer reversed, funds returned to source account: " + saga.getLastError());
+            default:
+                return "Transfer accepted and will complete in the background. Reference: " + saga.getId();
+        }
+    }
+
+    private void checkTransfer(TransferRequest request) {
         try {
             if (request.getSourceAccount().equals(request.getDestinationAccount())) {
                 throw new InvalidAccountException("Source and Destination accounts cannot be the same.");
             }
 
-            AccountDTO source = accountClient.getAccount(request.getSourceAccount());
-            if (source.getBalance() < request.getAmount()) {
+            // Two concurrent calls, one per account; the destination is fetched only to check that it exists
+            AccountDTO source = accountLookup.getAccounts(request.getSourceAccount(), request.getDestinationAccount()).get(0);
+            if (source.getBalance().compareTo(request.getAmount()) < 0) {
                 throw new InsufficientBalanceException("Insufficient funds in source account.");
             }
 
-            accountClient.getAccount(request.getDestinationAccount());
-
-            accountClient.updateBalance(request.getSourceAccount(), new BalanceRequest(-request.getAmount()));
-            accountClient.updateBalance(request.getDestinationAccount(), new BalanceRequest(request.getAmount()));
-
-            logTransaction("TRANSFER", request.getAmount(), "SUCCESS", request.getSourceAccount(), request.getDestinationAccount());
-
-            notificationClient.sendNotification("Transfer of " + request.getAmount() + " successful.");
-            return "Transfer successful";
-
         } catch (Exception e) {
             log.error("Transfer failed: {}", e.getMessage());
             logTransaction("TRANSFER", request.getAmount(), "FAILED", request.getSourceAccount(), request.getDestinationAccount());
@@ -111,34 +156,80 @@ public class TransactionService {
         }
     }
 
-    public List<Transaction> getTransactions(String accountNumber) {
+    public TransferSaga submitTransfer(TransferRequest request) {
+        log.info("Queueing transfer from {} to {}", request.getSourceAccount(), request.getDestinationAccount());
+        if (request.getSourceAccount().equals(request.getDestinationAccount())) {
+            throw new InvalidAccountException("Source and Destination accounts cannot be the same.");
+        }
+        return transferSagaService.submit(request, IdempotencyFilter.operationId());
+    }
+
+    public TransferSaga getTransferStatus(String sagaId) {
+        return transferSagaService.findSaga(sagaId)
+                .orElseThrow(() -> new InvalidAccountException("No transfer found with reference: " + sagaId));
+    }
+
+    /**
+     * Newest-first page of an account's history. Pass the previous page's nextCursor to continue.
+     */
+    public TransactionPage getTransactions(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                           String cursor, int limit) {
         log.info("Fetching transactions for account: {}", accountNumber);
-        return transactionRepository.findBySourceAccountOrDestinationAccount(accountNumber, accountNumber);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidHistoryQueryException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        validateRange(from, to);
+        TransactionCursor after = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+
+        // Read one extra row to learn whether another page exists
+        List<Transaction> rows = transactionRepository.findHistory(accountNumber, from, to, after, limit + 1);
+        if (rows.size() <= limit) {
+            return new TransactionPage(rows, null);
+        }
+        List<Transaction> page = rows.subList(0, limit);
+        return new TransactionPage(page, TransactionCursor.after(page.get(limit - 1)).encode());
+    }
+
+    /**
+     * Full history in the same order as {@link #getTransactions}, read lazily from a Mongo cursor.
+     * The caller must close the stream.
+     */
+    public Stream<Transaction> streamTransactions(String accountNumber, LocalDateTime from, LocalDateTime to) {
+        log.info("Streaming transactions for account: {}", accountNumber);
+        validateRange(from, to);
+        return transactionRepository.streamHistory(accountNumber, from, to);
     }
 
     //  HELPER METHODS
 
-    private Transaction logTransaction(String type, double amount, String status, String accountNumber) {
+    private void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidHistoryQueryException("from must be before to");
+        }
+    }
+
+    private Transaction logTransaction(String type, Money amount, String status, String accountNumber) {
         String txnId = generateTransactionId();
         Transaction txn = new Transaction(txnId, type, amount, status, accountNumber);
         return transactionRepository.save(txn);
     }
 
-    private void logTransaction(String type, double amount, String status, String source, String dest) {
+    private void logTransaction(String type, Money amount, String status, String source, String dest) {
         String txnId = generateTransactionId();
         Transaction txn = new Transaction(txnId, amount, status, source, dest);
         transactionRepository.save(txn);
     }
 
     private String generateTransactionId() {
-        String timestamp = new SimpleDateFormat("yyyyMMddHHmmss").format(new Date());
-        int randomSuffix = ThreadLocalRandom.current().nextInt(100, 999);
-        return "TXN-" + timestamp + "-" + randomSuffix;
+        return transactionIdGenerator.nextId();
     }
 
     //  FALLBACK METHODS
     public Transaction fallbackTransaction(TransactionRequest request, Throwable t) {
         log.error("Fallback: Account Service is down. Reason: {}", t.getMessage());
+        // A retry with the same Idempotency-Key should run again, not replay this
+        IdempotencyFilter.doNotRemember();
+        ConcurrencyLimitFilter.markDropped();
         Transaction txn = new Transaction();
         txn.setAmount(request.getAmount());
         txn.setStatus("FAILED - SERVICE UNAVAILABLE");
@@ -148,6 +239,8 @@ public class TransactionService {
 
     public String fallbackTransfer(TransferRequest request, Throwable t) {
         log.error("Fallback Transfer: Account Service is down. Reason: {}", t.getMessage());
+        IdempotencyFilter.doNotRemember();
+        ConcurrencyLimitFilter.markDropped();
         return "Transfer Failed: Account Service is unavailable.";
     }
 }
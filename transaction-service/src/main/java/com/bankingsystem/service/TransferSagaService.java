@@ -0,0 +1,274 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.client.AccountClient;
+import com.bankingsystem.config.VirtualThreads;
+import com.bankingsystem.dto.BalanceRequest;
+import com.bankingsystem.dto.TransferRequest;
+import com.bankingsystem.exception.InsufficientBalanceException;
+import com.bankingsystem.model.SagaState;
+import com.bankingsystem.model.Transaction;
+import com.bankingsystem.model.TransferSaga;
+import com.bankingsystem.repository.TransactionRepository;
+import com.bankingsystem.repository.TransferSagaRepository;
+import feign.FeignException;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives transfers through PENDING -> DEBITED -> CREDITED, or to COMPENSATED when the destination
+ * rejects the credit. Every step is persisted before the next one starts and every balance call carries
+ * a per-step operation id, so a step repeated after a crash or timeout is applied by account-service at
+ * most once. Unfinished sagas are picked up again by {@link #recoverDueSagas()}, including after a restart.
+ */
+@Service
+public class TransferSagaService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferSagaService.class);
+
+    private final TransferSagaRepository sagaRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountClient accountClient;
+    private final NotificationPublisher notificationPublisher;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final ThreadPoolExecutor workers;
+    private final Duration lease;
+    private final Duration maxBackoff;
+
+    public TransferSagaService(TransferSagaRepository sagaRepository,
+                               TransactionRepository transactionRepository,
+                               AccountClient accountClient,
+                               NotificationPublisher notificationPublisher,
+                               TransactionIdGenerator transactionIdGenerator,
+                               @Value("${transfer.saga.worker-threads:8}") int workerThreads,
+                               @Value("${transfer.saga.queue-capacity:1000}") int queueCapacity,
+                               @Value("${transfer.saga.lease-ms:30000}") long leaseMs,
+                               @Value("${transfer.saga.max-backoff-ms:60000}") long maxBackoffMs,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.sagaRepository = sagaRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountClient = accountClient;
+        this.notificationPublisher = notificationPublisher;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.lease = Duration.ofMillis(leaseMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        // With virtual threads the pool size still caps how many sagas hit account-service at once
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                VirtualThreads.threadFactory("transfer-saga-", virtualThreads),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Persists a new saga and drives it on the calling thread until it finishes or hits a transient error.
+     * {@code operationId} (optional) identifies the request across retries; see {@link #begin}.
+     */
+    public TransferSaga execute(TransferRequest request, String operationId) {
+        Started started = begin(request, operationId);
+        return started.claimed() ? advance(started.saga()) : started.saga();
+    }
+
+    /** Persists a new saga and hands it to the worker pool; the caller gets the PENDING saga back immediately. */
+    public TransferSaga submit(TransferRequest request, String operationId) {
+        Started started = begin(request, operationId);
+        if (started.claimed()) {
+            dispatch(started.saga());
+        }
+        return started.saga();
+    }
+
+    public Optional<TransferSaga> findSaga(String sagaId) {
+        return sagaRepository.findById(sagaId);
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.saga.recovery-interval-ms:5000}")
+    public void recoverDueSagas() {
+        while (workers.getQueue().remainingCapacity() > 0) {
+            Instant now = Instant.now();
+            TransferSaga saga = sagaRepository.claimNextDue(now, now.plus(lease));
+            if (saga == null) {
+                return;
+            }
+            log.info("Resuming saga {} in state {} (attempt {})", saga.getId(), saga.getState(), saga.getAttempts() + 1);
+            if (!dispatch(saga)) {
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Leases of sagas that were not finished simply expire and recovery picks them up again
+        workers.shutdownNow();
+    }
+
+    //  STATE MACHINE
+
+    TransferSaga advance(TransferSaga saga) {
+        try {
+            while (!saga.getState().isTerminal()) {
+                saga = step(saga);
+            }
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Saga {} was taken over by another worker", saga.getId());
+        } catch (Exception e) {
+            saga = scheduleRetry(saga, e);
+        }
+        return saga;
+    }
+
+    private TransferSaga step(TransferSaga saga) {
+        switch (saga.getState()) {
+            case PENDING:
+                try {
+                    accountClient.debit(saga.getSourceAccount(), new BalanceRequest(saga.getAmount(), saga.getId() + ":debit"));
+                } catch (Exception e) {
+                    if (isPermanent(e)) {
+                        return finish(saga, SagaState.FAILED, e.getMessage());
+                    }
+                    throw e;
+                }
+                return transition(saga, SagaState.DEBITED, null);
+            case DEBITED:
+                try {
+                    accountClient.updateBalance(saga.getDestinationAccount(), new BalanceRequest(saga.getAmount(), saga.getId() + ":credit"));
+                } catch (Exception e) {
+                    if (isPermanent(e)) {
+                        log.warn("Saga {}: destination rejected the credit, refunding source. Reason: {}", saga.getId(), e.getMessage());
+                        return transition(saga, SagaState.COMPENSATING, e.getMessage());
+                    }
+                    throw e;
+                }
+                return finish(saga, SagaState.CREDITED, null);
+            case COMPENSATING:
+                accountClient.updateBalance(saga.getSourceAccount(), new BalanceRequest(saga.getAmount(), saga.getId() + ":compensate"));
+                return finish(saga, SagaState.COMPENSATED, saga.getLastError());
+            default:
+                throw new IllegalStateException("Saga " + saga.getId() + " is already " + saga.getState());
+        }
+    }
+
+    /**
+     * The saga id is the request's operation id when it has one, so every attempt under an Idempotency-Key
+     * drives the same saga and sends account-service the same step operation ids. A retry continues the saga
+     * its earlier attempt left behind instead of moving the money again; it is only handed back as it is if it
+     * has finished or a worker still holds its lease.
+     */
+    private Started begin(TransferRequest request, String operationId) {
+        if (operationId != null) {
+            Optional<TransferSaga> earlier = sagaRepository.findById(operationId);
+            if (earlier.isPresent()) {
+                return resume(earlier.get());
+            }
+        }
+        TransferSaga saga = new TransferSaga(request.getSourceAccount(), request.getDestinationAccount(), request.getAmount());
+        saga.setId(operationId != null ? operationId : new ObjectId().toHexString());
+        saga.setTransactionId(transactionIdGenerator.nextId());
+        saga.setLockedUntil(Instant.now().plus(lease));
+        try {
+            return new Started(sagaRepository.save(saga), true);
+        } catch (DuplicateKeyException e) {
+            // Another attempt with the same operation id inserted it first
+            return resume(sagaRepository.findById(operationId).orElseThrow(() -> e));
+        }
+    }
+
+    private Started resume(TransferSaga saga) {
+        Instant now = Instant.now();
+        if (saga.getState().isTerminal() || (saga.getLockedUntil() != null && saga.getLockedUntil().isAfter(now))) {
+            return new Started(saga, false);
+        }
+        log.info("Resuming saga {} in state {} for a retried request", saga.getId(), saga.getState());
+        saga.setLockedUntil(now.plus(lease));
+        try {
+            return new Started(sagaRepository.save(saga), true);
+        } catch (OptimisticLockingFailureException e) {
+            // Recovery claimed it in the meantime
+            return new Started(sagaRepository.findById(saga.getId()).orElse(saga), false);
+        }
+    }
+
+    private boolean dispatch(TransferSaga saga) {
+        try {
+            workers.execute(() -> advance(saga));
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Saga worker queue is full; saga {} will be picked up by recovery", saga.getId());
+            saga.setLockedUntil(null);
+            sagaRepository.save(saga);
+            return false;
+        }
+    }
+
+    private TransferSaga transition(TransferSaga saga, SagaState state, String error) {
+        saga.setState(state);
+        saga.setLastError(error);
+        saga.setUpdatedAt(Instant.now());
+        return sagaRepository.save(saga);
+    }
+
+    private TransferSaga finish(TransferSaga saga, SagaState state, String error) {
+        // Keyed by the saga id, so recording the outcome again after a crash overwrites instead of duplicating
+        Transaction txn = new Transaction(saga.getTransactionId(), saga.getAmount(),
+                state == SagaState.CREDITED ? "SUCCESS" : "FAILED", saga.getSourceAccount(), saga.getDestinationAccount());
+        txn.setId(saga.getId());
+        transactionRepository.save(txn);
+
+        saga.setLockedUntil(null);
+        TransferSaga finished = transition(saga, state, error);
+        log.info("Saga {} finished as {}", saga.getId(), state);
+
+        if (state == SagaState.CREDITED) {
+            notificationPublisher.publish("Transfer of " + saga.getAmount() + " successful.");
+        }
+        return finished;
+    }
+
+    private TransferSaga scheduleRetry(TransferSaga saga, Exception cause) {
+        int attempts = saga.getAttempts() + 1;
+        long backoffMs = Math.min(maxBackoff.toMillis(), 1000L << Math.min(attempts - 1, 20));
+        log.warn("Saga {} step {} failed (attempt {}), retrying in {} ms. Reason: {}",
+                saga.getId(), saga.getState(), attempts, backoffMs, cause.getMessage());
+
+        saga.setAttempts(attempts);
+        saga.setLastError(cause.getMessage());
+        saga.setNextAttemptAt(Instant.now().plusMillis(backoffMs));
+        saga.setLockedUntil(null);
+        saga.setUpdatedAt(Instant.now());
+        try {
+            return sagaRepository.save(saga);
+        } catch (Exception e) {
+            // The lease will expire and recovery will retry the step anyway
+            log.error("Saga {} could not record its retry: {}", saga.getId(), e.getMessage());
+            return saga;
+        }
+    }
+
+    /** A saga as {@link #begin} found or created it, and whether this caller holds its lease and should drive it. */
+    private record Started(TransferSaga saga, boolean claimed) {
+    }
+
+    private boolean isPermanent(Exception e) {
+        if (e instanceof InsufficientBalanceException) {
+            return true;
+        }
+        // 4xx answers are final, except timeouts and throttling which are worth another attempt
+        return e instanceof FeignException feignException
+                && feignException.status() >= 400 && feignException.status() < 500
+                && feignException.status() != 408 && feignException.status() != 429;
+    }
+}
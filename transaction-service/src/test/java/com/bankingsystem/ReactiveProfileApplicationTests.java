@@ -0,0 +1,32 @@
+package com.bankingsystem;
+
+import com.bankingsystem.controller.ReactiveTransactionController;
+import com.bankingsystem.controller.TransactionController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.reactive.context.ReactiveWebApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// No Mongo in unit builds, so skip the index creation, migrations and node id lease that would otherwise block startup, and let the saga
+// recovery job give up on server selection quickly instead of holding up shutdown for the default 30 seconds
+@SpringBootTest(properties = {"spring.data.mongodb.auto-index-creation=false", "money.migration.enabled=false",
+		"transaction.id.migration.enabled=false", "transaction.id.node-id=0",
+		"spring.data.mongodb.uri=mongodb://localhost:27017/transactions_db?serverSelectionTimeoutMS=1000"})
+@ActiveProfiles("reactive")
+class ReactiveProfileApplicationTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Test
+	void contextLoadsOnWebFlux() {
+		assertEquals(1, context.getBeansOfType(ReactiveTransactionController.class).size());
+		assertTrue(context.getBeansOfType(TransactionController.class).isEmpty());
+		assertInstanceOf(ReactiveWebApplicationContext.class, context);
+	}
+
+}
@@ -3,7 +3,11 @@ package com.bankingsystem;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// No Mongo in unit builds, so skip the index creation, migrations and node id lease that would otherwise block startup, and let the saga
+// recovery job give up on server selection quickly instead of holding up shutdown for the default 30 seconds
+@SpringBootTest(properties = {"spring.data.mongodb.auto-index-creation=false", "money.migration.enabled=false",
+		"transaction.id.migration.enabled=false", "transaction.id.node-id=0",
+		"spring.data.mongodb.uri=mongodb://localhost:27017/transactions_db?serverSelectionTimeoutMS=1000"})
 class TransactionServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,66 @@
+package com.bankingsystem.client;
+
+import com.bankingsystem.exception.InsufficientBalanceException;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountErrorDecoderTest {
+
+    private final AccountErrorDecoder decoder = new AccountErrorDecoder();
+
+    @Test
+    void testDecode_UnprocessableEntityBecomesInsufficientBalance() {
+        Exception ex = decoder.decode("AccountClient#debit", response(422,
+                "{\"statusCode\":422,\"message\":\"Insufficient funds. Available: 10.0\"}"));
+
+        assertInstanceOf(InsufficientBalanceException.class, ex);
+        assertEquals("Insufficient funds. Available: 10.0", ex.getMessage());
+    }
+
+    @Test
+    void testDecode_ReadsTheMessageOfACborError() throws Exception {
+        byte[] body = new CBORMapper().writeValueAsBytes(Map.of("statusCode", 422, "message", "Insufficient funds."));
+        Response response = Response.builder()
+                .status(422)
+                .request(request())
+                .headers(Map.of("Content-Type", List.of(CborNegotiation.APPLICATION_CBOR)))
+                .body(body)
+                .build();
+
+        Exception ex = decoder.decode("AccountClient#debit", response);
+
+        assertInstanceOf(InsufficientBalanceException.class, ex);
+        assertEquals("Insufficient funds.", ex.getMessage());
+    }
+
+    @Test
+    void testDecode_OtherStatusesUseFeignDefaults() {
+        Exception ex = decoder.decode("AccountClient#debit", response(404, "{\"message\":\"Account not found\"}"));
+
+        assertInstanceOf(FeignException.NotFound.class, ex);
+    }
+
+    private Response response(int status, String body) {
+        return Response.builder()
+                .status(status)
+                .request(request())
+                .headers(Collections.emptyMap())
+                .body(body, StandardCharsets.UTF_8)
+                .build();
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.PUT, "/api/accounts/ACC123/debit",
+                Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+    }
+}
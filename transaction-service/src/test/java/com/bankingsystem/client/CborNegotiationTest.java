@@ -0,0 +1,99 @@
+package com.bankingsystem.client;
+
+import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.dto.AccountLookupRequest;
+import com.bankingsystem.dto.BalanceRequest;
+import com.bankingsystem.model.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import feign.Feign;
+import feign.Request;
+import feign.Response;
+import feign.Retryer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CborNegotiationTest {
+
+    private final ObjectMapper cbor = new CBORMapper();
+    private final List<Request> requests = new ArrayList<>();
+    private final HttpMessageConverters converters = new HttpMessageConverters();
+
+    @Test
+    void testBalanceRequestGoesOutAsCborAndTheAccountComesBackFromCbor() throws Exception {
+        AccountClient client = client(true);
+
+        AccountDTO account = client.debit("JD1234", new BalanceRequest(Money.of("12.34"), "saga-1:debit"));
+
+        Request request = requests.get(0);
+        assertEquals(List.of(CborNegotiation.APPLICATION_CBOR), List.copyOf(request.headers().get(HttpHeaders.CONTENT_TYPE)));
+        assertTrue(request.headers().get(HttpHeaders.ACCEPT).iterator().next().startsWith(CborNegotiation.APPLICATION_CBOR));
+        BalanceRequest sent = cbor.readValue(request.body(), BalanceRequest.class);
+        assertEquals(Money.of("12.34"), sent.getAmount());
+        assertEquals("saga-1:debit", sent.getOperationId());
+        assertEquals(Money.of("87.66"), account.getBalance());
+    }
+
+    @Test
+    void testOtherPayloadsStayJson() {
+        AccountClient client = client(true);
+
+        client.lookupAccounts(new AccountLookupRequest(List.of("JD1234")));
+
+        Request request = requests.get(0);
+        assertTrue(request.headers().get(HttpHeaders.CONTENT_TYPE).iterator().next().startsWith("application/json"));
+        assertNull(request.headers().get(HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void testJsonWhenDisabled() {
+        AccountClient client = client(false);
+
+        client.debit("JD1234", new BalanceRequest(Money.of("12.34")));
+
+        assertTrue(requests.get(0).headers().get(HttpHeaders.CONTENT_TYPE).iterator().next().startsWith("application/json"));
+    }
+
+    private AccountClient client(boolean cborEnabled) {
+        Feign.Builder builder = Feign.builder()
+                .contract(new SpringMvcContract())
+                .encoder(new SpringEncoder(() -> converters))
+                .decoder(new ResponseEntityDecoder(new SpringDecoder(() -> converters)))
+                .retryer(Retryer.NEVER_RETRY)
+                .client((request, options) -> {
+                    requests.add(request);
+                    return respond(request);
+                });
+        if (cborEnabled) {
+            CborNegotiation negotiation = new CborNegotiation();
+            builder.addCapability(negotiation).requestInterceptor(negotiation);
+        }
+        return builder.target(AccountClient.class, "http://account-service");
+    }
+
+    // Stands in for account-service's content negotiation
+    private Response respond(Request request) throws IOException {
+        boolean wantsCbor = request.headers().getOrDefault(HttpHeaders.ACCEPT, List.of()).stream()
+                .anyMatch(accept -> accept.startsWith(CborNegotiation.APPLICATION_CBOR));
+        Object body = request.url().endsWith("/lookup") ? List.of() : Map.of("accountNumber", "JD1234", "balance", Money.of("87.66"));
+        ObjectMapper mapper = wantsCbor ? cbor : new ObjectMapper();
+        return Response.builder()
+                .status(200)
+                .request(request)
+                .headers(Map.of(HttpHeaders.CONTENT_TYPE, List.of(wantsCbor ? CborNegotiation.APPLICATION_CBOR : "application/json")))
+                .body(mapper.writeValueAsBytes(body))
+                .build();
+    }
+}
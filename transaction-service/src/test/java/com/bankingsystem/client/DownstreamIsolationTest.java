@@ -0,0 +1,140 @@
+package com.bankingsystem.client;
+
+import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.exception.DownstreamTimeoutException;
+import com.bankingsystem.model.Money;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fault injection: notification-service accepts connections but never answers. Callers that notify and then
+ * touch an account, as request threads used to, must keep getting their account calls through.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.data.mongodb.auto-index-creation=false", "money.migration.enabled=false",
+        "transaction.id.migration.enabled=false", "transaction.id.node-id=0",
+        "spring.data.mongodb.uri=mongodb://localhost:27017/transactions_db?serverSelectionTimeoutMS=1000",
+        "eureka.client.enabled=false",
+        "resilience4j.timelimiter.instances.notificationService.timeoutDuration=500ms"})
+class DownstreamIsolationTest {
+
+    private static final int CALLERS = 8;
+    private static final int REQUESTS = 32;
+
+    private static final CountDownLatch notificationServiceStalled = new CountDownLatch(1);
+    private static final AtomicInteger accountCalls = new AtomicInteger();
+    private static final HttpServer accountService = start(DownstreamIsolationTest::account);
+    private static final HttpServer notificationService = start(exchange -> {
+        try {
+            notificationServiceStalled.await(60, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.sendResponseHeaders(200, -1);
+        exchange.close();
+    });
+
+    @Autowired
+    private AccountClient accountClient;
+
+    @Autowired
+    private NotificationClient notificationClient;
+
+    @DynamicPropertySource
+    static void downstreamServices(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.account-service[0].uri", () -> uri(accountService));
+        registry.add("spring.cloud.discovery.client.simple.instances.notification-service[0].uri", () -> uri(notificationService));
+    }
+
+    @AfterAll
+    static void stopServices() {
+        notificationServiceStalled.countDown();
+        accountService.stop(0);
+        notificationService.stop(0);
+    }
+
+    @Test
+    void testAccountCallsKeepFlowingWhileNotificationServiceIsStalled() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        List<Future<Throwable>> requests = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                requests.add(callers.submit(() -> {
+                    Throwable notificationFailure = null;
+                    try {
+                        notificationClient.sendNotifications(List.of("Deposit of 10.00 successful."));
+                    } catch (RuntimeException e) {
+                        notificationFailure = e;
+                    }
+                    AccountDTO account = accountClient.getAccount("JD1234");
+                    assertEquals(Money.of("100.00"), account.getBalance());
+                    return notificationFailure;
+                }));
+            }
+            for (Future<Throwable> request : requests) {
+                Throwable notificationFailure = request.get(20, TimeUnit.SECONDS);
+                assertTrue(notificationFailure instanceof DownstreamTimeoutException
+                                || notificationFailure instanceof BulkheadFullException,
+                        "notification call should time out or be rejected, was " + notificationFailure);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        // Without the time limiter the first eight callers alone would wait out the 5 s read timeout
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(REQUESTS, accountCalls.get());
+        assertTrue(elapsedMillis < 5000, "took " + elapsedMillis + " ms");
+    }
+
+    private static void account(HttpExchange exchange) throws IOException {
+        accountCalls.incrementAndGet();
+        byte[] body = "{\"accountNumber\":\"JD1234\",\"balance\":100.00,\"status\":\"ACTIVE\"}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static HttpServer start(HttpHandler handler) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", handler);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String uri(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+}
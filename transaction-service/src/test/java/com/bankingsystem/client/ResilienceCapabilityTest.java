@@ -0,0 +1,118 @@
+package com.bankingsystem.client;
+
+import com.bankingsystem.dto.BalanceRequest;
+import com.bankingsystem.model.Money;
+import feign.Client;
+import feign.Feign;
+import feign.RetryableException;
+import feign.Retryer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilienceCapabilityTest {
+
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final RetryRegistry retries = RetryRegistry.of(RetryConfig.custom()
+            .maxAttempts(3)
+            .waitDuration(Duration.ofMillis(1))
+            .build());
+    private final BulkheadRegistry bulkheads = BulkheadRegistry.ofDefaults();
+
+    @Test
+    void testFailedReadsAreRetried() {
+        AccountClient client = client(failingWith(new SocketTimeoutException("Read timed out")), new RetryBudget(0.1, 10));
+
+        assertThrows(RetryableException.class, () -> client.getAccount("JD1234"));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void testBalanceChangesAreOnlyRetriedWhenTheyNeverLeft() {
+        AccountClient client = client(failingWith(new SocketTimeoutException("Read timed out")), new RetryBudget(0.1, 10));
+        assertThrows(RetryableException.class, () -> client.updateBalance("JD1234", deposit()));
+        assertEquals(1, attempts.get());
+
+        attempts.set(0);
+        AccountClient refused = client(failingWith(new ConnectException("Connection refused")), new RetryBudget(0.1, 10));
+        assertThrows(RetryableException.class, () -> refused.updateBalance("JD1234", deposit()));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void testRetriesStopWhenTheBudgetIsSpent() {
+        AccountClient client = client(failingWith(new SocketTimeoutException("Read timed out")), new RetryBudget(0, 1));
+
+        assertThrows(RetryableException.class, () -> client.getAccount("JD1234"));
+        assertEquals(2, attempts.get());
+
+        assertThrows(RetryableException.class, () -> client.getAccount("JD1234"));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void testFullBulkheadRejectsWithoutCallingOrRetrying() throws Exception {
+        bulkheads.bulkhead("accountService", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AccountClient client = client((request, options) -> {
+            attempts.incrementAndGet();
+            inside.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new SocketTimeoutException("Read timed out");
+        }, new RetryBudget(0.1, 10));
+
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> client.updateBalance("JD1234", deposit()));
+        assertTrue(inside.await(5, TimeUnit.SECONDS));
+        try {
+            assertThrows(BulkheadFullException.class, () -> client.getAccount("JD1234"));
+            assertEquals(1, attempts.get());
+        } finally {
+            release.countDown();
+        }
+        assertThrows(Exception.class, () -> holder.get(5, TimeUnit.SECONDS));
+    }
+
+    private AccountClient client(Client transport, RetryBudget budget) {
+        return Feign.builder()
+                .contract(new SpringMvcContract())
+                .encoder((body, type, template) -> template.body("{}"))
+                .retryer(Retryer.NEVER_RETRY)
+                .client(transport)
+                .addCapability(ResilienceCapability.semaphore("accountService", bulkheads, retries, budget))
+                .target(AccountClient.class, "http://account-service");
+    }
+
+    private Client failingWith(IOException failure) {
+        return (request, options) -> {
+            attempts.incrementAndGet();
+            throw failure;
+        };
+    }
+
+    private static BalanceRequest deposit() {
+        return new BalanceRequest(Money.ofMinor(1000));
+    }
+}
@@ -0,0 +1,37 @@
+package com.bankingsystem.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBudgetTest {
+
+    @Test
+    void testStartsWithTheBurstAndEarnsRetriesFromCalls() {
+        RetryBudget budget = new RetryBudget(0.25, 2);
+
+        assertTrue(budget.tryRetry());
+        assertTrue(budget.tryRetry());
+        assertFalse(budget.tryRetry());
+
+        for (int i = 0; i < 3; i++) {
+            budget.onCall();
+        }
+        assertFalse(budget.tryRetry());
+        budget.onCall();
+        assertTrue(budget.tryRetry());
+    }
+
+    @Test
+    void testSavesNoMoreThanTheBurst() {
+        RetryBudget budget = new RetryBudget(1, 2);
+
+        for (int i = 0; i < 100; i++) {
+            budget.onCall();
+        }
+
+        assertTrue(budget.tryRetry());
+        assertTrue(budget.tryRetry());
+        assertFalse(budget.tryRetry());
+    }
+}
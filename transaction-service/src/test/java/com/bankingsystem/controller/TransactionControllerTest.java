@@ -0,0 +1,88 @@
+package com.bankingsystem.controller;
+
+import com.bankingsystem.dto.TransactionPage;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.Transaction;
+import com.bankingsystem.service.BatchTransferService;
+import com.bankingsystem.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionControllerTest {
+
+    private static final String ACCOUNT = "AL00000125";
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private BatchTransferService batchTransferService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        TransactionController controller = new TransactionController(transactionService, batchTransferService,
+                Jackson2ObjectMapperBuilder.json().build());
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void testGetTransactions_WithoutCursorOrLimitReturnsThePlainArray() throws Exception {
+        when(transactionService.streamTransactions(ACCOUNT, null, null))
+                .thenReturn(Stream.of(deposit("T2"), deposit("T1")));
+
+        MvcResult started = mockMvc.perform(get("/api/transactions/account/" + ACCOUNT))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].transactionId").value("T2"))
+                .andExpect(jsonPath("$[1].transactionId").value("T1"));
+        verify(transactionService, never()).getTransactions(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testGetTransactions_WithLimitReturnsAPage() throws Exception {
+        when(transactionService.getTransactions(ACCOUNT, null, null, null, 1))
+                .thenReturn(new TransactionPage(List.of(deposit("T2")), "next"));
+
+        mockMvc.perform(get("/api/transactions/account/" + ACCOUNT).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions[0].transactionId").value("T2"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void testGetTransactions_WithCursorAloneReturnsAPageOfTheDefaultSize() throws Exception {
+        when(transactionService.getTransactions(ACCOUNT, null, null, "next", 50))
+                .thenReturn(new TransactionPage(List.of(deposit("T1")), null));
+
+        mockMvc.perform(get("/api/transactions/account/" + ACCOUNT).param("cursor", "next"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions[0].transactionId").value("T1"));
+    }
+
+    private static Transaction deposit(String id) {
+        return new Transaction(id, "DEPOSIT", Money.of("10.00"), "SUCCESS", ACCOUNT);
+    }
+}
@@ -0,0 +1,228 @@
+package com.bankingsystem.idempotency;
+
+import com.bankingsystem.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private static final String DEPOSIT = "/api/transactions/deposit";
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private IdempotencyRecordRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyFilter filter;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "transactions_test");
+        repository = new MongoRepositoryFactory(mongoTemplate).getRepository(IdempotencyRecordRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        IdempotencyStore store = new IdempotencyStore(repository, mongoTemplate, meterRegistry, 100, 24, 60000);
+        filter = new IdempotencyFilter(store, new ObjectMapper(), meterRegistry, List.of(DEPOSIT));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testRetryReplaysTheFirstResponseWithoutRunningAgain() throws Exception {
+        MockHttpServletResponse first = send("key-1", "{\"amount\":10}", respondWith(200, "{\"status\":\"SUCCESS\"}"));
+        MockHttpServletResponse retry = send("key-1", "{\"amount\":10}", respondWith(200, "{\"status\":\"OTHER\"}"));
+
+        assertEquals(1, executions.get());
+        assertEquals("{\"status\":\"SUCCESS\"}", first.getContentAsString());
+        assertEquals(200, retry.getStatus());
+        assertEquals("{\"status\":\"SUCCESS\"}", retry.getContentAsString());
+        assertEquals("application/json", retry.getContentType());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1.0, meterRegistry.counter("idempotency.requests", "outcome", "replayed").count());
+        assertEquals(1.0, meterRegistry.counter("idempotency.lookups", "tier", "memory").count());
+    }
+
+    @Test
+    void testRecordInMongoServesOtherInstances() throws Exception {
+        send("key-1", "{\"amount\":10}", respondWith(400, "{\"message\":\"Insufficient funds.\"}"));
+
+        // A second instance has an empty LRU and finds the record in Mongo
+        IdempotencyFilter otherInstance = new IdempotencyFilter(new IdempotencyStore(repository, mongoTemplate, meterRegistry, 100, 24, 60000),
+                new ObjectMapper(), meterRegistry, List.of(DEPOSIT));
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        otherInstance.doFilter(request("key-1", "{\"amount\":10}"), retry, respondWith(200, "{}"));
+
+        assertEquals(1, executions.get());
+        assertEquals(400, retry.getStatus());
+        assertEquals("{\"message\":\"Insufficient funds.\"}", retry.getContentAsString());
+        assertEquals(1.0, meterRegistry.counter("idempotency.lookups", "tier", "mongo").count());
+    }
+
+    @Test
+    void testKeyReusedForAnotherRequestIsRejected() throws Exception {
+        send("key-1", "{\"amount\":10}", respondWith(200, "{}"));
+        MockHttpServletResponse reused = send("key-1", "{\"amount\":99}", respondWith(200, "{}"));
+
+        assertEquals(1, executions.get());
+        assertEquals(422, reused.getStatus());
+    }
+
+    @Test
+    void testRequestStillRunningAnswersConflict() throws Exception {
+        MockHttpServletResponse[] concurrent = new MockHttpServletResponse[1];
+        send("key-1", "{\"amount\":10}", (request, response) -> {
+            executions.incrementAndGet();
+            // The client gives up and retries while the first attempt is still being processed
+            concurrent[0] = send("key-1", "{\"amount\":10}", respondWith(200, "{}"));
+            ((HttpServletResponse) response).setStatus(200);
+        });
+
+        assertEquals(1, executions.get());
+        assertEquals(409, concurrent[0].getStatus());
+    }
+
+    @Test
+    void testServerErrorsAndFallbacksAreNotRemembered() throws Exception {
+        send("key-1", "{\"amount\":10}", respondWith(503, "{}"));
+        send("key-2", "{\"amount\":10}", (request, response) -> {
+            executions.incrementAndGet();
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes((HttpServletRequest) request));
+            try {
+                IdempotencyFilter.doNotRemember();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+            ((HttpServletResponse) response).setStatus(200);
+        });
+
+        send("key-1", "{\"amount\":10}", respondWith(200, "{}"));
+        send("key-2", "{\"amount\":10}", respondWith(200, "{}"));
+
+        assertEquals(4, executions.get());
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    void testEveryAttemptWithAKeySendsTheSameOperationId() throws Exception {
+        List<String> operationIds = new ArrayList<>();
+        FilterChain timesOut = (request, response) -> {
+            operationIds.add(operationIdDuring(request));
+            // e.g. the account call timed out after account-service had applied the change
+            ((HttpServletResponse) response).setStatus(503);
+        };
+        FilterChain succeeds = (request, response) -> {
+            operationIds.add(operationIdDuring(request));
+            ((HttpServletResponse) response).setStatus(200);
+        };
+
+        send("key-1", "{\"amount\":10}", timesOut);
+        send("key-1", "{\"amount\":10}", succeeds);
+        send("key-2", "{\"amount\":10}", succeeds);
+
+        assertEquals(3, operationIds.size());
+        assertNotNull(operationIds.get(0));
+        assertEquals(operationIds.get(0), operationIds.get(1));
+        assertNotEquals(operationIds.get(0), operationIds.get(2));
+    }
+
+    @Test
+    void testAbandonedAttemptDoesNotBlockTheKeyPastItsLease() throws Exception {
+        filter = new IdempotencyFilter(new IdempotencyStore(repository, mongoTemplate, meterRegistry, 100, 24, 50),
+                new ObjectMapper(), meterRegistry, List.of(DEPOSIT));
+        MockHttpServletResponse[] retry = new MockHttpServletResponse[1];
+        send("key-1", "{\"amount\":10}", (request, response) -> {
+            executions.incrementAndGet();
+            // The first attempt hangs past its lease; the record is still there, but the key is free again
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new ServletException(e);
+            }
+            retry[0] = send("key-1", "{\"amount\":10}", respondWith(200, "{}"));
+        });
+
+        assertEquals(2, executions.get());
+        assertEquals(200, retry[0].getStatus());
+    }
+
+    @Test
+    void testRequestsWithoutKeyPassStraightThrough() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = request(null, "{\"amount\":10}");
+            filter.doFilter(request, new MockHttpServletResponse(), respondWith(200, "{}"));
+        }
+
+        assertEquals(2, executions.get());
+        assertEquals(0, repository.count());
+    }
+
+    private static String operationIdDuring(jakarta.servlet.ServletRequest request) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes((HttpServletRequest) request));
+        try {
+            return IdempotencyFilter.operationId();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private MockHttpServletResponse send(String key, String body, FilterChain chain) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(key, body), response, chain);
+        return response;
+    }
+
+    private MockHttpServletRequest request(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", DEPOSIT);
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private FilterChain respondWith(int status, String body) {
+        return (request, response) -> {
+            executions.incrementAndGet();
+            // The controller must still be able to read the body the filter already consumed
+            assertTrue(request.getInputStream().readAllBytes().length > 0);
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(status);
+            http.setContentType("application/json");
+            http.getWriter().write(body);
+        };
+    }
+}
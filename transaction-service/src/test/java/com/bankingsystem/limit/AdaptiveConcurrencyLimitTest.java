@@ -0,0 +1,98 @@
+package com.bankingsystem.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final int WINDOW = 10;
+
+    @Test
+    void testRefusesBeyondTheLimitUntilARequestCompletes() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 2, 2, WINDOW, 0.9);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+
+        limit.release(millis(5), false);
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void testGrowsWhileLatencyStaysFlatAndTheLimitIsUsed() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 200, WINDOW, 0.9);
+
+        for (int i = 0; i < 20; i++) {
+            window(limit, limit.getLimit(), 10, false);
+        }
+
+        assertTrue(limit.getLimit() > 15, "limit " + limit.getLimit());
+    }
+
+    @Test
+    void testDoesNotGrowWhileMostlyIdle() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 200, WINDOW, 0.9);
+
+        for (int i = 0; i < 20; i++) {
+            window(limit, 1, 10, false);
+        }
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    void testShrinksOnceRequestsStartToQueue() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, WINDOW, 0.9);
+        window(limit, 20, 10, false);
+        int before = limit.getLimit();
+
+        for (int i = 0; i < 5; i++) {
+            window(limit, limit.getLimit(), 50, false);
+        }
+
+        assertTrue(limit.getLimit() < before, "limit " + limit.getLimit() + " was " + before);
+    }
+
+    @Test
+    void testFailuresCutTheLimitByTheBackoffRatioDownToTheMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 4, 200, WINDOW, 0.9);
+
+        window(limit, 1, 10, true);
+        assertEquals(90, limit.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            window(limit, 1, 10, true);
+        }
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void testRejectsInconsistentSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(2, 4, 200, WINDOW, 0.9));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(20, 4, 200, WINDOW, 1.0));
+    }
+
+    /** Completes one window of requests, {@code concurrency} of them in flight at a time. */
+    private static void window(AdaptiveConcurrencyLimit limit, int concurrency, long rttMillis, boolean dropped) {
+        int completed = 0;
+        while (completed < WINDOW) {
+            int admitted = 0;
+            while (admitted < concurrency && completed + admitted < WINDOW && limit.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limit.release(millis(rttMillis), dropped);
+            }
+            completed += admitted;
+        }
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,88 @@
+package com.bankingsystem.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private static final String DEPOSIT = "/api/transactions/deposit";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testRequestOverTheLimitIsShedWith503AndRetryAfter() throws Exception {
+        ConcurrencyLimitFilter filter = filter(1, 1, 0.5);
+        AtomicReference<MockHttpServletResponse> shed = new AtomicReference<>();
+
+        // The second deposit arrives while the first one still holds the only slot
+        MockHttpServletResponse first = send(filter, DEPOSIT, (request, response) -> {
+            shed.set(send(filter, DEPOSIT, (r, s) -> fail("must not reach the controller")));
+            assertEquals(1.0, meterRegistry.get("concurrency.in.flight").gauge().value());
+        });
+
+        assertEquals(200, first.getStatus());
+        assertEquals(503, shed.get().getStatus());
+        assertEquals("1", shed.get().getHeader("Retry-After"));
+        assertTrue(shed.get().getContentAsString().contains("\"statusCode\":503"));
+        assertEquals(1.0, meterRegistry.counter("concurrency.rejected").count());
+        assertEquals(0.0, meterRegistry.get("concurrency.in.flight").gauge().value());
+    }
+
+    @Test
+    void testServerErrorsAndFallbacksShrinkTheLimit() throws Exception {
+        ConcurrencyLimitFilter filter = filter(10, 1, 0.5);
+
+        send(filter, DEPOSIT, (request, response) -> ((HttpServletResponse) response).setStatus(504));
+        assertEquals(5.0, meterRegistry.get("concurrency.limit").gauge().value());
+
+        send(filter, DEPOSIT, (request, response) -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes((MockHttpServletRequest) request));
+            try {
+                ConcurrencyLimitFilter.markDropped();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+        assertEquals(2.0, meterRegistry.get("concurrency.limit").gauge().value());
+    }
+
+    @Test
+    void testOtherRequestsAreNotLimited() throws Exception {
+        ConcurrencyLimitFilter filter = filter(1, 1, 0.5);
+        filter.getLimit().tryAcquire();
+
+        MockHttpServletRequest history = new MockHttpServletRequest("GET", "/api/transactions/account/JD1234");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(history, response, (r, s) -> { });
+
+        assertEquals(200, response.getStatus());
+        assertEquals(0.0, meterRegistry.counter("concurrency.rejected").count());
+    }
+
+    private ConcurrencyLimitFilter filter(int limit, int windowSize, double backoffRatio) {
+        return new ConcurrencyLimitFilter(new ObjectMapper(), meterRegistry, List.of(DEPOSIT),
+                limit, 1, limit, windowSize, backoffRatio, 1);
+    }
+
+    private static MockHttpServletResponse send(ConcurrencyLimitFilter filter, String path, FilterChain chain)
+            throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,73 @@
+package com.bankingsystem.model;
+
+import com.bankingsystem.dto.TransferRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountNumberTest {
+
+    private static ValidatorFactory factory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        factory.close();
+    }
+
+    @Test
+    void testIsWellFormed_MatchesTheFormatsAccountServiceIssues() {
+        assertTrue(AccountNumber.Validator.isWellFormed("AL00000125"));
+        assertTrue(AccountNumber.Validator.isWellFormed("X79927398713"));
+        assertTrue(AccountNumber.Validator.isWellFormed("JD1234"));
+        assertTrue(AccountNumber.Validator.isWellFormed("J39999"));     // legacy initial taken from "3rd"
+        assertFalse(AccountNumber.Validator.isWellFormed("AL00000215")); // adjacent digits swapped
+        assertFalse(AccountNumber.Validator.isWellFormed("AL00000126"));
+        assertFalse(AccountNumber.Validator.isWellFormed("0000000125"));
+        assertFalse(AccountNumber.Validator.isWellFormed("JD0123"));
+        assertFalse(AccountNumber.Validator.isWellFormed("J D1234"));
+    }
+
+    @Test
+    void testTransferRequest_NamesTheMistypedLeg() {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccount("AL00000125");
+        request.setDestinationAccount("AL00000215");
+        request.setAmount(Money.of("10.00"));
+
+        Set<String> messages = validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.toSet());
+
+        assertEquals(Set.of("Destination account number is not valid"), messages);
+    }
+
+    @Test
+    void testTransferRequest_BlankAccountReportsOnlyThatItIsRequired() {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccount("");
+        request.setDestinationAccount("JD1234");
+        request.setAmount(Money.of("10.00"));
+
+        Set<String> messages = validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.toSet());
+
+        assertEquals(Set.of("Source account number is required"), messages);
+    }
+}
@@ -0,0 +1,76 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.Transaction;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdMigrationTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "transactions_test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testRepeatedLegacyIdsAreRewrittenBeforeTheUniqueIndexIsBuilt() {
+        Transaction first = save("TXN-20240101120000-123");
+        Transaction second = save("TXN-20240101120000-123");
+        Transaction third = save("TXN-20240101120000-123");
+        Transaction other = save("TXN-20240101120000-456");
+
+        new TransactionIdMigration(mongoTemplate, true).migrate();
+
+        List<Transaction> all = mongoTemplate.find(new Query().with(Sort.by("_id")), Transaction.class);
+        assertEquals(List.of("TXN-20240101120000-123",
+                        "TXN-20240101120000-123-" + second.getId(),
+                        "TXN-20240101120000-123-" + third.getId(),
+                        "TXN-20240101120000-456"),
+                all.stream().map(Transaction::getTransactionId).toList());
+        assertEquals(first.getId(), all.get(0).getId());
+        assertEquals(other.getId(), all.get(3).getId());
+        assertThrows(DuplicateKeyException.class, () -> save("TXN-20240101120000-456"));
+    }
+
+    @Test
+    void testSecondRunLeavesTheDataAlone() {
+        save("TXN-20240101120000-123");
+        TransactionIdMigration migration = new TransactionIdMigration(mongoTemplate, true);
+        migration.migrate();
+
+        migration.migrate();
+
+        assertEquals("TXN-20240101120000-123", mongoTemplate.findAll(Transaction.class).get(0).getTransactionId());
+    }
+
+    private Transaction save(String transactionId) {
+        return mongoTemplate.insert(new Transaction(transactionId, "DEPOSIT", Money.of("10.00"), "SUCCESS", "ACC1"));
+    }
+}
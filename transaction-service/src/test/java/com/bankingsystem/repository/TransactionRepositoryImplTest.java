@@ -0,0 +1,101 @@
+package com.bankingsystem.repository;
+
+import com.bankingsystem.dto.TransactionCursor;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.Transaction;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionRepositoryImplTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private TransactionRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "transactions_test");
+        repository = new TransactionRepositoryImpl(mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testFindHistory_WalksBothSidesNewestFirstWithoutGapsOrDuplicates() {
+        // Two rows per minute so pages have to break timestamp ties on _id
+        for (int i = 0; i < 25; i++) {
+            save(START.plusMinutes(i), "ACC1", "OTHER");
+            save(START.plusMinutes(i), "OTHER", "ACC1");
+        }
+        save(START, "X", "Y");
+
+        List<Transaction> seen = new ArrayList<>();
+        TransactionCursor cursor = null;
+        do {
+            List<Transaction> page = repository.findHistory("ACC1", null, null, cursor, 7);
+            seen.addAll(page);
+            cursor = page.size() < 7 ? null : TransactionCursor.after(page.get(page.size() - 1));
+        } while (cursor != null);
+
+        assertEquals(50, seen.size());
+        assertEquals(50, seen.stream().map(Transaction::getId).distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            assertFalse(seen.get(i).getTimestamp().isAfter(seen.get(i - 1).getTimestamp()));
+        }
+        assertEquals(START.plusMinutes(24), seen.get(0).getTimestamp());
+    }
+
+    @Test
+    void testFindHistory_AppliesDateRange() {
+        for (int i = 0; i < 10; i++) {
+            save(START.plusDays(i), "ACC1", "OTHER");
+        }
+
+        List<Transaction> page = repository.findHistory("ACC1", START.plusDays(3), START.plusDays(6), null, 100);
+
+        assertEquals(List.of(START.plusDays(5), START.plusDays(4), START.plusDays(3)),
+                page.stream().map(Transaction::getTimestamp).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testStreamHistory_ReturnsEveryMatchingRow() {
+        for (int i = 0; i < 300; i++) {
+            save(START.plusSeconds(i), i % 2 == 0 ? "ACC1" : "OTHER", i % 2 == 0 ? "OTHER" : "ACC1");
+        }
+
+        try (Stream<Transaction> rows = repository.streamHistory("ACC1", null, START.plusSeconds(100))) {
+            assertEquals(100, rows.count());
+        }
+    }
+
+    private void save(LocalDateTime timestamp, String source, String destination) {
+        Transaction transaction = new Transaction("TXN", Money.of("10.0"), "SUCCESS", source, destination);
+        transaction.setTimestamp(timestamp);
+        mongoTemplate.save(transaction);
+    }
+}
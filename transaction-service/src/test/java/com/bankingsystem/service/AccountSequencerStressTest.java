@@ -0,0 +1,203 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.client.AccountClient;
+import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.dto.AccountLookupRequest;
+import com.bankingsystem.dto.BalanceRequest;
+import com.bankingsystem.dto.BalanceUpdateResult;
+import com.bankingsystem.dto.BulkBalanceRequest;
+import com.bankingsystem.dto.TransactionRequest;
+import com.bankingsystem.dto.TransferRequest;
+import com.bankingsystem.exception.InsufficientBalanceException;
+import com.bankingsystem.exception.TransferFailedException;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.Transaction;
+import com.bankingsystem.model.TransferSaga;
+import com.bankingsystem.repository.TransactionRepository;
+import com.bankingsystem.repository.TransferSagaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 10,000 concurrent deposits, withdrawals and transfers on five accounts, against an account-service fake
+ * whose balance updates are plain read-then-write with no atomicity of its own. Any two operations on the same
+ * account that overlap lose an update or overdraw the account, so exact final balances show that
+ * {@link TransactionService} sequenced every operation per account.
+ */
+class AccountSequencerStressTest {
+
+    private static final List<String> ACCOUNTS = List.of("ACC1", "ACC2", "ACC3", "ACC4", "ACC5");
+    // Low enough that each account's random walk runs dry again and again, so the funds check is exercised
+    private static final long OPENING_BALANCE = 50;
+    private static final int OPERATIONS = 10_000;
+    private static final int THREADS = 32;
+
+    private final RacyAccountClient accountClient = new RacyAccountClient();
+    private TransferSagaService sagaService;
+    private ParallelAccountLookup accountLookup;
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        TransactionRepository transactionRepository = mock(TransactionRepository.class, withSettings().stubOnly());
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArgument(0));
+        TransferSagaRepository sagaRepository = mock(TransferSagaRepository.class, withSettings().stubOnly());
+        when(sagaRepository.save(any(TransferSaga.class))).thenAnswer(i -> i.getArgument(0));
+        NotificationPublisher notificationPublisher = mock(NotificationPublisher.class, withSettings().stubOnly());
+        TransactionIdGenerator idGenerator = new SnowflakeTransactionIdGenerator(1);
+
+        sagaService = new TransferSagaService(sagaRepository, transactionRepository, accountClient, notificationPublisher,
+                idGenerator, 2, 10, 30000, 60000, false);
+        accountLookup = new ParallelAccountLookup(accountClient, THREADS, 100, 30000, false);
+        transactionService = new TransactionService(transactionRepository, accountClient, notificationPublisher,
+                sagaService, idGenerator, accountLookup, new AccountSequencer(new SimpleMeterRegistry(), 1024, 30000));
+        ACCOUNTS.forEach(account -> accountClient.balances.put(account, units(OPENING_BALANCE)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sagaService.shutdown();
+        accountLookup.shutdown();
+    }
+
+    @Test
+    void testBalancesStayExactUnderConcurrentOperations() throws Exception {
+        // What each account should hold, from the operations that reported success
+        Map<String, LongAdder> expected = new HashMap<>();
+        ACCOUNTS.forEach(account -> expected.put(account, new LongAdder()));
+        LongAdder rejected = new LongAdder();
+
+        List<Callable<Void>> operations = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            operations.add(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                String account = ACCOUNTS.get(random.nextInt(ACCOUNTS.size()));
+                long amount = 1 + random.nextInt(20);
+                try {
+                    switch (random.nextInt(3)) {
+                        case 0 -> {
+                            transactionService.deposit(request(account, amount));
+                            expected.get(account).add(amount);
+                        }
+                        case 1 -> {
+                            transactionService.withdraw(request(account, amount));
+                            expected.get(account).add(-amount);
+                        }
+                        default -> {
+                            String destination = ACCOUNTS.get(random.nextInt(ACCOUNTS.size()));
+                            if (destination.equals(account)) {
+                                return null;
+                            }
+                            assertEquals("Transfer successful", transactionService.transfer(transfer(account, destination, amount)));
+                            expected.get(account).add(-amount);
+                            expected.get(destination).add(amount);
+                        }
+                    }
+                } catch (InsufficientBalanceException | TransferFailedException e) {
+                    rejected.increment();
+                }
+                return null;
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Void> future : pool.invokeAll(operations, 2, TimeUnit.MINUTES)) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (String account : ACCOUNTS) {
+            Money balance = accountClient.balances.get(account);
+            assertEquals(units(OPENING_BALANCE + expected.get(account).sum()), balance, account);
+            assertFalse(balance.isNegative(), account + " was overdrawn");
+        }
+        // Withdrawals and transfers must have run into empty accounts for the funds check to be exercised
+        assertTrue(rejected.sum() > 0);
+    }
+
+    private static TransactionRequest request(String account, long amount) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber(account);
+        request.setAmount(units(amount));
+        return request;
+    }
+
+    private static TransferRequest transfer(String source, String destination, long amount) {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccount(source);
+        request.setDestinationAccount(destination);
+        request.setAmount(units(amount));
+        return request;
+    }
+
+    private static Money units(long amount) {
+        return Money.ofMinor(amount * 100);
+    }
+
+    /**
+     * Reads, yields, then writes back: correct only when calls on the same account never overlap.
+     */
+    private static class RacyAccountClient implements AccountClient {
+
+        final Map<String, Money> balances = new ConcurrentHashMap<>();
+
+        @Override
+        public AccountDTO getAccount(String accountNumber) {
+            AccountDTO account = new AccountDTO();
+            account.setAccountNumber(accountNumber);
+            account.setBalance(balances.get(accountNumber));
+            account.setStatus("ACTIVE");
+            return account;
+        }
+
+        @Override
+        public void updateBalance(String accountNumber, BalanceRequest request) {
+            Money balance = balances.get(accountNumber);
+            Thread.yield();
+            balances.put(accountNumber, balance.plus(request.getAmount()));
+        }
+
+        @Override
+        public AccountDTO debit(String accountNumber, BalanceRequest request) {
+            Money balance = balances.get(accountNumber);
+            if (balance.compareTo(request.getAmount()) < 0) {
+                throw new InsufficientBalanceException("Insufficient funds.");
+            }
+            Thread.yield();
+            balances.put(accountNumber, balance.minus(request.getAmount()));
+            return getAccount(accountNumber);
+        }
+
+        @Override
+        public List<AccountDTO> lookupAccounts(AccountLookupRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<BalanceUpdateResult> updateBalances(BulkBalanceRequest request) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.exception.AccountBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountSequencerTest {
+
+    private final AccountSequencer sequencer = new AccountSequencer(new SimpleMeterRegistry(), 64, 300);
+
+    @Test
+    void testSameAccountRunsOneAtATime() throws Exception {
+        // The locks are not fair, so under CPU load a waiter can be overtaken for a long time. This test is
+        // about mutual exclusion, not waiting time, so give it a timeout it cannot run into.
+        AccountSequencer sequencer = new AccountSequencer(new SimpleMeterRegistry(), 64, 30_000);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> futures = pool.invokeAll(Collections.nCopies(200, () ->
+                    sequencer.withAccount("ACC123", () -> {
+                        if (inside.incrementAndGet() > 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        Thread.yield();
+                        inside.decrementAndGet();
+                        return null;
+                    })));
+            for (Future<Object> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, overlaps.get());
+    }
+
+    @Test
+    void testDifferentAccountsRunInParallel() throws Exception {
+        String other = accountOnAnotherStripe("ACC123");
+        CountDownLatch bothInside = new CountDownLatch(2);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> first = pool.submit(() -> sequencer.withAccount("ACC123", () -> arriveAndAwait(bothInside)));
+            Future<Boolean> second = pool.submit(() -> sequencer.withAccount(other, () -> arriveAndAwait(bothInside)));
+            assertTrue(first.get(2, TimeUnit.SECONDS));
+            assertTrue(second.get(2, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testOppositeTransfersDoNotDeadlock() throws Exception {
+        String other = accountOnAnotherStripe("ACC123");
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // Each side would wait for the other forever if legs were taken in argument order
+            Future<?> forward = pool.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    sequencer.withAccounts(List.of("ACC123", other), () -> null);
+                }
+            });
+            Future<?> backward = pool.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    sequencer.withAccounts(List.of(other, "ACC123"), () -> null);
+                }
+            });
+            forward.get(10, TimeUnit.SECONDS);
+            backward.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAccountsSharingAStripeAreLockedOnce() {
+        String twin = accountOnSameStripe("ACC123");
+        assertEquals("done", sequencer.withAccounts(List.of("ACC123", twin), () -> "done"));
+    }
+
+    @Test
+    void testGivesUpAfterTheLockTimeout() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> sequencer.withAccount("ACC123", () -> {
+            holding.countDown();
+            return awaitQuietly(release);
+        }));
+        holder.start();
+        try {
+            assertTrue(holding.await(1, TimeUnit.SECONDS));
+            assertThrows(AccountBusyException.class, () -> sequencer.withAccount("ACC123", () -> null));
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+        // Nothing was left locked by the failed attempt
+        assertEquals("free", sequencer.withAccount("ACC123", () -> "free"));
+    }
+
+    private String accountOnAnotherStripe(String accountNumber) {
+        for (int i = 0; ; i++) {
+            String candidate = "ACC" + i;
+            if (sequencer.stripeOf(candidate) != sequencer.stripeOf(accountNumber)) {
+                return candidate;
+            }
+        }
+    }
+
+    private String accountOnSameStripe(String accountNumber) {
+        for (int i = 0; ; i++) {
+            String candidate = "ACC" + i;
+            if (!candidate.equals(accountNumber) && sequencer.stripeOf(candidate) == sequencer.stripeOf(accountNumber)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static boolean arriveAndAwait(CountDownLatch latch) {
+        latch.countDown();
+        return awaitQuietly(latch);
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.client.AccountClient;
+import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.dto.BalanceDelta;
+import com.bankingsystem.dto.BalanceUpdateResult;
+import com.bankingsystem.dto.BatchTransferRequest;
+import com.bankingsystem.dto.BatchTransferResponse;
+import com.bankingsystem.dto.BulkBalanceRequest;
+import com.bankingsystem.dto.TransferLegResult;
+import com.bankingsystem.dto.TransferRequest;
+import com.bankingsystem.exception.BatchConflictException;
+import com.bankingsystem.model.BatchRecord;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.RolledBackBatch;
+import com.bankingsystem.model.Transaction;
+import com.bankingsystem.repository.BatchRecordRepository;
+import com.bankingsystem.repository.RolledBackBatchRepository;
+import com.bankingsystem.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchTransferServiceTest {
+
+    @Mock private TransactionRepository transactionRepository;
+    @Mock private AccountClient accountClient;
+    @Mock private NotificationPublisher notificationPublisher;
+    @Mock private RolledBackBatchRepository rolledBackBatchRepository;
+    @Mock private BatchRecordRepository batchRecordRepository;
+    @Spy private TransactionIdGenerator transactionIdGenerator = new SnowflakeTransactionIdGenerator(1);
+    @Spy private AccountSequencer accountSequencer = new AccountSequencer(new SimpleMeterRegistry(), 64, 5000);
+
+    @InjectMocks private BatchTransferService batchTransferService;
+
+    @Test
+    void testTransferBatch_NetsLegsIntoOneBulkCall() {
+        stubAccounts(account("A", Money.of("200.0"), "ACTIVE"), account("B", Money.of("0.0"), "ACTIVE"), account("C", Money.of("0.0"), "ACTIVE"));
+        when(accountClient.updateBalances(any())).thenAnswer(i -> allApplied(i.getArgument(0)));
+
+        BatchTransferResponse response = batchTransferService.transferBatch(batch(
+                leg("A", "B", Money.of("100.0")), leg("B", "C", Money.of("50.0")), leg("A", "C", Money.of("25.0"))));
+
+        assertEquals(3, response.getSucceeded());
+        ArgumentCaptor<BulkBalanceRequest> captor = ArgumentCaptor.forClass(BulkBalanceRequest.class);
+        verify(accountClient, times(1)).lookupAccounts(argThat(r -> r.getAccountNumbers().equals(List.of("A", "B", "C"))));
+        verify(accountClient, never()).getAccount(anyString());
+        verify(accountClient, times(1)).updateBalances(captor.capture());
+        Map<String, Money> deltas = captor.getValue().getDeltas().stream()
+                .collect(Collectors.toMap(BalanceDelta::getAccountNumber, BalanceDelta::getAmount));
+        assertEquals(Map.of("A", Money.of("-125.0"), "B", Money.of("50.0"), "C", Money.of("75.0")), deltas);
+        verify(accountClient, never()).updateBalance(anyString(), any());
+        verify(transactionRepository).saveAll(argThat(t -> ((List<?>) t).size() == 3));
+        verify(accountSequencer).withAccounts(eq(List.of("A", "B", "C")), any());
+    }
+
+    @Test
+    void testTransferBatch_RejectsOnlyInvalidLegs() {
+        stubAccounts(account("A", Money.of("100.0"), "ACTIVE"), account("B", Money.of("0.0"), "ACTIVE"), account("OFF", Money.of("0.0"), "INACTIVE"));
+        when(accountClient.updateBalances(any())).thenAnswer(i -> allApplied(i.getArgument(0)));
+
+        BatchTransferResponse response = batchTransferService.transferBatch(batch(
+                leg("A", "B", Money.of("80.0")), leg("A", "B", Money.of("30.0")), leg("A", "OFF", Money.of("10.0")),
+                leg("A", "NONE", Money.of("10.0")), leg("B", "B", Money.of("5.0"))));
+
+        assertEquals(List.of("SUCCESS", "REJECTED", "REJECTED", "REJECTED", "REJECTED"),
+                response.getLegs().stream().map(l -> l.getStatus()).toList());
+        assertEquals("Insufficient funds in source account.", response.getLegs().get(1).getMessage());
+    }
+
+    @Test
+    void testTransferBatch_ReversesAppliedDeltasWhenAnyAccountRejects() {
+        stubAccounts(account("A", Money.of("100.0"), "ACTIVE"), account("B", Money.of("0.0"), "ACTIVE"));
+        when(accountClient.updateBalances(argThat(r -> r != null && !r.getOperationId().endsWith("-REVERSAL"))))
+                .thenReturn(List.of(new BalanceUpdateResult("A", false, Money.of("10.0"), "INSUFFICIENT_FUNDS"),
+                        new BalanceUpdateResult("B", true, Money.of("60.0"), null)));
+        when(accountClient.updateBalances(argThat(r -> r != null && r.getOperationId().endsWith("-REVERSAL"))))
+                .thenReturn(List.of(new BalanceUpdateResult("B", true, Money.of("0.0"), null)));
+
+        BatchTransferResponse response = batchTransferService.transferBatch(batch(leg("A", "B", Money.of("60.0"))));
+
+        assertEquals(0, response.getSucceeded());
+        assertEquals("FAILED", response.getLegs().get(0).getStatus());
+        verify(accountClient).updateBalances(argThat(r -> r != null && r.getOperationId().endsWith("-REVERSAL")
+                && r.getDeltas().size() == 1 && r.getDeltas().get(0).getAmount().equals(Money.of("-60.0"))));
+        InOrder order = inOrder(rolledBackBatchRepository, accountClient);
+        order.verify(rolledBackBatchRepository).save(argThat(b -> b.getReversal().equals(Map.of("B", -6000L))));
+        order.verify(accountClient).updateBalances(argThat(r -> r != null && r.getOperationId().endsWith("-REVERSAL")));
+    }
+
+    @Test
+    void testTransferBatch_RefusesARolledBackBatchIdAndRepostsItsReversal() {
+        when(rolledBackBatchRepository.findById("PAYROLL-1"))
+                .thenReturn(Optional.of(new RolledBackBatch("PAYROLL-1", Map.of("B", -6000L))));
+        when(accountClient.updateBalances(any())).thenAnswer(i -> allApplied(i.getArgument(0)));
+
+        BatchTransferRequest request = batch(leg("A", "B", Money.of("60.0")), leg("C", "D", Money.of("5.0")));
+        request.setBatchId("PAYROLL-1");
+        BatchTransferResponse response = batchTransferService.transferBatch(request);
+
+        assertEquals(0, response.getSucceeded());
+        assertTrue(response.getLegs().stream().allMatch(l -> "REJECTED".equals(l.getStatus())));
+        // Only the idempotent reversal goes out; the batch itself is never applied to the accounts it missed
+        verify(accountClient).updateBalances(argThat(r -> r.getOperationId().equals("PAYROLL-1-REVERSAL")
+                && r.getDeltas().get(0).getAmount().equals(Money.of("-60.0"))));
+        verify(accountClient, never()).updateBalances(argThat(r -> r.getOperationId().equals("PAYROLL-1")));
+        verify(accountClient, never()).lookupAccounts(any());
+    }
+
+    @Test
+    void testTransferBatch_ResubmissionReplaysTheRecordedOutcome() {
+        storeBatchesInMemory();
+        stubAccounts(account("A", Money.of("100.0"), "ACTIVE"), account("B", Money.of("0.0"), "ACTIVE"));
+        when(accountClient.updateBalances(any())).thenAnswer(i -> allApplied(i.getArgument(0)));
+
+        BatchTransferRequest request = batch(leg("A", "B", Money.of("60.0")), leg("A", "B", Money.of("60.0")));
+        request.setBatchId("PAYROLL-2024-06");
+        BatchTransferResponse first = batchTransferService.transferBatch(request);
+        BatchTransferResponse second = batchTransferService.transferBatch(request);
+
+        assertEquals(List.of("SUCCESS", "REJECTED"), second.getLegs().stream().map(TransferLegResult::getStatus).toList());
+        assertEquals("Insufficient funds in source account.", second.getLegs().get(1).getMessage());
+        assertEquals(first.getLegs().stream().map(TransferLegResult::getTransactionId).toList(),
+                second.getLegs().stream().map(TransferLegResult::getTransactionId).toList());
+        verify(accountClient, times(1)).lookupAccounts(any());
+        verify(accountClient, times(1)).updateBalances(any());
+        verify(transactionRepository, times(1)).saveAll(any());
+        verify(notificationPublisher, times(1)).publish(anyString());
+    }
+
+    @Test
+    void testTransferBatch_RefusesABatchIdReusedForOtherTransfers() {
+        storeBatchesInMemory();
+        stubAccounts(account("A", Money.of("100.0"), "ACTIVE"), account("B", Money.of("0.0"), "ACTIVE"));
+        when(accountClient.updateBalances(any())).thenAnswer(i -> allApplied(i.getArgument(0)));
+
+        BatchTransferRequest june = batch(leg("A", "B", Money.of("60.0")));
+        june.setBatchId("PAYROLL-2024-06");
+        batchTransferService.transferBatch(june);
+        BatchTransferRequest reused = batch(leg("A", "B", Money.of("25.0")));
+        reused.setBatchId("PAYROLL-2024-06");
+
+        assertThrows(BatchConflictException.class, () -> batchTransferService.transferBatch(reused));
+        verify(accountClient, times(1)).updateBalances(any());
+        verify(transactionRepository, times(1)).saveAll(any());
+        verify(notificationPublisher, times(1)).publish(anyString());
+    }
+
+    @Test
+    void testTransferBatch_RunAgainAfterACrashKeepsItsTransactionIdsAndRows() {
+        Map<String, BatchRecord> batches = storeBatchesInMemory();
+        stubAccounts(account("A", Money.of("100.0"), "ACTIVE"), account("B", Money.of("0.0"), "ACTIVE"));
+        when(accountClient.updateBalances(any())).thenAnswer(i -> allApplied(i.getArgument(0)));
+        ArgumentCaptor<List<Transaction>> saved = ArgumentCaptor.forClass(List.class);
+        // The first run saves its transactions and dies before recording the outcome
+        when(transactionRepository.saveAll(saved.capture()))
+                .thenThrow(new IllegalStateException("instance stopped"))
+                .thenAnswer(i -> i.getArgument(0));
+
+        BatchTransferRequest request = batch(leg("A", "B", Money.of("60.0")));
+        request.setBatchId("B-1");
+        assertThrows(IllegalStateException.class, () -> batchTransferService.transferBatch(request));
+        List<Transaction> firstRows = List.copyOf(saved.getValue());
+        when(transactionRepository.findByTransactionIdIn(any())).thenReturn(firstRows);
+        BatchTransferResponse response = batchTransferService.transferBatch(request);
+
+        assertEquals(firstRows.get(0).getTransactionId(), response.getLegs().get(0).getTransactionId());
+        assertEquals("SUCCESS", response.getLegs().get(0).getStatus());
+        assertTrue(saved.getValue().isEmpty());
+        assertTrue(batches.get("B-1").isCompleted());
+        verify(accountClient, times(2)).updateBalances(argThat(r -> r.getOperationId().equals("B-1")));
+    }
+
+    private Map<String, BatchRecord> storeBatchesInMemory() {
+        Map<String, BatchRecord> batches = new HashMap<>();
+        when(batchRecordRepository.insert(any(BatchRecord.class))).thenAnswer(i -> {
+            BatchRecord record = i.getArgument(0);
+            if (batches.putIfAbsent(record.getBatchId(), record) != null) {
+                throw new DuplicateKeyException(record.getBatchId());
+            }
+            return record;
+        });
+        lenient().when(batchRecordRepository.findById(anyString()))
+                .thenAnswer(i -> Optional.ofNullable(batches.get(i.<String>getArgument(0))));
+        return batches;
+    }
+
+    private void stubAccounts(AccountDTO... accounts) {
+        when(accountClient.lookupAccounts(any())).thenReturn(List.of(accounts));
+    }
+
+    private AccountDTO account(String accountNumber, Money balance, String status) {
+        AccountDTO account = new AccountDTO();
+        account.setAccountNumber(accountNumber);
+        account.setBalance(balance);
+        account.setStatus(status);
+        return account;
+    }
+
+    private List<BalanceUpdateResult> allApplied(BulkBalanceRequest request) {
+        return request.getDeltas().stream()
+                .map(d -> new BalanceUpdateResult(d.getAccountNumber(), true, null, null))
+                .toList();
+    }
+
+    private BatchTransferRequest batch(TransferRequest... legs) {
+        BatchTransferRequest request = new BatchTransferRequest();
+        request.setTransfers(List.of(legs));
+        return request;
+    }
+
+    private TransferRequest leg(String source, String destination, Money amount) {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccount(source);
+        request.setDestinationAccount(destination);
+        request.setAmount(amount);
+        return request;
+    }
+}
@@ -0,0 +1,105 @@
+package com.bankingsystem.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeIdLeaseTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "transactions_test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void testInstancesNeverShareANodeId() {
+        holdAllExcept(Set.of(5, 6, 7));
+
+        Set<Integer> leased = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            leased.add(new NodeIdLease(mongoTemplate, 600_000).acquire(id -> { }));
+        }
+
+        assertEquals(Set.of(5, 6, 7), leased);
+        NodeIdLease oneTooMany = new NodeIdLease(mongoTemplate, 600_000);
+        assertThrows(IllegalStateException.class, () -> oneTooMany.acquire(id -> { }));
+    }
+
+    @Test
+    void testReleasedAndExpiredNodeIdsAreLeasedAgain() {
+        holdAllExcept(Set.of(20));
+        NodeIdLease stopped = new NodeIdLease(mongoTemplate, 600_000);
+        assertEquals(20, stopped.acquire(id -> { }));
+        stopped.release();
+        // Left behind by an instance that died without giving it back
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(10)),
+                Update.update("expiresAt", Instant.now().minusSeconds(1)), NodeIdLease.COLLECTION);
+
+        Set<Integer> reused = Set.of(new NodeIdLease(mongoTemplate, 600_000).acquire(id -> { }),
+                new NodeIdLease(mongoTemplate, 600_000).acquire(id -> { }));
+
+        assertEquals(Set.of(10, 20), reused);
+    }
+
+    @Test
+    void testLostLeaseIsReplacedAndTheGeneratorTold() {
+        NodeIdLease lease = new NodeIdLease(mongoTemplate, 600_000);
+        AtomicInteger current = new AtomicInteger(-1);
+        int first = lease.acquire(current::set);
+        // Another instance took the id after this one's lease ran out
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(first)),
+                Update.update("owner", "someone-else"), NodeIdLease.COLLECTION);
+
+        lease.renew();
+
+        assertNotEquals(-1, current.get());
+        assertNotEquals(first, current.get());
+        Document held = mongoTemplate.findById(current.get(), Document.class, NodeIdLease.COLLECTION);
+        assertNotNull(held);
+        assertNotEquals("someone-else", held.getString("owner"));
+    }
+
+    private void holdAllExcept(Set<Integer> free) {
+        List<Document> held = new ArrayList<>();
+        for (int id = 0; id <= SnowflakeTransactionIdGenerator.MAX_NODE_ID; id++) {
+            if (!free.contains(id)) {
+                held.add(new Document("_id", id).append("owner", "other").append("expiresAt",
+                        Date.from(Instant.now().plusSeconds(3600))));
+            }
+        }
+        mongoTemplate.insert(held, NodeIdLease.COLLECTION);
+    }
+}
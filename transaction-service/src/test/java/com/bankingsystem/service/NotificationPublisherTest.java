@@ -0,0 +1,123 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.client.NotificationClient;
+import com.bankingsystem.model.SpilledNotification;
+import com.bankingsystem.repository.SpilledNotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPublisherTest {
+
+    @Mock private NotificationClient notificationClient;
+    @Mock private SpilledNotificationRepository spillRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NotificationPublisher publisher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        publisher.stop();
+    }
+
+    @Test
+    void testPublish_DeliversInBatches() throws Exception {
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch gate = new CountDownLatch(1);
+        doAnswer(i -> {
+            gate.await(5, TimeUnit.SECONDS);
+            delivered.addAll(i.getArgument(0));
+            return null;
+        }).when(notificationClient).sendNotifications(anyList());
+        publisher = publisher(1000, NotificationPublisher.OverflowPolicy.DROP_NEWEST);
+        publisher.start();
+
+        for (int i = 0; i < 250; i++) {
+            publisher.publish("message-" + i);
+        }
+        gate.countDown();
+
+        verify(notificationClient, timeout(5000).atLeast(3)).sendNotifications(anyList());
+        verify(notificationClient, atMost(250)).sendNotifications(anyList());
+        waitUntil(() -> delivered.size() == 250);
+        assertEquals("message-0", delivered.get(0));
+        assertEquals(250.0, meterRegistry.counter("notifications.dispatched").count());
+        verify(notificationClient, never()).sendNotification(anyString());
+    }
+
+    @Test
+    void testPublish_SpillsWhenQueueIsFull() {
+        publisher = publisher(2, NotificationPublisher.OverflowPolicy.SPILL);
+        // Dispatcher not started, so the queue fills up
+
+        publisher.publish("a");
+        publisher.publish("b");
+        publisher.publish("c");
+
+        ArgumentCaptor<List<SpilledNotification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(spillRepository).saveAll(captor.capture());
+        assertEquals("c", captor.getValue().get(0).getMessage());
+        assertEquals(2, publisher.queueDepth());
+        assertEquals(1.0, meterRegistry.counter("notifications.spilled").count());
+    }
+
+    @Test
+    void testPublish_DropOldestKeepsNewestMessages() {
+        publisher = publisher(2, NotificationPublisher.OverflowPolicy.DROP_OLDEST);
+
+        publisher.publish("a");
+        publisher.publish("b");
+        publisher.publish("c");
+
+        assertEquals(2, publisher.queueDepth());
+        assertEquals(1.0, meterRegistry.counter("notifications.dropped", "reason", "overflow").count());
+        verifyNoInteractions(spillRepository);
+    }
+
+    @Test
+    void testDispatch_UndeliverableBatchIsSpilledAndReplayed() throws Exception {
+        doThrow(new RuntimeException("notification-service down"))
+                .doThrow(new RuntimeException("notification-service down"))
+                .doNothing()
+                .when(notificationClient).sendNotifications(anyList());
+        SpilledNotification spilled = new SpilledNotification("lost");
+        when(spillRepository.findTop100ByOrderByCreatedAtAsc()).thenReturn(List.of(spilled), List.of());
+        publisher = publisher(10, NotificationPublisher.OverflowPolicy.SPILL);
+        publisher.publish("lost");
+
+        publisher.start();
+
+        verify(spillRepository, timeout(5000)).saveAll(anyList());
+        verify(spillRepository, timeout(5000)).deleteAll(List.of(spilled));
+        assertEquals(1.0, meterRegistry.counter("notifications.replayed").count());
+    }
+
+    private NotificationPublisher publisher(int capacity, NotificationPublisher.OverflowPolicy policy) {
+        return new NotificationPublisher(notificationClient, spillRepository, meterRegistry,
+                capacity, 100, 10, 0, 2, policy);
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
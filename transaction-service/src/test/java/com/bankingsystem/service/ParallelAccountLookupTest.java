@@ -0,0 +1,113 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.client.AccountClient;
+import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.exception.AccountLookupTimeoutException;
+import com.bankingsystem.model.Money;
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelAccountLookupTest {
+
+    @Mock private AccountClient accountClient;
+
+    private ParallelAccountLookup lookup;
+
+    @BeforeEach
+    void setUp() {
+        lookup = new ParallelAccountLookup(accountClient, 2, 10, 500, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lookup.shutdown();
+    }
+
+    @Test
+    void testGetAccounts_RunsConcurrentlyAndKeepsRequestOrder() {
+        // Each lookup waits for the other to start, so this only completes if they overlap
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(accountClient.getAccount(anyString())).thenAnswer(i -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(1, TimeUnit.SECONDS));
+            return account(i.getArgument(0));
+        });
+
+        List<AccountDTO> accounts = lookup.getAccounts("ACC123", "ACC999");
+
+        assertEquals("ACC123", accounts.get(0).getAccountNumber());
+        assertEquals("ACC999", accounts.get(1).getAccountNumber());
+    }
+
+    @Test
+    void testGetAccounts_FirstFailureCancelsTheOtherLookup() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(accountClient.getAccount("ACC123")).thenAnswer(i -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return account("ACC123");
+        });
+        // Fail only once the slow lookup is running; cancelled before it starts, it would never be interrupted
+        when(accountClient.getAccount("ACC999")).thenAnswer(i -> {
+            started.await(1, TimeUnit.SECONDS);
+            throw notFound();
+        });
+
+        long start = System.nanoTime();
+        assertThrows(FeignException.NotFound.class, () -> lookup.getAccounts("ACC123", "ACC999"));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(400), "should not wait for the slow lookup");
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "slow lookup should have been cancelled");
+    }
+
+    @Test
+    void testGetAccounts_SharedDeadline() {
+        when(accountClient.getAccount(anyString())).thenAnswer(i -> {
+            Thread.sleep(300);
+            return account(i.getArgument(0));
+        });
+
+        // 300 ms each fits the 500 ms budget in parallel, but not one after the other
+        assertEquals(2, lookup.getAccounts("ACC123", "ACC999").size());
+
+        when(accountClient.getAccount("ACC999")).thenAnswer(i -> {
+            Thread.sleep(2_000);
+            return account("ACC999");
+        });
+        assertThrows(AccountLookupTimeoutException.class, () -> lookup.getAccounts("ACC123", "ACC999"));
+    }
+
+    private AccountDTO account(String accountNumber) {
+        AccountDTO account = new AccountDTO();
+        account.setAccountNumber(accountNumber);
+        account.setBalance(Money.of("1000.0"));
+        return account;
+    }
+
+    private FeignException notFound() {
+        Request request = Request.create(Request.HttpMethod.GET, "/api/accounts/ACC999", Collections.emptyMap(),
+                null, StandardCharsets.UTF_8, null);
+        return new FeignException.NotFound("Account not found", request, null, Collections.emptyMap());
+    }
+}
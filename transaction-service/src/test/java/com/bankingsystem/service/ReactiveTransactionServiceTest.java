@@ -0,0 +1,177 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.client.ReactiveAccountClient;
+import com.bankingsystem.dto.AccountDTO;
+import com.bankingsystem.dto.BalanceRequest;
+import com.bankingsystem.dto.TransactionRequest;
+import com.bankingsystem.dto.TransferRequest;
+import com.bankingsystem.exception.InsufficientBalanceException;
+import com.bankingsystem.exception.InvalidAccountException;
+import com.bankingsystem.exception.TransferFailedException;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.SagaState;
+import com.bankingsystem.model.Transaction;
+import com.bankingsystem.model.TransferSaga;
+import com.bankingsystem.repository.ReactiveTransactionRepository;
+import com.bankingsystem.repository.ReactiveTransferSagaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveTransactionServiceTest {
+
+    @Mock private ReactiveTransactionRepository transactionRepository;
+    @Mock private ReactiveTransferSagaRepository sagaRepository;
+    @Mock private ReactiveAccountClient accountClient;
+    @Mock private NotificationPublisher notificationPublisher;
+
+    private ReactiveTransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = new ReactiveTransactionService(transactionRepository, sagaRepository, accountClient,
+                notificationPublisher, new SnowflakeTransactionIdGenerator(1), 30000, 60000);
+        lenient().when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> Mono.just(i.getArguments()[0]));
+        lenient().when(sagaRepository.save(any(TransferSaga.class))).thenAnswer(i -> Mono.just(i.getArguments()[0]));
+    }
+
+    @Test
+    void testDeposit_Success() {
+        when(accountClient.updateBalance(eq("ACC123"), any(BalanceRequest.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(transactionService.deposit(request("ACC123", Money.of("500.0"))))
+                .assertNext(txn -> {
+                    assertEquals("SUCCESS", txn.getStatus());
+                    assertEquals("DEPOSIT", txn.getType());
+                })
+                .verifyComplete();
+        verify(notificationPublisher).publish(anyString());
+    }
+
+    @Test
+    void testWithdraw_InsufficientFundsLogsFailure() {
+        when(accountClient.debit(eq("ACC123"), any(BalanceRequest.class)))
+                .thenReturn(Mono.error(new InsufficientBalanceException("Insufficient funds.")));
+
+        StepVerifier.create(transactionService.withdraw(request("ACC123", Money.of("5000.0"))))
+                .verifyError(InsufficientBalanceException.class);
+        verify(transactionRepository).save(argThat(t -> t.getStatus().equals("FAILED")));
+        verifyNoInteractions(notificationPublisher);
+    }
+
+    @Test
+    void testTransfer_DebitsThenCreditsWithPerStepOperationIds() {
+        accounts(Money.of("1000.0"));
+        when(accountClient.debit(eq("ACC123"), any())).thenReturn(Mono.just(account("ACC123", Money.of("900.0"))));
+        when(accountClient.updateBalance(eq("ACC999"), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(transactionService.transfer(transfer(Money.of("100.0"))))
+                .expectNext("Transfer successful")
+                .verifyComplete();
+
+        ArgumentCaptor<TransferSaga> saved = ArgumentCaptor.forClass(TransferSaga.class);
+        verify(sagaRepository, atLeastOnce()).save(saved.capture());
+        TransferSaga saga = saved.getValue();
+        assertEquals(SagaState.CREDITED, saga.getState());
+        assertNull(saga.getLockedUntil());
+        verify(accountClient).debit(eq("ACC123"), argThat(r -> r.getOperationId().equals(saga.getId() + ":debit")));
+        verify(accountClient).updateBalance(eq("ACC999"), argThat(r -> r.getOperationId().equals(saga.getId() + ":credit")));
+        verify(transactionRepository).save(argThat(t -> t.getStatus().equals("SUCCESS") && t.getId().equals(saga.getId())));
+        verify(notificationPublisher).publish(anyString());
+    }
+
+    @Test
+    void testTransfer_RejectedCreditIsCompensated() {
+        accounts(Money.of("1000.0"));
+        when(accountClient.debit(eq("ACC123"), any())).thenReturn(Mono.just(account("ACC123", Money.of("900.0"))));
+        when(accountClient.updateBalance(eq("ACC999"), any())).thenReturn(Mono.error(
+                WebClientResponseException.create(HttpStatus.CONFLICT.value(), "Conflict", null, null, null)));
+        when(accountClient.updateBalance(eq("ACC123"), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(transactionService.transfer(transfer(Money.of("100.0"))))
+                .verifyError(TransferFailedException.class);
+        verify(accountClient).updateBalance(eq("ACC123"), argThat(r -> r.getOperationId().endsWith(":compensate")));
+        verify(transactionRepository).save(argThat(t -> t.getStatus().equals("FAILED")));
+    }
+
+    @Test
+    void testTransfer_TransientFailureIsLeftForRecovery() {
+        accounts(Money.of("1000.0"));
+        when(accountClient.debit(eq("ACC123"), any())).thenReturn(Mono.error(
+                WebClientResponseException.create(HttpStatus.SERVICE_UNAVAILABLE.value(), "Unavailable", null, null, null)));
+
+        StepVerifier.create(transactionService.transfer(transfer(Money.of("100.0"))))
+                .assertNext(message -> assertTrue(message.startsWith("Transfer accepted")))
+                .verifyComplete();
+        verify(sagaRepository, atLeastOnce()).save(argThat(s -> s.getAttempts() == 1 && s.getNextAttemptAt() != null));
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void testTransfer_SameAccount() {
+        TransferRequest request = transfer(Money.of("100.0"));
+        request.setDestinationAccount("ACC123");
+
+        StepVerifier.create(transactionService.transfer(request))
+                .verifyError(InvalidAccountException.class);
+        verify(sagaRepository, never()).save(any());
+    }
+
+    @Test
+    void testTransfer_FailedLookupCancelsTheOtherOne() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        when(accountClient.getAccount("ACC123")).thenReturn(Mono.<AccountDTO>never().doOnCancel(() -> cancelled.set(true)));
+        when(accountClient.getAccount("ACC999")).thenReturn(Mono.error(
+                WebClientResponseException.create(HttpStatus.NOT_FOUND.value(), "Not Found", null, null, null)));
+
+        StepVerifier.create(transactionService.transfer(transfer(Money.of("100.0"))))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify(Duration.ofSeconds(5));
+        assertTrue(cancelled.get());
+        verify(sagaRepository, never()).save(any());
+    }
+
+    private void accounts(Money sourceBalance) {
+        when(accountClient.getAccount("ACC123")).thenReturn(Mono.just(account("ACC123", sourceBalance)));
+        when(accountClient.getAccount("ACC999")).thenReturn(Mono.just(account("ACC999", Money.of("0.0"))));
+    }
+
+    private AccountDTO account(String accountNumber, Money balance) {
+        AccountDTO account = new AccountDTO();
+        account.setAccountNumber(accountNumber);
+        account.setBalance(balance);
+        account.setStatus("ACTIVE");
+        return account;
+    }
+
+    private TransactionRequest request(String accountNumber, Money amount) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber(accountNumber);
+        request.setAmount(amount);
+        return request;
+    }
+
+    private TransferRequest transfer(Money amount) {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccount("ACC123");
+        request.setDestinationAccount("ACC999");
+        request.setAmount(amount);
+        return request;
+    }
+}
@@ -0,0 +1,91 @@
+package com.bankingsystem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeTransactionIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 500_000;
+
+    @Test
+    void testNextLong_UniqueAndIncreasingAcrossThreads() throws Exception {
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(7);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                long[] ids = new long[IDS_PER_THREAD];
+                start.await();
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generator.nextLong();
+                }
+                return ids;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        int position = 0;
+        for (Future<long[]> future : futures) {
+            long[] ids = future.get();
+            for (int i = 1; i < ids.length; i++) {
+                assertTrue(ids[i] > ids[i - 1], "IDs from one thread must be strictly increasing");
+            }
+            System.arraycopy(ids, 0, all, position, ids.length);
+            position += ids.length;
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+        pool.shutdown();
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "duplicate id " + all[i]);
+        }
+        System.out.printf("Generated %,d unique ids on %d threads in %.3f s (%,.0f ids/s)%n",
+                all.length, THREADS, seconds, all.length / seconds);
+        // Never more than 4096 ids per millisecond, so the embedded timestamps cannot run ahead of the clock
+        long lastMillis = all[all.length - 1] >>> (SnowflakeTransactionIdGenerator.NODE_BITS + SnowflakeTransactionIdGenerator.SEQUENCE_BITS);
+        assertTrue(lastMillis <= System.currentTimeMillis() - SnowflakeTransactionIdGenerator.EPOCH_MILLIS);
+    }
+
+    @Test
+    void testNextId_SortsLikeTheUnderlyingNumber() {
+        SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(0);
+
+        String first = generator.nextId();
+        String second = generator.nextId();
+
+        assertTrue(first.startsWith("TXN-"));
+        assertEquals(17, first.length());
+        assertTrue(first.compareTo(second) < 0);
+        assertEquals("TXN-0000000000000", SnowflakeTransactionIdGenerator.format(0));
+        assertEquals("TXN-7ZZZZZZZZZZZZ", SnowflakeTransactionIdGenerator.format(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testNextLong_NodesNeverCollide() {
+        long a = new SnowflakeTransactionIdGenerator(1).nextLong();
+        long b = new SnowflakeTransactionIdGenerator(2).nextLong();
+
+        assertNotEquals(a, b);
+        assertEquals(1, (a >>> SnowflakeTransactionIdGenerator.SEQUENCE_BITS) & SnowflakeTransactionIdGenerator.MAX_NODE_ID);
+        assertEquals(2, (b >>> SnowflakeTransactionIdGenerator.SEQUENCE_BITS) & SnowflakeTransactionIdGenerator.MAX_NODE_ID);
+    }
+
+    @Test
+    void testConstructor_RejectsOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeTransactionIdGenerator(1024));
+    }
+}
@@ -1,25 +1,37 @@
 package com.bankingsystem.service;
 
 import com.bankingsystem.client.AccountClient;
-import com.bankingsystem.client.NotificationClient;
 import com.bankingsystem.dto.AccountDTO;
 import com.bankingsystem.dto.BalanceRequest;
+import com.bankingsystem.dto.TransactionCursor;
+import com.bankingsystem.dto.TransactionPage;
 import com.bankingsystem.dto.TransactionRequest;
 import com.bankingsystem.dto.TransferRequest;
 import com.bankingsystem.exception.InsufficientBalanceException;
 import com.bankingsystem.exception.InvalidAccountException;
+import com.bankingsystem.exception.InvalidHistoryQueryException;
+import com.bankingsystem.exception.TransferFailedException;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.SagaState;
 import com.bankingsystem.model.Transaction;
+import com.bankingsystem.model.TransferSaga;
 import com.bankingsystem.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,26 +39,38 @@ class TransactionServiceTest {
 
     @Mock private TransactionRepository transactionRepository;
     @Mock private AccountClient accountClient;
-    @Mock private NotificationClient notificationClient;
+    @Mock private NotificationPublisher notificationPublisher;
+    @Spy private TransactionIdGenerator transactionIdGenerator = new SnowflakeTransactionIdGenerator(1);
+    @Mock private TransferSagaService transferSagaService;
 
-    @InjectMocks private TransactionService transactionService;
+    private ParallelAccountLookup accountLookup;
+    private TransactionService transactionService;
 
     private AccountDTO mockAccount;
 
     @BeforeEach
     void setUp() {
+        accountLookup = new ParallelAccountLookup(accountClient, 2, 10, 1000, false);
+        transactionService = new TransactionService(transactionRepository, accountClient, notificationPublisher,
+                transferSagaService, transactionIdGenerator, accountLookup,
+                new AccountSequencer(new SimpleMeterRegistry(), 16, 1000));
         mockAccount = new AccountDTO();
         mockAccount.setAccountNumber("ACC123");
-        mockAccount.setBalance(1000.0);
+        mockAccount.setBalance(Money.of("1000.0"));
         mockAccount.setStatus("ACTIVE");
     }
 
+    @AfterEach
+    void tearDown() {
+        accountLookup.shutdown();
+    }
+
     // --- 1. Deposit Tests ---
     @Test
     void testDeposit_Success() {
         TransactionRequest request = new TransactionRequest();
         request.setAccountNumber("ACC123");
-        request.setAmount(500.0);
+        request.setAmount(Money.of("500.0"));
 
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArguments()[0]);
 
@@ -55,7 +79,7 @@ class TransactionServiceTest {
         assertEquals("SUCCESS", txn.getStatus());
         assertEquals("DEPOSIT", txn.getType());
         verify(accountClient).updateBalance(eq("ACC123"), any(BalanceRequest.class));
-        verify(notificationClient).sendNotification(anyString());
+        verify(notificationPublisher).publish(anyString());
     }
 
     // --- 2. Withdraw Tests ---
@@ -63,25 +87,28 @@ class TransactionServiceTest {
     void testWithdraw_Success() {
         TransactionRequest request = new TransactionRequest();
         request.setAccountNumber("ACC123");
-        request.setAmount(500.0);
+        request.setAmount(Money.of("500.0"));
 
-        when(accountClient.getAccount("ACC123")).thenReturn(mockAccount);
+        when(accountClient.debit(eq("ACC123"), any(BalanceRequest.class))).thenReturn(mockAccount);
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArguments()[0]);
 
         Transaction txn = transactionService.withdraw(request);
 
         assertEquals("SUCCESS", txn.getStatus());
         assertEquals("WITHDRAW", txn.getType());
-        verify(accountClient).updateBalance(eq("ACC123"), any(BalanceRequest.class));
+        verify(accountClient).debit(eq("ACC123"), argThat(r -> r.getAmount().equals(Money.of("500.0"))));
+        verify(accountClient, never()).getAccount(anyString());
+        verify(accountClient, never()).updateBalance(anyString(), any());
     }
 
     @Test
     void testWithdraw_InsufficientFunds() {
         TransactionRequest request = new TransactionRequest();
         request.setAccountNumber("ACC123");
-        request.setAmount(5000.0); // More than 1000
+        request.setAmount(Money.of("5000.0")); // More than 1000
 
-        when(accountClient.getAccount("ACC123")).thenReturn(mockAccount);
+        when(accountClient.debit(eq("ACC123"), any(BalanceRequest.class)))
+                .thenThrow(new InsufficientBalanceException("Insufficient funds. Available: 1000.0"));
         // We mock save() because our service now logs "FAILED" before throwing exception
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArguments()[0]);
 
@@ -97,15 +124,48 @@ class TransactionServiceTest {
         TransferRequest request = new TransferRequest();
         request.setSourceAccount("ACC123");
         request.setDestinationAccount("ACC999");
-        request.setAmount(100.0);
+        request.setAmount(Money.of("100.0"));
 
         when(accountClient.getAccount("ACC123")).thenReturn(mockAccount);
-        when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArguments()[0]);
+        // Looked up concurrently with the source, so it needs a stub of its own under strict stubbing
+        when(accountClient.getAccount("ACC999")).thenReturn(new AccountDTO());
+        when(transferSagaService.execute(request, null)).thenReturn(saga(SagaState.CREDITED));
 
         String result = transactionService.transfer(request);
 
         assertEquals("Transfer successful", result);
-        verify(accountClient, times(2)).updateBalance(anyString(), any(BalanceRequest.class));
+        verify(accountClient).getAccount("ACC999");
+        verify(transferSagaService).execute(request, null);
+    }
+
+    @Test
+    void testTransfer_CompensatedSagaIsReportedAsFailure() {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccount("ACC123");
+        request.setDestinationAccount("ACC999");
+        request.setAmount(Money.of("100.0"));
+
+        when(accountClient.getAccount("ACC123")).thenReturn(mockAccount);
+        when(accountClient.getAccount("ACC999")).thenReturn(new AccountDTO());
+        when(transferSagaService.execute(request, null)).thenReturn(saga(SagaState.COMPENSATED));
+
+        assertThrows(TransferFailedException.class, () -> transactionService.transfer(request));
+        // The saga already recorded the FAILED transaction
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void testTransfer_UnfinishedSagaIsAccepted() {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccount("ACC123");
+        request.setDestinationAccount("ACC999");
+        request.setAmount(Money.of("100.0"));
+
+        when(accountClient.getAccount("ACC123")).thenReturn(mockAccount);
+        when(accountClient.getAccount("ACC999")).thenReturn(new AccountDTO());
+        when(transferSagaService.execute(request, null)).thenReturn(saga(SagaState.DEBITED));
+
+        assertTrue(transactionService.transfer(request).startsWith("Transfer accepted"));
     }
 
     @Test
@@ -113,9 +173,63 @@ class TransactionServiceTest {
         TransferRequest request = new TransferRequest();
         request.setSourceAccount("ACC123");
         request.setDestinationAccount("ACC123"); // Same
-        request.setAmount(100.0);
+        request.setAmount(Money.of("100.0"));
 
         assertThrows(InvalidAccountException.class, () -> transactionService.transfer(request));
         verify(accountClient, never()).updateBalance(anyString(), any());
+        verify(transferSagaService, never()).execute(any(), any());
+    }
+
+    // --- 4. History Tests ---
+    @Test
+    void testGetTransactions_ReturnsCursorWhenMoreRowsExist() {
+        List<Transaction> rows = List.of(history("T3", 3), history("T2", 2), history("T1", 1));
+        when(transactionRepository.findHistory("ACC123", null, null, null, 3)).thenReturn(rows);
+
+        TransactionPage page = transactionService.getTransactions("ACC123", null, null, null, 2);
+
+        assertEquals(2, page.getTransactions().size());
+        TransactionCursor cursor = TransactionCursor.decode(page.getNextCursor());
+        assertEquals("T2", cursor.getId());
+        assertEquals(rows.get(1).getTimestamp(), cursor.getTimestamp());
+    }
+
+    @Test
+    void testGetTransactions_LastPageHasNoCursor() {
+        when(transactionRepository.findHistory(eq("ACC123"), isNull(), isNull(), any(TransactionCursor.class), eq(3)))
+                .thenReturn(List.of(history("T1", 1)));
+        String cursor = new TransactionCursor(LocalDateTime.now(), "T2").encode();
+
+        TransactionPage page = transactionService.getTransactions("ACC123", null, null, cursor, 2);
+
+        assertEquals(1, page.getTransactions().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetTransactions_RejectsBadParameters() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThrows(InvalidHistoryQueryException.class,
+                () -> transactionService.getTransactions("ACC123", null, null, null, 0));
+        assertThrows(InvalidHistoryQueryException.class,
+                () -> transactionService.getTransactions("ACC123", now, now.minusDays(1), null, 10));
+        assertThrows(InvalidHistoryQueryException.class,
+                () -> transactionService.getTransactions("ACC123", null, null, "not a cursor", 10));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private Transaction history(String id, int minute) {
+        Transaction transaction = new Transaction("TXN-" + id, Money.of("10.0"), "SUCCESS", "ACC123", "ACC999");
+        transaction.setId(id);
+        transaction.setTimestamp(LocalDateTime.of(2024, 1, 1, 0, minute));
+        return transaction;
+    }
+
+    private TransferSaga saga(SagaState state) {
+        TransferSaga saga = new TransferSaga("ACC123", "ACC999", Money.of("100.0"));
+        saga.setId("SAGA-1");
+        saga.setState(state);
+        return saga;
     }
 }
@@ -0,0 +1,189 @@
+package com.bankingsystem.service;
+
+import com.bankingsystem.client.AccountClient;
+import com.bankingsystem.dto.BalanceRequest;
+import com.bankingsystem.dto.TransferRequest;
+import com.bankingsystem.exception.InsufficientBalanceException;
+import com.bankingsystem.model.Money;
+import com.bankingsystem.model.SagaState;
+import com.bankingsystem.model.Transaction;
+import com.bankingsystem.model.TransferSaga;
+import com.bankingsystem.repository.TransactionRepository;
+import com.bankingsystem.repository.TransferSagaRepository;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferSagaServiceTest {
+
+    @Mock private TransferSagaRepository sagaRepository;
+    @Mock private TransactionRepository transactionRepository;
+    @Mock private AccountClient accountClient;
+    @Mock private NotificationPublisher notificationPublisher;
+
+    private TransferSagaService sagaService;
+
+    @BeforeEach
+    void setUp() {
+        sagaService = new TransferSagaService(sagaRepository, transactionRepository, accountClient, notificationPublisher,
+                new SnowflakeTransactionIdGenerator(1), 2, 10, 30000, 60000, false);
+        lenient().when(sagaRepository.save(any(TransferSaga.class))).thenAnswer(i -> i.getArguments()[0]);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sagaService.shutdown();
+    }
+
+    @Test
+    void testExecute_DebitsThenCreditsWithPerStepOperationIds() {
+        TransferSaga saga = sagaService.execute(request(Money.of("100.0")), null);
+
+        assertEquals(SagaState.CREDITED, saga.getState());
+        assertNull(saga.getLockedUntil());
+        verify(accountClient).debit(eq("ACC123"), argThat(r -> r.getOperationId().equals(saga.getId() + ":debit")));
+        verify(accountClient).updateBalance(eq("ACC999"), argThat(r -> r.getOperationId().equals(saga.getId() + ":credit")));
+        verify(transactionRepository).save(argThat(t -> t.getStatus().equals("SUCCESS") && t.getId().equals(saga.getId())));
+        verify(notificationPublisher).publish(anyString());
+    }
+
+    @Test
+    void testExecute_RejectedDebitFailsWithoutMovingMoney() {
+        when(accountClient.debit(eq("ACC123"), any())).thenThrow(new InsufficientBalanceException("Insufficient funds."));
+
+        TransferSaga saga = sagaService.execute(request(Money.of("5000.0")), null);
+
+        assertEquals(SagaState.FAILED, saga.getState());
+        verify(accountClient, never()).updateBalance(anyString(), any());
+        verify(transactionRepository).save(argThat(t -> t.getStatus().equals("FAILED")));
+    }
+
+    @Test
+    void testExecute_RejectedCreditIsCompensated() {
+        doThrow(feignException(409)).when(accountClient).updateBalance(eq("ACC999"), any(BalanceRequest.class));
+
+        TransferSaga saga = sagaService.execute(request(Money.of("100.0")), null);
+
+        assertEquals(SagaState.COMPENSATED, saga.getState());
+        verify(accountClient).updateBalance(eq("ACC123"), argThat(r -> r.getOperationId().equals(saga.getId() + ":compensate")
+                && r.getAmount().equals(Money.of("100.0"))));
+        verify(transactionRepository).save(argThat(t -> t.getStatus().equals("FAILED")));
+        verify(notificationPublisher, never()).publish(anyString());
+    }
+
+    @Test
+    void testExecute_TransientFailureIsLeftForRecovery() {
+        doThrow(new RetryableException(-1, "Connection refused", Request.HttpMethod.PUT, (Long) null, request()))
+                .when(accountClient).updateBalance(eq("ACC999"), any(BalanceRequest.class));
+
+        TransferSaga saga = sagaService.execute(request(Money.of("100.0")), null);
+
+        assertEquals(SagaState.DEBITED, saga.getState());
+        assertEquals(1, saga.getAttempts());
+        assertNull(saga.getLockedUntil());
+        assertTrue(saga.getNextAttemptAt().isAfter(Instant.now()));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void testExecute_RetryUnderTheSameOperationIdContinuesItsSaga() {
+        Map<String, TransferSaga> stored = storeSagasInMemory();
+        doThrow(new RetryableException(-1, "Read timed out", Request.HttpMethod.PUT, (Long) null, request()))
+                .doNothing()
+                .when(accountClient).updateBalance(eq("ACC999"), any(BalanceRequest.class));
+
+        TransferSaga first = sagaService.execute(request(Money.of("100.0")), "op-1");
+        assertEquals("op-1", first.getId());
+        assertEquals(SagaState.DEBITED, first.getState());
+
+        TransferSaga retry = sagaService.execute(request(Money.of("100.0")), "op-1");
+
+        assertEquals("op-1", retry.getId());
+        assertEquals(SagaState.CREDITED, retry.getState());
+        assertEquals(1, stored.size());
+        verify(accountClient).debit(eq("ACC123"), argThat(r -> r.getOperationId().equals("op-1:debit")));
+        verify(accountClient, times(2)).updateBalance(eq("ACC999"), argThat(r -> r.getOperationId().equals("op-1:credit")));
+    }
+
+    @Test
+    void testExecute_RetryLeavesASagaAnotherWorkerIsDrivingAlone() {
+        Map<String, TransferSaga> stored = storeSagasInMemory();
+        TransferSaga running = new TransferSaga("ACC123", "ACC999", Money.of("100.0"));
+        running.setId("op-2");
+        running.setState(SagaState.DEBITED);
+        running.setLockedUntil(Instant.now().plusSeconds(30));
+        stored.put("op-2", running);
+
+        TransferSaga retry = sagaService.execute(request(Money.of("100.0")), "op-2");
+
+        assertSame(running, retry);
+        verifyNoInteractions(accountClient);
+    }
+
+    @Test
+    void testRecoverDueSagas_ResumesFromThePersistedStep() throws Exception {
+        TransferSaga debited = new TransferSaga("ACC123", "ACC999", Money.of("100.0"));
+        debited.setId("SAGA-1");
+        debited.setState(SagaState.DEBITED);
+        when(sagaRepository.claimNextDue(any(), any())).thenReturn(debited).thenReturn(null);
+
+        sagaService.recoverDueSagas();
+
+        verify(transactionRepository, timeout(5000)).save(argThat(t -> t.getStatus().equals("SUCCESS")));
+        verify(accountClient, never()).debit(anyString(), any());
+        verify(accountClient).updateBalance(eq("ACC999"), argThat(r -> r.getOperationId().equals("SAGA-1:credit")));
+    }
+
+    private TransferRequest request(Money amount) {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccount("ACC123");
+        request.setDestinationAccount("ACC999");
+        request.setAmount(amount);
+        return request;
+    }
+
+    private Request request() {
+        return Request.create(Request.HttpMethod.PUT, "/api/accounts/ACC999/balance",
+                Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+    }
+
+    /** Backs the saga repository with a map, so a retry finds what the earlier attempt saved. */
+    private Map<String, TransferSaga> storeSagasInMemory() {
+        Map<String, TransferSaga> stored = new HashMap<>();
+        lenient().when(sagaRepository.save(any(TransferSaga.class))).thenAnswer(i -> {
+            TransferSaga saga = i.getArgument(0);
+            stored.put(saga.getId(), saga);
+            return saga;
+        });
+        when(sagaRepository.findById(anyString())).thenAnswer(i -> Optional.ofNullable(stored.get(i.<String>getArgument(0))));
+        return stored;
+    }
+
+    private FeignException feignException(int status) {
+        return FeignException.errorStatus("AccountClient#updateBalance", feign.Response.builder()
+                .status(status)
+                .request(request())
+                .headers(Collections.emptyMap())
+                .body("{\"message\":\"Account is INACTIVE. Cannot process transaction.\"}", StandardCharsets.UTF_8)
+                .build());
+    }
+}